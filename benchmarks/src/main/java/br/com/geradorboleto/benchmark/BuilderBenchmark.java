@@ -0,0 +1,48 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.builder.ModeloEmissao;
+import br.com.geradorboleto.lote.EntradaBoleto;
+import br.com.geradorboleto.model.Boleto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// build() completo de cada banco (via EntradaBoleto.construir, o mesmo caminho usado pelo gerador em lote)
+// versus emissão a partir de um ModeloEmissao já pronto (só os dados do título no caminho quente).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BuilderBenchmark {
+
+    @Param({"001", "341", "237", "104", "033", "756", "748"})
+    public String codigoBanco;
+
+    private EntradaBoleto entrada;
+    private ModeloEmissao modelo;
+
+    @Setup
+    public void preparar() {
+        entrada = DadosBenchmark.entrada(codigoBanco, 1);
+        entrada.construir(); // Falha já no setup se a massa for inválida
+        modelo = ModeloEmissao.criar(codigoBanco, entrada.getBeneficiario(), entrada.getAgencia(),
+                entrada.getContaCorrente(), entrada.getCarteira(), entrada.getConvenio());
+    }
+
+    @Benchmark
+    public Boleto build() {
+        return entrada.construir();
+    }
+
+    @Benchmark
+    public Boleto emitirComModelo() {
+        return modelo.emitir(entrada.getSacado(), entrada.getValor(), entrada.getDataVencimento(), entrada.getDataDocumento(),
+                entrada.getNumeroDocumento(), entrada.getNossoNumero(), entrada.getInstrucoes());
+    }
+}
@@ -0,0 +1,216 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.lote.EntradaJson;
+import br.com.geradorboleto.pdf.CachePDF;
+import br.com.geradorboleto.servidor.ServidorBoletos;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Teste de carga do ServidorBoletos em localhost (não é JMH: mede o serviço de ponta a ponta, com rede).
+// Cada conexão roda numa thread virtual e envia as requisições em rajadas de 'pipeline' sem esperar as respostas
+// (HTTP/1.1 pipelining), depois lê as respostas na ordem. Sem --porta, sobe um servidor no próprio processo.
+//
+// Uso: java -cp target/benchmarks.jar br.com.geradorboleto.benchmark.CargaServidor
+//          [--porta 8080] [--conexoes 64] [--requisicoes 200] [--pipeline 4] [--formato pdf|json] [--pdfs 8] [--cache 64]
+// (--requisicoes é por conexão; --pdfs e --cache, em MB de CachePDF em memória, só valem para o servidor no próprio
+// processo. Os pedidos se repetem a cada 1024, então com cache a maior parte vira acerto.)
+public class CargaServidor {
+
+    private static final String[] BANCOS = {"001", "341", "237", "104", "033", "756", "748"};
+    private static final int VARIACOES = 1024;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = opcoes(args);
+        int conexoes = Integer.parseInt(opcoes.getOrDefault("conexoes", "64"));
+        int requisicoes = Integer.parseInt(opcoes.getOrDefault("requisicoes", "200"));
+        int pipeline = Integer.parseInt(opcoes.getOrDefault("pipeline", "4"));
+        String formato = opcoes.getOrDefault("formato", "pdf");
+        int pdfs = Integer.parseInt(opcoes.getOrDefault("pdfs", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        ServidorBoletos local = null;
+        int porta;
+        if (opcoes.containsKey("porta")) {
+            porta = Integer.parseInt(opcoes.get("porta"));
+        } else {
+            CachePDF cache = opcoes.containsKey("cache") ? new CachePDF(Long.parseLong(opcoes.get("cache")) * 1024 * 1024) : null;
+            local = new ServidorBoletos(new InetSocketAddress("127.0.0.1", 0), pdfs, ServidorBoletos.ESPERA_PDF_PADRAO, cache);
+            local.iniciar();
+            porta = local.getPorta();
+        }
+        byte[][] pedidos = pedidos(formato);
+
+        try {
+            aquecer(porta, pedidos, Math.min(conexoes, 8), pipeline);
+            System.out.printf("Carga: %d conexões x %d requisições, pipeline %d, formato %s, porta %d%n",
+                    conexoes, requisicoes, pipeline, formato, porta);
+            Resultado r = executar(porta, pedidos, conexoes, requisicoes, pipeline);
+            r.imprimir();
+            if (local != null) {
+                System.out.printf("Servidor: %d PDFs, %d JSONs, %d recusadas (503), máximo de %d PDFs simultâneos%n",
+                        local.getPdfsGerados(), local.getJsonsGerados(), local.getRecusadas(), local.getMaximoPdfs());
+            }
+        } finally {
+            if (local != null) local.close();
+        }
+    }
+
+    // Rodada curta para o JIT compilar o caminho do servidor antes da medição
+    private static void aquecer(int porta, byte[][] pedidos, int conexoes, int pipeline) throws Exception {
+        executar(porta, pedidos, conexoes, 100, pipeline);
+    }
+
+    static Resultado executar(int porta, byte[][] pedidos, int conexoes, int requisicoes, int pipeline) throws Exception {
+        long inicio = System.nanoTime();
+        List<Future<long[]>> tarefas = new ArrayList<>(conexoes);
+        List<Map<Integer, Long>> statusPorConexao = new ArrayList<>(conexoes);
+        long[] bytes = new long[conexoes];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < conexoes; c++) {
+                int conexao = c;
+                Map<Integer, Long> status = new TreeMap<>();
+                statusPorConexao.add(status);
+                tarefas.add(executor.submit(() -> conexao(porta, pedidos, conexao, requisicoes, pipeline, status, bytes)));
+            }
+        }
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        long[] latencias = new long[conexoes * requisicoes];
+        int n = 0;
+        for (Future<long[]> f : tarefas) {
+            long[] l = f.get();
+            System.arraycopy(l, 0, latencias, n, l.length);
+            n += l.length;
+        }
+        Map<Integer, Long> status = new TreeMap<>();
+        for (Map<Integer, Long> s : statusPorConexao) {
+            s.forEach((k, v) -> status.merge(k, v, Long::sum));
+        }
+        return new Resultado(Arrays.copyOf(latencias, n), status, Arrays.stream(bytes).sum(), duracao);
+    }
+
+    // Uma conexão: rajadas de 'pipeline' pedidos seguidas da leitura das respostas; retorna a latência de cada pedido
+    private static long[] conexao(int porta, byte[][] pedidos, int conexao, int requisicoes, int pipeline,
+                                  Map<Integer, Long> status, long[] bytes) throws IOException {
+        long[] latencias = new long[requisicoes];
+        long[] enviado = new long[pipeline];
+        try (Socket socket = new Socket("127.0.0.1", porta)) {
+            socket.setTcpNoDelay(true);
+            OutputStream saida = socket.getOutputStream();
+            InputStream entrada = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            int feitas = 0;
+            while (feitas < requisicoes) {
+                int rajada = Math.min(pipeline, requisicoes - feitas);
+                for (int i = 0; i < rajada; i++) {
+                    enviado[i] = System.nanoTime();
+                    saida.write(pedidos[(conexao * requisicoes + feitas + i) % pedidos.length]);
+                }
+                saida.flush();
+                for (int i = 0; i < rajada; i++) {
+                    long[] resposta = lerResposta(entrada);
+                    latencias[feitas + i] = System.nanoTime() - enviado[i];
+                    status.merge((int) resposta[0], 1L, Long::sum);
+                    bytes[conexao] += resposta[1];
+                }
+                feitas += rajada;
+            }
+        }
+        return latencias;
+    }
+
+    // Pedidos HTTP completos (cabeçalho + corpo), variando banco, valor e nosso número
+    private static byte[][] pedidos(String formato) {
+        byte[][] pedidos = new byte[VARIACOES][];
+        for (int i = 0; i < VARIACOES; i++) {
+            byte[] corpo = EntradaJson.escrever(DadosBenchmark.entrada(BANCOS[i % BANCOS.length], i)).getBytes(StandardCharsets.UTF_8);
+            byte[] cabecalho = ("POST /boletos?formato=" + formato + " HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Type: application/json\r\nContent-Length: " + corpo.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            pedidos[i] = Arrays.copyOf(cabecalho, cabecalho.length + corpo.length);
+            System.arraycopy(corpo, 0, pedidos[i], cabecalho.length, corpo.length);
+        }
+        return pedidos;
+    }
+
+    // Lê uma resposta com Content-Length; retorna {status, bytes do corpo}
+    private static long[] lerResposta(InputStream entrada) throws IOException {
+        String linhaStatus = lerLinha(entrada);
+        if (linhaStatus == null || !linhaStatus.startsWith("HTTP/1.1 ")) {
+            throw new IOException("Resposta HTTP inválida: " + linhaStatus);
+        }
+        int status = Integer.parseInt(linhaStatus.substring(9, 12));
+        long tamanho = 0;
+        String linha;
+        while ((linha = lerLinha(entrada)) != null && !linha.isEmpty()) {
+            int doisPontos = linha.indexOf(':');
+            if (doisPontos > 0 && linha.substring(0, doisPontos).equalsIgnoreCase("Content-Length")) {
+                tamanho = Long.parseLong(linha.substring(doisPontos + 1).trim());
+            }
+        }
+        long restante = tamanho;
+        while (restante > 0) {
+            long pulados = entrada.skip(restante);
+            if (pulados <= 0) {
+                if (entrada.read() < 0) throw new IOException("Conexão fechada no meio da resposta.");
+                pulados = 1;
+            }
+            restante -= pulados;
+        }
+        return new long[]{status, tamanho};
+    }
+
+    private static String lerLinha(InputStream entrada) throws IOException {
+        StringBuilder sb = new StringBuilder(64);
+        int b;
+        while ((b = entrada.read()) >= 0) {
+            if (b == '\n') {
+                int fim = sb.length();
+                return fim > 0 && sb.charAt(fim - 1) == '\r' ? sb.substring(0, fim - 1) : sb.toString();
+            }
+            sb.append((char) b);
+        }
+        return sb.isEmpty() ? null : sb.toString();
+    }
+
+    private static Map<String, String> opcoes(String[] args) {
+        Map<String, String> opcoes = new TreeMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Opção inválida: " + args[i] + " (use --nome valor)");
+            }
+            opcoes.put(args[i].substring(2), args[++i]);
+        }
+        return opcoes;
+    }
+
+    record Resultado(long[] latencias, Map<Integer, Long> status, long bytes, Duration duracao) {
+
+        void imprimir() {
+            long[] l = latencias.clone();
+            Arrays.sort(l);
+            double segundos = duracao.toNanos() / 1e9;
+            System.out.printf("%d requisições em %.2f s: %.0f req/s, %.1f MB/s recebidos%n",
+                    l.length, segundos, l.length / segundos, bytes / segundos / (1024 * 1024));
+            System.out.printf("Latência (ms): p50 %.2f | p90 %.2f | p99 %.2f | máx %.2f%n",
+                    percentil(l, 0.50), percentil(l, 0.90), percentil(l, 0.99), l.length > 0 ? l[l.length - 1] / 1e6 : 0);
+            System.out.println("Status: " + status);
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) return 0;
+            return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+        }
+    }
+}
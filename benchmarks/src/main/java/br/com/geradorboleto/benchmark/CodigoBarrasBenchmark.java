@@ -0,0 +1,63 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.calculos.CalculosBoletoUtils;
+import br.com.geradorboleto.calculos.FatorVencimento;
+import br.com.geradorboleto.calculos.MontadorCodigoBarras;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Montagem de código de barras (44) e linha digitável (47): API String do CalculosBoletoUtils
+// versus MontadorCodigoBarras reutilizável (buffers internos, valor em centavos).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CodigoBarrasBenchmark {
+
+    private static final String BANCO = "341";
+    private static final String CAMPO_LIVRE = "1091234567815678123450000";
+
+    private final MontadorCodigoBarras montador = new MontadorCodigoBarras();
+    private String fator;
+    private BigDecimal valor;
+    private String codigoBarras;
+
+    @Setup
+    public void preparar() {
+        fator = FatorVencimento.calcular(DadosBenchmark.DATA_VENCIMENTO);
+        valor = new BigDecimal("1234.56");
+        codigoBarras = CalculosBoletoUtils.montarCodigoBarras(BANCO, fator,
+                CalculosBoletoUtils.formatarValorParaCodigoBarras(valor), CAMPO_LIVRE);
+    }
+
+    @Benchmark
+    public String fatorVencimento() {
+        return FatorVencimento.calcular(DadosBenchmark.DATA_VENCIMENTO);
+    }
+
+    @Benchmark
+    public String codigoBarrasString() {
+        return CalculosBoletoUtils.montarCodigoBarras(BANCO, fator,
+                CalculosBoletoUtils.formatarValorParaCodigoBarras(valor), CAMPO_LIVRE);
+    }
+
+    @Benchmark
+    public String linhaDigitavelString() {
+        return CalculosBoletoUtils.montarLinhaDigitavel(codigoBarras);
+    }
+
+    @Benchmark
+    public void montadorCentavos(Blackhole bh) {
+        montador.montar(BANCO, fator, 123456L, CAMPO_LIVRE);
+        bh.consume(montador.getCodigoBarrasChars());
+        bh.consume(montador.getLinhaDigitavelChars());
+    }
+}
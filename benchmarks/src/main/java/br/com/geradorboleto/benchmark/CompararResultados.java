@@ -0,0 +1,136 @@
+package br.com.geradorboleto.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compara dois resultados JMH em CSV (baseline x atual), benchmark a benchmark (incluindo @Param): o score
+// principal (tempo ou vazão) e a métrica gc.alloc.rate.norm (bytes por operação). As demais métricas secundárias
+// do GCProfiler (gc.alloc.rate, gc.count, gc.time) sobem junto com a vazão e não são comparadas. Uma diferença só
+// conta como regressão se passar da tolerância relativa E da soma dos erros informados pelo JMH; linhas sem erro
+// (NaN, ex: uma única amostra) são ignoradas.
+//
+// Uso isolado: java -cp target/benchmarks.jar br.com.geradorboleto.benchmark.CompararResultados baseline.csv atual.csv [tolerancia]
+public class CompararResultados {
+
+    public static final double TOLERANCIA_PADRAO = 0.10; // 10%
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararResultados <baseline.csv> <atual.csv> [tolerancia, ex: 0.10]");
+            System.exit(2);
+        }
+        double tolerancia = args.length > 2 ? Double.parseDouble(args[2]) : TOLERANCIA_PADRAO;
+        int regressoes = comparar(Path.of(args[0]), Path.of(args[1]), tolerancia);
+        System.exit(regressoes > 0 ? 1 : 0);
+    }
+
+    /**
+     * Imprime a comparação e retorna a quantidade de regressões.
+     * @param tolerancia Piora relativa aceita (0.10 = 10%).
+     */
+    public static int comparar(Path baseline, Path atual, double tolerancia) throws IOException {
+        Map<String, Linha> antes = ler(baseline);
+        Map<String, Linha> depois = ler(atual);
+        int regressoes = 0;
+        for (Map.Entry<String, Linha> e : depois.entrySet()) {
+            Linha nova = e.getValue();
+            Linha velha = antes.get(e.getKey());
+            if (velha == null) {
+                System.out.printf("  novo     %-70s %12.3f %s%n", e.getKey(), nova.score, nova.unidade);
+                continue;
+            }
+            if (Double.isNaN(velha.erro) || Double.isNaN(nova.erro)) {
+                System.out.printf("  ignorado %-70s (sem margem de erro)%n", e.getKey());
+                continue;
+            }
+            if (!velha.unidade.equals(nova.unidade)) {
+                System.out.println("AVISO: unidades diferentes para " + e.getKey() + " (" + velha.unidade + " x " + nova.unidade + "), ignorado.");
+                continue;
+            }
+            // Vazão: maior é melhor. Tempo e bytes por operação: menor é melhor.
+            boolean maiorMelhor = nova.unidade.startsWith("ops/");
+            double piora = maiorMelhor ? velha.score - nova.score : nova.score - velha.score;
+            double relativa = velha.score != 0 ? piora / Math.abs(velha.score) : (piora > 0 ? Double.POSITIVE_INFINITY : 0);
+            boolean regrediu = relativa > tolerancia && piora > velha.erro + nova.erro;
+            if (regrediu) regressoes++;
+            System.out.printf("  %-8s %-70s %12.3f -> %12.3f %s (%+.1f%%)%n", regrediu ? "PIOROU" : "ok",
+                    e.getKey(), velha.score, nova.score, nova.unidade, -relativa * 100);
+        }
+        return regressoes;
+    }
+
+    private record Linha(double score, double erro, String unidade) {}
+
+    // Métrica secundária comparada; o JMH antigo prefixa as do profiler com '·' (ex: "build:·gc.alloc.rate.norm")
+    private static final String ALOCACAO_POR_OPERACAO = "gc.alloc.rate.norm";
+
+    // Chave = nome do benchmark + parâmetros (ex: "...BuilderBenchmark.build[codigoBanco=341]")
+    private static Map<String, Linha> ler(Path arquivo) throws IOException {
+        List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+        if (linhas.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo de resultados vazio: " + arquivo);
+        }
+        List<String> cabecalho = campos(linhas.get(0));
+        int iNome = cabecalho.indexOf("Benchmark");
+        int iScore = cabecalho.indexOf("Score");
+        int iErro = cabecalho.indexOf("Score Error (99.9%)");
+        int iUnidade = cabecalho.indexOf("Unit");
+        if (iNome < 0 || iScore < 0 || iErro < 0 || iUnidade < 0) {
+            throw new IllegalArgumentException("Não parece um CSV do JMH: " + arquivo);
+        }
+        Map<String, Linha> resultado = new LinkedHashMap<>();
+        for (String texto : linhas.subList(1, linhas.size())) {
+            if (texto.isBlank()) continue;
+            List<String> c = campos(texto);
+            String nome = c.get(iNome);
+            if (nome.indexOf(':') >= 0 && !nome.endsWith(ALOCACAO_POR_OPERACAO)) continue; // Outras métricas secundárias
+            StringBuilder chave = new StringBuilder(nome);
+            String separador = "[";
+            for (int i = 0; i < cabecalho.size(); i++) {
+                if (cabecalho.get(i).startsWith("Param: ") && i < c.size() && !c.get(i).isEmpty()) {
+                    chave.append(separador).append(cabecalho.get(i).substring(7)).append('=').append(c.get(i));
+                    separador = ",";
+                }
+            }
+            if (!separador.equals("[")) chave.append(']');
+            resultado.put(chave.toString(), new Linha(numero(c.get(iScore)), numero(c.get(iErro)), c.get(iUnidade)));
+        }
+        return resultado;
+    }
+
+    private static double numero(String texto) {
+        if (texto.isEmpty() || texto.equals("NaN")) return Double.NaN;
+        return Double.parseDouble(texto);
+    }
+
+    // Divide uma linha CSV respeitando aspas (formato gerado pelo JMH)
+    private static List<String> campos(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char ch = linha.charAt(i);
+            if (ch == '"') {
+                if (entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    entreAspas = !entreAspas;
+                }
+            } else if (ch == ',' && !entreAspas) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(ch);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+}
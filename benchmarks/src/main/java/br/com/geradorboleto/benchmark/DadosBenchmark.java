@@ -0,0 +1,98 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.lote.EntradaBoleto;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+// Massa de dados fixa (semente constante) usada por todos os benchmarks, para que rodadas diferentes
+// meçam exatamente o mesmo trabalho.
+final class DadosBenchmark {
+
+    static final long SEMENTE = 20250222L;
+
+    // Datas fixas dentro da janela pré-calculada do FatorVencimento
+    static final LocalDate DATA_DOCUMENTO = LocalDate.of(2026, 11, 1);
+    static final LocalDate DATA_VENCIMENTO = LocalDate.of(2026, 12, 15);
+
+    private static final Pessoa SACADO = new Pessoa("Cliente Exemplo Ltda", "12.345.678/0001-99",
+            new Endereco("Rua Exemplo, 123", "Centro", "12345-678", "Cidade Exemplo", "SP"));
+    private static final Pessoa BENEFICIARIO = new Pessoa("Empresa Beneficiária S.A.", "98.765.432/0001-11",
+            new Endereco("Av. Principal, 1000", "Bairro Comercial", "87654-321", "Outra Cidade", "RJ"));
+
+    private DadosBenchmark() {}
+
+    /**
+     * Entrada válida para o banco informado (bancos do CatalogoBancos), com valor e nosso número variando pelo índice.
+     */
+    static EntradaBoleto entrada(String codigoBanco, int indice) {
+        EntradaBoleto e = new EntradaBoleto();
+        e.setIdentificador(codigoBanco + "-" + indice);
+        e.setCodigoBanco(codigoBanco);
+        e.setSacado(SACADO);
+        e.setBeneficiario(BENEFICIARIO);
+        e.setDataVencimento(DATA_VENCIMENTO.plusDays(indice % 90));
+        e.setDataDocumento(DATA_DOCUMENTO);
+        e.setValor(BigDecimal.valueOf(15075 + indice * 37L, 2));
+        e.setNumeroDocumento("DOC-" + indice);
+        e.setInstrucoes("Não receber após o vencimento.\nMulta de 2% após o vencimento.");
+        switch (codigoBanco) {
+            case "001" -> {
+                e.setAgencia("1234");
+                e.setContaCorrente("98765-4");
+                e.setCarteira("17");
+                e.setConvenio("1234567");
+                e.setNossoNumero(String.valueOf(indice));
+            }
+            case "341" -> {
+                e.setAgencia("5678");
+                e.setContaCorrente("12345-6");
+                e.setCarteira("109");
+                e.setNossoNumero(String.valueOf(12345678 + indice % 80000000));
+            }
+            case "237" -> {
+                e.setAgencia("9876");
+                e.setContaCorrente("1234567");
+                e.setCarteira("09");
+                e.setNossoNumero(String.valueOf(11223344556L + indice));
+            }
+            case "104" -> {
+                e.setAgencia("1234");
+                e.setCarteira("RG");
+                e.setConvenio("123456");
+                e.setNossoNumero(String.valueOf(100000000L + indice));
+            }
+            case "033" -> {
+                e.setAgencia("4567");
+                e.setCarteira("101");
+                e.setConvenio("1234567");
+                e.setNossoNumero(String.valueOf(1000000L + indice));
+            }
+            case "756" -> {
+                e.setAgencia("4327");
+                e.setCarteira("1");
+                e.setConvenio("229385");
+                e.setNossoNumero(String.valueOf(1 + indice % 9999999));
+            }
+            case "748" -> {
+                e.setAgencia("010203");
+                e.setConvenio("12345");
+                e.setNossoNumero(String.valueOf(26200000 + indice % 100000));
+            }
+            default -> throw new IllegalArgumentException("Banco sem massa de benchmark: " + codigoBanco);
+        }
+        return e;
+    }
+
+    // Número aleatório com 'tamanho' dígitos, em ASCII
+    static byte[] digitos(Random random, int tamanho) {
+        byte[] d = new byte[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            d[i] = (byte) ('0' + random.nextInt(10));
+        }
+        return d;
+    }
+}
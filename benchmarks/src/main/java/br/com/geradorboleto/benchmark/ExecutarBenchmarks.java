@@ -0,0 +1,64 @@
+package br.com.geradorboleto.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Ponto de entrada do benchmarks.jar: roda os benchmarks com o profiler de alocação (GCProfiler),
+// grava o resultado em CSV em resultados/ e, se informado um baseline, compara e falha em caso de regressão.
+//
+// Uso: java -jar target/benchmarks.jar [regex] [--baseline resultados/baseline.csv] [--rapido]
+public class ExecutarBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String filtro = ".*br\\.com\\.geradorboleto\\.benchmark\\..*";
+        Path baseline = null;
+        boolean rapido = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baseline" -> baseline = Path.of(args[++i]);
+                case "--rapido" -> rapido = true;
+                default -> filtro = args[i];
+            }
+        }
+
+        Path diretorio = Path.of("resultados");
+        Files.createDirectories(diretorio);
+        Path saida = diretorio.resolve("resultado-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv");
+
+        ChainedOptionsBuilder opcoes = new OptionsBuilder()
+                .include(filtro)
+                .addProfiler(GCProfiler.class) // gc.alloc.rate.norm = bytes alocados por operação
+                .resultFormat(ResultFormatType.CSV)
+                .result(saida.toString());
+        if (rapido) {
+            // Só para conferir que tudo roda; os números não servem como baseline
+            opcoes.forks(1).warmupIterations(1).warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(2).measurementTime(TimeValue.seconds(1));
+        } else {
+            opcoes.forks(2).warmupIterations(5).warmupTime(TimeValue.seconds(2))
+                    .measurementIterations(5).measurementTime(TimeValue.seconds(2));
+        }
+        new Runner(opcoes.build()).run();
+        System.out.println("INFO: Resultados gravados em " + saida.toAbsolutePath());
+
+        if (baseline != null) {
+            int regressoes = CompararResultados.comparar(baseline, saida, CompararResultados.TOLERANCIA_PADRAO);
+            if (regressoes > 0) {
+                System.err.println("ERRO: " + regressoes + " benchmark(s) com regressão em relação a " + baseline);
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.indice.IndiceBoletos;
+import br.com.geradorboleto.model.Boleto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Buscas no índice off-heap de boletos emitidos (por código de barras, linha digitável e nosso número),
+// com 1 milhão de títulos indexados. As chaves procuradas giram entre boletos reais dos 7 bancos do catálogo.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class IndiceBenchmark {
+
+    private static final int TITULOS = 1_000_000;
+    private static final int CHAVES = 1024;
+    private static final String[] BANCOS = {"001", "341", "237", "104", "033", "756", "748"};
+
+    private IndiceBoletos indice;
+    private String[] codigosBarras;
+    private String[] linhas;
+    private String[] bancos;
+    private String[] nossosNumeros;
+    private int proxima;
+
+    @Setup
+    public void preparar() {
+        codigosBarras = new String[CHAVES];
+        linhas = new String[CHAVES];
+        bancos = new String[CHAVES];
+        nossosNumeros = new String[CHAVES];
+        indice = new IndiceBoletos(TITULOS + CHAVES);
+        for (int i = 0; i < CHAVES; i++) {
+            Boleto boleto = DadosBenchmark.entrada(BANCOS[i % BANCOS.length], i).construir();
+            codigosBarras[i] = boleto.getCodigoBarras();
+            linhas[i] = boleto.getLinhaDigitavel();
+            bancos[i] = boleto.getBanco().getCodigoBanco();
+            nossosNumeros[i] = boleto.getNossoNumero();
+            indice.adicionar(boleto, i);
+        }
+        // Volume sintético: códigos de barras e nossos números distintos, sem montar boletos
+        StringBuilder cb = new StringBuilder(44);
+        for (int i = 0; i < TITULOS; i++) {
+            cb.setLength(0);
+            cb.append("9999").append(String.format("%040d", i));
+            indice.adicionar(cb, "S" + i, CHAVES + i);
+        }
+    }
+
+    private int proxima() {
+        return proxima = (proxima + 1) & (CHAVES - 1);
+    }
+
+    @Benchmark
+    public long procurarPorCodigoBarras() {
+        return indice.procurarPorCodigoBarras(codigosBarras[proxima()]);
+    }
+
+    @Benchmark
+    public long procurarPorLinhaDigitavel() {
+        return indice.procurarPorLinhaDigitavel(linhas[proxima()]);
+    }
+
+    @Benchmark
+    public long procurarPorNossoNumero() {
+        int i = proxima();
+        return indice.procurarPorNossoNumero(bancos[i], nossosNumeros[i]);
+    }
+}
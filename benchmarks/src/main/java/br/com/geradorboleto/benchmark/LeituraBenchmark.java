@@ -0,0 +1,63 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.leitura.LeitorLinhaDigitavel;
+import br.com.geradorboleto.leitura.LinhaDigitavelDecodificada;
+import br.com.geradorboleto.model.Boleto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Leitura de linhas digitáveis: uma linha formatada (ler) e validação em lote de linhas compactadas (byte[])
+// e em texto (CharSequence[]). Linhas dos 7 bancos do catálogo, todas válidas.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class LeituraBenchmark {
+
+    static final int LOTE = 1024;
+    private static final String[] BANCOS = {"001", "341", "237", "104", "033", "756", "748"};
+
+    private String linhaFormatada;
+    private String[] linhas;
+    private byte[] linhasCompactadas;
+    private byte[] resultados;
+
+    @Setup
+    public void preparar() {
+        linhas = new String[LOTE];
+        linhasCompactadas = new byte[LOTE * 47];
+        for (int i = 0; i < LOTE; i++) {
+            Boleto boleto = DadosBenchmark.entrada(BANCOS[i % BANCOS.length], i).construir();
+            linhas[i] = boleto.getLinhaDigitavel();
+            System.arraycopy(linhas[i].getBytes(StandardCharsets.US_ASCII), 0, linhasCompactadas, i * 47, 47);
+        }
+        linhaFormatada = new Boleto().formatarLinhaDigitavel(linhas[0]);
+        resultados = new byte[LOTE];
+    }
+
+    @Benchmark
+    public LinhaDigitavelDecodificada lerFormatada() {
+        return LeitorLinhaDigitavel.ler(linhaFormatada);
+    }
+
+    // Resultado por linha (não por lote)
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int validarEmLoteBytes() {
+        return LeitorLinhaDigitavel.validarEmLote(linhasCompactadas, 0, LOTE, resultados);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int validarEmLoteTexto() {
+        return LeitorLinhaDigitavel.validarEmLote(linhas, resultados);
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.lote.BoletoBatchGenerator;
+import br.com.geradorboleto.lote.EntradaBoleto;
+import br.com.geradorboleto.lote.ResumoLote;
+import br.com.geradorboleto.pdf.BoletoPDFExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Vazão do gerador em lote (build + PDF em memória) com diferentes níveis de paralelismo.
+// Uma invocação = um lote de TAMANHO_LOTE boletos; o score é por boleto.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LoteBenchmark {
+
+    static final int TAMANHO_LOTE = 500;
+
+    @Param({"1", "2", "4", "8"})
+    public int paralelismo;
+
+    private List<EntradaBoleto> entradas;
+    private BoletoBatchGenerator gerador;
+
+    @Setup
+    public void preparar() {
+        String[] bancos = {"341", "237"};
+        entradas = IntStream.range(0, TAMANHO_LOTE)
+                .mapToObj(i -> DadosBenchmark.entrada(bancos[i % bancos.length], i))
+                .toList();
+        gerador = new BoletoBatchGenerator(paralelismo);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public ResumoLote gerarPdfsEmMemoria() {
+        ResumoLote resumo = gerador.gerar(entradas.stream(),
+                (indice, entrada, boleto) -> BoletoPDFExporter.exportarParaBytes(boleto));
+        if (!resumo.getFalhas().isEmpty()) {
+            throw new IllegalStateException("Lote do benchmark teve falhas: " + resumo.getFalhas().get(0).getErro());
+        }
+        return resumo;
+    }
+}
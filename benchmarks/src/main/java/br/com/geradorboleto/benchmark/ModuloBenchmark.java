@@ -0,0 +1,76 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.calculos.Modulo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Kernels de dígito verificador (Módulo 10 e Módulo 11) sobre números de 43 dígitos (base do código de barras),
+// nas versões String, char[] e em lote (byte[]).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ModuloBenchmark {
+
+    static final int TAMANHO = 43;
+    static final int LOTE = 1024;
+
+    private String numero;
+    private char[] numeroChars;
+    private byte[] lote;
+    private int[] dvs;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(DadosBenchmark.SEMENTE);
+        byte[] d = DadosBenchmark.digitos(random, TAMANHO);
+        numero = new String(d, StandardCharsets.US_ASCII);
+        numeroChars = numero.toCharArray();
+        lote = DadosBenchmark.digitos(random, TAMANHO * LOTE);
+        dvs = new int[LOTE];
+    }
+
+    @Benchmark
+    public int modulo10String() {
+        return Modulo.calcularModulo10(numero);
+    }
+
+    @Benchmark
+    public int modulo10Chars() {
+        return Modulo.calcularModulo10(numeroChars, 0, TAMANHO);
+    }
+
+    @Benchmark
+    public int modulo11String() {
+        return Modulo.calcularModulo11(numero);
+    }
+
+    @Benchmark
+    public int modulo11Chars() {
+        return Modulo.calcularModulo11(numeroChars, 0, TAMANHO);
+    }
+
+    // Resultado por número (não por lote)
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int[] modulo10EmLote() {
+        Modulo.calcularModulo10EmLote(lote, 0, TAMANHO, LOTE, dvs);
+        return dvs;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int[] modulo11EmLote() {
+        Modulo.calcularModulo11EmLote(lote, 0, TAMANHO, LOTE, 9, true, dvs);
+        return dvs;
+    }
+}
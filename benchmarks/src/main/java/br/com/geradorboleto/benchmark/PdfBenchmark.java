@@ -0,0 +1,49 @@
+package br.com.geradorboleto.benchmark;
+
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.pdf.BoletoPDFExporter;
+import br.com.geradorboleto.pdf.BoletoTemplatePDFExporter;
+import br.com.geradorboleto.pdf.BufferPDF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Exportação de um boleto de uma página para memória (sem disco): layout engine versus template.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PdfBenchmark {
+
+    private Boleto boleto;
+    private final BufferPDF buffer = new BufferPDF(16 * 1024);
+
+    @Setup
+    public void preparar() {
+        boleto = DadosBenchmark.entrada("341", 1).construir();
+    }
+
+    @Benchmark
+    public int exportarLayout() throws IOException {
+        BoletoPDFExporter.exportar(boleto, buffer);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int exportarTemplate() throws IOException {
+        buffer.reset();
+        BoletoTemplatePDFExporter.exportar(boleto, buffer);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public byte[] exportarParaBytes() throws IOException {
+        return BoletoPDFExporter.exportarParaBytes(boleto);
+    }
+}
@@ -1,93 +1,184 @@
 package br.com.geradorboleto;
 
-// Imports dos Builders
-import br.com.geradorboleto.builder.BancoDoBrasilBoletoBuilder;
-import br.com.geradorboleto.builder.BoletoBuilder;
-import br.com.geradorboleto.builder.BradescoBoletoBuilder;
-import br.com.geradorboleto.builder.ItauBoletoBuilder;
+// Imports do lote
+import br.com.geradorboleto.lote.EntradaBoleto;
+import br.com.geradorboleto.lote.FalhaLote;
+import br.com.geradorboleto.lote.LeitorEntradas;
+import br.com.geradorboleto.lote.ManifestoLote;
+import br.com.geradorboleto.lote.PipelineBoletos;
+import br.com.geradorboleto.lote.ResumoPipeline;
 
 // Import do Modelo
 import br.com.geradorboleto.model.Boleto;
 
-// Import do Exportador PDF
-import br.com.geradorboleto.pdf.BoletoPDFExporter;
+// Imports dos Exportadores PDF
+import br.com.geradorboleto.pdf.DocumentoLotePDF;
+import br.com.geradorboleto.pdf.DocumentoParaleloPDF;
+import br.com.geradorboleto.pdf.ResumoDocumentoPDF;
+
+// Import do Servidor
+import br.com.geradorboleto.servidor.ServidorBoletos;
 
 // Imports Java padrão
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+// Linha de comando do gerador. As entradas vêm de arquivos CSV ou JSON Lines (ver LeitorCsvEntradas e EntradaJson),
+// lidos aos poucos, então o arquivo pode ter milhões de boletos.
 public class Main {
 
-    public static void main(String[] args) {
+    private static final String USO = String.join(System.lineSeparator(),
+            "Uso:",
+            "  gerar <entrada.csv|.jsonl> <diretorio>   Um PDF por boleto no diretório (com checkpoint em <diretorio>/.lote)",
+            "        [--pdf N] [--gravacao N] [--fila N]   threads de PDF e de gravação, capacidade das filas",
+            "        [--retomar]                           continua a execução anterior, pulando os PDFs prontos",
+            "  documento <entrada.csv|.jsonl> <arquivo.pdf>   Todos os boletos num único PDF",
+            "        [--threads N] [--fichas 1|2]            threads de desenho, boletos por página",
+            "  servidor [porta] [maxPdfs] [dirCache]     Serviço HTTP (POST /boletos)");
 
-        System.out.println("--- Gerando Boleto Banco do Brasil (Exemplo Convênio 6 / Carteira 18) ---");
-        try {
-            BoletoBuilder bbBuilder = new BancoDoBrasilBoletoBuilder();
-            // **Ajuste os dados de Agência, Conta, Carteira e Nosso Número conforme seu convênio REAL!**
-            Boleto boletoBB = bbBuilder
-                    .comSacado("Cliente Sacado Exemplo Ltda", "11.222.333/0001-44", "Rua Teste Sacado, 123", "Centro", "12345-000", "Cidade Sacado", "SP")
-                    .comBeneficiario("K19 Treinamentos (BB)", "99.999.999/0001-99", "Av. Principal Benef, 456", "Jardins", "54321-000", "Cidade Benef", "MG")
-                    .comBanco("1234", "56789012", "18") // Ag 4, Conta 8 (sem DV), Cart 2 -> Exemplo Conv 6
-                    .comDatas(LocalDate.now().plusDays(15), LocalDate.now()) // Vencimento em 15 dias
-                    .comValores(new BigDecimal("199.99"), "DOC-BB-001", "98765432101") // Valor, Num Doc, Nosso Número (11 dígitos base)
-                    .comInstrucoes("Pagável preferencialmente na rede bancária.\nApós vencimento, cobrar multa de 2% e juros de 0,033% ao dia.")
-                    .build();
-
-            System.out.println("\n--- [BOLETO BB - CONSOLE] ---");
-            System.out.println(boletoBB); // Imprime no console
-            BoletoPDFExporter.exportar(boletoBB, "boleto_bb.pdf"); // Gera PDF
-
-        } catch (Exception e) {
-            System.err.println("ERRO ao gerar boleto BB: " + e.getMessage());
-            e.printStackTrace(); // Mostra detalhes do erro no console de erro
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println(USO);
+            System.exit(2);
         }
-
-        System.out.println("\n--- Gerando Boleto Itaú (Exemplo Carteira 109) ---");
+        String comando = args[0];
+        String[] resto = Arrays.copyOfRange(args, 1, args.length);
         try {
-            BoletoBuilder itauBuilder = new ItauBoletoBuilder();
-            // **Ajuste Ag, Conta (com DV), Cart e NN**
-            Boleto boletoItau = itauBuilder
-                    .comSacado("Outro Cliente S.A.", "88.777.666/0001-55", "Av. Teste Sacado, 987", "Bairro Novo", "98765-111", "Outra Cidade", "RJ")
-                    .comBeneficiario("Empresa Beneficiária Itaú", "11.111.111/0001-11", "Rua Faria Lima, 1000", "Itaim Bibi", "04538-000", "São Paulo", "SP")
-                    .comBanco("5678", "12345-6", "109") // Ag 4, Conta 5+DV, Cart 3
-                    .comDatas(LocalDate.now().plusDays(30), LocalDate.now().minusDays(1)) // Vencimento em 30 dias
-                    .comValores(new BigDecimal("550.75"), "DOC-ITAU-XYZ", "12345678") // Valor, Num Doc, Nosso Número (8 dígitos base)
-                    .comInstrucoes("Não receber após 30 dias do vencimento.")
-                    .build();
-
-            System.out.println("\n--- [BOLETO ITAÚ - CONSOLE] ---");
-            System.out.println(boletoItau);
-            BoletoPDFExporter.exportar(boletoItau, "boleto_itau.pdf");
-
-        } catch (Exception e) {
-            System.err.println("ERRO ao gerar boleto Itaú: " + e.getMessage());
+            int codigo = switch (comando) {
+                case "gerar" -> gerar(resto);
+                case "documento" -> documento(resto);
+                case "servidor" -> {
+                    ServidorBoletos.main(resto);
+                    yield -1; // Continua rodando nas threads do servidor
+                }
+                default -> throw new IllegalArgumentException("Comando desconhecido: " + comando);
+            };
+            if (codigo >= 0) {
+                System.exit(codigo);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            System.err.println(USO);
+            System.exit(2);
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            System.err.println("ERRO: " + e.getMessage());
             e.printStackTrace();
+            System.exit(1);
         }
+    }
 
+    // Retorna 0 se todos os boletos foram gerados, 1 se houve falhas ou linhas inválidas
+    private static int gerar(String[] args) throws IOException {
+        Map<String, String> opcoes = opcoes(args, 2);
+        Path entrada = Path.of(args[0]);
+        Path diretorio = Path.of(args[1]);
+        PipelineBoletos pipeline = new PipelineBoletos(1, 1,
+                inteiro(opcoes, "pdf", Runtime.getRuntime().availableProcessors()),
+                inteiro(opcoes, "gravacao", 2),
+                inteiro(opcoes, "fila", PipelineBoletos.CAPACIDADE_FILA_PADRAO));
+
+        try (LeitorEntradas leitor = LeitorEntradas.abrir(entrada);
+             ManifestoLote manifesto = ManifestoLote.abrir(diretorio, entrada, opcoes.containsKey("retomar"))) {
+            ResumoPipeline resumo = pipeline.gerarPdfs(leitor.stream(), Function.identity(), manifesto);
+            System.out.println("INFO: " + resumo);
+            System.out.println("INFO: gargalo: " + resumo.getGargalo().getNome()
+                    + (leitor.getInvalidas() > 0 ? "; " + leitor.getInvalidas() + " linhas inválidas ignoradas" : ""));
+            for (FalhaLote falha : resumo.getLote().getFalhas()) {
+                System.err.println("ERRO: " + falha);
+            }
+            return resumo.getLote().getFalhas().isEmpty() && leitor.getInvalidas() == 0 ? 0 : 1;
+        }
+    }
+
+    private static int documento(String[] args) throws IOException {
+        Map<String, String> opcoes = opcoes(args, 2);
+        Path entrada = Path.of(args[0]);
+        Path arquivo = Path.of(args[1]);
+        int threads = inteiro(opcoes, "threads", Runtime.getRuntime().availableProcessors());
+        int fichas = inteiro(opcoes, "fichas", DocumentoLotePDF.MAXIMO_FICHAS_POR_PAGINA);
+
+        try (LeitorEntradas leitor = LeitorEntradas.abrir(entrada)) {
+            BoletosConstruidos boletos = new BoletosConstruidos(leitor);
+            ResumoDocumentoPDF resumo = threads > 1
+                    ? new DocumentoParaleloPDF(threads, DocumentoParaleloPDF.PAGINAS_POR_FRAGMENTO_PADRAO, fichas).exportar(() -> boletos, arquivo)
+                    : DocumentoLotePDF.exportar(() -> boletos, arquivo, fichas);
+            long ignorados = leitor.getInvalidas() + boletos.falhas;
+            if (ignorados > 0) {
+                System.err.println("AVISO: " + ignorados + " boletos fora do documento (" + leitor.getInvalidas()
+                        + " linhas inválidas, " + boletos.falhas + " com erro no build); " + resumo.getBoletos() + " no documento.");
+                return 1;
+            }
+            return 0;
+        }
+    }
 
-        System.out.println("\n--- Gerando Boleto Bradesco (Exemplo Carteira 09) ---");
+    // --nome valor (ou só --nome, para opções sim/não) depois dos argumentos posicionais obrigatórios
+    private static Map<String, String> opcoes(String[] args, int posicionais) {
+        if (args.length < posicionais) {
+            throw new IllegalArgumentException("Argumentos insuficientes.");
+        }
+        Map<String, String> opcoes = new TreeMap<>();
+        for (int i = posicionais; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opção inválida: " + args[i] + " (use --nome valor)");
+            }
+            boolean temValor = i + 1 < args.length && !args[i + 1].startsWith("--");
+            opcoes.put(args[i].substring(2), temValor ? args[++i] : "true");
+        }
+        return opcoes;
+    }
+
+    private static int inteiro(Map<String, String> opcoes, String nome, int padrao) {
+        String valor = opcoes.get(nome);
+        if (valor == null) {
+            return padrao;
+        }
         try {
-            BoletoBuilder bradescoBuilder = new BradescoBoletoBuilder();
-            // **Ajuste Ag, Conta, Cart e NN**
-            Boleto boletoBradesco = bradescoBuilder
-                    .comSacado("Comércio Varejista ABC", "44.555.666/0001-77", "Praça Central, 10", "Centro", "77777-000", "Cidade Bradesco", "BA")
-                    .comBeneficiario("Indústria XYZ Ltda (Bradesco)", "22.222.222/0001-22", "Rodovia Industrial, km 5", "Distrito Ind.", "88888-000", "Cidade Industrial", "PR")
-                    .comBanco("9876", "1234567", "09") // Ag 4 (s/DV), Conta 7 (s/DV), Cart 2
-                    .comDatas(LocalDate.now().plusDays(10), LocalDate.now()) // Vencimento em 10 dias
-                    .comValores(new BigDecimal("1234.56"), "DOC-BRAD-999", "11223344556") // Valor, Num Doc, Nosso Número (11 dígitos base)
-                    .comInstrucoes("Boleto referente à NF 12345.")
-                    .build();
-
-            System.out.println("\n--- [BOLETO BRADESCO - CONSOLE] ---");
-            System.out.println(boletoBradesco);
-            BoletoPDFExporter.exportar(boletoBradesco, "boleto_bradesco.pdf");
-
-        } catch (Exception e) {
-            System.err.println("ERRO ao gerar boleto Bradesco: " + e.getMessage());
-            e.printStackTrace();
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + nome + " deve ser um número inteiro: " + valor);
+        }
+    }
+
+    // Constrói os boletos das entradas na ordem do arquivo; entradas com erro no build são puladas com um AVISO
+    private static final class BoletosConstruidos implements Iterator<Boleto> {
+        private final LeitorEntradas leitor;
+        private Boleto proximo;
+        long falhas;
+
+        BoletosConstruidos(LeitorEntradas leitor) {
+            this.leitor = leitor;
         }
 
-        System.out.println("\n--- Geração de boletos concluída. Verifique os arquivos PDF na raiz do projeto. ---");
+        @Override
+        public boolean hasNext() {
+            while (proximo == null && leitor.hasNext()) {
+                EntradaBoleto entrada = leitor.next();
+                try {
+                    proximo = entrada.construir();
+                } catch (RuntimeException e) {
+                    falhas++;
+                    System.err.println("AVISO: linha " + leitor.getNumeroLinha() + " ignorada no build: " + e.getMessage());
+                }
+            }
+            return proximo != null;
+        }
+
+        @Override
+        public Boleto next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Boleto b = proximo;
+            proximo = null;
+            return b;
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,11 @@ package br.com.geradorboleto.builder;
 
 // Importa as classes do modelo que serão usadas na interface
 import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.numeracao.AlocadorNossoNumero;
 // import br.com.geradorboleto.model.Endereco; // Usado implicitamente nos métodos
 // import br.com.geradorboleto.model.Pessoa;   // Usado implicitamente nos métodos
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -20,12 +22,30 @@ public interface BoletoBuilder {
     // Configura os dados bancários (Agência, Conta, Carteira). O código do banco é implícito na implementação.
     BoletoBuilder comBanco(String agencia, String contaCorrente, String carteira);
 
+    // Configura o convênio / código do beneficiário no banco (usado só pelos bancos cujo layout precisa dele).
+    // Padrão para implementações que não conhecem convênio: aceita ausente e recusa um convênio informado.
+    default BoletoBuilder comConvenio(String convenio) {
+        if (convenio != null && !convenio.isBlank()) {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " não aceita convênio: " + convenio);
+        }
+        return this;
+    }
+
     // Configura as datas importantes
     BoletoBuilder comDatas(LocalDate dataVencimento, LocalDate dataDocumento);
 
     // Configura os valores e identificadores do título
     BoletoBuilder comValores(BigDecimal valor, String numeroDocumento, String nossoNumero);
 
+    // Igual ao anterior, com o próximo nosso número da sequência do beneficiário (ver AlocadorNossoNumero.para)
+    default BoletoBuilder comValores(BigDecimal valor, String numeroDocumento, AlocadorNossoNumero sequencia) {
+        try {
+            return comValores(valor, numeroDocumento, sequencia.proximoFormatado());
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao reservar nosso número: " + e.getMessage(), e);
+        }
+    }
+
     // Configura instruções adicionais (opcional)
     BoletoBuilder comInstrucoes(String instrucoes);
 
@@ -0,0 +1,27 @@
+package br.com.geradorboleto.builder;
+
+import java.util.Objects;
+
+// Fábrica simples: escolhe o Builder concreto a partir do código do banco (ex: "001", "341", "237");
+// demais bancos do CatalogoBancos (ex: "104", "033", "756", "748") usam o LayoutBoletoBuilder.
+public class BoletoBuilderFactory {
+
+    private BoletoBuilderFactory() {}
+
+    /**
+     * Cria um novo Builder para o banco informado.
+     * Cada chamada retorna uma instância nova, pois os Builders guardam estado durante a construção.
+     * @param codigoBanco Código do banco com 3 dígitos.
+     * @return Builder concreto do banco.
+     */
+    public static BoletoBuilder criar(String codigoBanco) {
+        Objects.requireNonNull(codigoBanco, "Código do Banco não pode ser nulo.");
+        switch (codigoBanco) {
+            case "001": return new BancoDoBrasilBoletoBuilder();
+            case "341": return new ItauBoletoBuilder();
+            case "237": return new BradescoBoletoBuilder();
+            default:
+                return new LayoutBoletoBuilder(codigoBanco); // IllegalArgumentException se o banco não estiver no catálogo
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.geradorboleto.builder;
+
+import br.com.geradorboleto.layout.CatalogoBancos;
+import br.com.geradorboleto.model.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Builder genérico dirigido pelo descritor de layout do banco (CatalogoBancos): serve para qualquer banco do catálogo.
+// Os dados do beneficiário/banco viram um ModeloEmissao (reaproveitado enquanto não mudam); build() só fornece os dados do título.
+public class LayoutBoletoBuilder implements BoletoBuilder {
+
+    private final String codigoBanco;
+
+    private Pessoa sacado;
+    private Pessoa beneficiario;
+    private String agencia;
+    private String contaCorrente;
+    private String carteira;
+    private String convenio;
+    private BigDecimal valor;
+    private LocalDate dataVencimento;
+    private LocalDate dataDocumento;
+    private String numeroDocumento;
+    private String nossoNumeroBase; // Nosso número sem DV, como recebido
+    private String instrucoes;
+    private ModeloEmissao modelo; // Recriado só quando beneficiário ou dados bancários mudam
+
+    /**
+     * @param codigoBanco Código do banco com 3 dígitos; precisa existir no CatalogoBancos.
+     * @throws IllegalArgumentException Se o banco não for suportado.
+     */
+    public LayoutBoletoBuilder(String codigoBanco) {
+        this.codigoBanco = CatalogoBancos.obter(codigoBanco).getCodigo();
+    }
+
+    @Override
+    public BoletoBuilder comSacado(String nome, String cpfCnpj, String logradouro, String bairro, String cep, String cidade, String uf) {
+        Endereco endereco = new Endereco(logradouro, bairro, cep, cidade, uf);
+        this.sacado = new Pessoa(nome, cpfCnpj, endereco);
+        return this;
+    }
+
+    @Override
+    public BoletoBuilder comBeneficiario(String nome, String cpfCnpj, String logradouro, String bairro, String cep, String cidade, String uf) {
+        Endereco endereco = new Endereco(logradouro, bairro, cep, cidade, uf);
+        this.beneficiario = new Pessoa(nome, cpfCnpj, endereco);
+        this.modelo = null;
+        return this;
+    }
+
+    @Override
+    public BoletoBuilder comBanco(String agencia, String contaCorrente, String carteira) {
+        // Formatados conforme as larguras do descritor do banco (pelo ModeloEmissao)
+        this.agencia = agencia;
+        this.contaCorrente = contaCorrente;
+        this.carteira = carteira;
+        this.modelo = null;
+        return this;
+    }
+
+    @Override
+    public BoletoBuilder comConvenio(String convenio) {
+        this.convenio = convenio;
+        this.modelo = null;
+        return this;
+    }
+
+    @Override
+    public BoletoBuilder comDatas(LocalDate dataVencimento, LocalDate dataDocumento) {
+        this.dataVencimento = dataVencimento;
+        this.dataDocumento = dataDocumento;
+        return this;
+    }
+
+    @Override
+    public BoletoBuilder comValores(BigDecimal valor, String numeroDocumento, String nossoNumero) {
+        this.valor = valor;
+        this.numeroDocumento = numeroDocumento;
+        // Completado com zeros até a largura do nosso número do layout (sem DV); maior que ela é recusado no build()
+        this.nossoNumeroBase = nossoNumero;
+        return this;
+    }
+
+    @Override
+    public BoletoBuilder comInstrucoes(String instrucoes) {
+        this.instrucoes = instrucoes;
+        return this;
+    }
+
+    @Override
+    public Boleto build() {
+        // --- Validações ---
+        Objects.requireNonNull(sacado, "Sacado é obrigatório");
+        Objects.requireNonNull(beneficiario, "Beneficiário é obrigatório");
+        Objects.requireNonNull(dataVencimento, "Data de Vencimento é obrigatória");
+        Objects.requireNonNull(valor, "Valor é obrigatório");
+        Objects.requireNonNull(nossoNumeroBase, "Nosso Número (base) é obrigatório");
+
+        if (modelo == null) {
+            modelo = ModeloEmissao.criar(codigoBanco, beneficiario, agencia, contaCorrente, carteira, convenio);
+        }
+        return modelo.emitir(sacado, valor, dataVencimento, dataDocumento, numeroDocumento, nossoNumeroBase, instrucoes);
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.geradorboleto.builder;
+
+import br.com.geradorboleto.calculos.FatorVencimento;
+import br.com.geradorboleto.calculos.MontadorCodigoBarras;
+import br.com.geradorboleto.layout.CatalogoBancos;
+import br.com.geradorboleto.layout.DescritorBanco;
+import br.com.geradorboleto.layout.LayoutEmissor;
+import br.com.geradorboleto.model.*;
+
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Modelo de emissão de um beneficiário: banco + agência/conta/carteira (+ convênio) já validados e formatados,
+// com as partes fixas do campo livre e os DACs que não dependem do título (ex: DAC agência/conta do Itaú)
+// calculados uma única vez a partir do descritor de layout do banco (ver layout/bancos.properties).
+// Imutável e thread-safe: uma instância pode ser compartilhada por todas as threads, e cada chamada a
+// emitir(...) recebe só os dados do título (sacado, valor, vencimento, nosso número). Banco e Pessoa têm setters,
+// então o modelo guarda cópias próprias e entrega uma cópia nova a cada boleto emitido e a cada getter.
+public final class ModeloEmissao {
+
+    private final String codigoBanco;
+    private final Banco banco; // Nunca sai do modelo: boletos e getters recebem cópias
+    private final Pessoa beneficiario;
+    private final LayoutEmissor layout;
+
+    private ModeloEmissao(Banco banco, Pessoa beneficiario, LayoutEmissor layout) {
+        this.codigoBanco = banco.getCodigoBanco();
+        this.banco = banco;
+        this.beneficiario = copiar(beneficiario);
+        this.layout = layout;
+    }
+
+    /**
+     * Cria o modelo para qualquer banco do CatalogoBancos.
+     * @param codigoBanco Código do banco com 3 dígitos (ex: "001", "341", "237", "104", "033", "756", "748").
+     * @param convenio Convênio / código do beneficiário (bancos cujo layout usa; pode ser null nos demais).
+     * @throws IllegalArgumentException Se o banco não for suportado ou algum dado bancário for inválido.
+     */
+    public static ModeloEmissao criar(String codigoBanco, Pessoa beneficiario, String agencia, String contaCorrente,
+                                      String carteira, String convenio) {
+        Objects.requireNonNull(beneficiario, "Beneficiário é obrigatório");
+        DescritorBanco descritor = CatalogoBancos.obter(codigoBanco);
+        LayoutEmissor layout = descritor.compilar(agencia, contaCorrente, carteira, convenio);
+        Banco banco = new Banco(descritor.getCodigo(), descritor.getNome(), layout.getAgencia(), layout.getConta(), layout.getCarteira());
+        return new ModeloEmissao(banco, beneficiario, layout);
+    }
+
+    /**
+     * Banco do Brasil, convênio de 7 dígitos (obrigatório; outros tamanhos de convênio são recusados).
+     * Campo livre: "000000" + NossoNumero(17) + Carteira(2), onde NossoNumero = Convênio(7) + Sequencial(10).
+     */
+    public static ModeloEmissao bancoDoBrasil(Pessoa beneficiario, String agencia, String contaCorrente, String carteira, String convenio) {
+        return criar("001", beneficiario, agencia, contaCorrente, carteira, convenio);
+    }
+
+    /**
+     * Itaú. Campo livre: Carteira(3) + NossoNumero(8) + DAC(Cart/NN)(1) + Agencia(4) + Conta(5) + DAC(Ag/Conta)(1) + 000.
+     */
+    public static ModeloEmissao itau(Pessoa beneficiario, String agencia, String contaCorrente, String carteira) {
+        return criar("341", beneficiario, agencia, contaCorrente, carteira, null);
+    }
+
+    /**
+     * Bradesco. Campo livre: Agencia(4) + Carteira(2) + NossoNumero(11) + Conta(7) + 0.
+     */
+    public static ModeloEmissao bradesco(Pessoa beneficiario, String agencia, String contaCorrente, String carteira) {
+        return criar("237", beneficiario, agencia, contaCorrente, carteira, null);
+    }
+
+    public String getCodigoBanco() { return codigoBanco; }
+    // Cópias: alterar o objeto devolvido não afeta o modelo nem os boletos já emitidos
+    public Banco getBanco() { return copiar(banco); }
+    public Pessoa getBeneficiario() { return copiar(beneficiario); }
+    public String getConvenio() { return layout.getConvenio(); }
+    public LayoutEmissor getLayout() { return layout; }
+
+    /**
+     * Emite um boleto deste beneficiário. Só usa variáveis locais: pode ser chamado por várias threads ao mesmo tempo.
+     * @param nossoNumero Nosso número (sequencial) sem DV; completado com zeros à esquerda até o tamanho do layout.
+     * @param dataDocumento Data do documento (null = hoje).
+     * @param numeroDocumento Número do documento (null = nosso número).
+     * @return Boleto com código de barras e linha digitável calculados.
+     * @throws IllegalArgumentException Se o nosso número não for numérico ou for maior que o layout do banco.
+     */
+    public Boleto emitir(Pessoa sacado, BigDecimal valor, LocalDate dataVencimento, LocalDate dataDocumento,
+                         String numeroDocumento, String nossoNumero, String instrucoes) {
+        Objects.requireNonNull(sacado, "Sacado é obrigatório");
+        Objects.requireNonNull(dataVencimento, "Data de Vencimento é obrigatória");
+        Objects.requireNonNull(valor, "Valor é obrigatório");
+        Objects.requireNonNull(nossoNumero, "Nosso Número (base) é obrigatório");
+
+        char[] nn = layout.normalizarNossoNumero(nossoNumero);
+
+        Boleto boleto = new Boleto();
+        boleto.setSacado(sacado);
+        boleto.setBeneficiario(copiar(beneficiario));
+        boleto.setBanco(copiar(banco));
+        boleto.setDataVencimento(dataVencimento);
+        boleto.setDataDocumento(dataDocumento != null ? dataDocumento : LocalDate.now());
+        boleto.setValor(valor);
+        boleto.setNumeroDocumento(numeroDocumento != null ? numeroDocumento : new String(nn));
+        boleto.setInstrucoes(instrucoes);
+        boleto.setNossoNumero(layout.getNossoNumero().montar(nn));
+
+        char[] campoLivre = new char[DescritorBanco.TAMANHO_CAMPO_LIVRE];
+        layout.getCampoLivre().preencher(nn, campoLivre);
+
+        String fatorVencimento = FatorVencimento.calcular(dataVencimento);
+        char[] codigoBarras = new char[MontadorCodigoBarras.TAMANHO_CODIGO_BARRAS];
+        char[] linhaDigitavel = new char[MontadorCodigoBarras.TAMANHO_LINHA_DIGITAVEL];
+        MontadorCodigoBarras.montar(codigoBanco, fatorVencimento, boleto.getValorCentavos(), CharBuffer.wrap(campoLivre),
+                codigoBarras, 0, linhaDigitavel, 0);
+        boleto.setCodigoBarras(new String(codigoBarras));
+        boleto.setLinhaDigitavel(new String(linhaDigitavel));
+        return boleto;
+    }
+
+    private static Banco copiar(Banco b) {
+        return new Banco(b.getCodigoBanco(), b.getNomeBanco(), b.getAgencia(), b.getContaCorrente(), b.getCarteira());
+    }
+
+    private static Pessoa copiar(Pessoa p) {
+        Endereco e = p.getEndereco();
+        Endereco copia = e != null ? new Endereco(e.getLogradouro(), e.getBairro(), e.getCep(), e.getCidade(), e.getUf()) : null;
+        return new Pessoa(p.getNome(), p.getDocumento(), copia);
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.geradorboleto.calculos;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Fator de vencimento com a regra FEBRABAN de reinício:
+// - 07/10/1997 é a data base; o fator é o número de dias desde ela (até 9999 em 21/02/2025);
+// - a partir de 22/02/2025 o fator volta para 1000 e segue de 1000 a 9999, reiniciando a cada 9000 dias.
+// As datas de uma janela em torno de hoje ficam numa tabela imutável de Strings já formatadas,
+// então o cálculo em lote é só um índice de array.
+public class FatorVencimento {
+
+    // Data base para cálculo do fator de vencimento (07/10/1997)
+    public static final LocalDate DATA_BASE = LocalDate.of(1997, 10, 7);
+    // Primeiro dia da nova regra (22/02/2025), que recebe o fator 1000
+    public static final LocalDate DATA_REINICIO = LocalDate.of(2025, 2, 22);
+
+    private static final long EPOCH_DATA_BASE = DATA_BASE.toEpochDay();
+    private static final long DIAS_ATE_REINICIO = 10000; // DATA_REINICIO - DATA_BASE
+    private static final int FATOR_REINICIO = 1000;
+    private static final int CICLO = 9000; // Fatores 1000..9999
+
+    // Janela da tabela em relação à data de referência
+    private static final int DIAS_ANTES = 2 * 366;
+    private static final int DIAS_DEPOIS = 10 * 366;
+
+    private static volatile Tabela tabela = new Tabela(LocalDate.now());
+
+    private FatorVencimento() {}
+
+    /**
+     * Fator de vencimento formatado com 4 dígitos.
+     * Datas anteriores à data base resultam em "0000".
+     * @param dataVencimento Data de vencimento do boleto.
+     * @return Fator de vencimento (4 dígitos).
+     */
+    public static String calcular(LocalDate dataVencimento) {
+        Objects.requireNonNull(dataVencimento, "Data de Vencimento não pode ser nula.");
+        long epochDay = dataVencimento.toEpochDay();
+        Tabela t = tabela;
+        String fator = t.buscar(epochDay);
+        if (fator != null) {
+            return fator;
+        }
+        if (epochDay < EPOCH_DATA_BASE) {
+            System.err.println("AVISO: Data de vencimento " + dataVencimento + " anterior à data base (" + DATA_BASE + "). Fator será 0000.");
+            return "0000";
+        }
+        // Fora da janela: se o processo está rodando há muito tempo, a janela é deslocada para o dia atual
+        LocalDate hoje = LocalDate.now();
+        if (Math.abs(hoje.toEpochDay() - t.referencia) > 30) {
+            tabela = t = new Tabela(hoje);
+            fator = t.buscar(epochDay);
+            if (fator != null) {
+                return fator;
+            }
+        }
+        return formatar(fatorDoDia(epochDay));
+    }
+
+    /**
+     * Fator de vencimento numérico (0 a 9999).
+     * @param dataVencimento Data de vencimento do boleto.
+     * @return Fator (0 para datas anteriores à data base).
+     */
+    public static int fator(LocalDate dataVencimento) {
+        Objects.requireNonNull(dataVencimento, "Data de Vencimento não pode ser nula.");
+        long epochDay = dataVencimento.toEpochDay();
+        return epochDay < EPOCH_DATA_BASE ? 0 : fatorDoDia(epochDay);
+    }
+
+    /**
+     * Data de vencimento correspondente a um fator (operação inversa de {@link #fator(LocalDate)}).
+     * Como os fatores se repetem a cada 9000 dias, entre as datas possíveis é escolhida a mais próxima da referência.
+     * @param fator Fator lido do código de barras (0 a 9999).
+     * @param referencia Data de referência (normalmente hoje ou a data do arquivo de retorno).
+     * @return Data de vencimento, ou null para o fator 0 (boleto sem vencimento).
+     */
+    public static LocalDate data(int fator, LocalDate referencia) {
+        Objects.requireNonNull(referencia, "Data de referência não pode ser nula.");
+        if (fator < 0 || fator > 9999) {
+            throw new IllegalArgumentException("Fator de vencimento fora do intervalo 0-9999: " + fator);
+        }
+        if (fator == 0) {
+            return null;
+        }
+        long ref = referencia.toEpochDay();
+        // Regra antiga (até 21/02/2025): data base + fator
+        long melhor = EPOCH_DATA_BASE + fator;
+        if (fator >= FATOR_REINICIO) {
+            // Nova regra: DATA_REINICIO + (fator - 1000) + k * 9000, com k escolhido em torno da referência
+            long primeiro = EPOCH_DATA_BASE + DIAS_ATE_REINICIO + (fator - FATOR_REINICIO);
+            long k = Math.max(0, Math.floorDiv(ref - primeiro, CICLO));
+            for (long c = k; c <= k + 1; c++) {
+                long candidato = primeiro + c * CICLO;
+                if (Math.abs(candidato - ref) < Math.abs(melhor - ref)) {
+                    melhor = candidato;
+                }
+            }
+        }
+        return LocalDate.ofEpochDay(melhor);
+    }
+
+    // Regra de cálculo (sem tabela) para um dia >= data base
+    private static int fatorDoDia(long epochDay) {
+        long dias = epochDay - EPOCH_DATA_BASE;
+        if (dias < DIAS_ATE_REINICIO) {
+            return (int) dias;
+        }
+        return (int) ((dias - DIAS_ATE_REINICIO) % CICLO) + FATOR_REINICIO;
+    }
+
+    private static String formatar(int fator) {
+        char[] c = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            c[i] = (char) ('0' + fator % 10);
+            fator /= 10;
+        }
+        return new String(c);
+    }
+
+    // Tabela imutável: fatores formatados para [referencia - DIAS_ANTES, referencia + DIAS_DEPOIS]
+    private static final class Tabela {
+        private final long referencia;
+        private final long inicio;
+        private final String[] fatores;
+
+        Tabela(LocalDate dataReferencia) {
+            this.referencia = dataReferencia.toEpochDay();
+            this.inicio = Math.max(EPOCH_DATA_BASE, referencia - DIAS_ANTES);
+            long fim = referencia + DIAS_DEPOIS;
+            this.fatores = new String[(int) (fim - inicio + 1)];
+            for (int i = 0; i < fatores.length; i++) {
+                fatores[i] = formatar(fatorDoDia(inicio + i));
+            }
+        }
+
+        String buscar(long epochDay) {
+            long i = epochDay - inicio;
+            return (i >= 0 && i < fatores.length) ? fatores[(int) i] : null;
+        }
+    }
+}
@@ -2,6 +2,25 @@ package br.com.geradorboleto.calculos;
 
 public class Modulo {
 
+    // Soma dos algarismos de (2 * digito), usada no Módulo 10: 7 -> 14 -> 1 + 4 = 5
+    private static final int[] SOMA_DOBRO = {0, 2, 4, 6, 8, 1, 3, 5, 7, 9};
+
+    // Tamanho das tabelas de pesos do Módulo 11 (o maior número usado é a base do código de barras, 43 dígitos)
+    private static final int TAMANHO_TABELA_PESOS = 64;
+
+    // PESOS_MODULO11[base][i] = peso do i-ésimo dígito contado da direita (2, 3, ..., base, 2, 3, ...)
+    private static final int[][] PESOS_MODULO11 = new int[10][];
+
+    static {
+        for (int base = 2; base <= 9; base++) {
+            int[] pesos = new int[TAMANHO_TABELA_PESOS];
+            for (int i = 0; i < pesos.length; i++) {
+                pesos[i] = 2 + (i % (base - 1));
+            }
+            PESOS_MODULO11[base] = pesos;
+        }
+    }
+
     /**
      * Calcula o Módulo 10.
      * Utilizado para calcular os dígitos verificadores dos campos da linha digitável.
@@ -14,27 +33,98 @@ public class Modulo {
             throw new IllegalArgumentException("Número para cálculo do Módulo 10 não pode ser vazio.");
         }
         int soma = 0;
-        int peso = 2;
-        boolean apenasDigitos = true;
+        boolean dobra = true; // O dígito mais à direita tem peso 2
         for (int i = numero.length() - 1; i >= 0; i--) {
-            char c = numero.charAt(i);
-            if (!Character.isDigit(c)) {
-                apenasDigitos = false;
-                break; // Sai se encontrar não-dígito
+            int digito = numero.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new IllegalArgumentException("Número para cálculo do Módulo 10 contém caracteres não numéricos: " + numero);
             }
-            int digito = Character.getNumericValue(c);
-            int produto = digito * peso;
-            soma += (produto > 9) ? (produto / 10) + (produto % 10) : produto;
-            peso = (peso == 2) ? 1 : 2;
+            soma += dobra ? SOMA_DOBRO[digito] : digito;
+            dobra = !dobra;
         }
+        return dvModulo10(soma);
+    }
 
-        if (!apenasDigitos) {
-            throw new IllegalArgumentException("Número para cálculo do Módulo 10 contém caracteres não numéricos: " + numero);
+    /**
+     * Módulo 10 sobre um trecho de um array de caracteres ('0'..'9'), sem criar Strings.
+     * @param digitos Array com os dígitos.
+     * @param inicio Índice inicial (inclusivo).
+     * @param fim Índice final (exclusivo).
+     * @return Dígito verificador (0 a 9).
+     */
+    public static int calcularModulo10(char[] digitos, int inicio, int fim) {
+        validarIntervalo(digitos.length, inicio, fim);
+        int soma = 0;
+        boolean dobra = true;
+        for (int i = fim - 1; i >= inicio; i--) {
+            int digito = digitos[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw naoNumerico("Módulo 10", i);
+            }
+            soma += dobra ? SOMA_DOBRO[digito] : digito;
+            dobra = !dobra;
         }
+        return dvModulo10(soma);
+    }
 
+    /**
+     * Módulo 10 sobre um trecho de um array de bytes ASCII ('0'..'9'), ex: linhas lidas de arquivo.
+     * @param digitos Array com os dígitos em ASCII.
+     * @param inicio Índice inicial (inclusivo).
+     * @param fim Índice final (exclusivo).
+     * @return Dígito verificador (0 a 9).
+     */
+    public static int calcularModulo10(byte[] digitos, int inicio, int fim) {
+        validarIntervalo(digitos.length, inicio, fim);
+        int soma = 0;
+        boolean dobra = true;
+        for (int i = fim - 1; i >= inicio; i--) {
+            int digito = digitos[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw naoNumerico("Módulo 10", i);
+            }
+            soma += dobra ? SOMA_DOBRO[digito] : digito;
+            dobra = !dobra;
+        }
+        return dvModulo10(soma);
+    }
+
+    /**
+     * Calcula o Módulo 10 de vários números de mesmo tamanho gravados lado a lado em um único array
+     * (ex: os campos 2 de milhares de linhas digitáveis). Evita uma chamada e uma validação de intervalo por número.
+     * @param digitos Array ASCII com 'quantidade' números de 'tamanho' dígitos cada, a partir de 'inicio'.
+     * @param inicio Índice do primeiro dígito do primeiro número.
+     * @param tamanho Quantidade de dígitos de cada número.
+     * @param quantidade Quantidade de números.
+     * @param dvs Array de saída: dvs[k] recebe o DV do k-ésimo número.
+     */
+    public static void calcularModulo10EmLote(byte[] digitos, int inicio, int tamanho, int quantidade, int[] dvs) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho dos números para cálculo do Módulo 10 deve ser >= 1: " + tamanho);
+        }
+        validarIntervalo(digitos.length, inicio, inicio + tamanho * quantidade);
+        if (dvs.length < quantidade) {
+            throw new IllegalArgumentException("Array de saída menor que a quantidade de números: " + dvs.length);
+        }
+        int pos = inicio;
+        for (int k = 0; k < quantidade; k++) {
+            int soma = 0;
+            // Mesma paridade de peso para todos os números, pois têm o mesmo tamanho
+            for (int j = 0; j < tamanho; j++) {
+                int digito = digitos[pos + j] - '0';
+                if (digito < 0 || digito > 9) {
+                    throw naoNumerico("Módulo 10", pos + j);
+                }
+                soma += ((tamanho - j) & 1) == 1 ? SOMA_DOBRO[digito] : digito;
+            }
+            dvs[k] = dvModulo10(soma);
+            pos += tamanho;
+        }
+    }
+
+    private static int dvModulo10(int soma) {
         int resto = soma % 10;
-        int dv = (resto == 0) ? 0 : (10 - resto);
-        return dv;
+        return (resto == 0) ? 0 : (10 - resto);
     }
 
     /**
@@ -59,27 +149,133 @@ public class Modulo {
         if (numero == null || numero.trim().isEmpty()) {
             throw new IllegalArgumentException("Número para cálculo do Módulo 11 não pode ser vazio.");
         }
+        int[] pesos = pesosModulo11(base);
         int soma = 0;
-        int peso = 2;
-        boolean apenasDigitos = true;
-        for (int i = numero.length() - 1; i >= 0; i--) {
-            char c = numero.charAt(i);
-            if (!Character.isDigit(c)) {
-                apenasDigitos = false;
-                break; // Sai se encontrar não-dígito
+        for (int i = numero.length() - 1, k = 0; i >= 0; i--, k++) {
+            int digito = numero.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new IllegalArgumentException("Número para cálculo do Módulo 11 contém caracteres não numéricos: " + numero);
+            }
+            soma += digito * peso(pesos, k, base);
+        }
+        return dvModulo11(soma, fatorEspecialParaResto0ou1);
+    }
+
+    /**
+     * Módulo 11 sobre um trecho de um array de caracteres ('0'..'9'), sem criar Strings.
+     * Mesmas regras de {@link #calcularModulo11Base(String, int, boolean)}.
+     * @param digitos Array com os dígitos.
+     * @param inicio Índice inicial (inclusivo).
+     * @param fim Índice final (exclusivo).
+     * @param base Peso máximo (ex: 9 Febraban, 7 Bradesco).
+     * @param fatorEspecialParaResto0ou1 Regra Febraban do DV geral (ver versão String).
+     * @return Dígito verificador calculado.
+     */
+    public static int calcularModulo11Base(char[] digitos, int inicio, int fim, int base, boolean fatorEspecialParaResto0ou1) {
+        validarIntervalo(digitos.length, inicio, fim);
+        int[] pesos = pesosModulo11(base);
+        int soma = 0;
+        for (int i = fim - 1, k = 0; i >= inicio; i--, k++) {
+            int digito = digitos[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw naoNumerico("Módulo 11", i);
             }
-            int digito = Character.getNumericValue(c);
-            soma += digito * peso;
-            peso++;
-            if (peso > base) {
-                peso = 2;
+            soma += digito * peso(pesos, k, base);
+        }
+        return dvModulo11(soma, fatorEspecialParaResto0ou1);
+    }
+
+    /**
+     * Módulo 11 sobre um trecho de um array de bytes ASCII ('0'..'9').
+     * Mesmas regras de {@link #calcularModulo11Base(String, int, boolean)}.
+     */
+    public static int calcularModulo11Base(byte[] digitos, int inicio, int fim, int base, boolean fatorEspecialParaResto0ou1) {
+        validarIntervalo(digitos.length, inicio, fim);
+        int[] pesos = pesosModulo11(base);
+        int soma = 0;
+        for (int i = fim - 1, k = 0; i >= inicio; i--, k++) {
+            int digito = digitos[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw naoNumerico("Módulo 11", i);
             }
+            soma += digito * peso(pesos, k, base);
         }
+        return dvModulo11(soma, fatorEspecialParaResto0ou1);
+    }
+
+    /**
+     * Módulo 11 (pesos 2 a 9, regra Febraban) sobre um trecho de um array de caracteres.
+     * Equivale a {@link #calcularModulo11(String)}; usado para o DV geral do código de barras.
+     */
+    public static int calcularModulo11(char[] digitos, int inicio, int fim) {
+        return calcularModulo11Base(digitos, inicio, fim, 9, true);
+    }
 
-        if (!apenasDigitos) {
-            throw new IllegalArgumentException("Número para cálculo do Módulo 11 contém caracteres não numéricos: " + numero);
+    /**
+     * Calcula o Módulo 11 de vários números de mesmo tamanho gravados lado a lado em um único array
+     * (ex: as bases de 43 dígitos de milhares de códigos de barras).
+     * @param digitos Array ASCII com 'quantidade' números de 'tamanho' dígitos cada, a partir de 'inicio'.
+     * @param inicio Índice do primeiro dígito do primeiro número.
+     * @param tamanho Quantidade de dígitos de cada número.
+     * @param quantidade Quantidade de números.
+     * @param base Peso máximo (ex: 9 Febraban, 7 Bradesco).
+     * @param fatorEspecialParaResto0ou1 Regra Febraban do DV geral (ver versão String).
+     * @param dvs Array de saída: dvs[k] recebe o DV do k-ésimo número.
+     */
+    public static void calcularModulo11EmLote(byte[] digitos, int inicio, int tamanho, int quantidade,
+                                              int base, boolean fatorEspecialParaResto0ou1, int[] dvs) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho dos números para cálculo do Módulo 11 deve ser >= 1: " + tamanho);
+        }
+        validarIntervalo(digitos.length, inicio, inicio + tamanho * quantidade);
+        if (dvs.length < quantidade) {
+            throw new IllegalArgumentException("Array de saída menor que a quantidade de números: " + dvs.length);
+        }
+        // Os pesos da esquerda para a direita são os mesmos para todos os números do lote
+        int[] pesosPorPosicao = new int[tamanho];
+        int[] pesos = pesosModulo11(base);
+        for (int j = 0; j < tamanho; j++) {
+            pesosPorPosicao[j] = peso(pesos, tamanho - 1 - j, base);
+        }
+        int pos = inicio;
+        for (int k = 0; k < quantidade; k++) {
+            int soma = 0;
+            for (int j = 0; j < tamanho; j++) {
+                int digito = digitos[pos + j] - '0';
+                if (digito < 0 || digito > 9) {
+                    throw naoNumerico("Módulo 11", pos + j);
+                }
+                soma += digito * pesosPorPosicao[j];
+            }
+            dvs[k] = dvModulo11(soma, fatorEspecialParaResto0ou1);
+            pos += tamanho;
+        }
+    }
+
+    // Tabela de pesos da base (null para bases acima de 9, que usam o cálculo direto)
+    private static int[] pesosModulo11(int base) {
+        if (base < 2) {
+            throw new IllegalArgumentException("Base do Módulo 11 deve ser maior ou igual a 2: " + base);
         }
+        return base < PESOS_MODULO11.length ? PESOS_MODULO11[base] : null;
+    }
+
+    // Peso do k-ésimo dígito (da direita); fora da tabela o peso é calculado diretamente
+    private static int peso(int[] pesos, int k, int base) {
+        return (pesos != null && k < TAMANHO_TABELA_PESOS) ? pesos[k] : 2 + (k % (base - 1));
+    }
+
+    private static void validarIntervalo(int tamanhoArray, int inicio, int fim) {
+        if (inicio < 0 || fim > tamanhoArray || inicio >= fim) {
+            throw new IllegalArgumentException("Intervalo inválido para cálculo do dígito verificador: [" + inicio + ", " + fim + ") em array de " + tamanhoArray);
+        }
+    }
+
+    private static IllegalArgumentException naoNumerico(String modulo, int posicao) {
+        return new IllegalArgumentException("Número para cálculo do " + modulo + " contém caractere não numérico na posição " + posicao);
+    }
 
+    private static int dvModulo11(int soma, boolean fatorEspecialParaResto0ou1) {
         int resto = soma % 11;
         int dv = 11 - resto;
 
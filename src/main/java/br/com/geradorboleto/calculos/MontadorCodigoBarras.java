@@ -0,0 +1,157 @@
+package br.com.geradorboleto.calculos;
+
+import java.util.Objects;
+
+// Monta código de barras (44) e linha digitável (47) direto em arrays de char, em uma única passada,
+// sem regex e sem Strings intermediárias. Uma instância guarda buffers próprios e pode ser reutilizada
+// pela mesma thread (não é thread-safe); os métodos estáticos escrevem em buffers do chamador.
+public class MontadorCodigoBarras {
+
+    public static final int TAMANHO_CODIGO_BARRAS = 44;
+    public static final int TAMANHO_LINHA_DIGITAVEL = 47;
+
+    // Código da moeda Real
+    private static final char CODIGO_MOEDA = '9';
+
+    private final char[] codigoBarras = new char[TAMANHO_CODIGO_BARRAS];
+    private final char[] linhaDigitavel = new char[TAMANHO_LINHA_DIGITAVEL];
+
+    /**
+     * Monta código de barras e linha digitável nos buffers internos.
+     * @param codigoBanco Código do banco (3 dígitos).
+     * @param fatorVencimento Fator de vencimento (4 dígitos).
+     * @param valorFormatado Valor formatado (10 dígitos).
+     * @param campoLivre Campo livre específico do banco (25 dígitos).
+     * @return this, para ler os resultados com os getters.
+     */
+    public MontadorCodigoBarras montar(CharSequence codigoBanco, CharSequence fatorVencimento, CharSequence valorFormatado, CharSequence campoLivre) {
+        montar(codigoBanco, fatorVencimento, valorFormatado, campoLivre, codigoBarras, 0, linhaDigitavel, 0);
+        return this;
+    }
+
+    /**
+     * Igual a {@link #montar(CharSequence, CharSequence, CharSequence, CharSequence)}, com o valor em centavos
+     * escrito direto no buffer (sem formatar uma String de 10 dígitos antes).
+     */
+    public MontadorCodigoBarras montar(CharSequence codigoBanco, CharSequence fatorVencimento, long valorCentavos, CharSequence campoLivre) {
+        montar(codigoBanco, fatorVencimento, valorCentavos, campoLivre, codigoBarras, 0, linhaDigitavel, 0);
+        return this;
+    }
+
+    // Buffers internos (válidos até a próxima chamada de montar)
+    public char[] getCodigoBarrasChars() { return codigoBarras; }
+    public char[] getLinhaDigitavelChars() { return linhaDigitavel; }
+
+    // Cópias em String para o modelo (Boleto)
+    public String getCodigoBarras() { return new String(codigoBarras); }
+    public String getLinhaDigitavel() { return new String(linhaDigitavel); }
+
+    /**
+     * Escreve código de barras e linha digitável em buffers do chamador.
+     * @param codigoBarras Destino do código de barras (44 posições a partir de offCodigoBarras).
+     * @param linhaDigitavel Destino da linha digitável (47 posições a partir de offLinha).
+     */
+    public static void montar(CharSequence codigoBanco, CharSequence fatorVencimento, CharSequence valorFormatado, CharSequence campoLivre,
+                              char[] codigoBarras, int offCodigoBarras, char[] linhaDigitavel, int offLinha) {
+        escreverCodigoBarras(codigoBanco, fatorVencimento, valorFormatado, campoLivre, codigoBarras, offCodigoBarras);
+        escreverLinhaDigitavel(codigoBarras, offCodigoBarras, linhaDigitavel, offLinha);
+    }
+
+    // Versão com o valor em centavos
+    public static void montar(CharSequence codigoBanco, CharSequence fatorVencimento, long valorCentavos, CharSequence campoLivre,
+                              char[] codigoBarras, int offCodigoBarras, char[] linhaDigitavel, int offLinha) {
+        escreverCodigoBarras(codigoBanco, fatorVencimento, valorCentavos, campoLivre, codigoBarras, offCodigoBarras);
+        escreverLinhaDigitavel(codigoBarras, offCodigoBarras, linhaDigitavel, offLinha);
+    }
+
+    /**
+     * Escreve o código de barras com o valor em centavos (0 a 9.999.999.999), sem String intermediária para o valor.
+     */
+    public static void escreverCodigoBarras(CharSequence codigoBanco, CharSequence fatorVencimento, long valorCentavos, CharSequence campoLivre,
+                                            char[] destino, int off) {
+        Objects.requireNonNull(codigoBanco, "Código do Banco não pode ser nulo.");
+        Objects.requireNonNull(fatorVencimento, "Fator de Vencimento não pode ser nulo.");
+        Objects.requireNonNull(campoLivre, "Campo Livre não pode ser nulo.");
+        Objects.checkFromIndexSize(off, TAMANHO_CODIGO_BARRAS, destino.length);
+
+        if (!copiarDigitos(codigoBanco, 3, destino, off + 1)) throw new IllegalArgumentException("Código do banco inválido (deve ter 3 dígitos): " + codigoBanco);
+        destino[off + 4] = CODIGO_MOEDA;
+        if (!copiarDigitos(fatorVencimento, 4, destino, off + 5)) throw new IllegalArgumentException("Fator de vencimento inválido (deve ter 4 dígitos): " + fatorVencimento);
+        ValorCentavos.escreverCodigoBarras(valorCentavos, destino, off + 9);
+        if (!copiarDigitos(campoLivre, 25, destino, off + 19)) throw new IllegalArgumentException("Campo Livre inválido (deve ter 25 dígitos numéricos): " + campoLivre);
+
+        inserirDvGeral(destino, off);
+    }
+
+    /**
+     * Escreve o código de barras (44 posições), incluindo o DV geral, em destino[off..off+44).
+     * Mesmas validações de {@link CalculosBoletoUtils#montarCodigoBarras}.
+     */
+    public static void escreverCodigoBarras(CharSequence codigoBanco, CharSequence fatorVencimento, CharSequence valorFormatado, CharSequence campoLivre,
+                                            char[] destino, int off) {
+        Objects.requireNonNull(codigoBanco, "Código do Banco não pode ser nulo.");
+        Objects.requireNonNull(fatorVencimento, "Fator de Vencimento não pode ser nulo.");
+        Objects.requireNonNull(valorFormatado, "Valor Formatado não pode ser nulo.");
+        Objects.requireNonNull(campoLivre, "Campo Livre não pode ser nulo.");
+        Objects.checkFromIndexSize(off, TAMANHO_CODIGO_BARRAS, destino.length);
+
+        // A base sem DV (43 dígitos) é escrita em destino[off+1..off+44), contígua, para o Módulo 11;
+        // depois banco+moeda são deslocados uma posição à esquerda e o DV entra na 5ª posição.
+        if (!copiarDigitos(codigoBanco, 3, destino, off + 1)) throw new IllegalArgumentException("Código do banco inválido (deve ter 3 dígitos): " + codigoBanco);
+        destino[off + 4] = CODIGO_MOEDA;
+        if (!copiarDigitos(fatorVencimento, 4, destino, off + 5)) throw new IllegalArgumentException("Fator de vencimento inválido (deve ter 4 dígitos): " + fatorVencimento);
+        if (!copiarDigitos(valorFormatado, 10, destino, off + 9)) throw new IllegalArgumentException("Valor formatado inválido (deve ter 10 dígitos): " + valorFormatado);
+        if (!copiarDigitos(campoLivre, 25, destino, off + 19)) throw new IllegalArgumentException("Campo Livre inválido (deve ter 25 dígitos numéricos): " + campoLivre);
+
+        inserirDvGeral(destino, off);
+    }
+
+    // Calcula o DV geral (Módulo 11, padrão Febraban) sobre a base em destino[off+1..off+44) e o insere na 5ª posição
+    private static void inserirDvGeral(char[] destino, int off) {
+        int dvGeral = Modulo.calcularModulo11(destino, off + 1, off + TAMANHO_CODIGO_BARRAS);
+        System.arraycopy(destino, off + 1, destino, off, 4);
+        destino[off + 4] = (char) ('0' + dvGeral);
+    }
+
+    /**
+     * Escreve a linha digitável (47 dígitos, sem pontuação) a partir de um código de barras de 44 dígitos.
+     * @param codigoBarras Array com o código de barras em codigoBarras[offCodigoBarras..+44).
+     * @param destino Array de saída; recebe 47 dígitos a partir de offLinha.
+     */
+    public static void escreverLinhaDigitavel(char[] codigoBarras, int offCodigoBarras, char[] destino, int offLinha) {
+        Objects.checkFromIndexSize(offCodigoBarras, TAMANHO_CODIGO_BARRAS, codigoBarras.length);
+        Objects.checkFromIndexSize(offLinha, TAMANHO_LINHA_DIGITAVEL, destino.length);
+        int cb = offCodigoBarras;
+        int ld = offLinha;
+
+        // Campo 1: Banco + Moeda + Campo Livre[1..5] + DV1 (Módulo 10)
+        System.arraycopy(codigoBarras, cb, destino, ld, 4);
+        System.arraycopy(codigoBarras, cb + 19, destino, ld + 4, 5);
+        destino[ld + 9] = (char) ('0' + Modulo.calcularModulo10(destino, ld, ld + 9));
+
+        // Campo 2: Campo Livre[6..15] + DV2
+        System.arraycopy(codigoBarras, cb + 24, destino, ld + 10, 10);
+        destino[ld + 20] = (char) ('0' + Modulo.calcularModulo10(destino, ld + 10, ld + 20));
+
+        // Campo 3: Campo Livre[16..25] + DV3
+        System.arraycopy(codigoBarras, cb + 34, destino, ld + 21, 10);
+        destino[ld + 31] = (char) ('0' + Modulo.calcularModulo10(destino, ld + 21, ld + 31));
+
+        // Campo 4: DV geral do código de barras
+        destino[ld + 32] = codigoBarras[cb + 4];
+
+        // Campo 5: Fator de Vencimento + Valor
+        System.arraycopy(codigoBarras, cb + 5, destino, ld + 33, 14);
+    }
+
+    // Copia exatamente 'tamanho' dígitos; retorna false se o tamanho for outro ou houver não-dígito
+    private static boolean copiarDigitos(CharSequence origem, int tamanho, char[] destino, int off) {
+        if (origem.length() != tamanho) return false;
+        for (int i = 0; i < tamanho; i++) {
+            char c = origem.charAt(i);
+            if (c < '0' || c > '9') return false;
+            destino[off + i] = c;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.geradorboleto.calculos;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+// Valores monetários como long em centavos (R$ 1.234,56 -> 123456L), com rotinas próprias de escrita
+// de dígitos para o código de barras e para exibição no formato brasileiro, sem String.format.
+public class ValorCentavos {
+
+    // Maior valor que cabe nas 10 posições do código de barras: R$ 99.999.999,99
+    public static final long MAXIMO_CODIGO_BARRAS = 9_999_999_999L;
+    public static final int TAMANHO_CODIGO_BARRAS = 10;
+    // Dígitos da parte inteira (reais) que cabem no código de barras
+    public static final int DIGITOS_REAIS_CODIGO_BARRAS = 8;
+
+    // "-92.233.720.368.547.758,07" tem 26 caracteres; 32 dá folga
+    private static final int TAMANHO_MAXIMO_FORMATADO = 32;
+
+    private ValorCentavos() {}
+
+    /**
+     * Converte um BigDecimal para centavos, arredondando para 2 casas (HALF_UP, o mesmo de String.format "%.2f").
+     * @param valor Valor em reais.
+     * @return Valor em centavos.
+     * @throws IllegalArgumentException Se o valor não couber no código de barras (ver cabeNoCodigoBarras).
+     */
+    public static long deBigDecimal(BigDecimal valor) {
+        Objects.requireNonNull(valor, "Valor não pode ser nulo.");
+        if (!cabeNoCodigoBarras(valor)) {
+            throw new IllegalArgumentException("Valor excede o máximo do código de barras (R$ 99.999.999,99).");
+        }
+        if (valor.signum() == 0 || valor.precision() - valor.scale() < -2) {
+            return 0L; // Menor que 0,001: arredonda para zero sem calcular 10^escala (1e-20000000 custaria segundos)
+        }
+        try {
+            return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor fora do intervalo suportado: " + valor, e);
+        }
+    }
+
+    /**
+     * Confere, só pela precisão e escala (sem arredondar), se o valor tem no máximo 8 dígitos de reais.
+     * Deve ser chamado antes de qualquer setScale em valores vindos de fora: "1e20000000" é um BigDecimal de
+     * poucos bytes, mas arredondá-lo monta um número de 20 milhões de dígitos.
+     * @param valor Valor em reais.
+     * @return true se for zero ou tiver até 8 dígitos antes da vírgula.
+     */
+    public static boolean cabeNoCodigoBarras(BigDecimal valor) {
+        return valor.signum() == 0 || valor.precision() - valor.scale() <= DIGITOS_REAIS_CODIGO_BARRAS;
+    }
+
+    // Converte centavos de volta para BigDecimal com 2 casas
+    public static BigDecimal paraBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Escreve o valor no formato do código de barras (10 dígitos, sem separadores, com centavos).
+     * @param centavos Valor em centavos (0 a 9.999.999.999).
+     * @param destino Array de saída; recebe 10 dígitos a partir de off.
+     * @param off Posição inicial no destino.
+     */
+    public static void escreverCodigoBarras(long centavos, char[] destino, int off) {
+        validarCodigoBarras(centavos);
+        Objects.checkFromIndexSize(off, TAMANHO_CODIGO_BARRAS, destino.length);
+        long resto = centavos;
+        for (int i = off + TAMANHO_CODIGO_BARRAS - 1; i >= off; i--) {
+            destino[i] = (char) ('0' + (int) (resto % 10));
+            resto /= 10;
+        }
+    }
+
+    // Versão String de escreverCodigoBarras
+    public static String formatarCodigoBarras(long centavos) {
+        char[] buf = new char[TAMANHO_CODIGO_BARRAS];
+        escreverCodigoBarras(centavos, buf, 0);
+        return new String(buf);
+    }
+
+    /**
+     * Escreve o valor no formato brasileiro de exibição ("1.234,56"), o mesmo de String.format(pt-BR, "%,.2f").
+     * @param centavos Valor em centavos.
+     * @param destino Array de saída.
+     * @param off Posição inicial no destino.
+     * @return Quantidade de caracteres escritos.
+     */
+    public static int escreverFormatado(long centavos, char[] destino, int off) {
+        boolean negativo = centavos < 0;
+        long abs = Math.absExact(centavos);
+        long reais = abs / 100;
+        int cent = (int) (abs % 100);
+
+        int digitosReais = 1;
+        for (long r = reais; r >= 10; r /= 10) digitosReais++;
+        int tamanho = (negativo ? 1 : 0) + digitosReais + (digitosReais - 1) / 3 + 3;
+        Objects.checkFromIndexSize(off, tamanho, destino.length);
+
+        // Escreve da direita para a esquerda: centavos, vírgula, reais com ponto a cada 3 dígitos
+        int pos = off + tamanho - 1;
+        destino[pos--] = (char) ('0' + cent % 10);
+        destino[pos--] = (char) ('0' + cent / 10);
+        destino[pos--] = ',';
+        long r = reais;
+        for (int i = 0; i < digitosReais; i++) {
+            if (i > 0 && i % 3 == 0) destino[pos--] = '.';
+            destino[pos--] = (char) ('0' + (int) (r % 10));
+            r /= 10;
+        }
+        if (negativo) destino[pos] = '-';
+        return tamanho;
+    }
+
+    // Versão String de escreverFormatado (ex: 123456 -> "1.234,56")
+    public static String formatar(long centavos) {
+        char[] buf = new char[TAMANHO_MAXIMO_FORMATADO];
+        int n = escreverFormatado(centavos, buf, 0);
+        return new String(buf, 0, n);
+    }
+
+    private static void validarCodigoBarras(long centavos) {
+        if (centavos < 0) {
+            throw new IllegalArgumentException("Valor do boleto não pode ser negativo.");
+        }
+        if (centavos > MAXIMO_CODIGO_BARRAS) {
+            throw new IllegalArgumentException("Valor do boleto excede o máximo do código de barras (R$ 99.999.999,99): " + paraBigDecimal(centavos));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.geradorboleto.cnab;
+
+import br.com.geradorboleto.builder.ModeloEmissao;
+import br.com.geradorboleto.model.Banco;
+import br.com.geradorboleto.model.Pessoa;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Dados do cabeçalho de um arquivo de remessa: banco e conta do beneficiário, código do beneficiário no banco
+// (convênio / código da empresa) e número sequencial do arquivo. Imutável.
+public final class DadosRemessa {
+
+    private final Banco banco;
+    private final Pessoa beneficiario;
+    private final String codigoBeneficiario;
+    private final int numeroSequencial;
+    private final LocalDateTime dataHoraGeracao;
+
+    /**
+     * @param banco Banco, agência e conta do beneficiário (como nos boletos da remessa).
+     * @param codigoBeneficiario Convênio / código da empresa fornecido pelo banco (pode ser vazio se o banco não usa).
+     * @param numeroSequencial Número sequencial do arquivo (NSA), incrementado a cada remessa enviada ao banco.
+     * @param dataHoraGeracao Data e hora de geração (null = agora).
+     */
+    public DadosRemessa(Banco banco, Pessoa beneficiario, String codigoBeneficiario, int numeroSequencial,
+                        LocalDateTime dataHoraGeracao) {
+        this.banco = Objects.requireNonNull(banco, "Banco é obrigatório");
+        this.beneficiario = Objects.requireNonNull(beneficiario, "Beneficiário é obrigatório");
+        if (numeroSequencial < 1) {
+            throw new IllegalArgumentException("Número sequencial da remessa deve ser >= 1: " + numeroSequencial);
+        }
+        this.codigoBeneficiario = codigoBeneficiario != null ? codigoBeneficiario : "";
+        this.numeroSequencial = numeroSequencial;
+        this.dataHoraGeracao = dataHoraGeracao != null ? dataHoraGeracao : LocalDateTime.now();
+    }
+
+    // Remessa dos boletos emitidos por um ModeloEmissao, gerada agora
+    public static DadosRemessa de(ModeloEmissao modelo, int numeroSequencial) {
+        Objects.requireNonNull(modelo, "Modelo de emissão é obrigatório");
+        return new DadosRemessa(modelo.getBanco(), modelo.getBeneficiario(), modelo.getConvenio(), numeroSequencial, null);
+    }
+
+    public Banco getBanco() { return banco; }
+    public Pessoa getBeneficiario() { return beneficiario; }
+    public String getCodigoBeneficiario() { return codigoBeneficiario; }
+    public int getNumeroSequencial() { return numeroSequencial; }
+    public LocalDateTime getDataHoraGeracao() { return dataHoraGeracao; }
+}
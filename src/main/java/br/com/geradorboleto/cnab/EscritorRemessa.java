@@ -0,0 +1,189 @@
+package br.com.geradorboleto.cnab;
+
+import br.com.geradorboleto.lote.DestinoBoleto;
+import br.com.geradorboleto.model.Boleto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+// Base dos geradores de arquivo de remessa CNAB. Os boletos chegam um a um (escrever) e cada registro é montado num
+// RegistroCnab reutilizável e copiado para um buffer direto, gravado no FileChannel sempre que enche: a memória usada
+// não depende da quantidade de títulos. O cabeçalho é gravado na abertura e os trailers no close().
+// escrever(...) é sincronizado, então o mesmo escritor pode receber boletos das threads do BoletoBatchGenerator
+// (ver destino(...)); os registros ficam na ordem de chegada.
+public abstract class EscritorRemessa implements Closeable {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final byte[] FIM_DE_LINHA = {'\r', '\n'};
+
+    protected final DadosRemessa dados;
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+
+    private long registros; // Registros gravados no arquivo (todas as linhas)
+    private long titulos;
+    private long valorTotalCentavos;
+    private boolean fechado;
+
+    protected EscritorRemessa(Path arquivo, DadosRemessa dados, int tamanhoRegistro) throws IOException {
+        Objects.requireNonNull(arquivo, "O arquivo de remessa não pode ser nulo.");
+        this.dados = Objects.requireNonNull(dados, "Os dados da remessa não podem ser nulos.");
+        this.buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER - TAMANHO_BUFFER % (tamanhoRegistro + FIM_DE_LINHA.length));
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Remessa CNAB 240 (layout padrão FEBRABAN: segmentos P e Q).
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public static EscritorRemessa cnab240(Path arquivo, DadosRemessa dados) throws IOException {
+        return abrir(new RemessaCnab240(arquivo, dados));
+    }
+
+    /**
+     * Remessa CNAB 400 (layout de cobrança do Bradesco, usado como referência pela maioria dos bancos).
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public static EscritorRemessa cnab400(Path arquivo, DadosRemessa dados) throws IOException {
+        return abrir(new RemessaCnab400(arquivo, dados));
+    }
+
+    private static EscritorRemessa abrir(EscritorRemessa escritor) throws IOException {
+        try {
+            escritor.escreverCabecalho();
+            return escritor;
+        } catch (IOException | RuntimeException e) {
+            escritor.canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Inclui um título na remessa.
+     * @throws IllegalArgumentException Se o boleto for de outro banco ou tiver dados que não cabem no layout.
+     * @throws IOException Se a gravação falhar.
+     */
+    public synchronized void escrever(Boleto boleto) throws IOException {
+        Objects.requireNonNull(boleto, "Boleto não pode ser nulo.");
+        if (fechado) {
+            throw new IllegalStateException("Remessa já foi fechada.");
+        }
+        if (boleto.getBanco() == null || !dados.getBanco().getCodigoBanco().equals(boleto.getBanco().getCodigoBanco())) {
+            throw new IllegalArgumentException("Boleto de outro banco na remessa do banco " + dados.getBanco().getCodigoBanco()
+                    + ": " + (boleto.getBanco() != null ? boleto.getBanco().getCodigoBanco() : "null"));
+        }
+        escreverTitulo(boleto);
+        titulos++;
+        valorTotalCentavos += boleto.getValorCentavos();
+    }
+
+    /**
+     * Destino para o BoletoBatchGenerator que grava cada boleto em 'proximo' (ex: o PDF) e depois o inclui na
+     * remessa, na mesma passada. Um boleto cujo 'proximo' falhar não entra na remessa.
+     * @param proximo Destino anterior à remessa (null = só remessa).
+     */
+    public DestinoBoleto destino(DestinoBoleto proximo) {
+        return (indice, entrada, boleto) -> {
+            if (proximo != null) {
+                proximo.gravar(indice, entrada, boleto);
+            }
+            escrever(boleto);
+        };
+    }
+
+    public synchronized long getQuantidadeTitulos() { return titulos; }
+    public synchronized long getValorTotalCentavos() { return valorTotalCentavos; }
+    public synchronized long getQuantidadeRegistros() { return registros; }
+
+    // Grava os trailers, descarrega o buffer e fecha o arquivo
+    @Override
+    public synchronized void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        try (canal) {
+            escreverRodape();
+            descarregar();
+        }
+    }
+
+    // --- Layout (subclasses) ---
+
+    protected abstract void escreverCabecalho() throws IOException;
+
+    protected abstract void escreverTitulo(Boleto boleto) throws IOException;
+
+    protected abstract void escreverRodape() throws IOException;
+
+    // Número (1-based) que o próximo registro gravado terá no arquivo
+    protected final long proximoRegistro() {
+        return registros + 1;
+    }
+
+    protected final long titulos() { return titulos; }
+    protected final long valorTotalCentavos() { return valorTotalCentavos; }
+
+    // Copia o registro (+ CRLF) para o buffer, gravando o buffer no arquivo quando não houver espaço
+    protected final void gravar(RegistroCnab registro) throws IOException {
+        if (buffer.remaining() < registro.tamanho() + FIM_DE_LINHA.length) {
+            descarregar();
+        }
+        registro.copiarPara(buffer);
+        buffer.put(FIM_DE_LINHA);
+        registros++;
+    }
+
+    private void descarregar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // --- Auxiliares de formatação comuns aos layouts ---
+
+    // Parte numérica de "1234-5" / "12345-X" (antes do último '-'); o texto inteiro se não houver dígito
+    protected static String semDigito(String numero) {
+        if (numero == null) return "";
+        int hifen = numero.lastIndexOf('-');
+        return hifen < 0 ? numero : numero.substring(0, hifen);
+    }
+
+    // Dígito de "1234-5" (depois do último '-'); "" se não houver
+    protected static String digito(String numero) {
+        if (numero == null) return "";
+        int hifen = numero.lastIndexOf('-');
+        return hifen < 0 ? "" : numero.substring(hifen + 1).trim();
+    }
+
+    // Nosso número sem separadores (ex: "109/12345678-9" -> "109123456789")
+    protected static String nossoNumeroSemSeparadores(String nossoNumero) {
+        if (nossoNumero == null) return "";
+        StringBuilder sb = new StringBuilder(nossoNumero.length());
+        for (int i = 0; i < nossoNumero.length(); i++) {
+            char c = nossoNumero.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // Tipo de inscrição do CPF/CNPJ: 1 = CPF (até 11 dígitos), 2 = CNPJ
+    protected static int tipoInscricao(String documento) {
+        int digitos = 0;
+        if (documento != null) {
+            for (int i = 0; i < documento.length(); i++) {
+                char c = documento.charAt(i);
+                if (c >= '0' && c <= '9') digitos++;
+            }
+        }
+        return digitos > 11 ? 2 : 1;
+    }
+}
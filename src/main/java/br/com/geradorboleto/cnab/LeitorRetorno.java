@@ -0,0 +1,318 @@
+package br.com.geradorboleto.cnab;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Leitor de arquivos de retorno de cobrança (CNAB 240 FEBRABAN, e CNAB 400 do Banco do Brasil, Itaú e Bradesco).
+// O arquivo é mapeado em memória em trechos de até TAMANHO_TRECHO bytes; os registros são lidos por posição direto
+// do mapeamento, sem criar uma String por linha. Os trechos podem ser processados em paralelo.
+public final class LeitorRetorno implements Closeable {
+
+    static final int TAMANHO_TRECHO = 32 * 1024 * 1024;
+
+    private final FileChannel canal;
+    private final long tamanhoArquivo;
+    private final int tamanhoRegistro; // 240 ou 400
+    private final int passo; // Registro + fim de linha (0, 1 ou 2 bytes)
+    private final long quantidadeRegistros;
+    private final String codigoBanco;
+    private final Posicoes[] posicoes400; // Por tipo de registro de detalhe (null no CNAB 240)
+
+    private LeitorRetorno(FileChannel canal) throws IOException {
+        this.canal = canal;
+        this.tamanhoArquivo = canal.size();
+        ByteBuffer inicio = ByteBuffer.allocate(404); // Maior registro + CRLF
+        while (inicio.hasRemaining()) {
+            if (canal.read(inicio, inicio.position()) < 0) break;
+        }
+        byte[] header = new byte[inicio.position()];
+        inicio.flip().get(header);
+
+        boolean cnab400 = header.length >= 9 && "02RETORNO".equals(new String(header, 0, 9, StandardCharsets.US_ASCII));
+        this.tamanhoRegistro = cnab400 ? 400 : 240;
+        if (header.length < tamanhoRegistro) {
+            throw new IllegalArgumentException("Arquivo de retorno muito curto: " + tamanhoArquivo + " bytes");
+        }
+        int fimDeLinha = 0;
+        if (header.length > tamanhoRegistro && header[tamanhoRegistro] == '\r') fimDeLinha = 2;
+        else if (header.length > tamanhoRegistro && header[tamanhoRegistro] == '\n') fimDeLinha = 1;
+        else if (header.length > tamanhoRegistro) {
+            throw new IllegalArgumentException("Arquivo de retorno com registros de tamanho diferente de " + tamanhoRegistro + " posições.");
+        }
+        this.passo = tamanhoRegistro + fimDeLinha;
+
+        long registros = tamanhoArquivo / passo;
+        long resto = tamanhoArquivo % passo;
+        if (resto >= tamanhoRegistro) {
+            registros++; // Última linha sem fim de linha
+        } else if (resto > 1) {
+            System.err.println("AVISO: " + resto + " bytes no fim do arquivo de retorno não formam um registro e serão ignorados.");
+        }
+        this.quantidadeRegistros = registros;
+
+        if (cnab400) {
+            this.codigoBanco = new String(header, 76, 3, StandardCharsets.US_ASCII);
+            this.posicoes400 = Posicoes.cnab400(codigoBanco);
+        } else {
+            if (header[7] != '0' || header[142] != '2') {
+                throw new IllegalArgumentException("Arquivo não é um retorno CNAB 240 (header de arquivo com código de retorno '2').");
+            }
+            this.codigoBanco = new String(header, 0, 3, StandardCharsets.US_ASCII);
+            this.posicoes400 = null;
+        }
+    }
+
+    /**
+     * Abre um arquivo de retorno, identificando o layout (240 ou 400), o fim de linha e o banco pelo header.
+     * @throws IllegalArgumentException Se o arquivo não for um retorno suportado.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public static LeitorRetorno abrir(Path arquivo) throws IOException {
+        Objects.requireNonNull(arquivo, "O arquivo de retorno não pode ser nulo.");
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        try {
+            return new LeitorRetorno(canal);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    public String getCodigoBanco() { return codigoBanco; }
+    public int getTamanhoRegistro() { return tamanhoRegistro; }
+    public long getQuantidadeRegistros() { return quantidadeRegistros; }
+
+    // Lê o arquivo na thread atual
+    public ResumoRetorno processar(ProcessadorRetorno processador) throws IOException {
+        return processar(processador, 1);
+    }
+
+    /**
+     * Lê todos os títulos do arquivo, entregando cada um ao processador.
+     * @param processador Recebe cada título; deve ser thread-safe se paralelismo > 1.
+     * @param paralelismo Número de threads; cada uma lê trechos diferentes do arquivo (a ordem de entrega entre
+     *                    trechos não é garantida).
+     * @return Totais da leitura.
+     * @throws IOException Se a leitura falhar.
+     */
+    public ResumoRetorno processar(ProcessadorRetorno processador, int paralelismo) throws IOException {
+        Objects.requireNonNull(processador, "O processador do retorno não pode ser nulo.");
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("Paralelismo deve ser maior ou igual a 1: " + paralelismo);
+        }
+        long inicio = System.nanoTime();
+        List<long[]> trechos = dividirEmTrechos();
+        long titulos = 0, valorPago = 0;
+        if (paralelismo == 1 || trechos.size() == 1) {
+            for (long[] t : trechos) {
+                long[] r = processarTrecho(t[0], t[1], processador);
+                titulos += r[0];
+                valorPago += r[1];
+            }
+        } else {
+            List<Callable<long[]>> tarefas = new ArrayList<>(trechos.size());
+            for (long[] t : trechos) {
+                tarefas.add(() -> processarTrecho(t[0], t[1], processador));
+            }
+            try (ExecutorService executor = Executors.newFixedThreadPool(Math.min(paralelismo, trechos.size()), new FabricaThreads())) {
+                for (Future<long[]> f : executor.invokeAll(tarefas)) {
+                    long[] r = f.get();
+                    titulos += r[0];
+                    valorPago += r[1];
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Leitura do retorno interrompida.", e);
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof IOException io) throw io;
+                if (causa instanceof RuntimeException re) throw re;
+                throw new IllegalStateException("Erro na leitura do retorno.", causa);
+            }
+        }
+        return new ResumoRetorno(quantidadeRegistros, titulos, valorPago, Duration.ofNanos(System.nanoTime() - inicio), paralelismo);
+    }
+
+    // O mapeamento é liberado pelo GC; close() só fecha o canal
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    // Trechos [primeiro registro, quantidade]. No CNAB 240 um trecho nunca começa num segmento U, para que o par
+    // T/U de um título fique inteiro no mesmo trecho.
+    private List<long[]> dividirEmTrechos() throws IOException {
+        long porTrecho = Math.max(1, TAMANHO_TRECHO / passo);
+        List<long[]> trechos = new ArrayList<>();
+        long primeiro = 0;
+        ByteBuffer segmento = ByteBuffer.allocate(1);
+        while (primeiro < quantidadeRegistros) {
+            long fim = Math.min(quantidadeRegistros, primeiro + porTrecho);
+            while (posicoes400 == null && fim < quantidadeRegistros) {
+                segmento.clear();
+                canal.read(segmento, fim * passo + 13);
+                if (segmento.get(0) != 'U') break;
+                fim++;
+            }
+            trechos.add(new long[]{primeiro, fim - primeiro});
+            primeiro = fim;
+        }
+        return trechos;
+    }
+
+    // Lê os registros [primeiro, primeiro + quantidade); retorna {títulos, valor pago em centavos}
+    private long[] processarTrecho(long primeiro, long quantidade, ProcessadorRetorno processador) throws IOException {
+        long posicao = primeiro * passo;
+        int tamanho = (int) Math.min(quantidade * passo, tamanhoArquivo - posicao);
+        MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, posicao, tamanho);
+        RegistroRetorno registro = new RegistroRetorno(codigoBanco);
+        long titulos = 0, valorPago = 0;
+        boolean pendente = false; // CNAB 240: segmento T lido, aguardando o U
+
+        for (int i = 0; i < quantidade; i++) {
+            int off = i * passo;
+            long numero = primeiro + i + 1;
+            if (posicoes400 != null) {
+                Posicoes p = posicoes400[dados.get(off) & 0x7F];
+                if (p == null) continue; // Header, trailer ou tipo não tratado
+                registro.iniciar(dados, numero);
+                p.preencher(dados, off, registro);
+                processador.processar(registro);
+                titulos++;
+                valorPago += registro.getValorPagoCentavos();
+                continue;
+            }
+            if (dados.get(off + 7) != '3') {
+                continue; // Headers e trailers de arquivo/lote
+            }
+            byte seg = dados.get(off + 13);
+            if (seg == 'T') {
+                if (pendente) {
+                    processador.processar(registro); // T sem U
+                    titulos++;
+                    valorPago += registro.getValorPagoCentavos();
+                }
+                registro.iniciar(dados, numero);
+                registro.nossoNumero(off + 37, 20);
+                registro.codigoOcorrencia((int) numero(dados, off + 15, 2));
+                registro.valorTituloCentavos(numero(dados, off + 81, 15));
+                pendente = true;
+            } else if (seg == 'U' && pendente) {
+                registro.valorPagoCentavos(numero(dados, off + 77, 15));
+                registro.dataOcorrencia(data8(dados, off + 137));
+                registro.dataCredito(data8(dados, off + 145));
+                processador.processar(registro);
+                titulos++;
+                valorPago += registro.getValorPagoCentavos();
+                pendente = false;
+            }
+        }
+        if (pendente) {
+            processador.processar(registro);
+            titulos++;
+            valorPago += registro.getValorPagoCentavos();
+        }
+        return new long[]{titulos, valorPago};
+    }
+
+    // Campo numérico (brancos contam como zero)
+    static long numero(ByteBuffer dados, int off, int tamanho) {
+        long valor = 0;
+        for (int i = off, fim = off + tamanho; i < fim; i++) {
+            int b = dados.get(i);
+            if (b == ' ') b = '0';
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException("Caractere não numérico no arquivo de retorno (byte " + i + " do trecho)");
+            }
+            valor = valor * 10 + (b - '0');
+        }
+        return valor;
+    }
+
+    // DDMMAAAA -> AAAAMMDD
+    static int data8(ByteBuffer dados, int off) {
+        int ddmmaaaa = (int) numero(dados, off, 8);
+        return ddmmaaaa == 0 ? 0 : (ddmmaaaa % 10000) * 10000 + (ddmmaaaa / 10000 % 100) * 100 + ddmmaaaa / 1000000;
+    }
+
+    // DDMMAA -> AAAAMMDD (século 2000)
+    static int data6(ByteBuffer dados, int off) {
+        int ddmmaa = (int) numero(dados, off, 6);
+        return ddmmaa == 0 ? 0 : (2000 + ddmmaa % 100) * 10000 + (ddmmaa / 100 % 100) * 100 + ddmmaa / 10000;
+    }
+
+    // Posições (1-based, como nos manuais) do registro de detalhe CNAB 400 de cada banco
+    private static final class Posicoes {
+        final int nossoNumeroDe, nossoNumeroAte, ocorrencia, dataOcorrencia, valorTitulo, valorPago, dataCredito;
+
+        Posicoes(int nossoNumeroDe, int nossoNumeroAte, int ocorrencia, int dataOcorrencia, int valorTitulo,
+                 int valorPago, int dataCredito) {
+            this.nossoNumeroDe = nossoNumeroDe;
+            this.nossoNumeroAte = nossoNumeroAte;
+            this.ocorrencia = ocorrencia;
+            this.dataOcorrencia = dataOcorrencia;
+            this.valorTitulo = valorTitulo;
+            this.valorPago = valorPago;
+            this.dataCredito = dataCredito;
+        }
+
+        void preencher(ByteBuffer dados, int off, RegistroRetorno r) {
+            r.nossoNumero(off + nossoNumeroDe - 1, nossoNumeroAte - nossoNumeroDe + 1);
+            r.codigoOcorrencia((int) numero(dados, off + ocorrencia - 1, 2));
+            r.dataOcorrencia(data6(dados, off + dataOcorrencia - 1));
+            r.valorTituloCentavos(numero(dados, off + valorTitulo - 1, 13));
+            r.valorPagoCentavos(numero(dados, off + valorPago - 1, 13));
+            r.dataCredito(data6(dados, off + dataCredito - 1));
+        }
+
+        // Índice = tipo do registro de detalhe (1ª posição)
+        static Posicoes[] cnab400(String codigoBanco) {
+            Posicoes[] porTipo = new Posicoes[128];
+            switch (codigoBanco) {
+                case "001":
+                    porTipo['7'] = new Posicoes(64, 80, 109, 111, 153, 254, 176); // Convênio de 7 dígitos
+                    porTipo['1'] = new Posicoes(63, 73, 109, 111, 153, 254, 176); // Convênio de 6 dígitos
+                    break;
+                case "341":
+                    porTipo['1'] = new Posicoes(63, 70, 109, 111, 153, 254, 296);
+                    break;
+                case "237":
+                    porTipo['1'] = new Posicoes(71, 82, 109, 111, 153, 254, 296);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Retorno CNAB 400 não suportado para o banco " + codigoBanco
+                            + " (suportados: 001, 341, 237; para os demais use o CNAB 240).");
+            }
+            return porTipo;
+        }
+    }
+
+    // Threads nomeadas, como no BoletoBatchGenerator
+    private static class FabricaThreads implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "leitor-retorno-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.geradorboleto.cnab;
+
+// Recebe cada título lido do arquivo de retorno (ex: baixa da cobrança no sistema)
+@FunctionalInterface
+public interface ProcessadorRetorno {
+
+    // Com leitura paralela, é chamado por várias threads ao mesmo tempo: implementações devem ser thread-safe.
+    // O registro é reaproveitado após o retorno do método.
+    void processar(RegistroRetorno registro);
+}
@@ -0,0 +1,145 @@
+package br.com.geradorboleto.cnab;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Registro de tamanho fixo (240 ou 400 posições) de um arquivo CNAB, montado direto em bytes ASCII.
+// Reutilizável: limpar() volta tudo para brancos e cada campo é escrito por posição (1-based, inclusiva,
+// como nos manuais dos bancos). Não é thread-safe.
+public final class RegistroCnab {
+
+    // Letras acentuadas do Latin-1 (U+00C0..U+00FF) sem acento, em maiúsculas; '?' para os demais símbolos
+    private static final String SEM_ACENTO =
+            "AAAAAAACEEEEIIII" + "DNOOOOO?OUUUUY??" +
+            "AAAAAAACEEEEIIII" + "DNOOOOO?OUUUUY?Y";
+
+    private final byte[] dados;
+
+    public RegistroCnab(int tamanho) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho do registro CNAB deve ser >= 1: " + tamanho);
+        }
+        this.dados = new byte[tamanho];
+        limpar();
+    }
+
+    public int tamanho() {
+        return dados.length;
+    }
+
+    // Preenche o registro inteiro com brancos
+    public RegistroCnab limpar() {
+        Arrays.fill(dados, (byte) ' ');
+        return this;
+    }
+
+    /**
+     * Campo alfanumérico: alinhado à esquerda, completado com brancos e truncado no tamanho do campo.
+     * Letras são convertidas para maiúsculas sem acento (o CNAB só aceita ASCII).
+     * @param texto Conteúdo (null = brancos).
+     */
+    public RegistroCnab alfa(int de, int ate, CharSequence texto) {
+        int inicio = inicio(de, ate);
+        int tamanho = ate - de + 1;
+        int n = texto == null ? 0 : Math.min(texto.length(), tamanho);
+        for (int i = 0; i < n; i++) {
+            dados[inicio + i] = ascii(texto.charAt(i));
+        }
+        Arrays.fill(dados, inicio + n, inicio + tamanho, (byte) ' ');
+        return this;
+    }
+
+    /**
+     * Campo numérico: alinhado à direita e completado com zeros.
+     * @throws IllegalArgumentException Se o valor for negativo ou não couber no campo.
+     */
+    public RegistroCnab numero(int de, int ate, long valor) {
+        int inicio = inicio(de, ate);
+        if (valor < 0) {
+            throw new IllegalArgumentException("Campo numérico CNAB (posições " + de + "-" + ate + ") não aceita valor negativo: " + valor);
+        }
+        long v = valor;
+        for (int i = inicio + (ate - de); i >= inicio; i--) {
+            dados[i] = (byte) ('0' + (v % 10));
+            v /= 10;
+        }
+        if (v != 0) {
+            throw new IllegalArgumentException("Valor " + valor + " não cabe no campo numérico CNAB (posições " + de + "-" + ate + ")");
+        }
+        return this;
+    }
+
+    /**
+     * Campo numérico a partir de um texto: só os dígitos são usados (ex: "12.345.678/0001-99", "1234-5"),
+     * alinhados à direita e completados com zeros.
+     * @param texto Conteúdo (null = zeros).
+     * @throws IllegalArgumentException Se houver mais dígitos que o tamanho do campo.
+     */
+    public RegistroCnab digitos(int de, int ate, CharSequence texto) {
+        int inicio = inicio(de, ate);
+        int p = inicio + (ate - de);
+        if (texto != null) {
+            for (int i = texto.length() - 1; i >= 0; i--) {
+                char c = texto.charAt(i);
+                if (c < '0' || c > '9') {
+                    continue;
+                }
+                if (p < inicio) {
+                    throw new IllegalArgumentException("Conteúdo não cabe no campo numérico CNAB (posições " + de + "-" + ate + "): " + texto);
+                }
+                dados[p--] = (byte) c;
+            }
+        }
+        Arrays.fill(dados, inicio, p + 1, (byte) '0');
+        return this;
+    }
+
+    /**
+     * Data no formato DDMMAA (campo de 6 posições) ou DDMMAAAA (8 posições).
+     * @param data Data (null = zeros).
+     */
+    public RegistroCnab data(int de, int ate, LocalDate data) {
+        int tamanho = ate - de + 1;
+        if (tamanho != 6 && tamanho != 8) {
+            throw new IllegalArgumentException("Campo de data CNAB deve ter 6 ou 8 posições: " + de + "-" + ate);
+        }
+        if (data == null) {
+            return numero(de, ate, 0);
+        }
+        int ano = tamanho == 6 ? data.getYear() % 100 : data.getYear();
+        long valor = (data.getDayOfMonth() * 100L + data.getMonthValue()) * (tamanho == 6 ? 100 : 10000) + ano;
+        return numero(de, ate, valor);
+    }
+
+    // Copia o registro para o buffer de saída (sem terminador de linha)
+    public void copiarPara(ByteBuffer destino) {
+        destino.put(dados);
+    }
+
+    @Override
+    public String toString() {
+        return new String(dados, StandardCharsets.US_ASCII);
+    }
+
+    private int inicio(int de, int ate) {
+        if (de < 1 || ate > dados.length || de > ate) {
+            throw new IllegalArgumentException("Posições inválidas para registro CNAB de " + dados.length + ": " + de + "-" + ate);
+        }
+        return de - 1;
+    }
+
+    private static byte ascii(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return (byte) (c - 'a' + 'A');
+        }
+        if (c >= ' ' && c < 0x7F) {
+            return (byte) c;
+        }
+        if (c >= 0xC0 && c <= 0xFF) {
+            return (byte) SEM_ACENTO.charAt(c - 0xC0);
+        }
+        return (byte) (c == '\n' || c == '\r' || c == '\t' ? ' ' : '?');
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.geradorboleto.cnab;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+// Título lido de um arquivo de retorno. A mesma instância é reaproveitada para todos os registros de um trecho do
+// arquivo: os campos numéricos são decodificados direto dos bytes mapeados e só getNossoNumero() cria uma String.
+// Só é válida durante a chamada de ProcessadorRetorno.processar(...); copie o que precisar guardar.
+public final class RegistroRetorno {
+
+    private final String codigoBanco;
+
+    private ByteBuffer dados;
+    private int inicioNossoNumero, tamanhoNossoNumero; // Posição absoluta no buffer (0-based)
+    private long numeroRegistro;
+    private int codigoOcorrencia;
+    private long valorTituloCentavos;
+    private long valorPagoCentavos;
+    private int dataOcorrencia; // AAAAMMDD, 0 = não informada
+    private int dataCredito;
+
+    RegistroRetorno(String codigoBanco) {
+        this.codigoBanco = codigoBanco;
+    }
+
+    public String getCodigoBanco() { return codigoBanco; }
+
+    // Número da linha do registro no arquivo (1 = header)
+    public long getNumeroRegistro() { return numeroRegistro; }
+
+    // Código de ocorrência/movimento do banco (ex: 06 = liquidação no CNAB 400 e no CNAB 240)
+    public int getCodigoOcorrencia() { return codigoOcorrencia; }
+
+    public long getValorTituloCentavos() { return valorTituloCentavos; }
+    public long getValorPagoCentavos() { return valorPagoCentavos; }
+
+    // Data da ocorrência (pagamento, no caso de liquidação) como AAAAMMDD; 0 se não informada
+    public int getDataOcorrenciaNumerica() { return dataOcorrencia; }
+    public int getDataCreditoNumerica() { return dataCredito; }
+
+    public LocalDate getDataOcorrencia() { return data(dataOcorrencia); }
+    public LocalDate getDataCredito() { return data(dataCredito); }
+
+    // Nosso número como está no arquivo, sem os brancos à direita
+    public String getNossoNumero() {
+        int fim = inicioNossoNumero + tamanhoNossoNumero;
+        while (fim > inicioNossoNumero && dados.get(fim - 1) == ' ') fim--;
+        char[] c = new char[fim - inicioNossoNumero];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = (char) (dados.get(inicioNossoNumero + i) & 0xFF);
+        }
+        return new String(c);
+    }
+
+    /**
+     * Nosso número como número, sem criar objetos (ex: para procurar o título num índice).
+     * Brancos são ignorados.
+     * @return Valor, ou -1 se houver caractere não numérico (ex: DV 'P' do Bradesco) ou mais de 18 dígitos.
+     */
+    public long getNossoNumeroComoLong() {
+        long valor = 0;
+        int digitos = 0;
+        for (int i = inicioNossoNumero, fim = inicioNossoNumero + tamanhoNossoNumero; i < fim; i++) {
+            int b = dados.get(i);
+            if (b == ' ') continue;
+            if (b < '0' || b > '9' || ++digitos > 18) return -1;
+            valor = valor * 10 + (b - '0');
+        }
+        return valor;
+    }
+
+    // --- Preenchimento pelo LeitorRetorno ---
+
+    void iniciar(ByteBuffer dados, long numeroRegistro) {
+        this.dados = dados;
+        this.numeroRegistro = numeroRegistro;
+        this.codigoOcorrencia = 0;
+        this.valorTituloCentavos = 0;
+        this.valorPagoCentavos = 0;
+        this.dataOcorrencia = 0;
+        this.dataCredito = 0;
+        this.tamanhoNossoNumero = 0;
+    }
+
+    void nossoNumero(int inicio, int tamanho) {
+        this.inicioNossoNumero = inicio;
+        this.tamanhoNossoNumero = tamanho;
+    }
+
+    void codigoOcorrencia(int codigo) { this.codigoOcorrencia = codigo; }
+    void valorTituloCentavos(long valor) { this.valorTituloCentavos = valor; }
+    void valorPagoCentavos(long valor) { this.valorPagoCentavos = valor; }
+    void dataOcorrencia(int aaaammdd) { this.dataOcorrencia = aaaammdd; }
+    void dataCredito(int aaaammdd) { this.dataCredito = aaaammdd; }
+
+    private static LocalDate data(int aaaammdd) {
+        return aaaammdd == 0 ? null : LocalDate.of(aaaammdd / 10000, aaaammdd / 100 % 100, aaaammdd % 100);
+    }
+
+    @Override
+    public String toString() {
+        return "Registro " + numeroRegistro + ": nosso número " + getNossoNumero() + ", ocorrência " + codigoOcorrencia
+                + ", valor pago " + valorPagoCentavos + ", data " + dataOcorrencia;
+    }
+}
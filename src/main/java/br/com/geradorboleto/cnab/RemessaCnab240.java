@@ -0,0 +1,180 @@
+package br.com.geradorboleto.cnab;
+
+import br.com.geradorboleto.model.Banco;
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+// Remessa de cobrança CNAB 240 no layout padrão FEBRABAN (v08.9 / lote v04.5): header de arquivo, header de lote,
+// segmentos P (título) e Q (pagador) por boleto, trailer de lote e trailer de arquivo.
+// O sequencial do registro no lote tem 5 dígitos, então um novo lote é aberto a cada MAX_TITULOS_POR_LOTE títulos.
+// Particularidades de cada banco (ex: formato do nosso número nas posições 38-57) não são tratadas aqui.
+final class RemessaCnab240 extends EscritorRemessa {
+
+    static final int TAMANHO_REGISTRO = 240;
+    static final int MAX_TITULOS_POR_LOTE = 49_998; // 2 segmentos por título, sequencial de 5 dígitos
+    private static final long MAX_REGISTROS_ARQUIVO = 999_999; // Trailer de arquivo: 6 dígitos
+
+    private final RegistroCnab controle = new RegistroCnab(TAMANHO_REGISTRO); // Headers e trailers
+    private final RegistroCnab segmentoP = new RegistroCnab(TAMANHO_REGISTRO);
+    private final RegistroCnab segmentoQ = new RegistroCnab(TAMANHO_REGISTRO);
+
+    // Campos fixos do beneficiário, formatados uma vez
+    private final String codigoBanco;
+    private final int tipoInscricaoEmpresa;
+    private final String agencia, digitoAgencia, conta, digitoConta;
+
+    private int lote; // Lote aberto (0 = nenhum)
+    private int titulosNoLote;
+    private long valorNoLote;
+    private int lotes;
+
+    RemessaCnab240(Path arquivo, DadosRemessa dados) throws IOException {
+        super(arquivo, dados, TAMANHO_REGISTRO);
+        Banco banco = dados.getBanco();
+        this.codigoBanco = banco.getCodigoBanco();
+        this.tipoInscricaoEmpresa = tipoInscricao(dados.getBeneficiario().getDocumento());
+        this.agencia = semDigito(banco.getAgencia());
+        this.digitoAgencia = digito(banco.getAgencia());
+        this.conta = semDigito(banco.getContaCorrente());
+        this.digitoConta = digito(banco.getContaCorrente());
+    }
+
+    @Override
+    protected void escreverCabecalho() throws IOException {
+        LocalDateTime agora = dados.getDataHoraGeracao();
+        RegistroCnab r = controle.limpar();
+        r.alfa(1, 3, codigoBanco).numero(4, 7, 0).numero(8, 8, 0);
+        r.numero(18, 18, tipoInscricaoEmpresa).digitos(19, 32, dados.getBeneficiario().getDocumento());
+        r.alfa(33, 52, dados.getCodigoBeneficiario());
+        contaBeneficiario(r, 53);
+        r.alfa(73, 102, dados.getBeneficiario().getNome()).alfa(103, 132, dados.getBanco().getNomeBanco());
+        r.numero(143, 143, 1); // 1 = remessa
+        r.data(144, 151, agora.toLocalDate());
+        r.numero(152, 157, agora.getHour() * 10000L + agora.getMinute() * 100L + agora.getSecond());
+        r.numero(158, 163, dados.getNumeroSequencial());
+        r.alfa(164, 166, "089").numero(167, 171, 0);
+        gravar(r);
+    }
+
+    @Override
+    protected void escreverTitulo(Boleto boleto) throws IOException {
+        int lotePrevisto = (lote == 0 || titulosNoLote == MAX_TITULOS_POR_LOTE) ? lote + 1 : lote;
+        // Gravados + (trailer do lote anterior e header do novo) + segmentos P e Q + trailers de lote e de arquivo
+        long necessarios = (proximoRegistro() - 1) + (lotePrevisto != lote ? (lote != 0 ? 2 : 1) : 0) + 2 + 2;
+        if (necessarios > MAX_REGISTROS_ARQUIVO) {
+            throw new IllegalStateException("Remessa CNAB 240 atingiu o limite de " + MAX_REGISTROS_ARQUIVO
+                    + " registros por arquivo; divida os títulos em mais remessas.");
+        }
+        int sequencial = lotePrevisto == lote ? titulosNoLote * 2 + 1 : 1;
+
+        // Monta os dois segmentos antes de gravar: um título com dado inválido não deixa registro pela metade
+        RegistroCnab p = segmentoP.limpar();
+        detalhe(p, lotePrevisto, sequencial, "P");
+        contaBeneficiario(p, 18);
+        p.alfa(38, 57, nossoNumeroSemSeparadores(boleto.getNossoNumero()));
+        p.numero(58, 58, 1); // Cobrança simples
+        p.numero(59, 59, 1); // Com cadastramento (registrada)
+        p.alfa(60, 60, "1"); // Tradicional
+        p.numero(61, 61, 2); // Boleto emitido pelo beneficiário
+        p.numero(62, 62, 2); // Distribuído pelo beneficiário
+        p.alfa(63, 77, boleto.getNumeroDocumento());
+        p.data(78, 85, boleto.getDataVencimento());
+        p.numero(86, 100, boleto.getValorCentavos());
+        p.numero(101, 105, 0).alfa(106, 106, "0");
+        p.numero(107, 108, 2).alfa(109, 109, "N"); // Espécie DM, sem aceite
+        p.data(110, 117, boleto.getDataDocumento());
+        p.numero(118, 118, 3).numero(119, 126, 0).numero(127, 141, 0); // Juros: isento
+        p.numero(142, 142, 0).numero(143, 150, 0).numero(151, 165, 0); // Sem desconto
+        p.numero(166, 180, 0).numero(181, 195, 0); // IOF, abatimento
+        p.alfa(196, 220, boleto.getNumeroDocumento()); // Identificação do título na empresa
+        p.numero(221, 221, 3).numero(222, 223, 0); // Não protestar
+        p.numero(224, 224, 0).alfa(225, 227, "000");
+        p.numero(228, 229, 9).numero(230, 239, 0); // Moeda: real
+
+        Pessoa sacado = boleto.getSacado();
+        Endereco endereco = sacado != null ? sacado.getEndereco() : null;
+        RegistroCnab q = segmentoQ.limpar();
+        detalhe(q, lotePrevisto, sequencial + 1, "Q");
+        if (sacado != null) {
+            q.numero(18, 18, tipoInscricao(sacado.getDocumento())).digitos(19, 33, sacado.getDocumento());
+            q.alfa(34, 73, sacado.getNome());
+        } else {
+            q.numero(18, 33, 0);
+        }
+        if (endereco != null) {
+            q.alfa(74, 113, endereco.getLogradouro()).alfa(114, 128, endereco.getBairro());
+            q.digitos(129, 136, endereco.getCep()).alfa(137, 151, endereco.getCidade()).alfa(152, 153, endereco.getUf());
+        } else {
+            q.numero(129, 136, 0);
+        }
+        q.numero(154, 154, 0).numero(155, 169, 0).numero(210, 212, 0);
+
+        if (lotePrevisto != lote) {
+            if (lote != 0) {
+                fecharLote();
+            }
+            abrirLote(lotePrevisto);
+        }
+        gravar(p);
+        gravar(q);
+        titulosNoLote++;
+        valorNoLote += boleto.getValorCentavos();
+    }
+
+    @Override
+    protected void escreverRodape() throws IOException {
+        if (lote != 0) {
+            fecharLote();
+        }
+        RegistroCnab r = controle.limpar();
+        r.alfa(1, 3, codigoBanco).numero(4, 7, 9999).numero(8, 8, 9);
+        r.numero(18, 23, lotes);
+        r.numero(24, 29, proximoRegistro()); // Inclui o próprio trailer
+        r.numero(30, 35, 0);
+        gravar(r);
+    }
+
+    private void abrirLote(int numero) throws IOException {
+        lote = numero;
+        lotes++;
+        titulosNoLote = 0;
+        valorNoLote = 0;
+        RegistroCnab r = controle.limpar();
+        r.alfa(1, 3, codigoBanco).numero(4, 7, lote).numero(8, 8, 1);
+        r.alfa(9, 9, "R").numero(10, 11, 1).alfa(14, 16, "045");
+        r.numero(18, 18, tipoInscricaoEmpresa).digitos(19, 33, dados.getBeneficiario().getDocumento());
+        r.alfa(34, 53, dados.getCodigoBeneficiario());
+        contaBeneficiario(r, 54);
+        r.alfa(74, 103, dados.getBeneficiario().getNome());
+        r.numero(184, 191, dados.getNumeroSequencial());
+        r.data(192, 199, dados.getDataHoraGeracao().toLocalDate()).numero(200, 207, 0);
+        gravar(r);
+    }
+
+    private void fecharLote() throws IOException {
+        RegistroCnab r = controle.limpar();
+        r.alfa(1, 3, codigoBanco).numero(4, 7, lote).numero(8, 8, 5);
+        r.numero(18, 23, titulosNoLote * 2L + 2); // Header + segmentos + trailer
+        r.numero(24, 29, titulosNoLote).numero(30, 46, valorNoLote); // Cobrança simples
+        r.numero(47, 115, 0); // Vinculada, caucionada e descontada
+        gravar(r);
+    }
+
+    // Campos 1-17 comuns aos segmentos de detalhe
+    private void detalhe(RegistroCnab r, int numeroLote, int sequencial, String segmento) {
+        r.alfa(1, 3, codigoBanco).numero(4, 7, numeroLote).numero(8, 8, 3);
+        r.numero(9, 13, sequencial).alfa(14, 14, segmento);
+        r.numero(16, 17, 1); // 01 = entrada de título
+    }
+
+    // Agência(5) + DV(1) + Conta(12) + DV(1) + DV Ag/Conta(1) a partir da posição 'de'
+    private void contaBeneficiario(RegistroCnab r, int de) {
+        r.digitos(de, de + 4, agencia).alfa(de + 5, de + 5, digitoAgencia);
+        r.digitos(de + 6, de + 17, conta).alfa(de + 18, de + 18, digitoConta).alfa(de + 19, de + 19, "");
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.geradorboleto.cnab;
+
+import br.com.geradorboleto.model.Banco;
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Remessa de cobrança CNAB 400 no layout do Bradesco (header 0, detalhe tipo 1 por boleto, trailer 9).
+// Os demais bancos têm variações próprias nas posições do detalhe; o header e o trailer são comuns.
+final class RemessaCnab400 extends EscritorRemessa {
+
+    static final int TAMANHO_REGISTRO = 400;
+    private static final long MAX_REGISTROS_ARQUIVO = 999_999; // Sequencial do registro: 6 dígitos
+
+    private final RegistroCnab registro = new RegistroCnab(TAMANHO_REGISTRO);
+
+    private final String codigoBanco;
+    private final String carteira, agencia, conta, digitoConta;
+
+    RemessaCnab400(Path arquivo, DadosRemessa dados) throws IOException {
+        super(arquivo, dados, TAMANHO_REGISTRO);
+        Banco banco = dados.getBanco();
+        this.codigoBanco = banco.getCodigoBanco();
+        this.carteira = banco.getCarteira();
+        this.agencia = semDigito(banco.getAgencia());
+        this.conta = semDigito(banco.getContaCorrente());
+        this.digitoConta = digito(banco.getContaCorrente());
+    }
+
+    @Override
+    protected void escreverCabecalho() throws IOException {
+        RegistroCnab r = registro.limpar();
+        r.numero(1, 1, 0).numero(2, 2, 1).alfa(3, 9, "REMESSA");
+        r.numero(10, 11, 1).alfa(12, 26, "COBRANCA");
+        r.digitos(27, 46, dados.getCodigoBeneficiario());
+        r.alfa(47, 76, dados.getBeneficiario().getNome());
+        r.alfa(77, 79, codigoBanco).alfa(80, 94, dados.getBanco().getNomeBanco());
+        r.data(95, 100, dados.getDataHoraGeracao().toLocalDate());
+        r.alfa(109, 110, "MX").numero(111, 117, dados.getNumeroSequencial());
+        r.numero(395, 400, proximoRegistro());
+        gravar(r);
+    }
+
+    @Override
+    protected void escreverTitulo(Boleto boleto) throws IOException {
+        // Reserva o registro do trailer
+        if (proximoRegistro() + 1 > MAX_REGISTROS_ARQUIVO) {
+            throw new IllegalStateException("Remessa CNAB 400 atingiu o limite de " + MAX_REGISTROS_ARQUIVO
+                    + " registros por arquivo; divida os títulos em mais remessas.");
+        }
+        RegistroCnab r = registro.limpar();
+        r.numero(1, 1, 1);
+        r.numero(2, 20, 0); // Débito automático: não usado
+        // Identificação da empresa: zero + carteira(3) + agência(5) + conta(7) + dígito(1)
+        r.numero(21, 21, 0).digitos(22, 24, carteira).digitos(25, 29, agencia).digitos(30, 36, conta).alfa(37, 37, digitoConta);
+        r.alfa(38, 62, boleto.getNumeroDocumento()); // Controle do participante
+        r.numero(63, 65, 0).numero(66, 66, 0).numero(67, 70, 0); // Sem multa
+        nossoNumero(r, boleto.getNossoNumero());
+        r.numero(83, 92, 0);
+        r.numero(93, 93, 2).alfa(94, 94, "N"); // Boleto emitido pelo beneficiário, sem débito automático
+        r.numero(109, 110, 1); // 01 = remessa (entrada de título)
+        r.alfa(111, 120, boleto.getNumeroDocumento());
+        r.data(121, 126, boleto.getDataVencimento());
+        r.numero(127, 139, boleto.getValorCentavos());
+        r.numero(140, 142, 0).numero(143, 147, 0);
+        r.numero(148, 149, 1).alfa(150, 150, "N"); // Espécie duplicata, sem aceite
+        r.data(151, 156, boleto.getDataDocumento());
+        r.numero(157, 160, 0); // Sem instruções
+        r.numero(161, 173, 0).numero(174, 179, 0).numero(180, 192, 0); // Mora, desconto
+        r.numero(193, 205, 0).numero(206, 218, 0); // IOF, abatimento
+        Pessoa sacado = boleto.getSacado();
+        Endereco endereco = sacado != null ? sacado.getEndereco() : null;
+        if (sacado != null) {
+            r.numero(219, 220, tipoInscricao(sacado.getDocumento())).digitos(221, 234, sacado.getDocumento());
+            r.alfa(235, 274, sacado.getNome());
+        } else {
+            r.numero(219, 234, 0);
+        }
+        if (endereco != null) {
+            r.alfa(275, 314, endereco.getLogradouro()).digitos(327, 334, endereco.getCep());
+        } else {
+            r.numero(327, 334, 0);
+        }
+        r.numero(395, 400, proximoRegistro());
+        gravar(r);
+    }
+
+    @Override
+    protected void escreverRodape() throws IOException {
+        RegistroCnab r = registro.limpar();
+        r.numero(1, 1, 9).numero(395, 400, proximoRegistro());
+        gravar(r);
+    }
+
+    // Nosso número(11) + DV(1) nas posições 71-82: os últimos 12 caracteres do nosso número sem separadores
+    // (ex: "09/00000000001-P" -> "00000000001P"), completados com zeros à esquerda
+    private static void nossoNumero(RegistroCnab r, String nossoNumero) {
+        String nn = nossoNumeroSemSeparadores(nossoNumero);
+        if (nn.length() > 12) {
+            nn = nn.substring(nn.length() - 12);
+        }
+        if (nn.length() < 12) {
+            r.numero(71, 82 - nn.length(), 0);
+        }
+        if (!nn.isEmpty()) {
+            r.alfa(83 - nn.length(), 82, nn);
+        }
+    }
+}
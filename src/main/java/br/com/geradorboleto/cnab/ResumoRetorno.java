@@ -0,0 +1,37 @@
+package br.com.geradorboleto.cnab;
+
+import java.time.Duration;
+
+// Resultado da leitura de um arquivo de retorno pelo LeitorRetorno
+public class ResumoRetorno {
+    private final long registros; // Linhas do arquivo (inclui header e trailer)
+    private final long titulos;
+    private final long valorPagoCentavos;
+    private final Duration duracao;
+    private final int paralelismo;
+
+    public ResumoRetorno(long registros, long titulos, long valorPagoCentavos, Duration duracao, int paralelismo) {
+        this.registros = registros;
+        this.titulos = titulos;
+        this.valorPagoCentavos = valorPagoCentavos;
+        this.duracao = duracao;
+        this.paralelismo = paralelismo;
+    }
+
+    public long getRegistros() { return registros; }
+    public long getTitulos() { return titulos; }
+    public long getValorPagoCentavos() { return valorPagoCentavos; }
+    public Duration getDuracao() { return duracao; }
+    public int getParalelismo() { return paralelismo; }
+
+    public double getRegistrosPorSegundo() {
+        long nanos = duracao.toNanos();
+        return nanos > 0 ? registros * 1_000_000_000.0 / nanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Retorno: %d registros, %d títulos, valor pago %d centavos em %.3f s com %d threads -> %.0f registros/s",
+                registros, titulos, valorPagoCentavos, duracao.toNanos() / 1_000_000_000.0, paralelismo, getRegistrosPorSegundo());
+    }
+}
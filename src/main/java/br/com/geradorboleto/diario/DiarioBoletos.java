@@ -0,0 +1,403 @@
+package br.com.geradorboleto.diario;
+
+import br.com.geradorboleto.lote.DestinoBoleto;
+import br.com.geradorboleto.model.Boleto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+// Diário (journal) só de inclusão dos boletos emitidos, em disco local: código de barras, nosso número, valor,
+// vencimento e documento do sacado de cada boleto, em registros binários de ~80 bytes com CRC32 (a linha digitável
+// é montada a partir do código de barras na leitura). Ver SegmentoDiario para o formato.
+//
+// Os registros são copiados para um segmento mapeado em memória; quando ele enche, é sincronizado com o disco e um
+// novo segmento é criado. A sincronização é em grupo (group commit): a thread que chega primeiro em registrar(...)
+// faz o force() de tudo o que já foi copiado, e as que chegam enquanto isso esperam e são cobertas pelo force()
+// seguinte, então um lote com várias threads faz bem menos fsyncs que boletos.
+// Na abertura só o último segmento é percorrido (os anteriores foram sincronizados por inteiro ao serem fechados);
+// um registro incompleto no fim, de uma gravação interrompida, é descartado.
+// Um segmento novo é montado com outro nome (cabeçalho gravado e sincronizado) e só então renomeado atomicamente,
+// então o último segmento sempre tem cabeçalho válido. Um último segmento todo zerado (rolagem interrompida por uma
+// versão anterior, ou arquivo truncado pelo sistema de arquivos) é criado de novo na abertura.
+public final class DiarioBoletos implements Closeable {
+
+    public static final int TAMANHO_SEGMENTO_PADRAO = 64 * 1024 * 1024;
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+
+    // Protegidos por 'this'
+    private FileChannel canal;
+    private MappedByteBuffer segmento;
+    private long numeroSegmento;
+    private int posicao; // Próximo byte livre do segmento atual
+    private int sincronizadoAte; // Bytes do segmento atual já gravados no disco
+    private long proximaSequencia;
+    private boolean fechado;
+
+    // Protegidos por 'sincronizacao'
+    private final Object sincronizacao = new Object();
+    private long sequenciaDuravel; // Última sequência garantida no disco
+    private boolean sincronizando; // Alguma thread está fazendo o force()
+    private long sincronizacoes;
+
+    public DiarioBoletos(Path diretorio) throws IOException {
+        this(diretorio, TAMANHO_SEGMENTO_PADRAO);
+    }
+
+    /**
+     * Abre (ou cria) o diário do diretório, continuando após o último registro íntegro.
+     * @param tamanhoSegmento Tamanho de cada arquivo de segmento em bytes (só vale para segmentos novos).
+     * @throws IOException Se o diretório ou os segmentos não puderem ser lidos ou criados.
+     * @throws IllegalStateException Se o cabeçalho do último segmento estiver corrompido.
+     */
+    public DiarioBoletos(Path diretorio, int tamanhoSegmento) throws IOException {
+        Objects.requireNonNull(diretorio, "O diretório do diário não pode ser nulo.");
+        if (tamanhoSegmento < 4096) {
+            throw new IllegalArgumentException("Tamanho do segmento do diário deve ser >= 4096 bytes: " + tamanhoSegmento);
+        }
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+        Files.createDirectories(diretorio);
+
+        List<Path> segmentos = SegmentoDiario.listar(diretorio);
+        if (segmentos.isEmpty()) {
+            criarSegmento(1, 1);
+        } else {
+            recuperar(segmentos);
+        }
+        this.sequenciaDuravel = proximaSequencia - 1;
+    }
+
+    /**
+     * Lê todos os boletos do diário, em ordem, parando no último registro íntegro.
+     * Pode ser usado com o diário aberto por outro processo (lê o que já foi copiado para os segmentos).
+     * @return Quantidade de boletos lidos.
+     * @throws IOException Se os segmentos não puderem ser lidos.
+     */
+    public static long ler(Path diretorio, ProcessadorDiario processador) throws IOException {
+        Objects.requireNonNull(diretorio, "O diretório do diário não pode ser nulo.");
+        Objects.requireNonNull(processador, "O processador do diário não pode ser nulo.");
+        long total = 0;
+        long numero = 1;
+        for (Path arquivo : SegmentoDiario.listar(diretorio)) {
+            try (FileChannel c = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                MappedByteBuffer dados = c.map(FileChannel.MapMode.READ_ONLY, 0, c.size());
+                long primeira = SegmentoDiario.lerCabecalho(dados, numero++, arquivo);
+                if (primeira != total + 1) {
+                    throw new IllegalStateException("Segmento do diário fora de sequência (começa em " + primeira
+                            + ", esperado " + (total + 1) + "): " + arquivo);
+                }
+                total += SegmentoDiario.varrer(dados, primeira, processador)[1];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Grava o boleto no diário e espera até ele estar no disco.
+     * @return Sequência do boleto no diário.
+     * @throws IOException Se a criação de um novo segmento falhar.
+     * @throws java.io.UncheckedIOException Se a sincronização com o disco falhar.
+     * @throws IllegalArgumentException Se o boleto não tiver código de barras válido ou algum texto passar de 255 caracteres.
+     */
+    public long registrar(Boleto boleto) throws IOException {
+        long sequencia = acrescentar(boleto);
+        aguardarDisco(sequencia);
+        return sequencia;
+    }
+
+    /**
+     * Copia o boleto para o segmento atual sem esperar o disco (fica durável no próximo registrar, sincronizar ou
+     * close). Útil para gravar um lote e sincronizar uma vez no fim.
+     * @return Sequência do boleto no diário.
+     */
+    public long acrescentar(Boleto boleto) throws IOException {
+        Objects.requireNonNull(boleto, "Boleto não pode ser nulo.");
+        String codigoBarras = boleto.getCodigoBarras();
+        if (codigoBarras == null || codigoBarras.length() != 44) {
+            throw new IllegalArgumentException("Boleto sem código de barras de 44 dígitos: " + codigoBarras);
+        }
+        long cb1 = SegmentoDiario.empacotar(codigoBarras, 0, 18);
+        long cb2 = SegmentoDiario.empacotar(codigoBarras, 18, 36);
+        long cb3 = SegmentoDiario.empacotar(codigoBarras, 36, 44);
+        String nossoNumero = boleto.getNossoNumero() != null ? boleto.getNossoNumero() : "";
+        String documento = boleto.getSacado() != null && boleto.getSacado().getDocumento() != null
+                ? boleto.getSacado().getDocumento() : "";
+        int tamanhoNossoNumero = tamanhoTexto(nossoNumero, false, "Nosso número");
+        int tamanhoDocumento = tamanhoTexto(documento, true, "Documento do sacado");
+        int vencimento = boleto.getDataVencimento() != null ? (int) boleto.getDataVencimento().toEpochDay() : SegmentoDiario.SEM_DATA;
+        int tamanhoDados = SegmentoDiario.TAMANHO_DADOS_FIXOS + tamanhoNossoNumero + tamanhoDocumento;
+
+        synchronized (this) {
+            if (fechado) {
+                throw new IllegalStateException("Diário de boletos já foi fechado.");
+            }
+            if (posicao + SegmentoDiario.TAMANHO_PREFIXO + tamanhoDados > segmento.capacity()) {
+                rolar();
+            }
+            long sequencia = proximaSequencia;
+            MappedByteBuffer s = segmento;
+            int d = posicao + SegmentoDiario.TAMANHO_PREFIXO;
+            s.putLong(d, sequencia).putLong(d + 8, cb1).putLong(d + 16, cb2).putLong(d + 24, cb3)
+                    .putLong(d + 32, boleto.getValorCentavos()).putInt(d + 40, vencimento);
+            int p = escreverTexto(s, d + 44, nossoNumero, false, tamanhoNossoNumero);
+            escreverTexto(s, p, documento, true, tamanhoDocumento);
+            s.putInt(posicao + 4, SegmentoDiario.crc(s, d, tamanhoDados));
+            s.putInt(posicao, tamanhoDados); // Por último: até aqui o registro não existe para quem lê
+            posicao = d + tamanhoDados;
+            proximaSequencia++;
+            return sequencia;
+        }
+    }
+
+    // Garante no disco tudo o que já foi gravado (UncheckedIOException se a sincronização falhar)
+    public void sincronizar() {
+        long ultima;
+        synchronized (this) {
+            ultima = proximaSequencia - 1;
+        }
+        aguardarDisco(ultima);
+    }
+
+    /**
+     * Etapa de lote que grava cada boleto no diário depois do destino informado (ex: depois do PDF), esperando
+     * o disco antes de considerar o item concluído.
+     * @param proximo Destino executado antes do diário; pode ser null.
+     */
+    public DestinoBoleto destino(DestinoBoleto proximo) {
+        return (indice, entrada, boleto) -> {
+            if (proximo != null) {
+                proximo.gravar(indice, entrada, boleto);
+            }
+            registrar(boleto);
+        };
+    }
+
+    public Path getDiretorio() { return diretorio; }
+    public synchronized long getQuantidadeBoletos() { return proximaSequencia - 1; }
+    public synchronized long getNumeroSegmento() { return numeroSegmento; }
+
+    public long getSequenciaDuravel() {
+        synchronized (sincronizacao) {
+            return sequenciaDuravel;
+        }
+    }
+
+    // Quantidade de force() feitos por registrar/sincronizar (com várias threads, bem menor que a de boletos)
+    public long getQuantidadeSincronizacoes() {
+        synchronized (sincronizacao) {
+            return sincronizacoes;
+        }
+    }
+
+    // Sincroniza e fecha o segmento atual; o mapeamento é liberado pelo GC
+    @Override
+    public void close() throws IOException {
+        long ultima;
+        synchronized (this) {
+            if (fechado) {
+                return;
+            }
+            segmento.force();
+            sincronizadoAte = posicao;
+            fechado = true;
+            canal.close();
+            ultima = proximaSequencia - 1;
+        }
+        synchronized (sincronizacao) {
+            sequenciaDuravel = Math.max(sequenciaDuravel, ultima);
+            sincronizacao.notifyAll();
+        }
+    }
+
+    // Group commit: uma thread por vez faz o force() de tudo o que já foi copiado; as demais esperam por ele
+    private void aguardarDisco(long sequencia) {
+        synchronized (sincronizacao) {
+            while (sequenciaDuravel < sequencia) {
+                if (!sincronizando) {
+                    sincronizando = true;
+                    break;
+                }
+                try {
+                    sincronizacao.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Espera pela gravação do diário interrompida.", e);
+                }
+            }
+            if (sequenciaDuravel >= sequencia) {
+                return;
+            }
+        }
+        long alvo = 0;
+        try {
+            MappedByteBuffer s;
+            int de, ate;
+            synchronized (this) {
+                alvo = proximaSequencia - 1;
+                s = segmento;
+                de = sincronizadoAte;
+                ate = posicao;
+            }
+            if (ate > de) {
+                s.force(de, ate - de);
+            }
+            synchronized (this) {
+                if (segmento == s) {
+                    sincronizadoAte = Math.max(sincronizadoAte, ate);
+                }
+            }
+        } catch (RuntimeException e) { // Falha de E/S no force(): UncheckedIOException
+            alvo = 0; // Nada confirmado: a próxima thread tenta de novo
+            throw e;
+        } finally {
+            synchronized (sincronizacao) {
+                sincronizando = false;
+                if (alvo > sequenciaDuravel) {
+                    sequenciaDuravel = alvo;
+                    sincronizacoes++;
+                }
+                sincronizacao.notifyAll();
+            }
+        }
+    }
+
+    // Fecha o segmento atual (inteiro no disco) e abre o seguinte, começando na próxima sequência
+    private void rolar() throws IOException {
+        segmento.force();
+        canal.close();
+        criarSegmento(numeroSegmento + 1, proximaSequencia);
+    }
+
+    // Monta o segmento em "<nome>.tmp" (tamanho final e cabeçalho sincronizados) e renomeia atomicamente: uma queda ou
+    // falha no meio deixa no máximo o .tmp, que não é listado e é substituído na próxima tentativa
+    private void criarSegmento(long numero, long primeiraSequencia) throws IOException {
+        Path arquivo = SegmentoDiario.arquivo(diretorio, numero);
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try {
+            try (FileChannel t = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer cabecalho = ByteBuffer.allocate(SegmentoDiario.TAMANHO_CABECALHO);
+                SegmentoDiario.escreverCabecalho(cabecalho, numero, primeiraSequencia);
+                while (cabecalho.hasRemaining()) {
+                    t.write(cabecalho);
+                }
+                t.write(ByteBuffer.allocate(1), tamanhoSegmento - 1); // Tamanho final (o meio fica esparso, com zeros)
+                t.force(true);
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+        sincronizarDiretorio();
+
+        FileChannel c = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer s = c.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+            abrir(c, s, numero, SegmentoDiario.TAMANHO_CABECALHO, primeiraSequencia);
+        } catch (IOException | RuntimeException e) {
+            c.close();
+            throw e;
+        }
+    }
+
+    // Grava no disco a entrada do diretório do segmento renomeado (sem isso o rename pode se perder numa queda de energia).
+    // Alguns sistemas (Windows) não abrem diretórios como arquivo; lá o rename já é durável e o erro é ignorado.
+    private void sincronizarDiretorio() throws IOException {
+        FileChannel d;
+        try {
+            d = FileChannel.open(diretorio, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (d) {
+            d.force(true);
+        }
+    }
+
+    // Percorre o último segmento e continua após o último registro íntegro, zerando o que sobrou de uma gravação interrompida
+    private void recuperar(List<Path> segmentos) throws IOException {
+        long numero = segmentos.size();
+        Path arquivo = segmentos.get(segmentos.size() - 1);
+        FileChannel c = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer s = c.map(FileChannel.MapMode.READ_WRITE, 0, c.size());
+            if (SegmentoDiario.fimDosDados(s, 0) == 0) {
+                // Sem cabeçalho e sem registros: rolagem interrompida antes do cabeçalho chegar ao disco
+                c.close();
+                long primeira = numero == 1 ? 1 : proximaSequenciaApos(segmentos.get(segmentos.size() - 2), numero - 1);
+                System.err.println("AVISO: Segmento " + arquivo.getFileName() + " do diário está vazio (sem cabeçalho), "
+                        + "de uma rolagem interrompida; será criado de novo a partir da sequência " + primeira + ".");
+                Files.delete(arquivo);
+                criarSegmento(numero, primeira);
+                return;
+            }
+            long primeira = SegmentoDiario.lerCabecalho(s, numero, arquivo);
+            long[] r = SegmentoDiario.varrer(s, primeira, null);
+            int fim = (int) r[0];
+            int sujo = SegmentoDiario.fimDosDados(s, fim);
+            if (sujo > fim) {
+                System.err.println("AVISO: Diário de boletos com registro incompleto no fim de " + arquivo.getFileName()
+                        + " (posição " + fim + "); " + (sujo - fim) + " bytes descartados.");
+                for (int i = fim; i < sujo; i++) s.put(i, (byte) 0);
+                s.force(fim, sujo - fim);
+            }
+            abrir(c, s, numero, fim, primeira + r[1]);
+        } catch (IOException | RuntimeException e) {
+            c.close();
+            throw e;
+        }
+    }
+
+    // Sequência seguinte ao último registro de um segmento já fechado (inteiro no disco)
+    private static long proximaSequenciaApos(Path arquivo, long numero) throws IOException {
+        try (FileChannel c = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer s = c.map(FileChannel.MapMode.READ_ONLY, 0, c.size());
+            long primeira = SegmentoDiario.lerCabecalho(s, numero, arquivo);
+            return primeira + SegmentoDiario.varrer(s, primeira, null)[1];
+        }
+    }
+
+    private void abrir(FileChannel c, MappedByteBuffer s, long numero, int posicaoInicial, long sequencia) {
+        this.canal = c;
+        this.segmento = s;
+        this.numeroSegmento = numero;
+        this.posicao = posicaoInicial;
+        this.sincronizadoAte = posicaoInicial;
+        this.proximaSequencia = sequencia;
+    }
+
+    // Quantidade de bytes gravados: ASCII, sem os caracteres removidos (documento só com letras e dígitos)
+    private static int tamanhoTexto(String texto, boolean soAlfanumerico, String campo) {
+        int tamanho = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (!soAlfanumerico || Character.isLetterOrDigit(texto.charAt(i))) tamanho++;
+        }
+        if (tamanho > SegmentoDiario.TAMANHO_MAXIMO_TEXTO) {
+            throw new IllegalArgumentException(campo + " com mais de " + SegmentoDiario.TAMANHO_MAXIMO_TEXTO + " caracteres: " + texto);
+        }
+        return tamanho;
+    }
+
+    // Escreve 1 byte de tamanho + o texto; caracteres fora do ASCII viram '?'. Retorna a posição seguinte.
+    private static int escreverTexto(MappedByteBuffer s, int p, String texto, boolean soAlfanumerico, int tamanho) {
+        s.put(p++, (byte) tamanho);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (soAlfanumerico && !Character.isLetterOrDigit(c)) continue;
+            s.put(p++, (byte) (c < 128 ? c : '?'));
+        }
+        return p;
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.geradorboleto.diario;
+
+// Recebe cada boleto lido do diário, na ordem de emissão (ex: reconstruir um índice ou conferir um retorno)
+@FunctionalInterface
+public interface ProcessadorDiario {
+
+    // O registro é reaproveitado após o retorno do método.
+    void processar(RegistroDiario registro);
+}
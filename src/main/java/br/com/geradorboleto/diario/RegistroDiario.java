@@ -0,0 +1,93 @@
+package br.com.geradorboleto.diario;
+
+import br.com.geradorboleto.calculos.MontadorCodigoBarras;
+import br.com.geradorboleto.calculos.ValorCentavos;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+// Boleto lido do diário. A mesma instância é reaproveitada para todos os registros de um segmento: os campos
+// numéricos são decodificados na leitura e as Strings só são criadas pelos getters.
+// Só é válida durante a chamada de ProcessadorDiario.processar(...); copie o que precisar guardar.
+public final class RegistroDiario {
+
+    private ByteBuffer dados;
+    private long sequencia;
+    private long codigoBarras1, codigoBarras2, codigoBarras3; // Dígitos 1-18, 19-36 e 37-44
+    private long valorCentavos;
+    private int vencimento; // Dia desde 1970-01-01 (LocalDate.toEpochDay), SEM_DATA se não informado
+    private int inicioNossoNumero, tamanhoNossoNumero; // Posição absoluta no buffer
+    private int inicioDocumento, tamanhoDocumento;
+
+    RegistroDiario() {}
+
+    // Número do boleto no diário (1, 2, 3... na ordem de gravação)
+    public long getSequencia() { return sequencia; }
+
+    public long getValorCentavos() { return valorCentavos; }
+    public BigDecimal getValor() { return ValorCentavos.paraBigDecimal(valorCentavos); }
+
+    public LocalDate getDataVencimento() {
+        return vencimento == SegmentoDiario.SEM_DATA ? null : LocalDate.ofEpochDay(vencimento);
+    }
+
+    public String getCodigoBarras() {
+        return new String(codigoBarras());
+    }
+
+    // Gravada só como código de barras no diário; a linha digitável é montada a partir dele
+    public String getLinhaDigitavel() {
+        char[] linha = new char[MontadorCodigoBarras.TAMANHO_LINHA_DIGITAVEL];
+        MontadorCodigoBarras.escreverLinhaDigitavel(codigoBarras(), 0, linha, 0);
+        return new String(linha);
+    }
+
+    public String getNossoNumero() {
+        return texto(inicioNossoNumero, tamanhoNossoNumero);
+    }
+
+    // CPF/CNPJ do sacado só com letras e dígitos; vazio se não informado
+    public String getDocumentoSacado() {
+        return texto(inicioDocumento, tamanhoDocumento);
+    }
+
+    private char[] codigoBarras() {
+        char[] c = new char[MontadorCodigoBarras.TAMANHO_CODIGO_BARRAS];
+        SegmentoDiario.desempacotar(codigoBarras1, c, 0, 18);
+        SegmentoDiario.desempacotar(codigoBarras2, c, 18, 18);
+        SegmentoDiario.desempacotar(codigoBarras3, c, 36, 8);
+        return c;
+    }
+
+    private String texto(int inicio, int tamanho) {
+        char[] c = new char[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            c[i] = (char) (dados.get(inicio + i) & 0xFF);
+        }
+        return new String(c);
+    }
+
+    // --- Preenchimento pelo SegmentoDiario ---
+
+    void preencher(ByteBuffer dados, int inicioDados) {
+        this.dados = dados;
+        int p = inicioDados;
+        this.sequencia = dados.getLong(p);
+        this.codigoBarras1 = dados.getLong(p + 8);
+        this.codigoBarras2 = dados.getLong(p + 16);
+        this.codigoBarras3 = dados.getLong(p + 24);
+        this.valorCentavos = dados.getLong(p + 32);
+        this.vencimento = dados.getInt(p + 40);
+        this.tamanhoNossoNumero = dados.get(p + 44) & 0xFF;
+        this.inicioNossoNumero = p + 45;
+        this.tamanhoDocumento = dados.get(inicioNossoNumero + tamanhoNossoNumero) & 0xFF;
+        this.inicioDocumento = inicioNossoNumero + tamanhoNossoNumero + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Registro " + sequencia + ": código de barras " + getCodigoBarras() + ", nosso número " + getNossoNumero()
+                + ", valor " + valorCentavos + ", vencimento " + getDataVencimento() + ", sacado " + getDocumentoSacado();
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.geradorboleto.diario;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Formato dos segmentos do diário ("diario-0000000001.seg", "diario-0000000002.seg", ...), todos do mesmo tamanho.
+//
+// Cabeçalho (32 bytes): mágico, versão, número do segmento, sequência do primeiro boleto e CRC32 dos 24 bytes anteriores.
+// Registro: tamanho dos dados (int), CRC32 dos dados (int) e os dados:
+//   sequência (long) | código de barras em 3 longs (dígitos 1-18, 19-36, 37-44) | valor em centavos (long) |
+//   vencimento em dias desde 1970-01-01 (int) | nosso número (1 byte de tamanho + ASCII) | documento do sacado (idem)
+// O restante do segmento é zero: um tamanho 0 marca o fim dos registros gravados.
+final class SegmentoDiario {
+
+    static final int MAGICO = 0x4449424F; // "DIBO"
+    static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 32;
+    static final int TAMANHO_PREFIXO = 8; // Tamanho + CRC de cada registro
+    static final int TAMANHO_DADOS_FIXOS = 46; // Dados sem os textos, com os 2 bytes de tamanho
+    static final int TAMANHO_MAXIMO_TEXTO = 255;
+    static final int SEM_DATA = Integer.MIN_VALUE;
+
+    private static final Pattern NOME = Pattern.compile("diario-\\d{10}\\.seg");
+
+    private SegmentoDiario() {}
+
+    static Path arquivo(Path diretorio, long numero) {
+        return diretorio.resolve(String.format("diario-%010d.seg", numero));
+    }
+
+    // Segmentos do diretório em ordem de número
+    static List<Path> listar(Path diretorio) throws IOException {
+        if (!Files.isDirectory(diretorio)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(a -> NOME.matcher(a.getFileName().toString()).matches()).sorted().toList();
+        }
+    }
+
+    static void escreverCabecalho(ByteBuffer segmento, long numero, long primeiraSequencia) {
+        segmento.putInt(0, MAGICO).putInt(4, VERSAO).putLong(8, numero).putLong(16, primeiraSequencia);
+        segmento.putInt(24, crc(segmento, 0, 24));
+    }
+
+    /**
+     * Confere o cabeçalho de um segmento.
+     * @return Sequência do primeiro boleto do segmento.
+     * @throws IllegalStateException Se o cabeçalho estiver ausente, corrompido ou não for do segmento esperado.
+     */
+    static long lerCabecalho(ByteBuffer segmento, long numero, Path arquivo) {
+        if (segmento.limit() < TAMANHO_CABECALHO || segmento.getInt(0) != MAGICO || segmento.getInt(24) != crc(segmento, 0, 24)) {
+            throw new IllegalStateException("Segmento do diário com cabeçalho inválido: " + arquivo);
+        }
+        if (segmento.getInt(4) != VERSAO) {
+            throw new IllegalStateException("Versão " + segmento.getInt(4) + " do diário não suportada: " + arquivo);
+        }
+        if (segmento.getLong(8) != numero) {
+            throw new IllegalStateException("Segmento " + segmento.getLong(8) + " encontrado no lugar do segmento " + numero + ": " + arquivo);
+        }
+        return segmento.getLong(16);
+    }
+
+    /**
+     * Percorre os registros íntegros do segmento a partir do cabeçalho, parando no primeiro tamanho 0, registro
+     * incompleto, CRC diferente ou sequência fora de ordem (a cauda de uma gravação interrompida).
+     * @param processador Recebe cada registro; pode ser null (só conta).
+     * @return {posição após o último registro íntegro, quantidade de registros}
+     */
+    static long[] varrer(ByteBuffer segmento, long primeiraSequencia, ProcessadorDiario processador) {
+        RegistroDiario registro = processador != null ? new RegistroDiario() : null;
+        int posicao = TAMANHO_CABECALHO;
+        long quantidade = 0;
+        int limite = segmento.limit();
+        while (posicao + TAMANHO_PREFIXO <= limite) {
+            int tamanho = segmento.getInt(posicao);
+            int dados = posicao + TAMANHO_PREFIXO;
+            if (tamanho < TAMANHO_DADOS_FIXOS || tamanho > limite - dados
+                    || segmento.getInt(posicao + 4) != crc(segmento, dados, tamanho)
+                    || segmento.getLong(dados) != primeiraSequencia + quantidade) {
+                break;
+            }
+            if (registro != null) {
+                registro.preencher(segmento, dados);
+                processador.processar(registro);
+            }
+            quantidade++;
+            posicao = dados + tamanho;
+        }
+        return new long[]{posicao, quantidade};
+    }
+
+    // Posição após o último byte diferente de zero em [inicio, limite); 'inicio' se estiver tudo zerado
+    static int fimDosDados(ByteBuffer segmento, int inicio) {
+        int fim = segmento.limit();
+        while (fim - 8 >= inicio && segmento.getLong(fim - 8) == 0) fim -= 8;
+        while (fim > inicio && segmento.get(fim - 1) == 0) fim--;
+        return fim;
+    }
+
+    static int crc(ByteBuffer buffer, int inicio, int tamanho) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(inicio, tamanho));
+        return (int) crc.getValue();
+    }
+
+    // Dígitos [de, ate) do código de barras como número
+    static long empacotar(CharSequence codigoBarras, int de, int ate) {
+        long valor = 0;
+        for (int i = de; i < ate; i++) {
+            int d = codigoBarras.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException("Código de barras contém caractere não numérico na posição " + (i + 1) + ": " + codigoBarras);
+            }
+            valor = valor * 10 + d;
+        }
+        return valor;
+    }
+
+    // Inverso de empacotar: 'digitos' dígitos com zeros à esquerda em destino[off..]
+    static void desempacotar(long valor, char[] destino, int off, int digitos) {
+        for (int i = off + digitos - 1; i >= off; i--) {
+            destino[i] = (char) ('0' + (valor % 10));
+            valor /= 10;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.geradorboleto.indice;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+// Array de longs fora do heap (ByteBuffers diretos), dividido em segmentos para passar do limite de 2 GB por buffer
+// e para crescer sem copiar os dados já gravados. Começa zerado. Não é thread-safe: o IndiceBoletos controla o acesso.
+final class ArrayLongOffHeap {
+
+    private static final int BITS_SEGMENTO = 20; // 2^20 longs (8 MB) por segmento
+    private static final int TAMANHO_SEGMENTO = 1 << BITS_SEGMENTO;
+    private static final int MASCARA_SEGMENTO = TAMANHO_SEGMENTO - 1;
+
+    private LongBuffer[] segmentos;
+    private long tamanho;
+
+    // Arrays menores que um segmento ocupam só o necessário (ex: tabelas pequenas)
+    ArrayLongOffHeap(long tamanho) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho do array off-heap deve ser >= 1: " + tamanho);
+        }
+        this.segmentos = new LongBuffer[0];
+        this.tamanho = 0;
+        garantir(tamanho);
+    }
+
+    long tamanho() {
+        return tamanho;
+    }
+
+    long bytes() {
+        return tamanho * Long.BYTES;
+    }
+
+    long get(long indice) {
+        return segmentos[(int) (indice >>> BITS_SEGMENTO)].get((int) (indice & MASCARA_SEGMENTO));
+    }
+
+    void set(long indice, long valor) {
+        segmentos[(int) (indice >>> BITS_SEGMENTO)].put((int) (indice & MASCARA_SEGMENTO), valor);
+    }
+
+    // Aumenta o array para pelo menos 'minimo' posições; as novas começam zeradas
+    void garantir(long minimo) {
+        if (minimo <= tamanho) {
+            return;
+        }
+        if (minimo <= TAMANHO_SEGMENTO && segmentos.length <= 1) {
+            // Cresce pelo menos para o dobro, para não realocar a cada inclusão
+            int novoTamanho = (int) Math.min(TAMANHO_SEGMENTO, Math.max(minimo, tamanho * 2));
+            LongBuffer novo = alocar(novoTamanho);
+            if (segmentos.length == 1) {
+                LongBuffer antigo = segmentos[0].duplicate();
+                antigo.clear();
+                novo.put(antigo).clear();
+            }
+            segmentos = new LongBuffer[]{novo};
+            tamanho = novoTamanho;
+            return;
+        }
+        if (segmentos.length == 1 && tamanho < TAMANHO_SEGMENTO) {
+            garantir(TAMANHO_SEGMENTO); // Completa o primeiro segmento antes de acrescentar os demais
+        }
+        int quantidade = (int) ((minimo + TAMANHO_SEGMENTO - 1) >>> BITS_SEGMENTO);
+        int atual = segmentos.length;
+        segmentos = Arrays.copyOf(segmentos, quantidade);
+        for (int i = atual; i < quantidade; i++) {
+            segmentos[i] = alocar(TAMANHO_SEGMENTO);
+        }
+        tamanho = (long) quantidade << BITS_SEGMENTO;
+    }
+
+    private static LongBuffer alocar(int longs) {
+        return ByteBuffer.allocateDirect(longs * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+}
@@ -0,0 +1,329 @@
+package br.com.geradorboleto.indice;
+
+import br.com.geradorboleto.leitura.LeitorLinhaDigitavel;
+import br.com.geradorboleto.model.Boleto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice de boletos emitidos por código de barras e por banco + nosso número, todo fora do heap: para conciliação
+// e segunda via entre dezenas de milhões de títulos sem manter Boleto/Pessoa/Endereco em memória.
+//
+// Cada boleto vira um registro de 7 longs (56 bytes): código de barras em 3 longs (dígitos 1-18, 19-36, 37-44),
+// nosso número (só letras e dígitos, até 24 caracteres ASCII) em 3 longs e uma referência livre do chamador (ex:
+// posição do boleto num arquivo ou id no banco de dados). As duas tabelas de hash são de endereçamento aberto
+// (sondagem linear) com 1 long por posição: 24 bits de verificação do hash + 40 bits com o número do registro.
+// Como a chave completa está no registro, colisões de hash são resolvidas comparando o registro.
+// Leituras concorrentes são permitidas; inclusões são exclusivas.
+public final class IndiceBoletos {
+
+    public static final long NAO_ENCONTRADO = -1;
+
+    private static final int LONGS_POR_REGISTRO = 7;
+    private static final int TAMANHO_MAXIMO_NOSSO_NUMERO = 24;
+    private static final long MASCARA_REGISTRO = (1L << 40) - 1; // 40 bits baixos de cada posição das tabelas
+    private static final long MAXIMO_REGISTROS = MASCARA_REGISTRO - 1;
+    private static final double CARGA_MAXIMA = 0.75;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final ArrayLongOffHeap registros;
+    private ArrayLongOffHeap porCodigoBarras;
+    private ArrayLongOffHeap porNossoNumero;
+    private long mascara; // Capacidade das tabelas - 1 (potência de 2)
+    private long quantidade;
+
+    public IndiceBoletos() {
+        this(1024);
+    }
+
+    /**
+     * @param capacidadeInicial Quantidade de boletos esperada (as tabelas crescem sozinhas, mas crescer exige refazer o hash).
+     */
+    public IndiceBoletos(long capacidadeInicial) {
+        if (capacidadeInicial < 1) {
+            throw new IllegalArgumentException("Capacidade inicial deve ser >= 1: " + capacidadeInicial);
+        }
+        long capacidade = Long.highestOneBit(Math.max(16, (long) (capacidadeInicial / CARGA_MAXIMA)) * 2 - 1);
+        this.registros = new ArrayLongOffHeap(capacidadeInicial * LONGS_POR_REGISTRO);
+        this.porCodigoBarras = new ArrayLongOffHeap(capacidade);
+        this.porNossoNumero = new ArrayLongOffHeap(capacidade);
+        this.mascara = capacidade - 1;
+    }
+
+    /**
+     * Indexa um boleto emitido.
+     * @param referencia Valor livre devolvido nas buscas (ex: posição no arquivo de dados).
+     * @return Número do registro no índice.
+     * @throws IllegalArgumentException Se o boleto não tiver código de barras e nosso número válidos, ou se o
+     *                                  código de barras já estiver indexado.
+     */
+    public long adicionar(Boleto boleto, long referencia) {
+        Objects.requireNonNull(boleto, "Boleto não pode ser nulo.");
+        return adicionar(boleto.getCodigoBarras(), boleto.getNossoNumero(), referencia);
+    }
+
+    // Mesmo que adicionar(Boleto, long), com o código de barras (44 dígitos) e o nosso número como no boleto
+    public long adicionar(CharSequence codigoBarras, CharSequence nossoNumero, long referencia) {
+        long[] cb = empacotarCodigoBarras(codigoBarras);
+        long[] nn = empacotarNossoNumero(nossoNumero);
+        if ((nn[0] | nn[1] | nn[2]) == 0) {
+            throw new IllegalArgumentException("Nosso número vazio: " + nossoNumero);
+        }
+        int banco = banco(cb[0]);
+        long hashCb = hashCodigoBarras(cb[0], cb[1], cb[2]);
+        long hashNn = hashNossoNumero(banco, nn[0], nn[1], nn[2]);
+
+        trava.writeLock().lock();
+        try {
+            if (procurar(porCodigoBarras, hashCb, r -> igualCodigoBarras(r, cb)) != NAO_ENCONTRADO) {
+                throw new IllegalArgumentException("Código de barras já indexado: " + codigoBarras);
+            }
+            if (quantidade >= MAXIMO_REGISTROS) {
+                throw new IllegalStateException("Índice de boletos cheio: " + quantidade + " registros");
+            }
+            if (quantidade + 1 > (long) ((mascara + 1) * CARGA_MAXIMA)) {
+                redimensionar((mascara + 1) * 2);
+            }
+            long registro = quantidade;
+            registros.garantir((registro + 1) * LONGS_POR_REGISTRO);
+            long base = registro * LONGS_POR_REGISTRO;
+            registros.set(base, cb[0]);
+            registros.set(base + 1, cb[1]);
+            registros.set(base + 2, cb[2]);
+            registros.set(base + 3, nn[0]);
+            registros.set(base + 4, nn[1]);
+            registros.set(base + 5, nn[2]);
+            registros.set(base + 6, referencia);
+            inserir(porCodigoBarras, hashCb, registro);
+            inserir(porNossoNumero, hashNn, registro);
+            quantidade++;
+            return registro;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca pelo código de barras (44 dígitos).
+     * @return Número do registro, ou NAO_ENCONTRADO.
+     */
+    public long procurarPorCodigoBarras(CharSequence codigoBarras) {
+        long[] cb = empacotarCodigoBarras(codigoBarras);
+        long hash = hashCodigoBarras(cb[0], cb[1], cb[2]);
+        trava.readLock().lock();
+        try {
+            return procurar(porCodigoBarras, hash, r -> igualCodigoBarras(r, cb));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Busca pela linha digitável (com ou sem pontuação), convertida no código de barras
+    public long procurarPorLinhaDigitavel(CharSequence linhaDigitavel) {
+        return procurarPorCodigoBarras(LeitorLinhaDigitavel.ler(linhaDigitavel).getCodigoBarras());
+    }
+
+    /**
+     * Busca pelo nosso número de um banco. Separadores são ignorados: "109/12345678-9" e "109123456789" são iguais.
+     * @return Número do registro, ou NAO_ENCONTRADO.
+     */
+    public long procurarPorNossoNumero(String codigoBanco, CharSequence nossoNumero) {
+        Objects.requireNonNull(codigoBanco, "Código do banco não pode ser nulo.");
+        if (codigoBanco.length() != 3) {
+            throw new IllegalArgumentException("Código do banco deve ter 3 dígitos: " + codigoBanco);
+        }
+        int banco = Integer.parseInt(codigoBanco);
+        long[] nn = empacotarNossoNumero(nossoNumero);
+        long hash = hashNossoNumero(banco, nn[0], nn[1], nn[2]);
+        trava.readLock().lock();
+        try {
+            return procurar(porNossoNumero, hash, r -> {
+                long base = r * LONGS_POR_REGISTRO;
+                return registros.get(base + 3) == nn[0] && registros.get(base + 4) == nn[1]
+                        && registros.get(base + 5) == nn[2] && banco(registros.get(base)) == banco;
+            });
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public long getReferencia(long registro) {
+        return ler(registro, 6);
+    }
+
+    public String getCodigoBarras(long registro) {
+        char[] c = new char[44];
+        escreverDigitos(ler(registro, 0), c, 0, 18);
+        escreverDigitos(ler(registro, 1), c, 18, 18);
+        escreverDigitos(ler(registro, 2), c, 36, 8);
+        return new String(c);
+    }
+
+    // Nosso número como indexado (só letras e dígitos)
+    public String getNossoNumero(long registro) {
+        byte[] b = new byte[TAMANHO_MAXIMO_NOSSO_NUMERO];
+        int n = 0;
+        for (int i = 0; i < 3; i++) {
+            long v = ler(registro, 3 + i);
+            for (int k = 7; k >= 0; k--) {
+                byte c = (byte) (v >>> (k * 8));
+                if (c != 0) b[n++] = c;
+            }
+        }
+        return new String(b, 0, n, StandardCharsets.US_ASCII);
+    }
+
+    public long tamanho() {
+        trava.readLock().lock();
+        try {
+            return quantidade;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Memória fora do heap ocupada pelos registros e pelas duas tabelas
+    public long bytesOffHeap() {
+        trava.readLock().lock();
+        try {
+            return registros.bytes() + porCodigoBarras.bytes() + porNossoNumero.bytes();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // --- Tabela de hash ---
+
+    private interface Comparador {
+        boolean igual(long registro);
+    }
+
+    private long procurar(ArrayLongOffHeap tabela, long hash, Comparador comparador) {
+        long verificacao = hash >>> 40;
+        for (long i = hash & mascara; ; i = (i + 1) & mascara) {
+            long posicao = tabela.get(i);
+            if (posicao == 0) {
+                return NAO_ENCONTRADO;
+            }
+            if ((posicao >>> 40) == verificacao) {
+                long registro = (posicao & MASCARA_REGISTRO) - 1;
+                if (comparador.igual(registro)) {
+                    return registro;
+                }
+            }
+        }
+    }
+
+    private void inserir(ArrayLongOffHeap tabela, long hash, long registro) {
+        long i = hash & mascara;
+        while (tabela.get(i) != 0) {
+            i = (i + 1) & mascara;
+        }
+        tabela.set(i, (hash >>> 40) << 40 | (registro + 1));
+    }
+
+    // Recria as duas tabelas com a nova capacidade, recalculando o hash de cada registro
+    private void redimensionar(long capacidade) {
+        porCodigoBarras = new ArrayLongOffHeap(capacidade);
+        porNossoNumero = new ArrayLongOffHeap(capacidade);
+        mascara = capacidade - 1;
+        for (long r = 0; r < quantidade; r++) {
+            long base = r * LONGS_POR_REGISTRO;
+            long cb0 = registros.get(base);
+            inserir(porCodigoBarras, hashCodigoBarras(cb0, registros.get(base + 1), registros.get(base + 2)), r);
+            inserir(porNossoNumero, hashNossoNumero(banco(cb0), registros.get(base + 3), registros.get(base + 4),
+                    registros.get(base + 5)), r);
+        }
+    }
+
+    private boolean igualCodigoBarras(long registro, long[] cb) {
+        long base = registro * LONGS_POR_REGISTRO;
+        return registros.get(base) == cb[0] && registros.get(base + 1) == cb[1] && registros.get(base + 2) == cb[2];
+    }
+
+    private long ler(long registro, int campo) {
+        trava.readLock().lock();
+        try {
+            if (registro < 0 || registro >= quantidade) {
+                throw new IllegalArgumentException("Registro inexistente no índice: " + registro);
+            }
+            return registros.get(registro * LONGS_POR_REGISTRO + campo);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // --- Empacotamento das chaves ---
+
+    // 44 dígitos -> {dígitos 1-18, 19-36, 37-44}
+    private static long[] empacotarCodigoBarras(CharSequence codigoBarras) {
+        Objects.requireNonNull(codigoBarras, "Código de barras não pode ser nulo.");
+        if (codigoBarras.length() != 44) {
+            throw new IllegalArgumentException("Código de barras deve ter 44 dígitos: " + codigoBarras);
+        }
+        long[] r = new long[3];
+        for (int i = 0; i < 44; i++) {
+            int d = codigoBarras.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException("Código de barras contém caractere não numérico na posição " + (i + 1) + ": " + codigoBarras);
+            }
+            int k = i < 18 ? 0 : i < 36 ? 1 : 2;
+            r[k] = r[k] * 10 + d;
+        }
+        return r;
+    }
+
+    // Letras (maiúsculas) e dígitos do nosso número, 8 caracteres ASCII por long, alinhados à direita
+    private static long[] empacotarNossoNumero(CharSequence nossoNumero) {
+        Objects.requireNonNull(nossoNumero, "Nosso número não pode ser nulo.");
+        long[] r = new long[3];
+        int n = 0;
+        for (int i = 0; i < nossoNumero.length(); i++) {
+            char c = Character.toUpperCase(nossoNumero.charAt(i));
+            if ((c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z')) {
+                if (n == TAMANHO_MAXIMO_NOSSO_NUMERO) {
+                    throw new IllegalArgumentException("Nosso número com mais de " + TAMANHO_MAXIMO_NOSSO_NUMERO + " caracteres: " + nossoNumero);
+                }
+                // Desloca os 24 bytes uma posição à esquerda e acrescenta o caractere
+                r[0] = (r[0] << 8) | (r[1] >>> 56);
+                r[1] = (r[1] << 8) | (r[2] >>> 56);
+                r[2] = (r[2] << 8) | c;
+                n++;
+            }
+        }
+        return r;
+    }
+
+    // Código do banco = 3 primeiros dígitos do código de barras (o 1º long guarda os dígitos 1-18)
+    private static int banco(long digitos1a18) {
+        return (int) (digitos1a18 / 1_000_000_000_000_000L);
+    }
+
+    private static long hashCodigoBarras(long a, long b, long c) {
+        return misturar(misturar(a) ^ (b * 0x9E3779B97F4A7C15L) ^ Long.rotateLeft(c, 31));
+    }
+
+    private static long hashNossoNumero(int banco, long a, long b, long c) {
+        long h = misturar(a ^ ((long) banco << 48));
+        h = misturar(h ^ b);
+        return misturar(h ^ c);
+    }
+
+    // Finalizador do MurmurHash3 (64 bits)
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static void escreverDigitos(long valor, char[] destino, int off, int tamanho) {
+        for (int i = off + tamanho - 1; i >= off; i--) {
+            destino[i] = (char) ('0' + (valor % 10));
+            valor /= 10;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.geradorboleto.layout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+
+// Catálogo dos bancos suportados, carregado (e validado) uma única vez a partir de bancos.properties.
+// Incluir um banco = acrescentar o seu descritor no arquivo; nenhum código novo é necessário.
+public class CatalogoBancos {
+
+    public static final String RECURSO = "bancos.properties";
+
+    private CatalogoBancos() {}
+
+    // Carregado na primeira utilização (holder idiom); um descritor inválido impede a carga de todo o catálogo
+    private static final class Carga {
+        static final Map<String, DescritorBanco> DESCRITORES = carregar();
+    }
+
+    /**
+     * Descritor do banco.
+     * @param codigoBanco Código com 3 dígitos (ex: "104").
+     * @throws IllegalArgumentException Se o banco não estiver no catálogo.
+     */
+    public static DescritorBanco obter(String codigoBanco) {
+        Objects.requireNonNull(codigoBanco, "Código do Banco não pode ser nulo.");
+        DescritorBanco descritor = Carga.DESCRITORES.get(codigoBanco);
+        if (descritor == null) {
+            throw new IllegalArgumentException("Banco não suportado: " + codigoBanco);
+        }
+        return descritor;
+    }
+
+    public static boolean suportado(String codigoBanco) {
+        return codigoBanco != null && Carga.DESCRITORES.containsKey(codigoBanco);
+    }
+
+    public static Set<String> codigos() {
+        return Carga.DESCRITORES.keySet();
+    }
+
+    // Dígito do código do banco (ex: "7" para 341), ou null se o banco não estiver no catálogo
+    public static String digito(String codigoBanco) {
+        DescritorBanco descritor = codigoBanco != null ? Carga.DESCRITORES.get(codigoBanco) : null;
+        return descritor != null ? descritor.getDigito() : null;
+    }
+
+    /**
+     * Lê descritores de um arquivo no formato do bancos.properties (útil para bancos/convênios próprios).
+     * @throws IllegalStateException Se algum descritor for inválido.
+     */
+    public static Map<String, DescritorBanco> ler(Reader reader) throws IOException {
+        Properties p = new Properties();
+        p.load(reader);
+        String lista = p.getProperty("bancos");
+        if (lista == null || lista.isBlank()) {
+            throw new IllegalStateException("Arquivo de layouts sem a lista 'bancos'.");
+        }
+        Map<String, DescritorBanco> descritores = new LinkedHashMap<>();
+        for (String codigo : lista.split(",")) {
+            codigo = codigo.trim();
+            if (codigo.isEmpty()) continue;
+            descritores.put(codigo, new DescritorBanco(codigo,
+                    p.getProperty(codigo + ".nome"),
+                    p.getProperty(codigo + ".digito"),
+                    p.getProperty(codigo + ".campos"),
+                    p.getProperty(codigo + ".campoLivre"),
+                    p.getProperty(codigo + ".nossoNumero"),
+                    p.getProperty(codigo + ".carteiras")));
+        }
+        return Collections.unmodifiableMap(descritores);
+    }
+
+    private static Map<String, DescritorBanco> carregar() {
+        try (InputStream in = CatalogoBancos.class.getResourceAsStream(RECURSO)) {
+            if (in == null) {
+                throw new IllegalStateException("Recurso " + RECURSO + " não encontrado no classpath.");
+            }
+            return ler(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao ler " + RECURSO + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package br.com.geradorboleto.layout;
+
+import br.com.geradorboleto.calculos.CalculosBoletoUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Descritor declarativo do layout de um banco (ver bancos.properties):
+//   campos     = campos do beneficiário e do título com largura e opções, ex: "agencia:4 conta:5:inicio nossoNumero:8"
+//   campoLivre = expressão das 25 posições do campo livre
+//   nossoNumero = expressão do nosso número exibido no boleto (opcional; padrão = o próprio nosso número)
+// Termos das expressões: 'literal', campo, campo[de:ate] e dv(regra,arg1,arg2,...). dv(regra) sem argumentos
+// calcula o DV de tudo o que vem antes na expressão. As expressões são lidas e validadas uma vez na carga;
+// compilar(...) resolve os dados fixos de um beneficiário e gera os LayoutCompilado usados por título.
+public final class DescritorBanco {
+
+    public static final int TAMANHO_CAMPO_LIVRE = 25;
+
+    static final String NOSSO_NUMERO = "nossoNumero";
+    private static final Set<String> CAMPOS_CONHECIDOS = Set.of("agencia", "conta", "carteira", "convenio", NOSSO_NUMERO);
+    private static final Pattern REFERENCIA = Pattern.compile("([A-Za-z]+)(?:\\[(\\d+):(\\d+)])?");
+
+    private final String codigo;
+    private final String nome;
+    private final String digito;
+    private final Map<String, Campo> campos;
+    private final List<Termo> campoLivre;
+    private final List<Termo> nossoNumero;
+    private final Set<String> carteiras; // Vazio = qualquer carteira
+
+    /**
+     * Lê e valida um descritor.
+     * @param campos Especificação dos campos (ex: "agencia:4 conta:7 carteira:2 nossoNumero:11").
+     * @param campoLivre Expressão do campo livre.
+     * @param nossoNumero Expressão do nosso número exibido (null = só o nosso número).
+     * @param carteiras Carteiras validadas para o layout, separadas por vírgula (null = qualquer).
+     * @throws IllegalStateException Se o descritor for inválido.
+     */
+    public DescritorBanco(String codigo, String nome, String digito, String campos, String campoLivre,
+                          String nossoNumero, String carteiras) {
+        this.codigo = exigir(codigo, "código");
+        this.nome = exigir(nome, "nome");
+        this.digito = exigir(digito, "dígito");
+        this.campos = Collections.unmodifiableMap(lerCampos(exigir(campos, "campos")));
+        if (!this.campos.containsKey(NOSSO_NUMERO)) {
+            throw erro("o campo nossoNumero é obrigatório");
+        }
+        this.campoLivre = lerExpressao(exigir(campoLivre, "campoLivre"));
+        this.nossoNumero = nossoNumero == null || nossoNumero.isBlank()
+                ? lerExpressao(NOSSO_NUMERO) : lerExpressao(nossoNumero);
+        Set<String> c = new LinkedHashSet<>();
+        if (carteiras != null) {
+            for (String carteira : carteiras.split(",")) {
+                if (!carteira.isBlank()) c.add(carteira.trim());
+            }
+        }
+        this.carteiras = Collections.unmodifiableSet(c);
+
+        // Validação estrutural com dados fictícios: tamanho do campo livre, literais numéricos, regras de DV
+        Map<String, String> ficticios = new HashMap<>();
+        for (Campo campo : this.campos.values()) {
+            ficticios.put(campo.nome, "0".repeat(campo.largura));
+        }
+        int tamanho = LayoutCompilado.compilar(this.campoLivre, ficticios, true, "Banco " + codigo + " campoLivre").tamanho();
+        if (tamanho != TAMANHO_CAMPO_LIVRE) {
+            throw erro("campoLivre tem " + tamanho + " posições, esperado " + TAMANHO_CAMPO_LIVRE);
+        }
+        LayoutCompilado.compilar(this.nossoNumero, ficticios, false, "Banco " + codigo + " nossoNumero");
+    }
+
+    public String getCodigo() { return codigo; }
+    public String getNome() { return nome; }
+    public String getDigito() { return digito; }
+    public Set<String> getCarteiras() { return carteiras; }
+
+    public int getLarguraNossoNumero() {
+        return campos.get(NOSSO_NUMERO).largura;
+    }
+
+    /**
+     * Resolve o layout para um beneficiário: valida e formata os campos fixos e pré-calcula tudo o que não
+     * depende do título.
+     * @throws IllegalArgumentException Se algum campo obrigatório faltar, não for numérico ou não couber na largura.
+     */
+    public LayoutEmissor compilar(String agencia, String conta, String carteira, String convenio) {
+        Map<String, String> entrada = new HashMap<>();
+        entrada.put("agencia", agencia);
+        entrada.put("conta", conta);
+        entrada.put("carteira", carteira);
+        entrada.put("convenio", convenio);
+
+        Map<String, String> fixos = new HashMap<>();
+        Map<String, String> exibicao = new HashMap<>();
+        Set<String> presentes = new LinkedHashSet<>();
+        for (Campo campo : campos.values()) {
+            if (campo.nome.equals(NOSSO_NUMERO)) continue;
+            String valor = entrada.get(campo.nome);
+            if (campo.texto) {
+                String texto = valor != null ? valor.trim() : "";
+                if (texto.isEmpty() && !campo.opcional) throw obrigatorio(campo);
+                if (texto.length() > campo.largura) {
+                    throw new IllegalArgumentException("Campo " + campo.nome + " do banco " + codigo + " deve ter no máximo " + campo.largura + " caracteres: " + valor);
+                }
+                exibicao.put(campo.nome, texto);
+                if (!texto.isEmpty()) presentes.add(campo.nome);
+                continue;
+            }
+            String digitos = somenteDigitos(campo, valor);
+            if (digitos.isEmpty()) {
+                if (!campo.opcional) throw obrigatorio(campo);
+                fixos.put(campo.nome, "0".repeat(campo.largura));
+                exibicao.put(campo.nome, "");
+                continue;
+            }
+            presentes.add(campo.nome);
+            if (campo.inicio) {
+                if (digitos.length() < campo.largura) {
+                    throw new IllegalArgumentException("Campo " + campo.nome + " do banco " + codigo + " deve ter ao menos " + campo.largura + " dígitos: " + valor);
+                }
+                fixos.put(campo.nome, digitos.substring(0, campo.largura));
+                exibicao.put(campo.nome, digitos); // Exibido completo (ex: conta com DV)
+            } else {
+                if (digitos.length() > campo.largura) {
+                    throw new IllegalArgumentException("Campo " + campo.nome + " do banco " + codigo + " deve ter no máximo " + campo.largura + " dígitos: " + valor);
+                }
+                if (campo.exato && digitos.length() != campo.largura) {
+                    throw new IllegalArgumentException("Campo " + campo.nome + " do banco " + codigo + " deve ter " + campo.largura + " dígitos: " + valor);
+                }
+                String formatado = CalculosBoletoUtils.zeroEsquerda(digitos, campo.largura);
+                fixos.put(campo.nome, formatado);
+                exibicao.put(campo.nome, formatado);
+            }
+        }
+
+        String carteiraF = exibicao.get("carteira");
+        if (!carteiras.isEmpty() && carteiraF != null && !carteiras.contains(carteiraF)) {
+            System.err.println("AVISO: Layout do banco " + codigo + " não validado para a carteira " + carteiraF + " (validadas: " + carteiras + ").");
+        }
+
+        Campo nn = campos.get(NOSSO_NUMERO);
+        String prefixo = nn.prefixo != null && presentes.contains(nn.prefixo) ? fixos.get(nn.prefixo) : "";
+        if (prefixo.length() >= nn.largura) {
+            throw new IllegalArgumentException("Prefixo do nosso número maior que o nosso número no banco " + codigo);
+        }
+        return new LayoutEmissor(this, exibicao, prefixo,
+                LayoutCompilado.compilar(campoLivre, fixos, true, "Banco " + codigo + " campoLivre"),
+                LayoutCompilado.compilar(nossoNumero, fixos, false, "Banco " + codigo + " nossoNumero"));
+    }
+
+    // --- Leitura do descritor ---
+
+    private Map<String, Campo> lerCampos(String especificacao) {
+        Map<String, Campo> resultado = new LinkedHashMap<>();
+        for (String item : especificacao.trim().split("\\s+")) {
+            String[] partes = item.split(":");
+            if (partes.length < 2) throw erro("campo sem largura: " + item);
+            String nomeCampo = partes[0];
+            if (!CAMPOS_CONHECIDOS.contains(nomeCampo)) throw erro("campo desconhecido: " + nomeCampo);
+            int largura;
+            try {
+                largura = Integer.parseInt(partes[1]);
+            } catch (NumberFormatException e) {
+                throw erro("largura inválida em " + item);
+            }
+            if (largura < 1) throw erro("largura inválida em " + item);
+            boolean inicio = false, opcional = false, texto = false, exato = false;
+            String prefixo = null;
+            for (int i = 2; i < partes.length; i++) {
+                String opcao = partes[i];
+                if (opcao.equals("inicio")) inicio = true;
+                else if (opcao.equals("opcional")) opcional = true;
+                else if (opcao.equals("texto")) texto = true;
+                else if (opcao.equals("exato")) exato = true;
+                else if (opcao.startsWith("prefixo=") && nomeCampo.equals(NOSSO_NUMERO)) prefixo = opcao.substring(8);
+                else throw erro("opção inválida em " + item + ": " + opcao);
+            }
+            if (exato && (inicio || texto)) throw erro("'exato' não combina com 'inicio' nem 'texto': " + item);
+            resultado.put(nomeCampo, new Campo(nomeCampo, largura, inicio, opcional, texto, exato, prefixo));
+        }
+        Campo nn = resultado.get(NOSSO_NUMERO);
+        if (nn != null && nn.prefixo != null) {
+            Campo p = resultado.get(nn.prefixo);
+            if (p == null || p.texto || p.nome.equals(NOSSO_NUMERO)) throw erro("prefixo do nosso número inválido: " + nn.prefixo);
+        }
+        return resultado;
+    }
+
+    private List<Termo> lerExpressao(String expressao) {
+        List<Termo> termos = new ArrayList<>();
+        for (String token : expressao.trim().split("\\s+")) {
+            Termo termo;
+            if (token.startsWith("dv(") && token.endsWith(")")) {
+                String[] partes = token.substring(3, token.length() - 1).split(",", -1);
+                RegraDV regra;
+                try {
+                    regra = RegraDV.porNome(partes[0]);
+                } catch (IllegalArgumentException e) {
+                    throw erro(e.getMessage());
+                }
+                List<Termo> argumentos = new ArrayList<>();
+                for (int i = 1; i < partes.length; i++) {
+                    argumentos.add(lerTermoSimples(partes[i]));
+                }
+                termo = new Termo(TipoTermo.DV, null, null, 0, 1, regra, argumentos);
+            } else {
+                termo = lerTermoSimples(token);
+            }
+            termos.add(termo);
+        }
+        return Collections.unmodifiableList(termos);
+    }
+
+    // 'literal', campo ou campo[de:ate]
+    private Termo lerTermoSimples(String token) {
+        if (token.length() >= 3 && token.startsWith("'") && token.endsWith("'")) {
+            return new Termo(TipoTermo.LITERAL, token.substring(1, token.length() - 1), null, 0, 0, null, List.of());
+        }
+        Matcher m = REFERENCIA.matcher(token);
+        if (!m.matches()) throw erro("termo inválido: " + token);
+        Campo campo = campos.get(m.group(1));
+        if (campo == null) throw erro("campo não declarado em 'campos': " + m.group(1));
+        if (campo.texto) throw erro("campo de texto não pode ser usado em expressões: " + campo.nome);
+        int de = 0, ate = campo.largura;
+        if (m.group(2) != null) {
+            de = Integer.parseInt(m.group(2));
+            ate = Integer.parseInt(m.group(3));
+            if (de >= ate || ate > campo.largura) throw erro("intervalo inválido: " + token);
+        }
+        return new Termo(TipoTermo.CAMPO, null, campo.nome, de, ate, null, List.of());
+    }
+
+    private String somenteDigitos(Campo campo, String valor) {
+        if (valor == null) return "";
+        StringBuilder sb = new StringBuilder(valor.length());
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            } else if (c != '-' && c != '.' && c != '/' && c != ' ') {
+                throw new IllegalArgumentException("Campo " + campo.nome + " do banco " + codigo + " deve ser numérico: " + valor);
+            }
+        }
+        return sb.toString();
+    }
+
+    private IllegalArgumentException obrigatorio(Campo campo) {
+        return new IllegalArgumentException("Campo " + campo.nome + " é obrigatório para o banco " + codigo + ".");
+    }
+
+    private String exigir(String valor, String nomeCampo) {
+        if (valor == null || valor.isBlank()) {
+            throw erro("'" + nomeCampo + "' não informado");
+        }
+        return valor.trim();
+    }
+
+    private IllegalStateException erro(String mensagem) {
+        return new IllegalStateException("Descritor de layout inválido (banco " + codigo + "): " + mensagem);
+    }
+
+    // --- Estruturas internas ---
+
+    static final class Campo {
+        final String nome;
+        final int largura;
+        final boolean inicio; // Usa os primeiros 'largura' dígitos (em vez de completar com zeros à esquerda)
+        final boolean opcional;
+        final boolean texto; // Só exibição (ex: carteira "RG" da Caixa)
+        final boolean exato; // Exige exatamente 'largura' dígitos (sem completar com zeros, ex: convênio BB)
+        final String prefixo; // Só nossoNumero: campo fixo gravado antes do sequencial (ex: convênio BB)
+
+        Campo(String nome, int largura, boolean inicio, boolean opcional, boolean texto, boolean exato, String prefixo) {
+            this.nome = nome;
+            this.largura = largura;
+            this.inicio = inicio;
+            this.opcional = opcional;
+            this.texto = texto;
+            this.exato = exato;
+            this.prefixo = prefixo;
+        }
+    }
+
+    enum TipoTermo { LITERAL, CAMPO, DV }
+
+    static final class Termo {
+        final TipoTermo tipo;
+        final String literal;
+        final String campo;
+        final int de, ate;
+        final RegraDV regra;
+        final List<Termo> argumentos;
+
+        Termo(TipoTermo tipo, String literal, String campo, int de, int ate, RegraDV regra, List<Termo> argumentos) {
+            this.tipo = tipo;
+            this.literal = literal;
+            this.campo = campo;
+            this.de = de;
+            this.ate = ate;
+            this.regra = regra;
+            this.argumentos = argumentos;
+        }
+
+        boolean ehNossoNumero() {
+            return NOSSO_NUMERO.equals(campo);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.geradorboleto.layout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Expressão de layout já resolvida para um beneficiário: tudo o que é fixo (literais, agência, conta, carteira,
+// convênio e DVs que só dependem deles) está pronto em 'base'; por título restam apenas cópias do nosso número
+// e os DVs que dependem dele. Imutável: preencher(...) só escreve no array do chamador.
+public final class LayoutCompilado {
+
+    private final char[] base;
+    private final Operacao[] operacoes;
+
+    private LayoutCompilado(char[] base, Operacao[] operacoes) {
+        this.base = base;
+        this.operacoes = operacoes;
+    }
+
+    public int tamanho() {
+        return base.length;
+    }
+
+    /**
+     * Escreve o layout em destino[0..tamanho()).
+     * @param nossoNumero Nosso número já normalizado (largura do descritor).
+     */
+    public void preencher(char[] nossoNumero, char[] destino) {
+        System.arraycopy(base, 0, destino, 0, base.length);
+        for (Operacao op : operacoes) {
+            op.aplicar(nossoNumero, destino);
+        }
+    }
+
+    public String montar(char[] nossoNumero) {
+        char[] destino = new char[base.length];
+        preencher(nossoNumero, destino);
+        return new String(destino);
+    }
+
+    /**
+     * Resolve os termos de uma expressão com os valores fixos do beneficiário.
+     * @param fixos Valores já formatados dos campos do beneficiário (largura do descritor).
+     * @param numerico Se true (campo livre), todo o resultado precisa ser numérico.
+     */
+    static LayoutCompilado compilar(List<DescritorBanco.Termo> termos, Map<String, String> fixos, boolean numerico, String contexto) {
+        StringBuilder base = new StringBuilder(32);
+        List<Operacao> ops = new ArrayList<>();
+        for (DescritorBanco.Termo termo : termos) {
+            switch (termo.tipo) {
+                case LITERAL:
+                    base.append(termo.literal);
+                    break;
+                case CAMPO:
+                    if (termo.ehNossoNumero()) {
+                        ops.add(new CopiaNossoNumero(termo.de, base.length(), termo.ate - termo.de));
+                        base.append("0".repeat(termo.ate - termo.de));
+                    } else {
+                        base.append(fixos.get(termo.campo), termo.de, termo.ate);
+                    }
+                    break;
+                default: // DV
+                    if (numerico && !termo.regra.isNumerico()) {
+                        throw new IllegalStateException(contexto + ": regra " + termo.regra.getNome() + " não é numérica e não pode ser usada aqui.");
+                    }
+                    int posicao = base.length();
+                    base.append('0');
+                    if (termo.argumentos.isEmpty()) {
+                        // dv(regra) sem argumentos: DV de tudo o que vem antes na mesma expressão
+                        ops.add(new CalculoDV(termo.regra, posicao, null, null));
+                        break;
+                    }
+                    StringBuilder entrada = new StringBuilder();
+                    List<Integer> copias = new ArrayList<>();
+                    for (DescritorBanco.Termo arg : termo.argumentos) {
+                        if (arg.tipo == DescritorBanco.TipoTermo.LITERAL) {
+                            entrada.append(arg.literal);
+                        } else if (arg.ehNossoNumero()) {
+                            copias.add(arg.de);
+                            copias.add(entrada.length());
+                            copias.add(arg.ate - arg.de);
+                            entrada.append("0".repeat(arg.ate - arg.de));
+                        } else {
+                            entrada.append(fixos.get(arg.campo), arg.de, arg.ate);
+                        }
+                    }
+                    if (copias.isEmpty()) {
+                        // Só depende de dados fixos: calculado agora, uma vez por beneficiário
+                        char[] e = entrada.toString().toCharArray();
+                        base.setCharAt(posicao, termo.regra.calcular(e, 0, e.length));
+                    } else {
+                        int[] c = new int[copias.size()];
+                        for (int i = 0; i < c.length; i++) c[i] = copias.get(i);
+                        ops.add(new CalculoDV(termo.regra, posicao, entrada.toString().toCharArray(), c));
+                    }
+            }
+        }
+        char[] resultado = base.toString().toCharArray();
+        if (numerico) {
+            for (int i = 0; i < resultado.length; i++) {
+                if (resultado[i] < '0' || resultado[i] > '9') {
+                    throw new IllegalStateException(contexto + ": caractere não numérico na posição " + (i + 1) + ": " + base);
+                }
+            }
+        }
+        return new LayoutCompilado(resultado, ops.toArray(new Operacao[0]));
+    }
+
+    // --- Operações executadas por título ---
+
+    private interface Operacao {
+        void aplicar(char[] nossoNumero, char[] destino);
+    }
+
+    private static final class CopiaNossoNumero implements Operacao {
+        private final int origem, destino, tamanho;
+
+        CopiaNossoNumero(int origem, int destino, int tamanho) {
+            this.origem = origem;
+            this.destino = destino;
+            this.tamanho = tamanho;
+        }
+
+        @Override
+        public void aplicar(char[] nossoNumero, char[] saida) {
+            System.arraycopy(nossoNumero, origem, saida, destino, tamanho);
+        }
+    }
+
+    private static final class CalculoDV implements Operacao {
+        private final RegraDV regra;
+        private final int posicao;
+        private final char[] entradaBase; // null = DV sobre saida[0..posicao)
+        private final int[] copias; // Trincas (origem no nosso número, destino na entrada, tamanho)
+
+        CalculoDV(RegraDV regra, int posicao, char[] entradaBase, int[] copias) {
+            this.regra = regra;
+            this.posicao = posicao;
+            this.entradaBase = entradaBase;
+            this.copias = copias;
+        }
+
+        @Override
+        public void aplicar(char[] nossoNumero, char[] saida) {
+            if (entradaBase == null) {
+                saida[posicao] = regra.calcular(saida, 0, posicao);
+                return;
+            }
+            char[] entrada = entradaBase.clone();
+            for (int i = 0; i < copias.length; i += 3) {
+                System.arraycopy(nossoNumero, copias[i], entrada, copias[i + 1], copias[i + 2]);
+            }
+            saida[posicao] = regra.calcular(entrada, 0, entrada.length);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.geradorboleto.layout;
+
+import java.util.Map;
+import java.util.Objects;
+
+// Resultado de DescritorBanco.compilar(...) para um beneficiário: campos já formatados para exibição e os
+// layouts do campo livre e do nosso número prontos para receber só o nosso número de cada título.
+// Imutável e thread-safe.
+public final class LayoutEmissor {
+
+    private final DescritorBanco descritor;
+    private final Map<String, String> exibicao;
+    private final char[] prefixoNossoNumero;
+    private final LayoutCompilado campoLivre;
+    private final LayoutCompilado nossoNumero;
+
+    LayoutEmissor(DescritorBanco descritor, Map<String, String> exibicao, String prefixoNossoNumero,
+                  LayoutCompilado campoLivre, LayoutCompilado nossoNumero) {
+        this.descritor = descritor;
+        this.exibicao = Map.copyOf(exibicao);
+        this.prefixoNossoNumero = prefixoNossoNumero.toCharArray();
+        this.campoLivre = campoLivre;
+        this.nossoNumero = nossoNumero;
+    }
+
+    public DescritorBanco getDescritor() { return descritor; }
+    public LayoutCompilado getCampoLivre() { return campoLivre; }
+    public LayoutCompilado getNossoNumero() { return nossoNumero; }
+
+    // Valores formatados como aparecem no boleto ("" se o campo não se aplica ou não foi informado)
+    public String getAgencia() { return exibicao.getOrDefault("agencia", ""); }
+    public String getConta() { return exibicao.getOrDefault("conta", ""); }
+    public String getCarteira() { return exibicao.getOrDefault("carteira", ""); }
+    public String getConvenio() { return exibicao.getOrDefault("convenio", ""); }
+
+    // Dígitos do nosso número informados por título (largura do layout menos o prefixo, ex: BB 17 - convênio 7 = 10)
+    public int getLarguraSequencial() {
+        return descritor.getLarguraNossoNumero() - prefixoNossoNumero.length;
+    }
+
+    /**
+     * Normaliza o nosso número do título para a largura do layout: prefixo (se houver) + sequencial com zeros
+     * à esquerda. Um sequencial maior que a largura é recusado (cortá-lo faria dois títulos terem o mesmo número).
+     * @throws IllegalArgumentException Se o nosso número não for numérico ou tiver mais dígitos que o layout aceita.
+     */
+    public char[] normalizarNossoNumero(String sequencial) {
+        Objects.requireNonNull(sequencial, "Nosso Número (base) é obrigatório");
+        char[] destino = new char[descritor.getLarguraNossoNumero()];
+        int p = prefixoNossoNumero.length;
+        int largura = destino.length - p;
+        int n = sequencial.length();
+        for (int i = 0; i < n; i++) {
+            char c = sequencial.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Nosso Número deve ser numérico: " + sequencial);
+            }
+        }
+        if (n > largura) {
+            throw new IllegalArgumentException("Nosso Número do banco " + descritor.getCodigo() + " deve ter no máximo "
+                    + largura + " dígitos: " + sequencial);
+        }
+        System.arraycopy(prefixoNossoNumero, 0, destino, 0, p);
+        int zeros = largura - n;
+        for (int i = 0; i < zeros; i++) {
+            destino[p + i] = '0';
+        }
+        sequencial.getChars(0, n, destino, p + zeros);
+        return destino;
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.geradorboleto.layout;
+
+import br.com.geradorboleto.calculos.Modulo;
+
+// Regras de dígito verificador que podem ser usadas nos descritores de layout: dv(regra, ...)
+public enum RegraDV {
+
+    // Módulo 10 (pesos 2,1 da direita para a esquerda)
+    MOD10("mod10", true),
+    // Módulo 11 pesos 2 a 9, DV = 11 - resto; resultados 10 e 11 viram 0 (Caixa, Santander, Sicredi)
+    MOD11("mod11", true),
+    // Módulo 11 pesos 2 a 7 do nosso número Bradesco: 10 vira 'P', 11 vira '0' (só para exibição)
+    MOD11_BRADESCO("mod11bradesco", false),
+    // Nosso número Sicoob: pesos 3,1,9,7 repetidos da esquerda para a direita; restos 0 e 1 viram 0
+    SICOOB("sicoob", true);
+
+    private static final int[] PESOS_SICOOB = {3, 1, 9, 7};
+
+    private final String nome;
+    private final boolean numerico;
+
+    RegraDV(String nome, boolean numerico) {
+        this.nome = nome;
+        this.numerico = numerico;
+    }
+
+    public String getNome() { return nome; }
+
+    // false se a regra pode resultar em caractere não numérico (não pode entrar no campo livre)
+    public boolean isNumerico() { return numerico; }
+
+    public static RegraDV porNome(String nome) {
+        for (RegraDV regra : values()) {
+            if (regra.nome.equals(nome)) {
+                return regra;
+            }
+        }
+        throw new IllegalArgumentException("Regra de DV desconhecida: " + nome);
+    }
+
+    /**
+     * Calcula o DV sobre digitos[inicio..fim).
+     * @return Caractere do DV.
+     */
+    public char calcular(char[] digitos, int inicio, int fim) {
+        switch (this) {
+            case MOD10:
+                return (char) ('0' + Modulo.calcularModulo10(digitos, inicio, fim));
+            case MOD11: {
+                int dv = Modulo.calcularModulo11Base(digitos, inicio, fim, 9, false); // 1..11
+                return dv > 9 ? '0' : (char) ('0' + dv);
+            }
+            case MOD11_BRADESCO: {
+                int dv = Modulo.calcularModulo11Base(digitos, inicio, fim, 7, false);
+                return dv == 10 ? 'P' : dv == 11 ? '0' : (char) ('0' + dv);
+            }
+            default: {
+                int soma = 0;
+                for (int i = inicio, k = 0; i < fim; i++, k++) {
+                    int digito = digitos[i] - '0';
+                    if (digito < 0 || digito > 9) {
+                        throw new IllegalArgumentException("Número para cálculo do DV Sicoob contém caractere não numérico na posição " + i);
+                    }
+                    soma += digito * PESOS_SICOOB[k & 3];
+                }
+                int resto = soma % 11;
+                return resto <= 1 ? '0' : (char) ('0' + (11 - resto));
+            }
+        }
+    }
+}
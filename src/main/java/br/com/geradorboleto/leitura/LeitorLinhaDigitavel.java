@@ -0,0 +1,221 @@
+package br.com.geradorboleto.leitura;
+
+import br.com.geradorboleto.calculos.Modulo;
+import br.com.geradorboleto.calculos.MontadorCodigoBarras;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+// Leitura de boletos digitados ou escaneados: converte a linha digitável (47 dígitos, com ou sem a pontuação de
+// Boleto.formatarLinhaDigitavel) de volta no código de barras de 44 dígitos, confere os DVs dos três campos e o DV
+// geral, e decodifica banco, fator de vencimento, valor e campo livre. Inclui validação em lote sem alocação.
+public final class LeitorLinhaDigitavel {
+
+    private static final int TAMANHO_LINHA = MontadorCodigoBarras.TAMANHO_LINHA_DIGITAVEL;
+    private static final int TAMANHO_CODIGO_BARRAS = MontadorCodigoBarras.TAMANHO_CODIGO_BARRAS;
+
+    // PESO_GERAL[i] = peso do Módulo 11 do DV geral para o dígito i da linha digitável (0 para os DVs 1, 2, 3 e geral).
+    // Cada dígito da linha é levado à sua posição no código de barras e recebe o peso 2..9 contado da direita da base
+    // de 43 dígitos, evitando remontar o código de barras para validar.
+    private static final int[] PESO_GERAL = new int[TAMANHO_LINHA];
+
+    static {
+        int[] posicaoNoCodigoBarras = new int[TAMANHO_LINHA];
+        Arrays.fill(posicaoNoCodigoBarras, -1);
+        for (int i = 0; i < 4; i++) posicaoNoCodigoBarras[i] = i;             // Banco + moeda
+        for (int i = 0; i < 5; i++) posicaoNoCodigoBarras[4 + i] = 19 + i;     // Campo livre 1..5
+        for (int i = 0; i < 10; i++) posicaoNoCodigoBarras[10 + i] = 24 + i;   // Campo livre 6..15
+        for (int i = 0; i < 10; i++) posicaoNoCodigoBarras[21 + i] = 34 + i;   // Campo livre 16..25
+        for (int i = 0; i < 14; i++) posicaoNoCodigoBarras[33 + i] = 5 + i;    // Fator + valor
+        for (int i = 0; i < TAMANHO_LINHA; i++) {
+            int p = posicaoNoCodigoBarras[i];
+            if (p >= 0) {
+                int j = p < 4 ? p : p - 1; // Índice na base de 43 dígitos (sem o DV geral, posição 4)
+                int k = (TAMANHO_CODIGO_BARRAS - 2) - j; // Distância da direita
+                PESO_GERAL[i] = 2 + (k % 8);
+            }
+        }
+    }
+
+    private LeitorLinhaDigitavel() {
+    }
+
+    /**
+     * Lê uma linha digitável.
+     * @param linha 47 dígitos, aceitando pontos e espaços entre eles (ex: "23793.38128 60000.000003 ...").
+     * @return Dados decodificados do boleto.
+     * @throws IllegalArgumentException Se a linha tiver tamanho ou caractere inválido, ou algum DV não conferir.
+     */
+    public static LinhaDigitavelDecodificada ler(CharSequence linha) {
+        Objects.requireNonNull(linha, "Linha digitável não pode ser nula.");
+        byte[] l = new byte[TAMANHO_LINHA];
+        ResultadoValidacao resultado = copiarDigitos(linha, l) ? validar(l, 0) : ResultadoValidacao.TAMANHO_INVALIDO;
+        if (resultado != ResultadoValidacao.VALIDA) {
+            throw new IllegalArgumentException("Linha digitável inválida (" + resultado.getDescricao() + "): " + linha);
+        }
+        byte[] cb = new byte[TAMANHO_CODIGO_BARRAS];
+        paraCodigoBarras(l, 0, cb, 0);
+        return decodificar(new String(l, StandardCharsets.US_ASCII), cb);
+    }
+
+    /**
+     * Lê um código de barras de 44 dígitos (ex: lido por leitor óptico) e confere o DV geral.
+     * @return Dados decodificados, com a linha digitável correspondente.
+     * @throws IllegalArgumentException Se o código tiver tamanho ou caractere inválido, ou o DV geral não conferir.
+     */
+    public static LinhaDigitavelDecodificada lerCodigoBarras(CharSequence codigoBarras) {
+        Objects.requireNonNull(codigoBarras, "Código de barras não pode ser nulo.");
+        if (codigoBarras.length() != TAMANHO_CODIGO_BARRAS) {
+            throw new IllegalArgumentException("Código de barras deve ter 44 dígitos: " + codigoBarras);
+        }
+        char[] cb = new char[TAMANHO_CODIGO_BARRAS];
+        char[] base = new char[TAMANHO_CODIGO_BARRAS - 1]; // Sem o DV geral (posição 5)
+        for (int i = 0, j = 0; i < TAMANHO_CODIGO_BARRAS; i++) {
+            char c = codigoBarras.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Código de barras contém caractere não numérico na posição " + (i + 1) + ": " + codigoBarras);
+            }
+            cb[i] = c;
+            if (i != 4) base[j++] = c;
+        }
+        if (cb[4] - '0' != Modulo.calcularModulo11(base, 0, base.length)) {
+            throw new IllegalArgumentException("Código de barras inválido (" + ResultadoValidacao.DV_GERAL.getDescricao() + "): " + codigoBarras);
+        }
+        char[] linha = new char[TAMANHO_LINHA];
+        MontadorCodigoBarras.escreverLinhaDigitavel(cb, 0, linha, 0);
+        byte[] bytes = new byte[TAMANHO_CODIGO_BARRAS];
+        for (int i = 0; i < TAMANHO_CODIGO_BARRAS; i++) bytes[i] = (byte) cb[i];
+        return decodificar(new String(linha), bytes);
+    }
+
+    /**
+     * Valida uma linha digitável sem lançar exceção.
+     * @param linha 47 dígitos, com ou sem pontos e espaços.
+     * @return VALIDA ou o primeiro problema encontrado.
+     */
+    public static ResultadoValidacao validar(CharSequence linha) {
+        if (linha == null) {
+            return ResultadoValidacao.TAMANHO_INVALIDO;
+        }
+        byte[] l = new byte[TAMANHO_LINHA];
+        return copiarDigitos(linha, l) ? validar(l, 0) : ResultadoValidacao.TAMANHO_INVALIDO;
+    }
+
+    /**
+     * Valida em lote linhas digitáveis gravadas lado a lado em ASCII, sem pontuação (47 bytes cada,
+     * ex: um arquivo de linhas de tamanho fixo). Não cria objetos.
+     * @param dados Array com as linhas.
+     * @param inicio Índice do primeiro byte da primeira linha.
+     * @param quantidade Quantidade de linhas.
+     * @param resultados Array de saída: resultados[k] recebe o código (ResultadoValidacao.codigo()) da k-ésima linha.
+     * @return Quantidade de linhas válidas.
+     */
+    public static int validarEmLote(byte[] dados, int inicio, int quantidade, byte[] resultados) {
+        Objects.checkFromIndexSize(inicio, Math.multiplyExact(quantidade, TAMANHO_LINHA), dados.length);
+        if (resultados.length < quantidade) {
+            throw new IllegalArgumentException("Array de resultados menor que a quantidade de linhas: " + resultados.length);
+        }
+        int validas = 0;
+        for (int k = 0, off = inicio; k < quantidade; k++, off += TAMANHO_LINHA) {
+            ResultadoValidacao r = validar(dados, off);
+            resultados[k] = r.codigo();
+            if (r == ResultadoValidacao.VALIDA) validas++;
+        }
+        return validas;
+    }
+
+    /**
+     * Valida em lote linhas digitáveis em texto (com ou sem pontos e espaços). Usa um único buffer para todas as
+     * linhas; não cria objetos por linha.
+     * @param resultados Array de saída: resultados[k] recebe o código (ResultadoValidacao.codigo()) de linhas[k].
+     * @return Quantidade de linhas válidas.
+     */
+    public static int validarEmLote(CharSequence[] linhas, byte[] resultados) {
+        if (resultados.length < linhas.length) {
+            throw new IllegalArgumentException("Array de resultados menor que a quantidade de linhas: " + resultados.length);
+        }
+        byte[] l = new byte[TAMANHO_LINHA];
+        int validas = 0;
+        for (int k = 0; k < linhas.length; k++) {
+            ResultadoValidacao r = linhas[k] != null && copiarDigitos(linhas[k], l) ? validar(l, 0) : ResultadoValidacao.TAMANHO_INVALIDO;
+            resultados[k] = r.codigo();
+            if (r == ResultadoValidacao.VALIDA) validas++;
+        }
+        return validas;
+    }
+
+    /**
+     * Converte uma linha digitável (47 dígitos ASCII, sem pontuação) no código de barras (44 dígitos).
+     * Não confere os DVs.
+     */
+    public static void paraCodigoBarras(byte[] linha, int offLinha, byte[] destino, int offCodigoBarras) {
+        Objects.checkFromIndexSize(offLinha, TAMANHO_LINHA, linha.length);
+        Objects.checkFromIndexSize(offCodigoBarras, TAMANHO_CODIGO_BARRAS, destino.length);
+        int l = offLinha;
+        int cb = offCodigoBarras;
+        System.arraycopy(linha, l, destino, cb, 4);             // Banco + moeda
+        destino[cb + 4] = linha[l + 32];                        // DV geral
+        System.arraycopy(linha, l + 33, destino, cb + 5, 14);   // Fator + valor
+        System.arraycopy(linha, l + 4, destino, cb + 19, 5);    // Campo livre 1..5
+        System.arraycopy(linha, l + 10, destino, cb + 24, 10);  // Campo livre 6..15
+        System.arraycopy(linha, l + 21, destino, cb + 34, 10);  // Campo livre 16..25
+    }
+
+    // Valida os 47 bytes a partir de off: dígitos, DVs dos campos 1 a 3 (Módulo 10) e DV geral (Módulo 11)
+    private static ResultadoValidacao validar(byte[] l, int off) {
+        int somaGeral = 0;
+        for (int i = 0; i < TAMANHO_LINHA; i++) {
+            int digito = l[off + i] - '0';
+            if (digito < 0 || digito > 9) {
+                return ResultadoValidacao.CARACTERE_INVALIDO;
+            }
+            somaGeral += digito * PESO_GERAL[i];
+        }
+        if (Modulo.calcularModulo10(l, off, off + 9) != l[off + 9] - '0') {
+            return ResultadoValidacao.DV_CAMPO1;
+        }
+        if (Modulo.calcularModulo10(l, off + 10, off + 20) != l[off + 20] - '0') {
+            return ResultadoValidacao.DV_CAMPO2;
+        }
+        if (Modulo.calcularModulo10(l, off + 21, off + 31) != l[off + 31] - '0') {
+            return ResultadoValidacao.DV_CAMPO3;
+        }
+        // Mesma regra de Modulo.calcularModulo11 (Febraban): 0, 10 e 11 resultam em DV 1
+        int dv = 11 - (somaGeral % 11);
+        if (dv > 9) dv = 1;
+        if (dv != l[off + 32] - '0') {
+            return ResultadoValidacao.DV_GERAL;
+        }
+        return ResultadoValidacao.VALIDA;
+    }
+
+    // Copia os dígitos para destino ignorando pontos e espaços; false se não houver exatamente 47 caracteres restantes
+    // (caracteres não numéricos são copiados e reprovados depois, como CARACTERE_INVALIDO)
+    private static boolean copiarDigitos(CharSequence linha, byte[] destino) {
+        int n = 0;
+        for (int i = 0, tamanho = linha.length(); i < tamanho; i++) {
+            char c = linha.charAt(i);
+            if (c == '.' || c == ' ' || c == '\t') {
+                continue;
+            }
+            if (n == TAMANHO_LINHA) {
+                return false;
+            }
+            destino[n++] = c > 0x7F ? (byte) '?' : (byte) c;
+        }
+        return n == TAMANHO_LINHA;
+    }
+
+    private static LinhaDigitavelDecodificada decodificar(String linha, byte[] cb) {
+        int fator = 0;
+        for (int i = 5; i < 9; i++) {
+            fator = fator * 10 + (cb[i] - '0');
+        }
+        long valorCentavos = 0;
+        for (int i = 9; i < 19; i++) {
+            valorCentavos = valorCentavos * 10 + (cb[i] - '0');
+        }
+        return new LinhaDigitavelDecodificada(linha, new String(cb, StandardCharsets.US_ASCII), fator, valorCentavos);
+    }
+}
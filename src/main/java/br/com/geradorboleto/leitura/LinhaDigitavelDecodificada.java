@@ -0,0 +1,55 @@
+package br.com.geradorboleto.leitura;
+
+import br.com.geradorboleto.calculos.FatorVencimento;
+import br.com.geradorboleto.calculos.ValorCentavos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Conteúdo de um boleto lido de uma linha digitável (ou código de barras) já validada.
+public final class LinhaDigitavelDecodificada {
+
+    private final String linhaDigitavel; // 47 dígitos, sem pontos/espaços
+    private final String codigoBarras; // 44 dígitos
+    private final int fatorVencimento;
+    private final long valorCentavos;
+
+    LinhaDigitavelDecodificada(String linhaDigitavel, String codigoBarras, int fatorVencimento, long valorCentavos) {
+        this.linhaDigitavel = linhaDigitavel;
+        this.codigoBarras = codigoBarras;
+        this.fatorVencimento = fatorVencimento;
+        this.valorCentavos = valorCentavos;
+    }
+
+    public String getLinhaDigitavel() { return linhaDigitavel; }
+    public String getCodigoBarras() { return codigoBarras; }
+    public String getCodigoBanco() { return codigoBarras.substring(0, 3); }
+    public char getCodigoMoeda() { return codigoBarras.charAt(3); }
+    public int getDigitoGeral() { return codigoBarras.charAt(4) - '0'; }
+    public int getFatorVencimento() { return fatorVencimento; }
+    public long getValorCentavos() { return valorCentavos; }
+    public String getCampoLivre() { return codigoBarras.substring(19); }
+
+    public BigDecimal getValor() {
+        return ValorCentavos.paraBigDecimal(valorCentavos);
+    }
+
+    /**
+     * Data de vencimento a partir do fator, escolhendo o ciclo de 9000 dias mais próximo de hoje.
+     * @return Data, ou null se o boleto não tiver vencimento (fator 0).
+     */
+    public LocalDate getDataVencimento() {
+        return FatorVencimento.data(fatorVencimento, LocalDate.now());
+    }
+
+    // Igual a getDataVencimento(), com a data de referência informada (ex: data do arquivo de retorno)
+    public LocalDate getDataVencimento(LocalDate referencia) {
+        return FatorVencimento.data(fatorVencimento, referencia);
+    }
+
+    @Override
+    public String toString() {
+        return "Banco " + getCodigoBanco() + ", fator " + fatorVencimento + ", valor " + ValorCentavos.formatar(valorCentavos)
+                + ", campo livre " + getCampoLivre();
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.geradorboleto.leitura;
+
+// Resultado da validação de uma linha digitável ou código de barras. No lote, cada linha recebe o código
+// (ordinal) num byte[], sem criar objetos.
+public enum ResultadoValidacao {
+
+    VALIDA("Válida"),
+    TAMANHO_INVALIDO("Quantidade de dígitos inválida"),
+    CARACTERE_INVALIDO("Caractere não numérico"),
+    DV_CAMPO1("Dígito verificador do campo 1 inválido"),
+    DV_CAMPO2("Dígito verificador do campo 2 inválido"),
+    DV_CAMPO3("Dígito verificador do campo 3 inválido"),
+    DV_GERAL("Dígito verificador geral inválido");
+
+    private static final ResultadoValidacao[] VALORES = values();
+
+    private final String descricao;
+
+    ResultadoValidacao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() { return descricao; }
+
+    public byte codigo() {
+        return (byte) ordinal();
+    }
+
+    public static ResultadoValidacao deCodigo(byte codigo) {
+        return VALORES[codigo];
+    }
+}
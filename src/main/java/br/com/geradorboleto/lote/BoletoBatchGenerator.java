@@ -0,0 +1,162 @@
+package br.com.geradorboleto.lote;
+
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.pdf.BoletoPDFExporter;
+import br.com.geradorboleto.pdf.BufferPDF;
+import br.com.geradorboleto.pdf.PoolBufferPDF;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Gera boletos em lote, distribuindo build() + destino (ex: PDF) entre várias threads
+public class BoletoBatchGenerator {
+
+    private final int paralelismo;
+    private final int maxPendentes; // Limite de itens lidos da entrada e ainda não processados
+
+    // Usa uma thread por núcleo disponível
+    public BoletoBatchGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param paralelismo Número de threads de trabalho (build + destino). Deve ser >= 1.
+     */
+    public BoletoBatchGenerator(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("Paralelismo deve ser maior ou igual a 1: " + paralelismo);
+        }
+        this.paralelismo = paralelismo;
+        this.maxPendentes = paralelismo * 2;
+    }
+
+    public int getParalelismo() { return paralelismo; }
+
+    /**
+     * Processa todas as entradas: constrói cada boleto e o entrega ao destino.
+     * A entrada é consumida aos poucos (no máximo 2x o paralelismo em memória), então pode ser um Stream
+     * de milhões de itens. Erros de um item são registrados no resumo e não interrompem o lote.
+     * @param entradas Stream com as entradas do lote (é fechado ao final).
+     * @param destino Etapa final de cada boleto (ex: gravar PDF). Deve ser thread-safe.
+     * @return Resumo com totais, falhas e vazão.
+     */
+    public ResumoLote gerar(Stream<EntradaBoleto> entradas, DestinoBoleto destino) {
+        Objects.requireNonNull(entradas, "O Stream de entradas não pode ser nulo.");
+        Objects.requireNonNull(destino, "O destino dos boletos não pode ser nulo.");
+
+        AtomicLong sucessos = new AtomicLong();
+        ConcurrentLinkedQueue<FalhaLote> falhas = new ConcurrentLinkedQueue<>();
+        Semaphore vagas = new Semaphore(maxPendentes);
+        long total = 0;
+        long inicio = System.nanoTime();
+
+        // close() do ExecutorService aguarda o término de todas as tarefas já enviadas
+        try (entradas; ExecutorService executor = Executors.newFixedThreadPool(paralelismo, new FabricaThreads())) {
+            Iterator<EntradaBoleto> it = entradas.iterator();
+            while (it.hasNext()) {
+                EntradaBoleto entrada = it.next();
+                long indice = total++;
+                vagas.acquire();
+                executor.execute(() -> {
+                    try {
+                        processar(indice, entrada, destino, sucessos, falhas);
+                    } finally {
+                        vagas.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração do lote interrompida após " + total + " itens.", e);
+        }
+
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        List<FalhaLote> listaFalhas = new ArrayList<>(falhas);
+        listaFalhas.sort(Comparator.comparingLong(FalhaLote::getIndice));
+        return new ResumoLote(total, sucessos.get(), listaFalhas, duracao, paralelismo);
+    }
+
+    /**
+     * Gera um PDF por boleto no diretório informado.
+     * O arquivo recebe o identificador da entrada (ou "boleto_<indice>" se não houver). Nada é impresso por item:
+     * o PDF é montado num buffer em memória e gravado no arquivo aqui, e qualquer erro fica só no FalhaLote.
+     * @param entradas Stream com as entradas do lote.
+     * @param diretorio Diretório de saída (criado se não existir).
+     * @return Resumo com totais, falhas e vazão.
+     * @throws IOException Se o diretório de saída não puder ser criado.
+     */
+    public ResumoLote gerarPdfs(Stream<EntradaBoleto> entradas, Path diretorio) throws IOException {
+        Objects.requireNonNull(diretorio, "O diretório de saída não pode ser nulo.");
+        Files.createDirectories(diretorio);
+        // No máximo um buffer por thread de trabalho
+        PoolBufferPDF pool = new PoolBufferPDF(paralelismo, PoolBufferPDF.CAPACIDADE_INICIAL_PADRAO,
+                PoolBufferPDF.CAPACIDADE_MAXIMA_RETIDA_PADRAO);
+        return gerar(entradas, (indice, entrada, boleto) -> {
+            BufferPDF pdf = pool.emprestar();
+            try {
+                BoletoPDFExporter.exportar(boleto, pdf);
+                try (OutputStream saida = Files.newOutputStream(diretorio.resolve(nomeArquivo(indice, entrada)))) {
+                    pdf.writeTo(saida);
+                }
+            } finally {
+                pdf.liberar();
+            }
+        });
+    }
+
+    // Nome do PDF de um item: identificador (apenas caracteres seguros) ou índice (também usado pelo PipelineBoletos)
+    static String nomeArquivo(long indice, EntradaBoleto entrada) {
+        String id = entrada.getIdentificador();
+        if (id == null || id.isBlank()) {
+            return "boleto_" + indice + ".pdf";
+        }
+        return id.replaceAll("[^A-Za-z0-9._-]", "_") + ".pdf";
+    }
+
+    private static void processar(long indice, EntradaBoleto entrada, DestinoBoleto destino,
+                                  AtomicLong sucessos, ConcurrentLinkedQueue<FalhaLote> falhas) {
+        String id = entrada != null ? entrada.getIdentificador() : null;
+        Boleto boleto;
+        try {
+            Objects.requireNonNull(entrada, "Entrada nula no lote");
+            boleto = entrada.construir();
+        } catch (Exception e) {
+            falhas.add(new FalhaLote(indice, id, "build", e));
+            return;
+        }
+        try {
+            destino.gravar(indice, entrada, boleto);
+            sucessos.incrementAndGet();
+        } catch (Exception e) {
+            falhas.add(new FalhaLote(indice, id, "destino", e));
+        }
+    }
+
+    // Threads nomeadas para facilitar a leitura de thread dumps e profilers
+    private static class FabricaThreads implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "gerador-boleto-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
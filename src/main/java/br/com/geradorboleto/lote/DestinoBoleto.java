@@ -0,0 +1,14 @@
+package br.com.geradorboleto.lote;
+
+import br.com.geradorboleto.model.Boleto;
+
+import java.io.IOException;
+
+// Etapa final de cada item do lote: recebe o boleto já construído (ex: grava o PDF)
+@FunctionalInterface
+public interface DestinoBoleto {
+
+    // Chamado pelas threads do lote; implementações devem ser thread-safe.
+    // 'indice' é a posição do item na entrada (0..n-1).
+    void gravar(long indice, EntradaBoleto entrada, Boleto boleto) throws IOException;
+}
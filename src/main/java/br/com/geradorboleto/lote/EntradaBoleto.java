@@ -0,0 +1,86 @@
+package br.com.geradorboleto.lote;
+
+import br.com.geradorboleto.builder.BoletoBuilder;
+import br.com.geradorboleto.builder.BoletoBuilderFactory;
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Dados de entrada de um boleto em um lote: tudo o que os métodos "com..." do BoletoBuilder recebem
+public class EntradaBoleto {
+    private String identificador; // Usado para nomear o PDF e identificar falhas (opcional)
+    private String codigoBanco; // Ex: "001", "341", "237", "104" (ver CatalogoBancos)
+    private Pessoa sacado;
+    private Pessoa beneficiario;
+    private String agencia;
+    private String contaCorrente;
+    private String carteira;
+    private String convenio; // Convênio / código do beneficiário (bancos que usam)
+    private LocalDate dataVencimento;
+    private LocalDate dataDocumento;
+    private BigDecimal valor;
+    private String numeroDocumento;
+    private String nossoNumero;
+    private String instrucoes;
+
+    public EntradaBoleto() {}
+
+    // Getters
+    public String getIdentificador() { return identificador; }
+    public String getCodigoBanco() { return codigoBanco; }
+    public Pessoa getSacado() { return sacado; }
+    public Pessoa getBeneficiario() { return beneficiario; }
+    public String getAgencia() { return agencia; }
+    public String getContaCorrente() { return contaCorrente; }
+    public String getCarteira() { return carteira; }
+    public String getConvenio() { return convenio; }
+    public LocalDate getDataVencimento() { return dataVencimento; }
+    public LocalDate getDataDocumento() { return dataDocumento; }
+    public BigDecimal getValor() { return valor; }
+    public String getNumeroDocumento() { return numeroDocumento; }
+    public String getNossoNumero() { return nossoNumero; }
+    public String getInstrucoes() { return instrucoes; }
+
+    // Setters
+    public void setIdentificador(String identificador) { this.identificador = identificador; }
+    public void setCodigoBanco(String codigoBanco) { this.codigoBanco = codigoBanco; }
+    public void setSacado(Pessoa sacado) { this.sacado = sacado; }
+    public void setBeneficiario(Pessoa beneficiario) { this.beneficiario = beneficiario; }
+    public void setAgencia(String agencia) { this.agencia = agencia; }
+    public void setContaCorrente(String contaCorrente) { this.contaCorrente = contaCorrente; }
+    public void setCarteira(String carteira) { this.carteira = carteira; }
+    public void setConvenio(String convenio) { this.convenio = convenio; }
+    public void setDataVencimento(LocalDate dataVencimento) { this.dataVencimento = dataVencimento; }
+    public void setDataDocumento(LocalDate dataDocumento) { this.dataDocumento = dataDocumento; }
+    public void setValor(BigDecimal valor) { this.valor = valor; }
+    public void setNumeroDocumento(String numeroDocumento) { this.numeroDocumento = numeroDocumento; }
+    public void setNossoNumero(String nossoNumero) { this.nossoNumero = nossoNumero; }
+    public void setInstrucoes(String instrucoes) { this.instrucoes = instrucoes; }
+
+    /**
+     * Constrói o Boleto usando o Builder do banco da entrada.
+     * @return Boleto com código de barras e linha digitável calculados.
+     */
+    public Boleto construir() {
+        Objects.requireNonNull(codigoBanco, "Código do Banco é obrigatório");
+        Objects.requireNonNull(sacado, "Sacado é obrigatório");
+        Objects.requireNonNull(beneficiario, "Beneficiário é obrigatório");
+
+        BoletoBuilder builder = BoletoBuilderFactory.criar(codigoBanco);
+        Endereco endSacado = sacado.getEndereco() != null ? sacado.getEndereco() : new Endereco(null, null, null, null, null);
+        Endereco endBenef = beneficiario.getEndereco() != null ? beneficiario.getEndereco() : new Endereco(null, null, null, null, null);
+        return builder
+                .comSacado(sacado.getNome(), sacado.getDocumento(), endSacado.getLogradouro(), endSacado.getBairro(), endSacado.getCep(), endSacado.getCidade(), endSacado.getUf())
+                .comBeneficiario(beneficiario.getNome(), beneficiario.getDocumento(), endBenef.getLogradouro(), endBenef.getBairro(), endBenef.getCep(), endBenef.getCidade(), endBenef.getUf())
+                .comBanco(agencia, contaCorrente, carteira)
+                .comConvenio(convenio)
+                .comDatas(dataVencimento, dataDocumento)
+                .comValores(valor, numeroDocumento, nossoNumero)
+                .comInstrucoes(instrucoes)
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.geradorboleto.lote;
+
+import br.com.geradorboleto.calculos.ValorCentavos;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+// Converte o JSON de um boleto numa EntradaBoleto. Os campos têm os mesmos nomes das propriedades da entrada:
+//
+// {"identificador": "pedido-123", "codigoBanco": "341", "agencia": "5678", "contaCorrente": "12345-6",
+//  "carteira": "109", "convenio": null, "dataVencimento": "2026-12-15", "dataDocumento": "2026-11-01",
+//  "valor": 150.75, "numeroDocumento": "DOC-1", "nossoNumero": "12345678", "instrucoes": "...",
+//  "sacado": {"nome": "...", "documento": "...", "endereco": {"logradouro": "...", "bairro": "...", "cep": "...",
+//             "cidade": "...", "uf": "SP"}},
+//  "beneficiario": {...}}
+//
+// Datas no formato ISO (AAAA-MM-DD); valor como número ou texto ("150.75"). Campos desconhecidos são ignorados.
+public final class EntradaJson {
+
+    private EntradaJson() {}
+
+    /**
+     * Lê uma entrada de um documento JSON (objeto).
+     * @throws IllegalArgumentException Se o JSON for inválido ou algum campo tiver tipo ou formato errado.
+     */
+    public static EntradaBoleto ler(CharSequence json) {
+        return de(Json.lerObjeto(json));
+    }
+
+    // Entrada a partir de um objeto JSON já lido (ver Json.lerObjeto)
+    public static EntradaBoleto de(Map<String, Object> objeto) {
+        EntradaBoleto e = new EntradaBoleto();
+        e.setIdentificador(texto(objeto, "identificador"));
+        e.setCodigoBanco(texto(objeto, "codigoBanco"));
+        e.setAgencia(texto(objeto, "agencia"));
+        e.setContaCorrente(texto(objeto, "contaCorrente"));
+        e.setCarteira(texto(objeto, "carteira"));
+        e.setConvenio(texto(objeto, "convenio"));
+        e.setDataVencimento(data(objeto, "dataVencimento"));
+        e.setDataDocumento(data(objeto, "dataDocumento"));
+        e.setValor(valor(objeto, "valor"));
+        e.setNumeroDocumento(texto(objeto, "numeroDocumento"));
+        e.setNossoNumero(texto(objeto, "nossoNumero"));
+        e.setInstrucoes(texto(objeto, "instrucoes"));
+        e.setSacado(pessoa(objeto, "sacado"));
+        e.setBeneficiario(pessoa(objeto, "beneficiario"));
+        return e;
+    }
+
+    // Inverso de ler(...): JSON de uma linha com os campos preenchidos da entrada
+    public static String escrever(EntradaBoleto e) {
+        StringBuilder sb = new StringBuilder(512).append('{');
+        campo(sb, "identificador", e.getIdentificador());
+        campo(sb, "codigoBanco", e.getCodigoBanco());
+        campo(sb, "agencia", e.getAgencia());
+        campo(sb, "contaCorrente", e.getContaCorrente());
+        campo(sb, "carteira", e.getCarteira());
+        campo(sb, "convenio", e.getConvenio());
+        campo(sb, "dataVencimento", e.getDataVencimento() != null ? e.getDataVencimento().toString() : null);
+        campo(sb, "dataDocumento", e.getDataDocumento() != null ? e.getDataDocumento().toString() : null);
+        if (e.getValor() != null) {
+            separar(sb).append("\"valor\":").append(e.getValor().toPlainString());
+        }
+        campo(sb, "numeroDocumento", e.getNumeroDocumento());
+        campo(sb, "nossoNumero", e.getNossoNumero());
+        campo(sb, "instrucoes", e.getInstrucoes());
+        pessoa(sb, "sacado", e.getSacado());
+        pessoa(sb, "beneficiario", e.getBeneficiario());
+        return sb.append('}').toString();
+    }
+
+    private static void pessoa(StringBuilder sb, String nome, Pessoa p) {
+        if (p == null) {
+            return;
+        }
+        separar(sb).append('"').append(nome).append("\":{");
+        campo(sb, "nome", p.getNome());
+        campo(sb, "documento", p.getDocumento());
+        Endereco end = p.getEndereco();
+        if (end != null) {
+            separar(sb).append("\"endereco\":{");
+            campo(sb, "logradouro", end.getLogradouro());
+            campo(sb, "bairro", end.getBairro());
+            campo(sb, "cep", end.getCep());
+            campo(sb, "cidade", end.getCidade());
+            campo(sb, "uf", end.getUf());
+            sb.append('}');
+        }
+        sb.append('}');
+    }
+
+    private static void campo(StringBuilder sb, String nome, String valor) {
+        if (valor != null) {
+            separar(sb).append('"').append(nome).append("\":");
+            Json.escreverTexto(sb, valor);
+        }
+    }
+
+    // Vírgula antes do campo, exceto logo após a abertura do objeto
+    private static StringBuilder separar(StringBuilder sb) {
+        return sb.charAt(sb.length() - 1) == '{' ? sb : sb.append(',');
+    }
+
+    private static Pessoa pessoa(Map<String, Object> objeto, String campo) {
+        Map<String, Object> p = objeto(objeto, campo);
+        if (p == null) {
+            return null;
+        }
+        Map<String, Object> end = objeto(p, "endereco");
+        Endereco endereco = end == null ? null : new Endereco(texto(end, "logradouro"), texto(end, "bairro"),
+                texto(end, "cep"), texto(end, "cidade"), texto(end, "uf"));
+        return new Pessoa(texto(p, "nome"), texto(p, "documento"), endereco);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> objeto(Map<String, Object> objeto, String campo) {
+        Object v = objeto.get(campo);
+        if (v == null || v instanceof Map) {
+            return (Map<String, Object>) v;
+        }
+        throw new IllegalArgumentException("Campo '" + campo + "' deve ser um objeto.");
+    }
+
+    // Texto; números são aceitos (ex: "agencia": 1234) e convertidos sem notação científica
+    private static String texto(Map<String, Object> objeto, String campo) {
+        Object v = objeto.get(campo);
+        if (v == null || v instanceof String) {
+            return (String) v;
+        }
+        if (v instanceof BigDecimal n) {
+            return n.toPlainString();
+        }
+        throw new IllegalArgumentException("Campo '" + campo + "' deve ser um texto.");
+    }
+
+    private static LocalDate data(Map<String, Object> objeto, String campo) {
+        String v = texto(objeto, campo);
+        if (v == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(v);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Campo '" + campo + "' deve ser uma data AAAA-MM-DD: " + v);
+        }
+    }
+
+    private static BigDecimal valor(Map<String, Object> objeto, String campo) {
+        Object v = objeto.get(campo);
+        BigDecimal numero;
+        if (v == null || v instanceof BigDecimal) {
+            numero = (BigDecimal) v;
+        } else if (v instanceof String s) {
+            try {
+                numero = new BigDecimal(s.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Campo '" + campo + "' deve ser um número: " + s);
+            }
+        } else {
+            throw new IllegalArgumentException("Campo '" + campo + "' deve ser um número.");
+        }
+        // Antes de qualquer arredondamento: {"valor":1e20000000} tem poucos bytes e custaria segundos de CPU
+        if (numero != null && !ValorCentavos.cabeNoCodigoBarras(numero)) {
+            throw new IllegalArgumentException("Campo '" + campo + "' excede o máximo do código de barras (R$ 99.999.999,99).");
+        }
+        return numero;
+    }
+}
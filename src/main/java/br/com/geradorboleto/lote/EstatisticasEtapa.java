@@ -0,0 +1,63 @@
+package br.com.geradorboleto.lote;
+
+import java.time.Duration;
+
+// Contadores de uma etapa do PipelineBoletos ao final da execução (ver ResumoPipeline)
+public class EstatisticasEtapa {
+    private final String nome;
+    private final int threads;
+    private final long processados; // Itens que saíram da etapa com sucesso
+    private final long falhas;
+    private final Duration ocupada; // Soma do tempo de trabalho de todas as threads da etapa
+    private final Duration esperandoEntrada; // Fila de entrada vazia: a etapa anterior é o gargalo
+    private final Duration bloqueadaSaida; // Fila de saída cheia: a etapa seguinte é o gargalo
+    private final double profundidadeMediaFila; // Fila de entrada, vista a cada item colocado nela
+    private final int profundidadeMaximaFila;
+    private final int capacidadeFila; // 0 para a etapa de leitura (não tem fila de entrada)
+    private final Duration duracao; // Duração total da execução
+
+    public EstatisticasEtapa(String nome, int threads, long processados, long falhas, Duration ocupada,
+                             Duration esperandoEntrada, Duration bloqueadaSaida, double profundidadeMediaFila,
+                             int profundidadeMaximaFila, int capacidadeFila, Duration duracao) {
+        this.nome = nome;
+        this.threads = threads;
+        this.processados = processados;
+        this.falhas = falhas;
+        this.ocupada = ocupada;
+        this.esperandoEntrada = esperandoEntrada;
+        this.bloqueadaSaida = bloqueadaSaida;
+        this.profundidadeMediaFila = profundidadeMediaFila;
+        this.profundidadeMaximaFila = profundidadeMaximaFila;
+        this.capacidadeFila = capacidadeFila;
+        this.duracao = duracao;
+    }
+
+    public String getNome() { return nome; }
+    public int getThreads() { return threads; }
+    public long getProcessados() { return processados; }
+    public long getFalhas() { return falhas; }
+    public Duration getOcupada() { return ocupada; }
+    public Duration getEsperandoEntrada() { return esperandoEntrada; }
+    public Duration getBloqueadaSaida() { return bloqueadaSaida; }
+    public double getProfundidadeMediaFila() { return profundidadeMediaFila; }
+    public int getProfundidadeMaximaFila() { return profundidadeMaximaFila; }
+    public int getCapacidadeFila() { return capacidadeFila; }
+
+    // Fração do tempo total das threads da etapa gasta trabalhando (0 a 1); perto de 1 indica o gargalo
+    public double getUtilizacao() {
+        return fracao(ocupada);
+    }
+
+    private double fracao(Duration parte) {
+        long disponivel = duracao.toNanos() * threads;
+        return disponivel > 0 ? Math.min(1.0, parte.toNanos() / (double) disponivel) : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-13s %2d threads: %d itens, %d falhas | ocupada %5.1f%%, esperando entrada %5.1f%%, "
+                        + "bloqueada na saída %5.1f%% | fila de entrada média %.1f, máx %d de %d",
+                nome, threads, processados, falhas, getUtilizacao() * 100, fracao(esperandoEntrada) * 100,
+                fracao(bloqueadaSaida) * 100, profundidadeMediaFila, profundidadeMaximaFila, capacidadeFila);
+    }
+}
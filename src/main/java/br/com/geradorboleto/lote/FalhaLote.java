@@ -0,0 +1,30 @@
+package br.com.geradorboleto.lote;
+
+// Erro capturado em um item do lote (o lote continua com os demais itens)
+public class FalhaLote {
+    private final long indice; // Posição do item na entrada (0..n-1)
+    private final String identificador;
+    private final String etapa; // "build" ou "destino" (BoletoBatchGenerator); "decodificacao", "build", "pdf" ou "gravacao" (PipelineBoletos)
+    private final Exception erro;
+
+    public FalhaLote(long indice, String identificador, String etapa, Exception erro) {
+        this.indice = indice;
+        this.identificador = identificador;
+        this.etapa = etapa;
+        this.erro = erro;
+    }
+
+    public long getIndice() { return indice; }
+    public String getIdentificador() { return identificador; }
+    public String getEtapa() { return etapa; }
+    public Exception getErro() { return erro; }
+
+    @Override
+    public String toString() {
+        return String.format("Item %d%s [%s]: %s",
+                indice,
+                identificador != null ? " (" + identificador + ")" : "",
+                etapa,
+                erro.getMessage() != null ? erro.getMessage() : erro.getClass().getName());
+    }
+}
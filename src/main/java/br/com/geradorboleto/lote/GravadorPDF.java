@@ -0,0 +1,15 @@
+package br.com.geradorboleto.lote;
+
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.pdf.BufferPDF;
+
+import java.io.IOException;
+
+// Etapa final do PipelineBoletos: recebe o PDF já gerado em memória (ex: grava em disco ou envia para um bucket)
+@FunctionalInterface
+public interface GravadorPDF {
+
+    // Chamado pelas threads de gravação; implementações devem ser thread-safe.
+    // O buffer volta para o pool depois da chamada: não guarde referência a ele (copie com toByteArray se precisar).
+    void gravar(long indice, EntradaBoleto entrada, Boleto boleto, BufferPDF pdf) throws IOException;
+}
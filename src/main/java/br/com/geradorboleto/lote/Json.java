@@ -0,0 +1,252 @@
+package br.com.geradorboleto.lote;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Leitor de JSON mínimo (RFC 8259), sem dependências: objetos viram Map (na ordem do texto), arrays viram List,
+// números viram BigDecimal (sem perder centavos), e true/false/null viram Boolean/null.
+// Suficiente para as entradas de boleto; não é um parser de uso geral (sem streaming). O aninhamento é limitado a
+// PROFUNDIDADE_MAXIMA níveis: o parser é recursivo e um corpo de "[[[[..." estouraria a pilha (StackOverflowError).
+public final class Json {
+
+    public static final int PROFUNDIDADE_MAXIMA = 32;
+
+    private final CharSequence texto;
+    private int posicao;
+    private int profundidade;
+
+    private Json(CharSequence texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * Lê um documento JSON completo.
+     * @return Map, List, String, BigDecimal, Boolean ou null.
+     * @throws IllegalArgumentException Se o texto não for um JSON válido (a mensagem traz a posição do erro).
+     */
+    public static Object ler(CharSequence texto) {
+        if (texto == null) {
+            throw new IllegalArgumentException("JSON não pode ser nulo.");
+        }
+        Json json = new Json(texto);
+        json.pularEspacos();
+        Object valor = json.valor();
+        json.pularEspacos();
+        if (json.posicao < texto.length()) {
+            throw json.erro("conteúdo após o fim do documento");
+        }
+        return valor;
+    }
+
+    // Mesmo que ler(...), exigindo que o documento seja um objeto
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> lerObjeto(CharSequence texto) {
+        Object valor = ler(texto);
+        if (!(valor instanceof Map)) {
+            throw new IllegalArgumentException("JSON deve ser um objeto ({...}).");
+        }
+        return (Map<String, Object>) valor;
+    }
+
+    // Escreve o texto entre aspas, com os escapes do JSON
+    public static void escreverTexto(StringBuilder destino, CharSequence valor) {
+        destino.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> destino.append("\\\"");
+                case '\\' -> destino.append("\\\\");
+                case '\n' -> destino.append("\\n");
+                case '\r' -> destino.append("\\r");
+                case '\t' -> destino.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        destino.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        destino.append(c);
+                    }
+                }
+            }
+        }
+        destino.append('"');
+    }
+
+    private Object valor() {
+        if (posicao >= texto.length()) {
+            throw erro("fim inesperado");
+        }
+        char c = texto.charAt(posicao);
+        return switch (c) {
+            case '{' -> objeto();
+            case '[' -> array();
+            case '"' -> texto();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) yield numero();
+                throw erro("caractere inesperado '" + c + "'");
+            }
+        };
+    }
+
+    private Map<String, Object> objeto() {
+        entrarNivel();
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        posicao++; // {
+        pularEspacos();
+        if (consumir('}')) {
+            profundidade--;
+            return mapa;
+        }
+        do {
+            pularEspacos();
+            if (posicao >= texto.length() || texto.charAt(posicao) != '"') {
+                throw erro("nome de campo esperado");
+            }
+            String nome = texto();
+            pularEspacos();
+            if (!consumir(':')) {
+                throw erro("':' esperado");
+            }
+            pularEspacos();
+            mapa.put(nome, valor());
+            pularEspacos();
+        } while (consumir(','));
+        if (!consumir('}')) {
+            throw erro("',' ou '}' esperado");
+        }
+        profundidade--;
+        return mapa;
+    }
+
+    private List<Object> array() {
+        entrarNivel();
+        List<Object> lista = new ArrayList<>();
+        posicao++; // [
+        pularEspacos();
+        if (consumir(']')) {
+            profundidade--;
+            return lista;
+        }
+        do {
+            pularEspacos();
+            lista.add(valor());
+            pularEspacos();
+        } while (consumir(','));
+        if (!consumir(']')) {
+            throw erro("',' ou ']' esperado");
+        }
+        profundidade--;
+        return lista;
+    }
+
+    private void entrarNivel() {
+        if (++profundidade > PROFUNDIDADE_MAXIMA) {
+            throw erro("mais de " + PROFUNDIDADE_MAXIMA + " níveis de objetos/arrays aninhados");
+        }
+    }
+
+    private String texto() {
+        posicao++; // "
+        StringBuilder sb = null;
+        int inicio = posicao;
+        while (posicao < texto.length()) {
+            char c = texto.charAt(posicao);
+            if (c == '"') {
+                String s = sb == null ? texto.subSequence(inicio, posicao).toString() : sb.append(texto, inicio, posicao).toString();
+                posicao++;
+                return s;
+            }
+            if (c < 0x20) {
+                throw erro("caractere de controle dentro de texto");
+            }
+            if (c != '\\') {
+                posicao++;
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder();
+            sb.append(texto, inicio, posicao);
+            if (posicao + 1 >= texto.length()) {
+                throw erro("escape incompleto");
+            }
+            char e = texto.charAt(posicao + 1);
+            posicao += 2;
+            switch (e) {
+                case '"', '\\', '/' -> sb.append(e);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (posicao + 4 > texto.length()) {
+                        throw erro("escape \\u incompleto");
+                    }
+                    int codigo = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int d = Character.digit(texto.charAt(posicao + i), 16);
+                        if (d < 0) throw erro("escape \\u inválido");
+                        codigo = codigo * 16 + d;
+                    }
+                    sb.append((char) codigo);
+                    posicao += 4;
+                }
+                default -> throw erro("escape inválido '\\" + e + "'");
+            }
+            inicio = posicao;
+        }
+        throw erro("texto sem aspas de fechamento");
+    }
+
+    private BigDecimal numero() {
+        int inicio = posicao;
+        if (texto.charAt(posicao) == '-') posicao++;
+        while (posicao < texto.length()) {
+            char c = texto.charAt(posicao);
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                posicao++;
+            } else {
+                break;
+            }
+        }
+        try {
+            return new BigDecimal(texto.subSequence(inicio, posicao).toString());
+        } catch (NumberFormatException e) {
+            posicao = inicio;
+            throw erro("número inválido");
+        }
+    }
+
+    private Object literal(String palavra, Object valor) {
+        if (posicao + palavra.length() > texto.length()
+                || !palavra.contentEquals(texto.subSequence(posicao, posicao + palavra.length()))) {
+            throw erro("valor inválido");
+        }
+        posicao += palavra.length();
+        return valor;
+    }
+
+    private boolean consumir(char c) {
+        if (posicao < texto.length() && texto.charAt(posicao) == c) {
+            posicao++;
+            return true;
+        }
+        return false;
+    }
+
+    private void pularEspacos() {
+        while (posicao < texto.length()) {
+            char c = texto.charAt(posicao);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') break;
+            posicao++;
+        }
+    }
+
+    private IllegalArgumentException erro(String motivo) {
+        return new IllegalArgumentException("JSON inválido na posição " + posicao + ": " + motivo);
+    }
+}
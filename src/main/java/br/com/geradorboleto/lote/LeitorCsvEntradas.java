@@ -0,0 +1,317 @@
+package br.com.geradorboleto.lote;
+
+import br.com.geradorboleto.calculos.ValorCentavos;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Arquivo CSV com cabeçalho; separador ',' ou ';' (detectado no cabeçalho) e campos entre aspas no padrão RFC 4180
+// (aspas duplicadas dentro do campo, quebras de linha permitidas). Colunas reconhecidas (maiúsculas, '_', '.' e
+// espaços são ignorados, então "sacado_nome", "Sacado.Nome" e "sacadoNome" são a mesma coluna):
+//
+//   identificador, codigoBanco, agencia, contaCorrente, carteira, convenio, dataVencimento, dataDocumento, valor,
+//   numeroDocumento, nossoNumero, instrucoes,
+//   sacadoNome, sacadoDocumento, sacadoLogradouro, sacadoBairro, sacadoCep, sacadoCidade, sacadoUf,
+//   beneficiarioNome, beneficiarioDocumento, beneficiarioLogradouro, ... (mesmos campos do sacado)
+//
+// Datas AAAA-MM-DD ou DD/MM/AAAA; valor "1234.56", "1234,56" ou "1.234,56". Colunas desconhecidas são ignoradas.
+// Cada registro é separado em campos dentro do próprio char[] da linha (sem substring por campo); datas e valores
+// são convertidos direto dos caracteres, e textos que se repetem na coluna (ex: dados do beneficiário) reaproveitam
+// a String do registro anterior.
+public final class LeitorCsvEntradas extends LeitorEntradas {
+
+    private static final int IDENTIFICADOR = 0, CODIGO_BANCO = 1, AGENCIA = 2, CONTA_CORRENTE = 3, CARTEIRA = 4,
+            CONVENIO = 5, DATA_VENCIMENTO = 6, DATA_DOCUMENTO = 7, VALOR = 8, NUMERO_DOCUMENTO = 9, NOSSO_NUMERO = 10,
+            INSTRUCOES = 11, SACADO = 12, BENEFICIARIO = 19;
+    // Deslocamentos dos campos de pessoa a partir de SACADO/BENEFICIARIO
+    private static final int NOME = 0, DOCUMENTO = 1, LOGRADOURO = 2, BAIRRO = 3, CEP = 4, CIDADE = 5, UF = 6;
+    private static final int QUANTIDADE_CAMPOS = 26;
+
+    private static final Map<String, Integer> CAMPOS = new HashMap<>();
+    static {
+        String[] nomes = {"identificador", "codigobanco", "agencia", "contacorrente", "carteira", "convenio",
+                "datavencimento", "datadocumento", "valor", "numerodocumento", "nossonumero", "instrucoes"};
+        for (int i = 0; i < nomes.length; i++) {
+            CAMPOS.put(nomes[i], i);
+        }
+        String[] pessoa = {"nome", "documento", "logradouro", "bairro", "cep", "cidade", "uf"};
+        for (int i = 0; i < pessoa.length; i++) {
+            CAMPOS.put("sacado" + pessoa[i], SACADO + i);
+            CAMPOS.put("beneficiario" + pessoa[i], BENEFICIARIO + i);
+        }
+    }
+
+    private final char separador;
+    private final int[] campoDaColuna; // Coluna do arquivo -> campo (-1 se desconhecida)
+    private final int[] inicio; // Por coluna, trecho do valor em linha[] depois de separado
+    private final int[] fim;
+    private final int[] colunaDoCampo = new int[QUANTIDADE_CAMPOS]; // Campo -> coluna (-1 se ausente)
+    private final String[] anteriores = new String[QUANTIDADE_CAMPOS];
+
+    /**
+     * Abre o arquivo e lê o cabeçalho (primeira linha não vazia).
+     * @throws IOException Se o arquivo não puder ser aberto ou lido.
+     * @throws IllegalArgumentException Se o arquivo estiver vazio ou o cabeçalho não tiver nenhuma coluna conhecida.
+     */
+    public LeitorCsvEntradas(Path arquivo) throws IOException {
+        super(arquivo);
+        try {
+            do {
+                if (!proximaLinha()) {
+                    throw new IllegalArgumentException("Arquivo CSV vazio (sem cabeçalho): " + arquivo);
+                }
+            } while (linhaEmBranco());
+            this.separador = detectarSeparador();
+            int colunas = 1;
+            for (int i = 0; i < tamanho; i++) {
+                if (linha[i] == separador) colunas++;
+            }
+            this.inicio = new int[colunas];
+            this.fim = new int[colunas];
+            this.campoDaColuna = new int[colunas];
+            Arrays.fill(colunaDoCampo, -1);
+            int separadas = separar();
+            boolean algumaConhecida = false;
+            for (int c = 0; c < separadas; c++) {
+                String nome = normalizar(new String(linha, inicio[c], fim[c] - inicio[c]));
+                Integer campo = CAMPOS.get(nome);
+                campoDaColuna[c] = campo != null ? campo : -1;
+                if (campo != null) {
+                    colunaDoCampo[campo] = c;
+                    algumaConhecida = true;
+                }
+            }
+            if (!algumaConhecida) {
+                throw new IllegalArgumentException("Cabeçalho CSV sem nenhuma coluna conhecida (ex: codigoBanco, valor, sacadoNome): " + arquivo);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    EntradaBoleto decodificar() throws IOException {
+        Arrays.fill(inicio, 0);
+        Arrays.fill(fim, 0);
+        separar();
+        EntradaBoleto e = new EntradaBoleto();
+        e.setIdentificador(texto(IDENTIFICADOR));
+        e.setCodigoBanco(texto(CODIGO_BANCO));
+        e.setAgencia(texto(AGENCIA));
+        e.setContaCorrente(texto(CONTA_CORRENTE));
+        e.setCarteira(texto(CARTEIRA));
+        e.setConvenio(texto(CONVENIO));
+        e.setDataVencimento(data(DATA_VENCIMENTO));
+        e.setDataDocumento(data(DATA_DOCUMENTO));
+        e.setValor(valor(VALOR));
+        e.setNumeroDocumento(texto(NUMERO_DOCUMENTO));
+        e.setNossoNumero(texto(NOSSO_NUMERO));
+        e.setInstrucoes(texto(INSTRUCOES));
+        e.setSacado(pessoa(SACADO));
+        e.setBeneficiario(pessoa(BENEFICIARIO));
+        return e;
+    }
+
+    // ';' se o cabeçalho tiver ';' (CSV do Excel em português), senão ','
+    private char detectarSeparador() {
+        for (int i = 0; i < tamanho; i++) {
+            if (linha[i] == ';') return ';';
+        }
+        return ',';
+    }
+
+    /**
+     * Separa o registro atual em campos, no próprio array: as aspas são removidas e os valores ficam em
+     * linha[inicio[c]..fim[c]). Lê as linhas seguintes se um campo entre aspas tiver quebra de linha.
+     * @return Quantidade de campos encontrados (os que passarem do número de colunas são ignorados).
+     */
+    private int separar() throws IOException {
+        int coluna = 0;
+        int r = 0; // Leitura
+        int w = 0; // Escrita (sempre <= r)
+        while (true) {
+            int ini = w;
+            if (r < tamanho && linha[r] == '"') {
+                r++;
+                while (true) {
+                    if (r >= tamanho) {
+                        if (!continuarLinha()) {
+                            throw new IllegalArgumentException("aspas não fechadas no fim do arquivo");
+                        }
+                        continue;
+                    }
+                    char c = linha[r];
+                    if (c == '"') {
+                        if (r + 1 < tamanho && linha[r + 1] == '"') {
+                            linha[w++] = '"';
+                            r += 2;
+                            continue;
+                        }
+                        r++;
+                        break;
+                    }
+                    linha[w++] = c;
+                    r++;
+                }
+            }
+            while (r < tamanho && linha[r] != separador) {
+                linha[w++] = linha[r++];
+            }
+            if (coluna < inicio.length) {
+                inicio[coluna] = ini;
+                fim[coluna] = w;
+            }
+            coluna++;
+            if (r >= tamanho) {
+                return Math.min(coluna, inicio.length);
+            }
+            r++; // Separador
+        }
+    }
+
+    private static String normalizar(String nome) {
+        StringBuilder sb = new StringBuilder(nome.length());
+        for (int i = 0; i < nome.length(); i++) {
+            char c = nome.charAt(i);
+            if (c != '_' && c != '.' && c != '-' && !Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private Pessoa pessoa(int base) {
+        String nome = texto(base + NOME);
+        String documento = texto(base + DOCUMENTO);
+        String logradouro = texto(base + LOGRADOURO);
+        String bairro = texto(base + BAIRRO);
+        String cep = texto(base + CEP);
+        String cidade = texto(base + CIDADE);
+        String uf = texto(base + UF);
+        if (nome == null && documento == null && logradouro == null && bairro == null && cep == null && cidade == null && uf == null) {
+            return null;
+        }
+        return new Pessoa(nome, documento, new Endereco(logradouro, bairro, cep, cidade, uf));
+    }
+
+    // Valor do campo sem espaços nas pontas (null se a coluna não existir ou estiver vazia); a String é reaproveitada
+    // se o valor for igual ao do registro anterior nessa coluna
+    private String texto(int campo) {
+        int coluna = colunaDoCampo[campo];
+        if (coluna < 0) {
+            return null;
+        }
+        int a = inicio[coluna];
+        int b = fim[coluna];
+        while (a < b && Character.isWhitespace(linha[a])) a++;
+        while (b > a && Character.isWhitespace(linha[b - 1])) b--;
+        if (a == b) {
+            return null;
+        }
+        String anterior = anteriores[campo];
+        if (anterior != null && igual(anterior, a, b)) {
+            return anterior;
+        }
+        String valor = new String(linha, a, b - a);
+        anteriores[campo] = valor;
+        return valor;
+    }
+
+    private boolean igual(String s, int a, int b) {
+        if (s.length() != b - a) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != linha[a + i]) return false;
+        }
+        return true;
+    }
+
+    private LocalDate data(int campo) {
+        int coluna = colunaDoCampo[campo];
+        if (coluna < 0) {
+            return null;
+        }
+        int a = inicio[coluna];
+        int b = fim[coluna];
+        while (a < b && Character.isWhitespace(linha[a])) a++;
+        while (b > a && Character.isWhitespace(linha[b - 1])) b--;
+        if (a == b) {
+            return null;
+        }
+        if (b - a == 10 && linha[a + 4] == '-' && linha[a + 7] == '-') {
+            return LocalDate.of(numero(a, 4, campo), numero(a + 5, 2, campo), numero(a + 8, 2, campo));
+        }
+        if (b - a == 10 && linha[a + 2] == '/' && linha[a + 5] == '/') {
+            return LocalDate.of(numero(a + 6, 4, campo), numero(a + 3, 2, campo), numero(a, 2, campo));
+        }
+        throw new IllegalArgumentException("campo '" + nomeCampo(campo) + "' deve ser uma data AAAA-MM-DD ou DD/MM/AAAA: "
+                + new String(linha, a, b - a));
+    }
+
+    private int numero(int a, int digitos, int campo) {
+        int n = 0;
+        for (int i = a; i < a + digitos; i++) {
+            char c = linha[i];
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("campo '" + nomeCampo(campo) + "' tem data com caractere inválido: '" + c + "'");
+            }
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+
+    // Aceita ponto ou vírgula decimal; com os dois ("1.234,56"), o ponto é separador de milhar
+    private BigDecimal valor(int campo) {
+        int coluna = colunaDoCampo[campo];
+        if (coluna < 0) {
+            return null;
+        }
+        int a = inicio[coluna];
+        int b = fim[coluna];
+        while (a < b && Character.isWhitespace(linha[a])) a++;
+        while (b > a && Character.isWhitespace(linha[b - 1])) b--;
+        if (a == b) {
+            return null;
+        }
+        int virgula = -1;
+        for (int i = a; i < b; i++) {
+            if (linha[i] == ',') virgula = i;
+        }
+        if (virgula >= 0) {
+            int w = a;
+            for (int i = a; i < b; i++) {
+                char c = linha[i];
+                if (c == '.') continue;
+                linha[w++] = i == virgula ? '.' : c;
+            }
+            b = w;
+        }
+        BigDecimal numero;
+        try {
+            numero = new BigDecimal(linha, a, b - a);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("campo '" + nomeCampo(campo) + "' deve ser um número: " + new String(linha, a, b - a));
+        }
+        if (!ValorCentavos.cabeNoCodigoBarras(numero)) { // "1e20000000" custaria segundos no arredondamento
+            throw new IllegalArgumentException("campo '" + nomeCampo(campo) + "' excede o máximo do código de barras (R$ 99.999.999,99).");
+        }
+        return numero;
+    }
+
+    private static String nomeCampo(int campo) {
+        for (Map.Entry<String, Integer> e : CAMPOS.entrySet()) {
+            if (e.getValue() == campo) return e.getKey();
+        }
+        return String.valueOf(campo);
+    }
+}
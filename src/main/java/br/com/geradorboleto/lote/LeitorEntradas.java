@@ -0,0 +1,276 @@
+package br.com.geradorboleto.lote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Leitura de arquivos de entrada do lote (milhões de linhas) sem carregar o arquivo inteiro: os bytes são lidos do
+// FileChannel em blocos, decodificados de UTF-8 para um CharBuffer e cada linha é montada num único char[]
+// reaproveitado, sem criar uma String por linha. As subclasses convertem a linha atual numa EntradaBoleto.
+// Linhas inválidas são ignoradas com um AVISO (e contadas em getInvalidas()), para uma linha ruim não derrubar o lote.
+// Uso: try (LeitorEntradas leitor = LeitorEntradas.abrir(arquivo)) { pipeline.executar(leitor.stream(), ...); }
+public abstract class LeitorEntradas implements Iterator<EntradaBoleto>, Closeable {
+
+    private static final int TAMANHO_BLOCO = 64 * 1024;
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final ByteBuffer bytes = ByteBuffer.allocate(TAMANHO_BLOCO);
+    private final CharBuffer caracteres = CharBuffer.allocate(TAMANHO_BLOCO);
+    private final CharsetDecoder decodificador = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private boolean fimCanal;
+    private boolean fimTexto;
+
+    // Linha atual (reaproveitada): linha[0..tamanho)
+    char[] linha = new char[1024];
+    int tamanho;
+    private long numeroLinha;
+    private final Trecho trecho = new Trecho();
+
+    private EntradaBoleto proxima;
+    private boolean fim;
+    private long lidas;
+    private long invalidas;
+
+    LeitorEntradas(Path arquivo) throws IOException {
+        this.arquivo = Objects.requireNonNull(arquivo, "O arquivo de entrada não pode ser nulo.");
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        caracteres.flip(); // Começa vazio
+    }
+
+    /**
+     * Abre o leitor adequado pela extensão: .csv (LeitorCsvEntradas) ou .jsonl/.ndjson/.json (LeitorJsonLinhas).
+     * @throws IOException Se o arquivo não puder ser aberto ou lido.
+     * @throws IllegalArgumentException Se a extensão não for reconhecida ou o cabeçalho do CSV for inválido.
+     */
+    public static LeitorEntradas abrir(Path arquivo) throws IOException {
+        Objects.requireNonNull(arquivo, "O arquivo de entrada não pode ser nulo.");
+        String nome = arquivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nome.endsWith(".csv")) {
+            return new LeitorCsvEntradas(arquivo);
+        }
+        if (nome.endsWith(".jsonl") || nome.endsWith(".ndjson") || nome.endsWith(".json")) {
+            return new LeitorJsonLinhas(arquivo);
+        }
+        throw new IllegalArgumentException("Extensão de arquivo de entrada não suportada (use .csv ou .jsonl): " + arquivo);
+    }
+
+    // Converte a linha atual (linha/tamanho) numa entrada; IllegalArgumentException/DateTimeException = linha inválida
+    abstract EntradaBoleto decodificar() throws IOException;
+
+    public Path getArquivo() { return arquivo; }
+
+    // Número da última linha lida do arquivo (1 = primeira)
+    public long getNumeroLinha() { return numeroLinha; }
+
+    // Entradas válidas devolvidas até agora
+    public long getLidas() { return lidas; }
+
+    // Linhas ignoradas por estarem inválidas
+    public long getInvalidas() { return invalidas; }
+
+    /**
+     * Stream sequencial das entradas (lidas sob demanda). Fechar o Stream fecha o leitor.
+     */
+    public Stream<EntradaBoleto> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @throws UncheckedIOException Se ocorrer um erro de leitura (ou o arquivo não estiver em UTF-8).
+     */
+    @Override
+    public boolean hasNext() {
+        if (proxima == null && !fim) {
+            try {
+                buscar();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao ler " + arquivo + " na linha " + numeroLinha + ".", e);
+            }
+        }
+        return proxima != null;
+    }
+
+    @Override
+    public EntradaBoleto next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        EntradaBoleto e = proxima;
+        proxima = null;
+        lidas++;
+        return e;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fim = true;
+        canal.close();
+    }
+
+    private void buscar() throws IOException {
+        while (proximaLinha()) {
+            if (linhaEmBranco()) {
+                continue;
+            }
+            long inicio = numeroLinha;
+            try {
+                proxima = decodificar();
+                return;
+            } catch (IllegalArgumentException | DateTimeException e) {
+                invalidas++;
+                System.err.println("AVISO: linha " + inicio + " de " + arquivo.getFileName() + " ignorada: " + e.getMessage());
+            }
+        }
+        fim = true;
+    }
+
+    /**
+     * Lê a próxima linha do arquivo para linha[0..tamanho), sem o fim de linha (\n ou \r\n).
+     * @return false no fim do arquivo.
+     */
+    final boolean proximaLinha() throws IOException {
+        tamanho = 0;
+        return acrescentarLinha();
+    }
+
+    /**
+     * Acrescenta '\n' e a próxima linha do arquivo à linha atual (ex: campo CSV entre aspas com quebra de linha).
+     * O array 'linha' pode ser substituído por um maior.
+     * @return false no fim do arquivo.
+     */
+    final boolean continuarLinha() throws IOException {
+        acrescentar('\n');
+        return acrescentarLinha();
+    }
+
+    // Linha atual como CharSequence, sem cópia (válida até a próxima leitura)
+    final CharSequence trecho() {
+        return trecho;
+    }
+
+    final boolean linhaEmBranco() {
+        for (int i = 0; i < tamanho; i++) {
+            if (!Character.isWhitespace(linha[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean acrescentarLinha() throws IOException {
+        boolean leuAlgo = false;
+        while (true) {
+            if (!caracteres.hasRemaining() && !encher()) {
+                if (leuAlgo) {
+                    numeroLinha++;
+                }
+                return leuAlgo; // Última linha sem \n
+            }
+            leuAlgo = true;
+            while (caracteres.hasRemaining()) {
+                char c = caracteres.get();
+                if (c == '\n') {
+                    if (tamanho > 0 && linha[tamanho - 1] == '\r') {
+                        tamanho--;
+                    }
+                    numeroLinha++;
+                    return true;
+                }
+                if (c == '\uFEFF' && numeroLinha == 0 && tamanho == 0) {
+                    continue; // BOM do UTF-8 no início do arquivo
+                }
+                acrescentar(c);
+            }
+        }
+    }
+
+    private void acrescentar(char c) {
+        if (tamanho == linha.length) {
+            linha = Arrays.copyOf(linha, tamanho * 2);
+        }
+        linha[tamanho++] = c;
+    }
+
+    // Lê e decodifica o próximo bloco do arquivo; false quando não há mais caracteres
+    private boolean encher() throws IOException {
+        if (fimTexto) {
+            return false;
+        }
+        caracteres.clear();
+        while (true) {
+            if (!fimCanal && canal.read(bytes) < 0) {
+                fimCanal = true;
+            }
+            bytes.flip();
+            CoderResult r = decodificador.decode(bytes, caracteres, fimCanal);
+            bytes.compact();
+            if (r.isError()) {
+                r.throwException();
+            }
+            if (fimCanal && bytes.position() == 0 && r.isUnderflow()) {
+                decodificador.flush(caracteres);
+                fimTexto = true;
+            }
+            if (caracteres.position() > 0 || fimTexto) {
+                break;
+            }
+        }
+        caracteres.flip();
+        return caracteres.hasRemaining();
+    }
+
+    // Visão da linha atual como CharSequence (para o Json), sem copiar os caracteres
+    private final class Trecho implements CharSequence {
+        @Override
+        public int length() {
+            return tamanho;
+        }
+
+        @Override
+        public char charAt(int indice) {
+            if (indice >= tamanho) {
+                throw new IndexOutOfBoundsException(indice);
+            }
+            return linha[indice];
+        }
+
+        @Override
+        public CharSequence subSequence(int inicio, int fim) {
+            return new String(linha, inicio, fim - inicio);
+        }
+
+        @Override
+        public String toString() {
+            return new String(linha, 0, tamanho);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.geradorboleto.lote;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Arquivo JSON Lines (.jsonl): um objeto JSON por linha, no formato do EntradaJson. Linhas em branco são ignoradas.
+// O Json lê direto do char[] da linha atual (sem criar uma String por linha).
+public final class LeitorJsonLinhas extends LeitorEntradas {
+
+    /**
+     * @throws IOException Se o arquivo não puder ser aberto.
+     */
+    public LeitorJsonLinhas(Path arquivo) throws IOException {
+        super(arquivo);
+    }
+
+    @Override
+    EntradaBoleto decodificar() {
+        return EntradaJson.de(Json.lerObjeto(trecho()));
+    }
+}
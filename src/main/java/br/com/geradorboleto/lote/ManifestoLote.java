@@ -0,0 +1,306 @@
+package br.com.geradorboleto.lote;
+
+import br.com.geradorboleto.pdf.BufferPDF;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+// Checkpoint e manifesto de um lote de PDFs (PipelineBoletos.gerarPdfs com retomada), no subdiretório .lote da saída:
+//
+//   manifesto.tsv     Uma linha por PDF concluído: índice, arquivo, tamanho e CRC32 (hex). Só é acrescentada depois
+//                     que o PDF foi gravado como <arquivo>.parcial, sincronizado com o disco (fsync) e renomeado
+//                     atomicamente para o nome final, e vai direto para o arquivo (sem buffer no processo), então
+//                     uma queda do processo não perde registros.
+//   checkpoint.properties   Gravado a cada INTERVALO_CHECKPOINT PDFs (e no close()), por troca atômica de arquivo:
+//                     identificação da entrada (caminho, tamanho, data de modificação) e "concluidosAte", o primeiro
+//                     índice ainda não concluído (os PDFs terminam fora de ordem; todos os anteriores estão prontos).
+//
+// Na retomada os PDFs do manifesto são conferidos e pulados: abaixo de concluidosAte (já confirmados por um checkpoint,
+// com o conteúdo no disco desde antes do registro) basta o arquivo existir com o tamanho certo; acima dele o CRC32
+// é recalculado. Um rename perdido numa queda de energia aparece como arquivo ausente e é refeito. PDFs ausentes ou diferentes e sobras
+// .parcial são apagados e gerados de novo, então um reinício custa só o que faltava.
+// Um PDF renomeado mas ainda não registrado no manifesto (queda entre os dois passos) é simplesmente gerado de novo.
+public class ManifestoLote implements Closeable {
+
+    public static final String DIRETORIO = ".lote";
+    public static final int INTERVALO_CHECKPOINT = 1000;
+    private static final String MANIFESTO = "manifesto.tsv";
+    private static final String CHECKPOINT = "checkpoint.properties";
+    private static final String SUFIXO_PARCIAL = ".parcial";
+
+    private final Path diretorio;
+    private final Path controle;
+    private final Properties identificacaoEntrada;
+    private final BitSet concluidos; // Índices prontos (os retomados e os gerados nesta execução)
+    private final FileChannel canalManifesto;
+    private final long retomados;
+    private final long refeitos;
+
+    private long concluidosAte; // Todos os índices menores estão em 'concluidos'
+    private long registradosDesdeCheckpoint;
+    private long gerados;
+    private boolean fechado;
+
+    private ManifestoLote(Path diretorio, Properties identificacaoEntrada, BitSet concluidos, long concluidosAte,
+                          long retomados, long refeitos) throws IOException {
+        this.diretorio = diretorio;
+        this.controle = diretorio.resolve(DIRETORIO);
+        this.identificacaoEntrada = identificacaoEntrada;
+        this.concluidos = concluidos;
+        this.concluidosAte = concluidosAte;
+        this.retomados = retomados;
+        this.refeitos = refeitos;
+        this.canalManifesto = FileChannel.open(controle.resolve(MANIFESTO),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        canalManifesto.position(canalManifesto.size()); // Acrescenta no fim (READ não combina com APPEND)
+        if (canalManifesto.size() > 0 && !terminaComQuebraDeLinha(canalManifesto)) {
+            canalManifesto.write(ByteBuffer.wrap(new byte[]{'\n'})); // Isola a linha cortada por uma queda
+        }
+    }
+
+    /**
+     * Prepara o controle do lote no diretório de saída.
+     * @param diretorio Diretório de saída dos PDFs (criado se não existir).
+     * @param entrada Arquivo de entrada do lote (identificado por caminho, tamanho e data de modificação).
+     * @param retomar true para continuar uma execução anterior (sem checkpoint, começa do zero com um AVISO);
+     *                false para começar do zero, descartando o controle anterior.
+     * @throws IOException Se o controle não puder ser lido ou criado.
+     * @throws IllegalStateException Se for retomada e a entrada não for a mesma do checkpoint.
+     */
+    public static ManifestoLote abrir(Path diretorio, Path entrada, boolean retomar) throws IOException {
+        Objects.requireNonNull(diretorio, "O diretório de saída não pode ser nulo.");
+        Objects.requireNonNull(entrada, "O arquivo de entrada não pode ser nulo.");
+        Path controle = diretorio.resolve(DIRETORIO);
+        Files.createDirectories(controle);
+        Properties identificacao = identificar(entrada);
+
+        Properties checkpoint = retomar ? lerCheckpoint(controle.resolve(CHECKPOINT)) : null;
+        if (retomar && checkpoint == null) {
+            System.err.println("AVISO: Nenhum checkpoint em " + controle + "; o lote começa do zero.");
+        }
+        if (checkpoint == null) {
+            Files.deleteIfExists(controle.resolve(MANIFESTO));
+            Files.deleteIfExists(controle.resolve(CHECKPOINT));
+            apagarParciais(diretorio);
+            ManifestoLote m = new ManifestoLote(diretorio, identificacao, new BitSet(), 0, 0, 0);
+            m.gravarCheckpoint();
+            return m;
+        }
+        for (String chave : identificacao.stringPropertyNames()) {
+            if (!identificacao.getProperty(chave).equals(checkpoint.getProperty(chave))) {
+                throw new IllegalStateException("A entrada mudou desde o checkpoint (" + chave + ": "
+                        + checkpoint.getProperty(chave) + " -> " + identificacao.getProperty(chave)
+                        + "); rode sem retomar para começar do zero.");
+            }
+        }
+        long confirmadosAte = Long.parseLong(checkpoint.getProperty("concluidosAte", "0"));
+        apagarParciais(diretorio);
+
+        // A última linha de cada índice vale (um PDF refeito aparece de novo no fim do manifesto)
+        Map<Long, String[]> registros = lerManifesto(controle.resolve(MANIFESTO));
+        BitSet concluidos = new BitSet();
+        long refeitos = 0;
+        for (Map.Entry<Long, String[]> e : registros.entrySet()) {
+            long indice = e.getKey();
+            String[] campos = e.getValue();
+            if (verificar(diretorio.resolve(campos[1]), Long.parseLong(campos[2]), campos[3], indice >= confirmadosAte)) {
+                concluidos.set(Math.toIntExact(indice));
+            } else {
+                refeitos++;
+                System.err.println("AVISO: PDF " + campos[1] + " (item " + indice + ") ausente ou diferente do manifesto; será gerado de novo.");
+                Files.deleteIfExists(diretorio.resolve(campos[1]));
+            }
+        }
+        long concluidosAte = concluidos.nextClearBit(0);
+        ManifestoLote m = new ManifestoLote(diretorio, identificacao, concluidos, concluidosAte, concluidos.cardinality(), refeitos);
+        System.out.println("INFO: Retomando lote: " + m.retomados + " PDFs prontos (todos antes do item " + concluidosAte
+                + "), " + refeitos + " a refazer.");
+        return m;
+    }
+
+    // true se o item já tem PDF pronto (deve ser pulado)
+    public synchronized boolean concluido(long indice) {
+        return indice < Integer.MAX_VALUE && concluidos.get((int) indice);
+    }
+
+    /**
+     * Gravador para o PipelineBoletos: grava o PDF como .parcial, renomeia para o nome final e registra no manifesto.
+     */
+    public GravadorPDF gravador() {
+        return (indice, entrada, boleto, pdf) -> {
+            String nome = BoletoBatchGenerator.nomeArquivo(indice, entrada);
+            Path arquivo = diretorio.resolve(nome);
+            Path parcial = diretorio.resolve(nome + SUFIXO_PARCIAL);
+            try (FileChannel canal = FileChannel.open(parcial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer conteudo = pdf.comoByteBuffer();
+                while (conteudo.hasRemaining()) {
+                    canal.write(conteudo);
+                }
+                canal.force(true); // Conteúdo no disco antes do registro: o checkpoint só confere o tamanho
+            }
+            Files.move(parcial, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            registrar(indice, nome, pdf.size(), crc(pdf));
+        };
+    }
+
+    public Path getDiretorio() { return diretorio; }
+
+    // PDFs pulados por já estarem prontos na retomada
+    public long getRetomados() { return retomados; }
+
+    // PDFs do manifesto que falharam na conferência e foram gerados de novo
+    public long getRefeitos() { return refeitos; }
+
+    // PDFs registrados nesta execução
+    public synchronized long getGerados() { return gerados; }
+
+    // Primeiro índice ainda não concluído
+    public synchronized long getConcluidosAte() { return concluidosAte; }
+
+    // Grava o checkpoint final (o manifesto fica no disco para uma próxima retomada ou conferência)
+    @Override
+    public synchronized void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        try {
+            gravarCheckpoint();
+        } finally {
+            canalManifesto.close();
+        }
+    }
+
+    private synchronized void registrar(long indice, String nome, long tamanho, String crc) throws IOException {
+        if (fechado) {
+            throw new IllegalStateException("Manifesto do lote já foi fechado.");
+        }
+        ByteBuffer linha = ByteBuffer.wrap((indice + "\t" + nome + "\t" + tamanho + "\t" + crc + "\n").getBytes(StandardCharsets.UTF_8));
+        while (linha.hasRemaining()) {
+            canalManifesto.write(linha);
+        }
+        concluidos.set(Math.toIntExact(indice));
+        concluidosAte = concluidos.nextClearBit((int) concluidosAte);
+        gerados++;
+        if (++registradosDesdeCheckpoint >= INTERVALO_CHECKPOINT) {
+            gravarCheckpoint();
+        }
+    }
+
+    // Manifesto no disco (fsync) primeiro; o checkpoint só confirma o que o manifesto já tem
+    private void gravarCheckpoint() throws IOException {
+        canalManifesto.force(false);
+        Properties p = new Properties();
+        p.putAll(identificacaoEntrada);
+        p.setProperty("concluidosAte", String.valueOf(concluidosAte));
+        p.setProperty("concluidos", String.valueOf(concluidos.cardinality()));
+        p.setProperty("atualizado", Instant.now().toString());
+        Path temporario = controle.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            p.store(Channels.newOutputStream(canal), "Checkpoint do lote de boletos");
+            canal.force(true);
+        }
+        Files.move(temporario, controle.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        registradosDesdeCheckpoint = 0;
+    }
+
+    private static Properties identificar(Path entrada) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("entrada", entrada.toAbsolutePath().normalize().toString());
+        p.setProperty("entradaTamanho", String.valueOf(Files.size(entrada)));
+        p.setProperty("entradaModificacao", Files.getLastModifiedTime(entrada).toString());
+        return p;
+    }
+
+    private static Properties lerCheckpoint(Path arquivo) throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(arquivo)) {
+            p.load(in);
+            return p;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // Linhas malformadas (ex: a última, cortada por uma queda) são ignoradas
+    private static Map<Long, String[]> lerManifesto(Path arquivo) throws IOException {
+        Map<Long, String[]> registros = new HashMap<>();
+        if (!Files.exists(arquivo)) {
+            return registros;
+        }
+        List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+        for (String linha : linhas) {
+            String[] campos = linha.split("\t");
+            if (campos.length != 4) {
+                continue;
+            }
+            try {
+                Long.parseLong(campos[2]);
+                registros.put(Long.parseLong(campos[0]), campos);
+            } catch (NumberFormatException e) {
+                // Linha cortada
+            }
+        }
+        return registros;
+    }
+
+    private static boolean verificar(Path arquivo, long tamanho, String crc, boolean conferirConteudo) throws IOException {
+        if (!Files.isRegularFile(arquivo) || Files.size(arquivo) != tamanho) {
+            return false;
+        }
+        if (!conferirConteudo) {
+            return true;
+        }
+        CRC32 c = new CRC32();
+        try (InputStream in = Files.newInputStream(arquivo)) {
+            byte[] bloco = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(bloco)) > 0) {
+                c.update(bloco, 0, n);
+            }
+        }
+        return Long.toHexString(c.getValue()).equals(crc);
+    }
+
+    private static String crc(BufferPDF pdf) {
+        CRC32 c = new CRC32();
+        c.update(pdf.comoByteBuffer());
+        return Long.toHexString(c.getValue());
+    }
+
+    private static boolean terminaComQuebraDeLinha(FileChannel canal) throws IOException {
+        ByteBuffer ultimo = ByteBuffer.allocate(1);
+        canal.read(ultimo, canal.size() - 1);
+        return ultimo.get(0) == '\n';
+    }
+
+    // Sobras de PDFs que estavam sendo gravados quando a execução anterior caiu
+    private static void apagarParciais(Path diretorio) throws IOException {
+        try (DirectoryStream<Path> parciais = Files.newDirectoryStream(diretorio, "*" + SUFIXO_PARCIAL)) {
+            for (Path p : parciais) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
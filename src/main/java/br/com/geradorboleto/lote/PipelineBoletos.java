@@ -0,0 +1,361 @@
+package br.com.geradorboleto.lote;
+
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.pdf.BoletoPDFExporter;
+import br.com.geradorboleto.pdf.BufferPDF;
+import br.com.geradorboleto.pdf.PoolBufferPDF;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+// Gera boletos em lote com etapas separadas, cada uma com as suas threads, ligadas por filas limitadas:
+//   leitura (thread chamadora) -> decodificacao -> build -> pdf -> gravacao
+// Diferente do BoletoBatchGenerator (build + destino na mesma thread), a CPU (build, pdf) e a espera por disco
+// (gravacao) não disputam as mesmas threads, e cada etapa pode ser dimensionada separadamente. Fila cheia bloqueia
+// a etapa anterior (backpressure), então a memória fica limitada pela capacidade das filas.
+// O ResumoPipeline traz, por etapa, o tempo ocupado, esperando entrada e bloqueado na saída e a profundidade das
+// filas, para achar o gargalo e ajustar as threads.
+public class PipelineBoletos {
+
+    public static final int CAPACIDADE_FILA_PADRAO = 64;
+
+    // Marca de fim de fila: cada thread de uma etapa consome um FIM e termina; a última a terminar
+    // coloca um FIM por thread na fila da etapa seguinte
+    private static final Item FIM = new Item(-1, null);
+
+    private final int threadsDecodificacao;
+    private final int threadsBuild;
+    private final int threadsPdf;
+    private final int threadsGravacao;
+    private final int capacidadeFila;
+
+    // Uma thread por núcleo para o PDF (a etapa mais cara) e 2 para gravação
+    public PipelineBoletos() {
+        this(1, 1, Runtime.getRuntime().availableProcessors(), 2, CAPACIDADE_FILA_PADRAO);
+    }
+
+    /**
+     * @param threadsDecodificacao Threads que convertem cada item bruto da entrada em EntradaBoleto.
+     * @param threadsBuild Threads que constroem o boleto (campo livre, código de barras, linha digitável).
+     * @param threadsPdf Threads que geram o PDF em memória.
+     * @param threadsGravacao Threads que entregam o PDF ao GravadorPDF (ex: disco).
+     * @param capacidadeFila Capacidade de cada fila entre etapas. Todos os valores devem ser >= 1.
+     */
+    public PipelineBoletos(int threadsDecodificacao, int threadsBuild, int threadsPdf, int threadsGravacao, int capacidadeFila) {
+        exigirPositivo("Threads de decodificação", threadsDecodificacao);
+        exigirPositivo("Threads de build", threadsBuild);
+        exigirPositivo("Threads de PDF", threadsPdf);
+        exigirPositivo("Threads de gravação", threadsGravacao);
+        exigirPositivo("Capacidade das filas", capacidadeFila);
+        this.threadsDecodificacao = threadsDecodificacao;
+        this.threadsBuild = threadsBuild;
+        this.threadsPdf = threadsPdf;
+        this.threadsGravacao = threadsGravacao;
+        this.capacidadeFila = capacidadeFila;
+    }
+
+    public int getThreadsDecodificacao() { return threadsDecodificacao; }
+    public int getThreadsBuild() { return threadsBuild; }
+    public int getThreadsPdf() { return threadsPdf; }
+    public int getThreadsGravacao() { return threadsGravacao; }
+    public int getCapacidadeFila() { return capacidadeFila; }
+
+    /**
+     * Processa entradas já decodificadas (a etapa de decodificação apenas repassa os itens).
+     * @see #executar(Stream, Function, GravadorPDF)
+     */
+    public ResumoPipeline executar(Stream<EntradaBoleto> entradas, GravadorPDF gravador) {
+        return executar(entradas, Function.identity(), gravador);
+    }
+
+    /**
+     * Processa todos os itens brutos da entrada (ex: linhas de um arquivo) passando por todas as etapas.
+     * A entrada é consumida aos poucos pela thread chamadora. Erros de um item são registrados no resumo
+     * (com a etapa em que ocorreram) e não interrompem o lote; os PDFs chegam ao gravador fora de ordem.
+     * @param brutos Stream com os itens da entrada (é fechado ao final).
+     * @param decodificador Converte um item bruto em EntradaBoleto. Deve ser thread-safe.
+     * @param gravador Etapa final de cada PDF. Deve ser thread-safe.
+     * @return Resumo com totais, falhas, vazão e os contadores de cada etapa.
+     */
+    public <T> ResumoPipeline executar(Stream<T> brutos, Function<? super T, EntradaBoleto> decodificador, GravadorPDF gravador) {
+        return executar(brutos, decodificador, gravador, indice -> false);
+    }
+
+    /**
+     * Mesmo que {@link #executar(Stream, Function, GravadorPDF)}, pulando os itens já concluídos numa execução
+     * anterior: o item pulado é lido (para manter os índices), mas não é decodificado nem processado.
+     * @param pular Recebe o índice do item na entrada; true para pular (ex: ManifestoLote::concluido).
+     * @return Resumo dos itens processados nesta execução (os pulados ficam em getPulados()).
+     */
+    public <T> ResumoPipeline executar(Stream<T> brutos, Function<? super T, EntradaBoleto> decodificador, GravadorPDF gravador,
+                                       LongPredicate pular) {
+        Objects.requireNonNull(pular, "O filtro de itens a pular não pode ser nulo.");
+        Objects.requireNonNull(brutos, "O Stream de entradas não pode ser nulo.");
+        Objects.requireNonNull(decodificador, "O decodificador das entradas não pode ser nulo.");
+        Objects.requireNonNull(gravador, "O gravador dos PDFs não pode ser nulo.");
+
+        // Buffers em uso: no máximo os da fila de gravação mais os das threads de PDF e de gravação
+        PoolBufferPDF pool = new PoolBufferPDF(capacidadeFila + threadsPdf + threadsGravacao,
+                PoolBufferPDF.CAPACIDADE_INICIAL_PADRAO, PoolBufferPDF.CAPACIDADE_MAXIMA_RETIDA_PADRAO);
+
+        Etapa leitura = new Etapa("leitura", 1, 0, null);
+        Etapa decodificacao = new Etapa("decodificacao", threadsDecodificacao, capacidadeFila, item -> {
+            item.entrada = Objects.requireNonNull(decodificar(decodificador, item.bruto), "Decodificador retornou entrada nula");
+            item.bruto = null;
+        });
+        Etapa build = new Etapa("build", threadsBuild, capacidadeFila, item -> item.boleto = item.entrada.construir());
+        Etapa pdf = new Etapa("pdf", threadsPdf, capacidadeFila, item -> {
+            BufferPDF buffer = pool.emprestar();
+            try {
+                BoletoPDFExporter.exportar(item.boleto, buffer);
+            } catch (IOException | RuntimeException e) {
+                buffer.liberar();
+                throw e;
+            }
+            item.pdf = buffer;
+        });
+        Etapa gravacao = new Etapa("gravacao", threadsGravacao, capacidadeFila, item -> {
+            try {
+                gravador.gravar(item.indice, item.entrada, item.boleto, item.pdf);
+            } finally {
+                item.pdf.liberar();
+                item.pdf = null;
+            }
+        });
+        leitura.proxima = decodificacao;
+        decodificacao.proxima = build;
+        build.proxima = pdf;
+        pdf.proxima = gravacao;
+        List<Etapa> etapas = List.of(leitura, decodificacao, build, pdf, gravacao);
+
+        ConcurrentLinkedQueue<FalhaLote> falhas = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        long total = 0;
+        long pulados = 0;
+        long inicio = System.nanoTime();
+        boolean concluido = false;
+        try (brutos) {
+            for (Etapa etapa : etapas.subList(1, etapas.size())) {
+                Thread.Builder fabrica = Thread.ofPlatform().name("pipeline-" + etapa.nome + "-", 1).daemon();
+                for (int i = 0; i < etapa.threads; i++) {
+                    threads.add(fabrica.start(() -> etapa.rodar(falhas)));
+                }
+            }
+            Iterator<T> it = brutos.iterator();
+            while (true) {
+                long t0 = System.nanoTime();
+                if (!it.hasNext()) {
+                    break;
+                }
+                T bruto = it.next();
+                long indice = total++;
+                if (pular.test(indice)) {
+                    pulados++;
+                    leitura.nanosOcupada.add(System.nanoTime() - t0);
+                    continue;
+                }
+                Item item = new Item(indice, bruto);
+                long t1 = System.nanoTime();
+                leitura.nanosOcupada.add(t1 - t0);
+                decodificacao.colocar(item);
+                leitura.nanosBloqueada.add(System.nanoTime() - t1);
+                leitura.processados.increment();
+            }
+            decodificacao.encerrar();
+            for (Thread t : threads) {
+                t.join();
+            }
+            concluido = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pipeline interrompido após " + total + " itens lidos.", e);
+        } finally {
+            if (!concluido) {
+                threads.forEach(Thread::interrupt);
+            }
+        }
+
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        List<FalhaLote> listaFalhas = new ArrayList<>(falhas);
+        listaFalhas.sort(Comparator.comparingLong(FalhaLote::getIndice));
+        int totalThreads = threadsDecodificacao + threadsBuild + threadsPdf + threadsGravacao;
+        ResumoLote lote = new ResumoLote(total - pulados, gravacao.processados.sum(), listaFalhas, duracao, totalThreads);
+        List<EstatisticasEtapa> estatisticas = new ArrayList<>(etapas.size());
+        for (Etapa etapa : etapas) {
+            estatisticas.add(etapa.estatisticas(duracao));
+        }
+        return new ResumoPipeline(lote, estatisticas, pulados);
+    }
+
+    /**
+     * Gera um PDF por item no diretório informado (mesmos nomes de arquivo do BoletoBatchGenerator.gerarPdfs).
+     * @param brutos Stream com os itens da entrada.
+     * @param decodificador Converte um item bruto em EntradaBoleto. Deve ser thread-safe.
+     * @param diretorio Diretório de saída (criado se não existir).
+     * @return Resumo com totais, falhas, vazão e os contadores de cada etapa.
+     * @throws IOException Se o diretório de saída não puder ser criado.
+     */
+    public <T> ResumoPipeline gerarPdfs(Stream<T> brutos, Function<? super T, EntradaBoleto> decodificador, Path diretorio) throws IOException {
+        Objects.requireNonNull(diretorio, "O diretório de saída não pode ser nulo.");
+        Files.createDirectories(diretorio);
+        return executar(brutos, decodificador, (indice, entrada, boleto, pdf) -> {
+            try (OutputStream saida = Files.newOutputStream(diretorio.resolve(BoletoBatchGenerator.nomeArquivo(indice, entrada)))) {
+                pdf.writeTo(saida);
+            }
+        });
+    }
+
+    /**
+     * Gera um PDF por item com checkpoint e manifesto (ver ManifestoLote): os itens já concluídos são pulados,
+     * cada PDF é gravado de forma atômica e registrado, e uma nova execução com o mesmo manifesto continua daqui.
+     * O manifesto não é fechado (feche-o depois para gravar o checkpoint final).
+     * @param brutos Stream com os itens da entrada (na mesma ordem da execução anterior).
+     * @param decodificador Converte um item bruto em EntradaBoleto. Deve ser thread-safe.
+     * @param manifesto Controle do lote, aberto com ManifestoLote.abrir(...).
+     * @return Resumo dos itens processados nesta execução.
+     */
+    public <T> ResumoPipeline gerarPdfs(Stream<T> brutos, Function<? super T, EntradaBoleto> decodificador, ManifestoLote manifesto) {
+        Objects.requireNonNull(manifesto, "O manifesto do lote não pode ser nulo.");
+        return executar(brutos, decodificador, manifesto.gravador(), manifesto::concluido);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> EntradaBoleto decodificar(Function<? super T, EntradaBoleto> decodificador, Object bruto) {
+        return decodificador.apply((T) bruto);
+    }
+
+    private static void exigirPositivo(String nome, int valor) {
+        if (valor < 1) {
+            throw new IllegalArgumentException(nome + " deve ser maior ou igual a 1: " + valor);
+        }
+    }
+
+    // Um item da entrada percorrendo as etapas; cada etapa preenche o seu campo
+    private static final class Item {
+        final long indice;
+        Object bruto;
+        EntradaBoleto entrada;
+        Boleto boleto;
+        BufferPDF pdf;
+
+        Item(long indice, Object bruto) {
+            this.indice = indice;
+            this.bruto = bruto;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Trabalho {
+        void executar(Item item) throws Exception;
+    }
+
+    // Uma etapa: fila de entrada, threads que a consomem e contadores
+    private static final class Etapa {
+        final String nome;
+        final int threads;
+        final int capacidadeFila;
+        final ArrayBlockingQueue<Item> fila; // null na leitura
+        final Trabalho trabalho;
+        final AtomicInteger ativas;
+        Etapa proxima;
+
+        final LongAdder processados = new LongAdder();
+        final LongAdder falhas = new LongAdder();
+        final LongAdder nanosOcupada = new LongAdder();
+        final LongAdder nanosEsperando = new LongAdder();
+        final LongAdder nanosBloqueada = new LongAdder();
+        final LongAdder somaProfundidade = new LongAdder();
+        final LongAdder amostras = new LongAdder();
+        final AtomicInteger profundidadeMaxima = new AtomicInteger();
+
+        Etapa(String nome, int threads, int capacidadeFila, Trabalho trabalho) {
+            this.nome = nome;
+            this.threads = threads;
+            this.capacidadeFila = capacidadeFila;
+            this.fila = capacidadeFila > 0 ? new ArrayBlockingQueue<>(capacidadeFila) : null;
+            this.trabalho = trabalho;
+            this.ativas = new AtomicInteger(threads);
+        }
+
+        // Chamado pela etapa anterior; bloqueia enquanto a fila estiver cheia
+        void colocar(Item item) throws InterruptedException {
+            int profundidade = fila.size();
+            somaProfundidade.add(profundidade);
+            amostras.increment();
+            profundidadeMaxima.accumulateAndGet(profundidade, Math::max);
+            fila.put(item);
+        }
+
+        void encerrar() throws InterruptedException {
+            for (int i = 0; i < threads; i++) {
+                fila.put(FIM);
+            }
+        }
+
+        void rodar(ConcurrentLinkedQueue<FalhaLote> falhasLote) {
+            boolean interrompida = false;
+            try {
+                while (true) {
+                    long t0 = System.nanoTime();
+                    Item item = fila.take();
+                    long t1 = System.nanoTime();
+                    nanosEsperando.add(t1 - t0);
+                    if (item == FIM) {
+                        break;
+                    }
+                    try {
+                        trabalho.executar(item);
+                    } catch (Exception e) {
+                        nanosOcupada.add(System.nanoTime() - t1);
+                        falhas.increment();
+                        falhasLote.add(new FalhaLote(item.indice, item.entrada != null ? item.entrada.getIdentificador() : null, nome, e));
+                        if (item.pdf != null) {
+                            item.pdf.liberar();
+                        }
+                        continue;
+                    }
+                    long t2 = System.nanoTime();
+                    nanosOcupada.add(t2 - t1);
+                    processados.increment();
+                    if (proxima != null) {
+                        proxima.colocar(item);
+                        nanosBloqueada.add(System.nanoTime() - t2);
+                    }
+                }
+            } catch (InterruptedException e) {
+                interrompida = true;
+            } finally {
+                if (ativas.decrementAndGet() == 0 && proxima != null && !interrompida) {
+                    try {
+                        proxima.encerrar();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        EstatisticasEtapa estatisticas(Duration duracao) {
+            long n = amostras.sum();
+            return new EstatisticasEtapa(nome, threads, processados.sum(), falhas.sum(),
+                    Duration.ofNanos(nanosOcupada.sum()), Duration.ofNanos(nanosEsperando.sum()),
+                    Duration.ofNanos(nanosBloqueada.sum()), n > 0 ? somaProfundidade.sum() / (double) n : 0.0,
+                    profundidadeMaxima.get(), capacidadeFila, duracao);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.geradorboleto.lote;
+
+import java.time.Duration;
+import java.util.List;
+
+// Resultado de uma execução do BoletoBatchGenerator
+public class ResumoLote {
+    private final long total;
+    private final long sucessos;
+    private final List<FalhaLote> falhas; // Ordenadas pelo índice do item
+    private final Duration duracao;
+    private final int paralelismo;
+
+    public ResumoLote(long total, long sucessos, List<FalhaLote> falhas, Duration duracao, int paralelismo) {
+        this.total = total;
+        this.sucessos = sucessos;
+        this.falhas = List.copyOf(falhas);
+        this.duracao = duracao;
+        this.paralelismo = paralelismo;
+    }
+
+    public long getTotal() { return total; }
+    public long getSucessos() { return sucessos; }
+    public List<FalhaLote> getFalhas() { return falhas; }
+    public Duration getDuracao() { return duracao; }
+    public int getParalelismo() { return paralelismo; }
+
+    // Vazão do lote (itens processados, com ou sem sucesso, por segundo)
+    public double getBoletosPorSegundo() {
+        long nanos = duracao.toNanos();
+        return nanos > 0 ? total * 1_000_000_000.0 / nanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Lote: %d boletos (%d ok, %d com falha) em %.3f s com %d threads -> %.1f boletos/s",
+                total, sucessos, falhas.size(), duracao.toNanos() / 1_000_000_000.0, paralelismo, getBoletosPorSegundo());
+    }
+}
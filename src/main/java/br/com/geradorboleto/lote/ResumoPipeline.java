@@ -0,0 +1,43 @@
+package br.com.geradorboleto.lote;
+
+import java.util.List;
+
+// Resultado de uma execução do PipelineBoletos: totais do lote e contadores de cada etapa
+public class ResumoPipeline {
+    private final ResumoLote lote;
+    private final List<EstatisticasEtapa> etapas; // Na ordem do pipeline (leitura primeiro)
+    private final long pulados; // Itens já concluídos numa execução anterior (fora do resumo do lote)
+
+    public ResumoPipeline(ResumoLote lote, List<EstatisticasEtapa> etapas, long pulados) {
+        this.lote = lote;
+        this.etapas = List.copyOf(etapas);
+        this.pulados = pulados;
+    }
+
+    public ResumoLote getLote() { return lote; }
+    public List<EstatisticasEtapa> getEtapas() { return etapas; }
+    public long getPulados() { return pulados; }
+
+    // Etapa com maior utilização (a que limita a vazão; dê mais threads a ela)
+    public EstatisticasEtapa getGargalo() {
+        EstatisticasEtapa gargalo = null;
+        for (EstatisticasEtapa etapa : etapas) {
+            if (gargalo == null || etapa.getUtilizacao() > gargalo.getUtilizacao()) {
+                gargalo = etapa;
+            }
+        }
+        return gargalo;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(lote.toString());
+        if (pulados > 0) {
+            sb.append(" (").append(pulados).append(" já concluídos, pulados)");
+        }
+        for (EstatisticasEtapa etapa : etapas) {
+            sb.append(System.lineSeparator()).append("  ").append(etapa);
+        }
+        return sb.toString();
+    }
+}
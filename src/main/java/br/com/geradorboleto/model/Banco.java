@@ -1,5 +1,7 @@
 package br.com.geradorboleto.model;
 
+import br.com.geradorboleto.layout.CatalogoBancos;
+
 public class Banco {
     private String codigoBanco; // Ex: "001", "341", "237"
     private String nomeBanco;
@@ -28,17 +30,9 @@ public class Banco {
     public void setContaCorrente(String contaCorrente) { this.contaCorrente = contaCorrente; }
     public void setCarteira(String carteira) { this.carteira = carteira; }
 
-    // Retorna Código do Banco com Dígito Verificador (simples)
+    // Retorna Código do Banco com Dígito Verificador (ex: "341-7"), conforme o catálogo de bancos
     public String getNumeroFormatado() {
-        return codigoBanco + "-" + digitoVerificadorCodigoBanco(codigoBanco);
-    }
-
-    // Simples cálculo de dígito verificador para o código do banco (exemplo didático)
-    private String digitoVerificadorCodigoBanco(String codigo) {
-        if ("001".equals(codigo)) return "9";
-        if ("341".equals(codigo)) return "7";
-        if ("237".equals(codigo)) return "2";
-        // Adicione outros bancos se necessário
-        return "X"; // Padrão ou erro
+        String digito = CatalogoBancos.digito(codigoBanco);
+        return codigoBanco + "-" + (digito != null ? digito : "X");
     }
-}
\ No newline at end of file
+}
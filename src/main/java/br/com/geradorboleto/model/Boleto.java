@@ -1,9 +1,10 @@
 package br.com.geradorboleto.model;
 
+import br.com.geradorboleto.calculos.ValorCentavos;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 import java.util.Objects;
 
 public class Boleto {
@@ -11,6 +12,7 @@ public class Boleto {
     private Pessoa beneficiario;
     private Banco banco;
     private BigDecimal valor;
+    private long valorCentavos; // Mesmo valor em centavos, calculado em setValor (usado no código de barras e na exibição)
     private LocalDate dataVencimento;
     private LocalDate dataDocumento;
     private String numeroDocumento;
@@ -21,7 +23,6 @@ public class Boleto {
     private String linhaDigitavel;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    private static final Locale BRAZIL_LOCALE = new Locale("pt", "BR");
 
     // --- Construtor agora é PUBLIC ---
     public Boleto() {}
@@ -31,6 +32,7 @@ public class Boleto {
     public Pessoa getBeneficiario() { return beneficiario; }
     public Banco getBanco() { return banco; }
     public BigDecimal getValor() { return valor; }
+    public long getValorCentavos() { return valorCentavos; }
     public LocalDate getDataVencimento() { return dataVencimento; }
     public LocalDate getDataDocumento() { return dataDocumento; }
     public String getNumeroDocumento() { return numeroDocumento; }
@@ -43,7 +45,10 @@ public class Boleto {
     public void setSacado(Pessoa sacado) { this.sacado = sacado; }
     public void setBeneficiario(Pessoa beneficiario) { this.beneficiario = beneficiario; }
     public void setBanco(Banco banco) { this.banco = banco; }
-    public void setValor(BigDecimal valor) { this.valor = valor; }
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+        this.valorCentavos = valor != null ? ValorCentavos.deBigDecimal(valor) : 0L;
+    }
     public void setDataVencimento(LocalDate dataVencimento) { this.dataVencimento = dataVencimento; }
     public void setDataDocumento(LocalDate dataDocumento) { this.dataDocumento = dataDocumento; }
     public void setNumeroDocumento(String numeroDocumento) { this.numeroDocumento = numeroDocumento; }
@@ -90,7 +95,7 @@ public class Boleto {
         if (nossoNumero != null) sb.append("Nosso Número: ").append(nossoNumero).append("\n");
         if (numeroDocumento != null) sb.append("Número Documento: ").append(numeroDocumento).append("\t\t");
         if (banco != null) sb.append("Carteira: ").append(banco.getCarteira()).append("\n");
-        if (valor != null) sb.append("Valor Documento: R$ ").append(String.format(BRAZIL_LOCALE, "%,.2f", valor)).append("\n");
+        if (valor != null) sb.append("Valor Documento: R$ ").append(ValorCentavos.formatar(valorCentavos)).append("\n");
         if (instrucoes != null && !instrucoes.isEmpty()) {
             sb.append("Instruções: ").append(instrucoes).append("\n");
         }
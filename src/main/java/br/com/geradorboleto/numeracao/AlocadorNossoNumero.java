@@ -0,0 +1,224 @@
+package br.com.geradorboleto.numeracao;
+
+import br.com.geradorboleto.builder.ModeloEmissao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// Sequência de nosso número de um beneficiário (banco + carteira + convênio), sem depender de sequence de banco de dados.
+// Os números saem de um bloco em memória com um incremento atômico; quando o bloco acaba, uma única thread reserva
+// o próximo bloco no arquivo (gravado e sincronizado com fsync antes de qualquer número do bloco ser usado).
+// Depois de uma queda, a sequência continua no fim do último bloco reservado: números reservados e não usados
+// são descartados, mas nenhum número é emitido duas vezes.
+//
+// Arquivo: dois slots de 32 bytes (A e B) gravados alternadamente, cada um com geração, limite reservado e CRC32.
+// Na abertura vale o slot íntegro de maior geração, então uma gravação interrompida no meio nunca perde o limite anterior.
+// O arquivo fica travado (lock do sistema operacional) enquanto o alocador estiver aberto: dois processos com a mesma
+// sequência (ex: um lote e o servidor) leriam o mesmo limite e emitiriam os mesmos números. Dentro do mesmo processo
+// a conferência é feita antes de abrir o arquivo (EM_USO): no Linux, fechar qualquer canal do arquivo libera os locks
+// de todo o processo, então um segundo alocador não pode nem abrir o arquivo para descobrir que ele está travado.
+public final class AlocadorNossoNumero implements Closeable {
+
+    public static final int TAMANHO_BLOCO_PADRAO = 1000;
+
+    private static final int MAGICO = 0x4E4E5351; // "NNSQ"
+    private static final int TAMANHO_SLOT = 32;
+    private static final Set<Path> EM_USO = ConcurrentHashMap.newKeySet(); // Sequências abertas neste processo
+
+    private final Path chave; // Em EM_USO enquanto aberto
+    private final FileChannel canal;
+    private final ByteBuffer slot = ByteBuffer.allocate(TAMANHO_SLOT);
+    private final int largura;
+    private final long maximo;
+    private final int tamanhoBloco;
+
+    private final AtomicLong proximo;
+    private volatile long limite; // Primeiro número ainda não reservado no arquivo
+    private long geracao;
+
+    /**
+     * Abre (ou cria) a sequência gravada no arquivo.
+     * @param largura Quantidade de dígitos do nosso número (ex: 8 Itaú, 11 Bradesco); o maior número é 10^largura - 1.
+     * @param inicial Primeiro número, usado só se o arquivo ainda não existir.
+     * @param tamanhoBloco Quantidade de números reservados por gravação no arquivo.
+     * @throws IOException Se o arquivo não puder ser lido ou criado.
+     * @throws IllegalStateException Se o arquivo existir mas nenhum dos slots estiver íntegro, ou se a sequência já
+     *                               estiver aberta por outro processo (ou outro alocador deste processo).
+     */
+    public AlocadorNossoNumero(Path arquivo, int largura, long inicial, int tamanhoBloco) throws IOException {
+        Objects.requireNonNull(arquivo, "O arquivo da sequência não pode ser nulo.");
+        if (largura < 1 || largura > 18) {
+            throw new IllegalArgumentException("Largura do nosso número deve estar entre 1 e 18: " + largura);
+        }
+        if (tamanhoBloco < 1) {
+            throw new IllegalArgumentException("Tamanho do bloco deve ser maior ou igual a 1: " + tamanhoBloco);
+        }
+        this.largura = largura;
+        this.maximo = potencia10(largura) - 1;
+        if (inicial < 1 || inicial > maximo) {
+            throw new IllegalArgumentException("Número inicial fora da faixa 1.." + maximo + ": " + inicial);
+        }
+        this.tamanhoBloco = tamanhoBloco;
+
+        this.chave = arquivo.toAbsolutePath().normalize();
+        if (!EM_USO.add(chave)) {
+            throw new IllegalStateException("Sequência de nosso número já está aberta neste processo: " + arquivo);
+        }
+        FileChannel aberto = null;
+        try {
+            boolean existia = Files.exists(arquivo);
+            aberto = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.canal = aberto;
+            if (canal.tryLock() == null) {
+                throw new IllegalStateException("Sequência de nosso número já está em uso por outro processo: " + arquivo);
+            }
+            long inicio = inicial;
+            if (existia && canal.size() > 0) {
+                long[] a = lerSlot(0);
+                long[] b = lerSlot(TAMANHO_SLOT);
+                long[] valido = a == null ? b : b == null ? a : (a[0] >= b[0] ? a : b);
+                if (valido == null) {
+                    throw new IllegalStateException("Arquivo de sequência corrompido (nenhum slot íntegro): " + arquivo);
+                }
+                geracao = valido[0];
+                inicio = valido[1];
+            }
+            this.proximo = new AtomicLong(inicio);
+            this.limite = inicio; // Nada reservado nesta execução: o primeiro proximo() reserva um bloco
+        } catch (IOException | RuntimeException e) {
+            if (aberto != null) {
+                aberto.close();
+            }
+            EM_USO.remove(chave);
+            throw e;
+        }
+    }
+
+    /**
+     * Sequência de um modelo de emissão, no arquivo "nosso-numero-<banco>-<carteira>[-<convênio>].seq" do diretório,
+     * com a largura do nosso número do layout do banco (sem o prefixo, ex: BB com convênio de 7 dígitos = 10).
+     */
+    public static AlocadorNossoNumero para(ModeloEmissao modelo, Path diretorio) throws IOException {
+        Objects.requireNonNull(modelo, "Modelo de emissão é obrigatório");
+        Objects.requireNonNull(diretorio, "O diretório da sequência não pode ser nulo.");
+        Files.createDirectories(diretorio);
+        String nome = "nosso-numero-" + modelo.getCodigoBanco() + "-" + modelo.getBanco().getCarteira()
+                + (modelo.getConvenio().isEmpty() ? "" : "-" + modelo.getConvenio());
+        Path arquivo = diretorio.resolve(nome.replaceAll("[^A-Za-z0-9._-]", "_") + ".seq");
+        return new AlocadorNossoNumero(arquivo, modelo.getLayout().getLarguraSequencial(), 1, TAMANHO_BLOCO_PADRAO);
+    }
+
+    public int getLargura() { return largura; }
+    public int getTamanhoBloco() { return tamanhoBloco; }
+
+    // Primeiro número ainda não reservado no arquivo (onde a sequência recomeça após uma queda)
+    public long getLimiteReservado() { return limite; }
+
+    /**
+     * Próximo nosso número. Thread-safe; sem bloqueio enquanto houver números no bloco reservado.
+     * @throws IOException Se a reserva de um novo bloco no arquivo falhar.
+     * @throws IllegalStateException Se a sequência chegar ao maior número da largura.
+     */
+    public long proximo() throws IOException {
+        long n = proximo.getAndIncrement();
+        if (n < limite) {
+            return n;
+        }
+        return reservar(n);
+    }
+
+    // Próximo nosso número com zeros à esquerda até a largura (pronto para comValores / emitir)
+    public String proximoFormatado() throws IOException {
+        long n = proximo();
+        char[] c = new char[largura];
+        for (int i = largura - 1; i >= 0; i--) {
+            c[i] = (char) ('0' + (n % 10));
+            n /= 10;
+        }
+        return new String(c);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!canal.isOpen()) {
+            return;
+        }
+        try {
+            canal.close(); // Libera o lock do arquivo
+        } finally {
+            EM_USO.remove(chave);
+        }
+    }
+
+    // Caminho lento: reserva blocos até cobrir 'n' (várias threads podem ter passado do limite ao mesmo tempo)
+    private synchronized long reservar(long n) throws IOException {
+        if (n > maximo) {
+            throw new IllegalStateException("Sequência de nosso número esgotada: o maior número com " + largura + " dígitos é " + maximo);
+        }
+        while (n >= limite) {
+            long novoLimite = Math.min(maximo + 1, Math.max(limite, n) + tamanhoBloco);
+            gravarSlot(novoLimite);
+            limite = novoLimite; // Publicado só depois do fsync
+        }
+        return n;
+    }
+
+    private void gravarSlot(long novoLimite) throws IOException {
+        if (!canal.isOpen()) {
+            throw new IllegalStateException("Sequência de nosso número já foi fechada.");
+        }
+        long g = geracao + 1;
+        slot.clear();
+        slot.putInt(MAGICO).putLong(g).putLong(novoLimite);
+        CRC32 crc = new CRC32();
+        crc.update(slot.array(), 0, slot.position());
+        slot.putInt((int) crc.getValue());
+        while (slot.hasRemaining()) slot.put((byte) 0);
+        slot.flip();
+        long posicao = (g & 1) == 0 ? 0 : TAMANHO_SLOT; // Alterna A/B: o slot da geração anterior fica intacto
+        while (slot.hasRemaining()) {
+            posicao += canal.write(slot, posicao);
+        }
+        canal.force(true);
+        geracao = g;
+    }
+
+    // {geração, limite} do slot, ou null se ausente ou corrompido
+    private long[] lerSlot(long posicao) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(TAMANHO_SLOT);
+        while (b.hasRemaining()) {
+            if (canal.read(b, posicao + b.position()) < 0) break;
+        }
+        if (b.position() < TAMANHO_SLOT) {
+            return null;
+        }
+        b.flip();
+        if (b.getInt() != MAGICO) {
+            return null;
+        }
+        long g = b.getLong();
+        long lim = b.getLong();
+        CRC32 crc = new CRC32();
+        crc.update(b.array(), 0, 20);
+        if (b.getInt() != (int) crc.getValue() || lim < 1) {
+            return null;
+        }
+        return new long[]{g, lim};
+    }
+
+    private static long potencia10(int expoente) {
+        long p = 1;
+        for (int i = 0; i < expoente; i++) p *= 10;
+        return p;
+    }
+}
@@ -0,0 +1,200 @@
+package br.com.geradorboleto.pdf;
+
+// Imports da biblioteca iText 7
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.draw.DashedLine;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.borders.DashedBorder;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.LineSeparator;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.AreaBreakType;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.itextpdf.layout.properties.VerticalAlignment;
+
+// Imports do modelo
+import br.com.geradorboleto.calculos.ValorCentavos;
+import br.com.geradorboleto.model.Boleto;
+
+// Imports Java padrão
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+
+// Exporta um carnê (parcelas de um mesmo cliente) em um único PDF: 3 boletos compactos por página A4,
+// com canhoto à esquerda e ficha de compensação à direita. Um único PdfWriter/PdfDocument/Document
+// e as mesmas fontes são usados para todas as páginas.
+public class BoletoCarnePDFExporter {
+
+    public static final int PARCELAS_POR_PAGINA = 3;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // A4 = 842pt de altura; com margens de 20pt sobram 802pt, divididos entre as 3 parcelas e as linhas de corte
+    private static final float MARGEM = 20f;
+    private static final float ALTURA_PARCELA = 255f;
+    // Altura do código de barras no carnê (um pouco menor que os 13 mm da ficha completa, para caber 3 por página)
+    private static final float ALTURA_CODIGO_BARRAS = 30f;
+
+    /**
+     * Exporta as parcelas do carnê para um único arquivo PDF.
+     * @param parcelas Boletos do carnê, na ordem das parcelas.
+     * @param caminhoArquivo Caminho do PDF a ser gerado.
+     * @throws IOException Se ocorrer um erro durante a escrita do arquivo.
+     */
+    public static void exportar(List<Boleto> parcelas, String caminhoArquivo) throws IOException {
+        Objects.requireNonNull(parcelas, "A lista de parcelas não pode ser nula para exportação.");
+        Objects.requireNonNull(caminhoArquivo, "O caminho do arquivo PDF não pode ser nulo.");
+        if (parcelas.isEmpty()) {
+            throw new IllegalArgumentException("O carnê deve ter ao menos uma parcela.");
+        }
+        for (Boleto boleto : parcelas) {
+            validar(boleto);
+        }
+
+        try (PdfWriter writer = new PdfWriter(caminhoArquivo);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf, PageSize.A4)) {
+
+            document.setMargins(MARGEM, MARGEM, MARGEM, MARGEM);
+
+            // Fontes criadas uma vez e compartilhadas por todas as páginas do documento
+            PdfFont normal = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+            PdfFont negrito = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+            document.setFont(normal);
+
+            int total = parcelas.size();
+            for (int i = 0; i < total; i++) {
+                if (i > 0 && i % PARCELAS_POR_PAGINA == 0) {
+                    document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                }
+                document.add(criarParcela(pdf, parcelas.get(i), i + 1, total, negrito));
+                // Linha de corte entre parcelas da mesma página
+                if (i % PARCELAS_POR_PAGINA != PARCELAS_POR_PAGINA - 1 && i < total - 1) {
+                    document.add(new LineSeparator(new DashedLine(0.5f)).setMarginTop(4).setMarginBottom(4));
+                }
+            }
+
+            System.out.println("INFO: Carnê PDF (" + total + " parcelas) exportado com sucesso para: " + caminhoArquivo);
+
+        } catch (FileNotFoundException e) {
+            System.err.println("ERRO: Arquivo não encontrado ou sem permissão de escrita - " + caminhoArquivo);
+            throw e;
+        } catch (IOException e) {
+            System.err.println("ERRO: Falha de I/O ao gerar PDF do carnê: " + e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IOException("Erro inesperado na geração do PDF do carnê.", e);
+        }
+    }
+
+    private static void validar(Boleto boleto) {
+        Objects.requireNonNull(boleto, "Parcela nula no carnê.");
+        Objects.requireNonNull(boleto.getBanco(), "Dados bancários não podem ser nulos no boleto.");
+        Objects.requireNonNull(boleto.getBeneficiario(), "Beneficiário não pode ser nulo no boleto.");
+        Objects.requireNonNull(boleto.getSacado(), "Sacado não pode ser nulo no boleto.");
+        Objects.requireNonNull(boleto.getDataVencimento(), "Data de vencimento não pode ser nula no boleto.");
+        Objects.requireNonNull(boleto.getValor(), "Valor não pode ser nulo no boleto.");
+    }
+
+    // Uma parcela: canhoto (recibo do sacado) + ficha de compensação, em um bloco de altura fixa
+    private static Div criarParcela(PdfDocument pdf, Boleto boleto, int numero, int total, PdfFont negrito) {
+        String vencimento = boleto.getDataVencimento().format(DATE_FORMATTER);
+        String valor = ValorCentavos.formatar(boleto.getValorCentavos());
+
+        // --- Canhoto ---
+        Table canhoto = new Table(1).useAllAvailableWidth();
+        canhoto.addCell(valorCell(boleto.getBanco().getNomeBanco(), negrito).setBorder(Border.NO_BORDER));
+        canhoto.addCell(rotuloValor("Parcela", numero + "/" + total));
+        canhoto.addCell(rotuloValor("Vencimento", vencimento));
+        canhoto.addCell(rotuloValor("Agência / Código Beneficiário", boleto.getBanco().getAgencia() + " / " + boleto.getBanco().getContaCorrente()));
+        canhoto.addCell(rotuloValor("Nosso Número", boleto.getNossoNumero()));
+        canhoto.addCell(rotuloValor("Nº Documento", boleto.getNumeroDocumento()));
+        canhoto.addCell(rotuloValor("(=) Valor Documento", valor));
+        canhoto.addCell(rotuloValor("Sacado", boleto.getSacado().getNome()));
+        canhoto.addCell(rotuloCell("Recibo do Sacado").setBorder(Border.NO_BORDER).setTextAlignment(TextAlignment.RIGHT));
+
+        // --- Ficha de compensação (versão compacta do layout do BoletoPDFExporter) ---
+        Table ficha = new Table(UnitValue.createPercentArray(new float[]{3, 3, 2, 2, 4})).useAllAvailableWidth();
+        ficha.addCell(valorCell(boleto.getBanco().getNumeroFormatado(), negrito).setFontSize(11)
+                .setTextAlignment(TextAlignment.CENTER).setVerticalAlignment(VerticalAlignment.MIDDLE));
+        ficha.addCell(new Cell(1, 4).add(new Paragraph(boleto.formatarLinhaDigitavel(boleto.getLinhaDigitavel()))
+                        .setFont(negrito).setFontSize(9))
+                .setTextAlignment(TextAlignment.RIGHT).setVerticalAlignment(VerticalAlignment.MIDDLE).setPadding(1));
+
+        ficha.addCell(rotuloValor("Local de Pagamento", "Pagável Preferencialmente na Rede Bancária", 4));
+        ficha.addCell(rotuloValor("Vencimento", vencimento).setTextAlignment(TextAlignment.RIGHT));
+
+        ficha.addCell(rotuloValor("Beneficiário (Cedente)", boleto.getBeneficiario().getNome() + " - CPF/CNPJ: " + boleto.getBeneficiario().getDocumento(), 4));
+        ficha.addCell(rotuloValor("Agência / Código Beneficiário", boleto.getBanco().getAgencia() + " / " + boleto.getBanco().getContaCorrente())
+                .setTextAlignment(TextAlignment.RIGHT));
+
+        ficha.addCell(rotuloValor("Data Documento", boleto.getDataDocumento() != null ? boleto.getDataDocumento().format(DATE_FORMATTER) : ""));
+        ficha.addCell(rotuloValor("Nº Documento", boleto.getNumeroDocumento()));
+        ficha.addCell(rotuloValor("Carteira", boleto.getBanco().getCarteira()));
+        ficha.addCell(rotuloValor("Parcela", numero + "/" + total));
+        ficha.addCell(rotuloValor("Nosso Número", boleto.getNossoNumero()).setTextAlignment(TextAlignment.RIGHT));
+
+        ficha.addCell(new Cell(2, 4)
+                .add(new Paragraph("Instruções (Texto de Responsabilidade do Beneficiário)").setFontSize(6))
+                .add(new Paragraph(boleto.getInstrucoes() != null ? boleto.getInstrucoes() : " ").setFontSize(7))
+                .setPadding(1));
+        ficha.addCell(rotuloValor("(=) Valor Documento", valor).setTextAlignment(TextAlignment.RIGHT));
+        ficha.addCell(rotuloValor("(=) Valor Cobrado", "").setTextAlignment(TextAlignment.RIGHT));
+
+        String sacadoEnd = boleto.getSacado().getEndereco() != null ? boleto.getSacado().getEndereco().toString() : "";
+        ficha.addCell(rotuloValor("Sacado", boleto.getSacado().getNome() + " - CPF/CNPJ: " + boleto.getSacado().getDocumento() + "\n" + sacadoEnd, 5));
+
+        // Código de barras ITF vetorial (um XObject por parcela; as barras não se repetem entre parcelas)
+        Cell codigoBarras = new Cell(1, 5).setBorder(Border.NO_BORDER).setPadding(1).setPaddingTop(4);
+        if (boleto.getCodigoBarras() != null) {
+            codigoBarras.add(new Image(CodigoBarrasITF.criarXObject(pdf, boleto.getCodigoBarras(),
+                    CodigoBarrasITF.LARGURA_FINA_PADRAO, ALTURA_CODIGO_BARRAS)));
+        } else {
+            codigoBarras.add(new Paragraph("Código de Barras Indisponível").setFontSize(8));
+        }
+        ficha.addCell(codigoBarras);
+
+        Table parcela = new Table(UnitValue.createPercentArray(new float[]{22, 78})).useAllAvailableWidth();
+        parcela.addCell(new Cell().add(canhoto).setPadding(0).setPaddingRight(4).setBorder(Border.NO_BORDER)
+                .setBorderRight(new DashedBorder(0.5f)));
+        parcela.addCell(new Cell().add(ficha).setPadding(0).setPaddingLeft(4).setBorder(Border.NO_BORDER));
+
+        return new Div().add(parcela).setHeight(ALTURA_PARCELA);
+    }
+
+    // --- Métodos auxiliares para as células (fontes menores que as do BoletoPDFExporter) ---
+
+    // Célula com rótulo pequeno e valor logo abaixo
+    private static Cell rotuloValor(String rotulo, String valor) {
+        return rotuloValor(rotulo, valor, 1);
+    }
+
+    private static Cell rotuloValor(String rotulo, String valor, int colspan) {
+        return new Cell(1, colspan)
+                .add(new Paragraph(rotulo).setFontSize(6).setMargin(0))
+                .add(new Paragraph(valor != null ? valor : "").setFontSize(7).setMargin(0))
+                .setPadding(1);
+    }
+
+    private static Cell rotuloCell(String texto) {
+        return new Cell().add(new Paragraph(texto).setFontSize(6)).setPadding(1);
+    }
+
+    private static Cell valorCell(String texto, PdfFont fonte) {
+        return new Cell().add(new Paragraph(texto != null ? texto : "").setFont(fonte).setFontSize(8)).setPadding(1);
+    }
+}
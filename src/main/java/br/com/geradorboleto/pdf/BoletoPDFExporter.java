@@ -6,29 +6,36 @@ import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Cell; // Import Cell
+import com.itextpdf.layout.element.Image; // Código de barras (Form XObject)
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
-import com.itextpdf.layout.property.TextAlignment;
-import com.itextpdf.layout.property.UnitValue;
-import com.itextpdf.layout.property.VerticalAlignment; // Para alinhamento vertical em células
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.itextpdf.layout.properties.VerticalAlignment; // Para alinhamento vertical em células
 
 // Imports do seu modelo
+import br.com.geradorboleto.calculos.ValorCentavos;
 import br.com.geradorboleto.model.Boleto;
 
 // Imports Java padrão
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate; // Para data de processamento
 import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 import java.util.Objects; // Para validações
 
 
 public class BoletoPDFExporter {
 
-    // Formatadores e Locale
+    // Versão do desenho do PDF: incremente ao mudar o layout, para o CachePDF não servir PDFs no desenho antigo
+    public static final int VERSAO_LAYOUT = 1;
+
+    // Formatadores
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    private static final Locale BRAZIL_LOCALE = new Locale("pt", "BR");
+
+    // Pool de buffers reutilizáveis para exportarParaBytes
+    private static final PoolBufferPDF POOL_BUFFERS = new PoolBufferPDF();
 
     /**
      * Exporta os dados de um Boleto para um arquivo PDF.
@@ -37,17 +44,94 @@ public class BoletoPDFExporter {
      * @throws IOException Se ocorrer um erro durante a escrita do arquivo.
      */
     public static void exportar(Boleto boleto, String caminhoArquivo) throws IOException {
-        Objects.requireNonNull(boleto, "O objeto Boleto não pode ser nulo para exportação.");
+        validar(boleto);
         Objects.requireNonNull(caminhoArquivo, "O caminho do arquivo PDF não pode ser nulo.");
+
+        try (PdfWriter writer = new PdfWriter(caminhoArquivo)) {
+
+            escrever(boleto, writer);
+
+            System.out.println("INFO: Boleto PDF exportado com sucesso para: " + caminhoArquivo);
+
+        } catch (FileNotFoundException e) {
+            System.err.println("ERRO: Arquivo não encontrado ou sem permissão de escrita - " + caminhoArquivo);
+            throw e; // Re-lança a exceção
+        } catch (IOException e) {
+            System.err.println("ERRO: Falha de I/O ao gerar PDF: " + e.getMessage());
+            throw e; // Re-lança a exceção
+        } catch (Exception e) {
+            // Captura outras exceções inesperadas durante a geração do PDF
+            System.err.println("ERRO inesperado ao gerar PDF: " + e.getMessage());
+            e.printStackTrace(); // Imprime o stack trace para depuração
+            // Considerar lançar uma exceção específica de aplicação aqui
+            throw new IOException("Erro inesperado na geração do PDF.", e);
+        }
+    }
+
+    /**
+     * Exporta o PDF do Boleto para um OutputStream qualquer (socket, entrada de ZIP, cache...), sem arquivo temporário.
+     * O stream recebe flush ao final mas NÃO é fechado: quem o abriu continua responsável por fechá-lo.
+     * @param boleto O objeto Boleto preenchido.
+     * @param destino Stream de saída.
+     * @throws IOException Se ocorrer um erro durante a escrita no stream.
+     */
+    public static void exportar(Boleto boleto, OutputStream destino) throws IOException {
+        validar(boleto);
+        Objects.requireNonNull(destino, "O OutputStream de destino não pode ser nulo.");
+
+        try (PdfWriter writer = new PdfWriter(destino)) {
+            writer.setCloseStream(false);
+            escrever(boleto, writer);
+
+        } catch (IOException e) {
+            System.err.println("ERRO: Falha de I/O ao gerar PDF: " + e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Erro inesperado na geração do PDF.", e);
+        }
+    }
+
+    /**
+     * Exporta o PDF do Boleto para um buffer reutilizável (ver {@link PoolBufferPDF}).
+     * O buffer é limpo antes da escrita; o PDF fica nos primeiros buffer.size() bytes (ver writeTo/comoByteBuffer).
+     * @param boleto O objeto Boleto preenchido.
+     * @param buffer Buffer de destino.
+     * @throws IOException Se ocorrer um erro na geração do PDF.
+     */
+    public static void exportar(Boleto boleto, BufferPDF buffer) throws IOException {
+        Objects.requireNonNull(buffer, "O buffer de destino não pode ser nulo.");
+        buffer.reset();
+        exportar(boleto, (OutputStream) buffer);
+    }
+
+    /**
+     * Gera o PDF do Boleto em memória, usando um buffer do pool interno, e devolve uma cópia exata dos bytes.
+     * @param boleto O objeto Boleto preenchido.
+     * @return Conteúdo do PDF.
+     * @throws IOException Se ocorrer um erro na geração do PDF.
+     */
+    public static byte[] exportarParaBytes(Boleto boleto) throws IOException {
+        BufferPDF buffer = POOL_BUFFERS.emprestar();
+        try {
+            exportar(boleto, buffer);
+            return buffer.toByteArray();
+        } finally {
+            buffer.liberar();
+        }
+    }
+
+    private static void validar(Boleto boleto) {
+        Objects.requireNonNull(boleto, "O objeto Boleto não pode ser nulo para exportação.");
         Objects.requireNonNull(boleto.getBanco(), "Dados bancários não podem ser nulos no boleto.");
         Objects.requireNonNull(boleto.getBeneficiario(), "Beneficiário não pode ser nulo no boleto.");
         Objects.requireNonNull(boleto.getSacado(), "Sacado não pode ser nulo no boleto.");
         Objects.requireNonNull(boleto.getDataVencimento(), "Data de vencimento não pode ser nula no boleto.");
         Objects.requireNonNull(boleto.getValor(), "Valor não pode ser nulo no boleto.");
+    }
 
-
-        try (PdfWriter writer = new PdfWriter(caminhoArquivo);
-             PdfDocument pdf = new PdfDocument(writer);
+    // Monta o layout do boleto no writer informado (comum a todos os destinos)
+    private static void escrever(Boleto boleto, PdfWriter writer) throws IOException {
+        try (PdfDocument pdf = new PdfDocument(writer);
              Document document = new Document(pdf, PageSize.A4)) {
 
             document.setMargins(20, 20, 20, 20); // Margens menores (top, right, bottom, left)
@@ -125,7 +209,7 @@ public class BoletoPDFExporter {
             table.addCell(createValueCell(boleto.getBanco().getCarteira()));
             table.addCell(createValueCell("R$")); // Espécie Moeda (Real)
             table.addCell(createValueCell("")); // Quantidade Moeda
-            table.addCell(createValueCell(String.format(BRAZIL_LOCALE, "%,.2f", boleto.getValor()))
+            table.addCell(createValueCell(ValorCentavos.formatar(boleto.getValorCentavos()))
                     .setTextAlignment(TextAlignment.RIGHT).setBold());
 
             // Linha 5: Instruções / (-) Desconto / (+) Juros/Multa / (=) Valor Cobrado
@@ -142,7 +226,7 @@ public class BoletoPDFExporter {
             table.addCell(createHeaderCell("", 4)); // Célula vazia
             table.addCell(createHeaderCell("(=) Valor Cobrado"));
             table.addCell(createValueCell("", 4)); // Célula vazia
-            table.addCell(createValueCell(String.format(BRAZIL_LOCALE, "%,.2f", boleto.getValor())) // Mostrando valor principal aqui
+            table.addCell(createValueCell(ValorCentavos.formatar(boleto.getValorCentavos())) // Mostrando valor principal aqui
                     .setTextAlignment(TextAlignment.RIGHT).setBold());
 
             // Linha 6: Sacado
@@ -154,36 +238,17 @@ public class BoletoPDFExporter {
             // Linha 7: Sacador/Avalista e Autenticação Mecânica
             table.addCell(createHeaderCell("Sacador / Avalista", 3)); // Colspan 3
             table.addCell(createHeaderCell("Autenticação Mecânica / FICHA DE COMPENSAÇÃO", 2).setTextAlignment(TextAlignment.RIGHT)); // Colspan 2
-            table.addCell(createValueCell("").setHeight(20), 3); // Colspan 3
+            table.addCell(createValueCell("", 3).setHeight(20)); // Colspan 3
             table.addCell(createValueCell("", 2).setHeight(20)); // Colspan 2
 
             document.add(table);
 
-            // --- Código de Barras (Texto ou Imagem) ---
-            document.add(new Paragraph("\n")); // Espaço
-
-            // **IMPORTANTE:** Gerar a imagem do código de barras requer biblioteca extra (ex: Barcode4J)
-            // e integração com iText. Abaixo, apenas a representação textual.
-            Paragraph codBarrasParagraph = new Paragraph(boleto.getCodigoBarras() != null ? boleto.getCodigoBarras() : "Código de Barras Indisponível")
-                    .setFontSize(10) // Pode usar fonte específica de código de barras se instalada
-                    .setTextAlignment(TextAlignment.LEFT); // Ou Center
-            document.add(codBarrasParagraph);
-
-
-            System.out.println("INFO: Boleto PDF exportado com sucesso para: " + caminhoArquivo);
-
-        } catch (FileNotFoundException e) {
-            System.err.println("ERRO: Arquivo não encontrado ou sem permissão de escrita - " + caminhoArquivo);
-            throw e; // Re-lança a exceção
-        } catch (IOException e) {
-            System.err.println("ERRO: Falha de I/O ao gerar PDF: " + e.getMessage());
-            throw e; // Re-lança a exceção
-        } catch (Exception e) {
-            // Captura outras exceções inesperadas durante a geração do PDF
-            System.err.println("ERRO inesperado ao gerar PDF: " + e.getMessage());
-            e.printStackTrace(); // Imprime o stack trace para depuração
-            // Considerar lançar uma exceção específica de aplicação aqui
-            throw new IOException("Erro inesperado na geração do PDF.", e);
+            // --- Código de Barras (Interleaved 2 of 5, vetorial, desenhado pelo CodigoBarrasITF) ---
+            if (boleto.getCodigoBarras() != null) {
+                document.add(new Image(CodigoBarrasITF.criarXObject(pdf, boleto.getCodigoBarras())).setMarginTop(12));
+            } else {
+                document.add(new Paragraph("Código de Barras Indisponível").setFontSize(10).setMarginTop(12));
+            }
         }
     }
 
@@ -191,24 +256,24 @@ public class BoletoPDFExporter {
 
     // Cria uma célula de cabeçalho (label) com borda padrão
     private static Cell createHeaderCell(String text) {
-        return new Cell().add(new Paragraph(text != null ? text : "")
+        return createHeaderCell(text, 1);
+    }
+    // Sobrecarga para colspan (no iText 7.2 o colspan só é definido no construtor da Cell)
+    private static Cell createHeaderCell(String text, int colspan) {
+        return new Cell(1, colspan).add(new Paragraph(text != null ? text : "")
                         .setFontSize(7) // Fonte pequena para labels
                 )
                 .setPadding(1).setMargin(0); // Padding e margem mínimos
     }
-    // Sobrecarga para colspan
-    private static Cell createHeaderCell(String text, int colspan) {
-        return createHeaderCell(text).setColspan(colspan);
-    }
 
     // Cria uma célula de valor (dado) com borda padrão
     private static Cell createValueCell(String text) {
-        return new Cell().add(new Paragraph(text != null ? text : "")
-                        .setFontSize(8)) // Fonte um pouco maior para dados
-                .setPadding(1).setMargin(0);
+        return createValueCell(text, 1);
     }
     // Sobrecarga para colspan
     private static Cell createValueCell(String text, int colspan) {
-        return createValueCell(text).setColspan(colspan);
+        return new Cell(1, colspan).add(new Paragraph(text != null ? text : "")
+                        .setFontSize(8)) // Fonte um pouco maior para dados
+                .setPadding(1).setMargin(0);
     }
 }
\ No newline at end of file
@@ -0,0 +1,354 @@
+package br.com.geradorboleto.pdf;
+
+// Imports da biblioteca iText 7 (apenas kernel: sem o layout engine)
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+
+// Imports do modelo
+import br.com.geradorboleto.calculos.ValorCentavos;
+import br.com.geradorboleto.model.Banco;
+import br.com.geradorboleto.model.Boleto;
+
+// Imports Java padrão
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Template da ficha de compensação: a moldura fixa (bordas, rótulos, textos fixos, nome e número do banco)
+// vira um Form XObject por banco em cada documento; para cada boleto só os campos variáveis
+// são escritos com chamadas diretas ao PdfCanvas, em coordenadas pré-calculadas (sem Table/Cell/Paragraph).
+// Um Form XObject não pode ser usado em outro PdfDocument, então o content stream da moldura é desenhado
+// uma única vez por banco no processo e guardado (bytes imutáveis); os documentos seguintes só embrulham
+// esses bytes em um XObject novo, com as fontes do próprio documento. Isso evita redesenhar a moldura
+// a cada arquivo no modo de um boleto por PDF.
+// Uma instância pertence a um PdfDocument e não é thread-safe; o cache de molduras é compartilhado e thread-safe.
+public class BoletoTemplatePDF {
+
+    // Dimensões da ficha (A4 com margens de 20pt)
+    public static final float MARGEM = 20f;
+    public static final float LARGURA = PageSize.A4.getWidth() - 2 * MARGEM;
+    public static final float ALTURA = 312f;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Colunas da tabela principal: mesmas proporções {3, 4, 2, 3, 4} do BoletoPDFExporter
+    private static final float[] COL = colunas(new float[]{3, 4, 2, 3, 4});
+
+    // Linhas: distância do topo da ficha (y cresce para baixo nestas constantes)
+    private static final float CABECALHO = 30f;
+    private static final float R1 = 34f, R2 = 56f, R3 = 78f, R4 = 100f, R5 = 122f, R6 = 188f, R7 = 228f, FIM_TABELA = 254f;
+    private static final float ALTURA_LINHA = 22f;
+    private static final float TOPO_CODIGO_BARRAS = 262f;
+
+    // Posições dos textos dentro de uma célula
+    private static final float PAD = 2f;
+    private static final float BASE_ROTULO = 7f;
+    private static final float BASE_VALOR = 18f;
+    private static final float ENTRELINHA = 9f;
+
+    private static final float TAM_ROTULO = 6f;
+    private static final float TAM_VALOR = 8f;
+
+    // Molduras já desenhadas, por banco (código + nome). O nome vem do cadastro do banco, então o limite
+    // só protege contra uma fonte de dados com nomes variando a cada boleto: acima dele a moldura é redesenhada.
+    private static final int LIMITE_MOLDURAS_GRAVADAS = 64;
+    private static final Map<String, MolduraGravada> MOLDURAS_GRAVADAS = new ConcurrentHashMap<>();
+
+    private final PdfDocument pdf;
+    private final PdfFont normal;
+    private final PdfFont negrito;
+    private final Map<String, PdfFormXObject> molduras = new HashMap<>(); // Uma moldura por código de banco
+
+    /**
+     * @param pdf Documento onde o template será usado (fontes e molduras pertencem a ele).
+     * @throws IOException Se as fontes padrão não puderem ser criadas.
+     */
+    public BoletoTemplatePDF(PdfDocument pdf) throws IOException {
+        this.pdf = Objects.requireNonNull(pdf, "O PdfDocument não pode ser nulo.");
+        this.normal = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        this.negrito = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+    }
+
+    public PdfFont getFonteNormal() { return normal; }
+    public PdfFont getFonteNegrito() { return negrito; }
+
+    /**
+     * Adiciona uma página A4 ao documento com a ficha do boleto no topo.
+     * @param boleto Boleto a ser desenhado.
+     * @return A página criada.
+     */
+    public PdfPage desenharEmNovaPagina(Boleto boleto) {
+        PdfPage page = pdf.addNewPage(PageSize.A4);
+        PdfCanvas canvas = new PdfCanvas(page);
+        desenhar(canvas, boleto, MARGEM, page.getPageSize().getHeight() - MARGEM - ALTURA);
+        canvas.release();
+        return page;
+    }
+
+    /**
+     * Desenha a ficha do boleto com o canto inferior esquerdo em (x, y).
+     * @param canvas Canvas de uma página (ou XObject) do mesmo documento do template.
+     * @param boleto Boleto a ser desenhado.
+     */
+    public void desenhar(PdfCanvas canvas, Boleto boleto, float x, float y) {
+        validar(boleto);
+        canvas.addXObjectAt(moldura(boleto.getBanco()), x, y);
+        desenharCampos(canvas, boleto, x, y + ALTURA);
+    }
+
+    // --- Campos variáveis ---
+
+    // 'topo' é a coordenada y (da página) da borda superior da ficha
+    private void desenharCampos(PdfCanvas canvas, Boleto boleto, float x, float topo) {
+        String valor = ValorCentavos.formatar(boleto.getValorCentavos());
+        canvas.beginText();
+
+        canvas.setFontAndSize(negrito, 10);
+        textoDireita(canvas, negrito, 10, boleto.formatarLinhaDigitavel(boleto.getLinhaDigitavel()), x + LARGURA, topo - 20);
+
+        canvas.setFontAndSize(negrito, TAM_VALOR);
+        textoDireita(canvas, negrito, TAM_VALOR, boleto.getDataVencimento().format(DATE_FORMATTER), x + COL[5] - PAD, topo - R1 - BASE_VALOR);
+        textoDireita(canvas, negrito, TAM_VALOR, valor, x + COL[5] - PAD, topo - R4 - BASE_VALOR);
+        textoDireita(canvas, negrito, TAM_VALOR, valor, x + COL[5] - PAD, topo - R5 - 2 * ALTURA_LINHA - BASE_VALOR);
+
+        canvas.setFontAndSize(normal, TAM_VALOR);
+        float larguraQuatroColunas = COL[4] - 2 * PAD;
+        texto(canvas, ajustar(boleto.getBeneficiario().getNome() + " - CPF/CNPJ: " + boleto.getBeneficiario().getDocumento(), larguraQuatroColunas),
+                x + PAD, topo - R2 - BASE_VALOR);
+        textoDireita(canvas, normal, TAM_VALOR, boleto.getBanco().getAgencia() + " / " + boleto.getBanco().getContaCorrente(), x + COL[5] - PAD, topo - R2 - BASE_VALOR);
+
+        if (boleto.getDataDocumento() != null) {
+            texto(canvas, boleto.getDataDocumento().format(DATE_FORMATTER), x + COL[0] + PAD, topo - R3 - BASE_VALOR);
+        }
+        texto(canvas, ajustar(boleto.getNumeroDocumento(), COL[2] - COL[1] - 2 * PAD), x + COL[1] + PAD, topo - R3 - BASE_VALOR);
+        textoDireita(canvas, normal, TAM_VALOR, boleto.getNossoNumero(), x + COL[5] - PAD, topo - R3 - BASE_VALOR);
+        texto(canvas, boleto.getBanco().getCarteira(), x + COL[1] + PAD, topo - R4 - BASE_VALOR);
+
+        // Instruções: uma linha de texto por linha recebida, até preencher a célula
+        if (boleto.getInstrucoes() != null) {
+            String[] linhas = boleto.getInstrucoes().split("\n");
+            int max = (int) ((R6 - R5 - BASE_VALOR) / ENTRELINHA) + 1;
+            for (int i = 0; i < linhas.length && i < max; i++) {
+                texto(canvas, ajustar(linhas[i], larguraQuatroColunas), x + PAD, topo - R5 - BASE_VALOR - i * ENTRELINHA);
+            }
+        }
+
+        // Sacado: nome/documento e endereço
+        texto(canvas, ajustar(boleto.getSacado().getNome() + " - CPF/CNPJ: " + boleto.getSacado().getDocumento(), LARGURA - 2 * PAD),
+                x + PAD, topo - R6 - BASE_VALOR);
+        if (boleto.getSacado().getEndereco() != null) {
+            texto(canvas, ajustar(boleto.getSacado().getEndereco().toString(), LARGURA - 2 * PAD), x + PAD, topo - R6 - BASE_VALOR - ENTRELINHA);
+        }
+
+        if (boleto.getCodigoBarras() == null) {
+            canvas.setFontAndSize(normal, 10);
+            texto(canvas, "Código de Barras Indisponível", x, topo - TOPO_CODIGO_BARRAS - 10);
+        }
+        canvas.endText();
+
+        // Código de barras ITF vetorial, fora do bloco de texto
+        if (boleto.getCodigoBarras() != null) {
+            CodigoBarrasITF.desenhar(canvas, boleto.getCodigoBarras(), x, topo - TOPO_CODIGO_BARRAS - CodigoBarrasITF.ALTURA_PADRAO);
+        }
+    }
+
+    // --- Moldura fixa (desenhada uma vez por banco; um XObject por banco e por documento) ---
+
+    private PdfFormXObject moldura(Banco banco) {
+        return molduras.computeIfAbsent(banco.getCodigoBanco(), codigo -> obterMoldura(banco));
+    }
+
+    // Reaproveita o content stream já gravado para o banco; na primeira vez desenha e grava
+    private PdfFormXObject obterMoldura(Banco banco) {
+        String chave = banco.getCodigoBanco() + "|" + banco.getNomeBanco();
+        MolduraGravada gravada = MOLDURAS_GRAVADAS.get(chave);
+        if (gravada != null) {
+            PdfFormXObject xobj = gravada.emDocumento(pdf, negrito, normal);
+            if (xobj != null) return xobj;
+        }
+        PdfFormXObject xobj = criarMoldura(banco);
+        if (gravada == null && MOLDURAS_GRAVADAS.size() < LIMITE_MOLDURAS_GRAVADAS) {
+            MOLDURAS_GRAVADAS.putIfAbsent(chave, MolduraGravada.de(xobj, pdf, negrito, normal));
+        }
+        return xobj;
+    }
+
+    // Content stream da moldura (ainda não comprimido) e os nomes de recurso usados para as duas fontes
+    private static final class MolduraGravada {
+        private final byte[] conteudo;
+        private final PdfName nomeNegrito;
+        private final PdfName nomeNormal;
+
+        private MolduraGravada(byte[] conteudo, PdfName nomeNegrito, PdfName nomeNormal) {
+            this.conteudo = conteudo;
+            this.nomeNegrito = nomeNegrito;
+            this.nomeNormal = nomeNormal;
+        }
+
+        // Deve ser chamado antes do flush do XObject; addFont devolve o nome já registrado para a fonte
+        static MolduraGravada de(PdfFormXObject xobj, PdfDocument pdf, PdfFont negrito, PdfFont normal) {
+            PdfResources recursos = xobj.getResources();
+            return new MolduraGravada(xobj.getPdfObject().getBytes(false), recursos.addFont(pdf, negrito), recursos.addFont(pdf, normal));
+        }
+
+        /**
+         * Cria no documento um XObject com o conteúdo gravado e as fontes do documento.
+         * @return O XObject, ou null se as fontes não receberam os mesmos nomes de recurso da gravação.
+         */
+        PdfFormXObject emDocumento(PdfDocument pdf, PdfFont negrito, PdfFont normal) {
+            PdfFormXObject xobj = new PdfFormXObject(new Rectangle(LARGURA, ALTURA));
+            // Mesma ordem de registro do criarMoldura (negrito primeiro), então os nomes gerados coincidem
+            PdfResources recursos = xobj.getResources();
+            if (!nomeNegrito.equals(recursos.addFont(pdf, negrito)) || !nomeNormal.equals(recursos.addFont(pdf, normal))) {
+                return null;
+            }
+            xobj.getPdfObject().setData(conteudo); // setData copia os bytes: o array gravado nunca é alterado
+            return xobj;
+        }
+    }
+
+    private PdfFormXObject criarMoldura(Banco banco) {
+        PdfFormXObject xobj = new PdfFormXObject(new Rectangle(LARGURA, ALTURA));
+        PdfCanvas c = new PdfCanvas(xobj, pdf);
+
+        // Cabeçalho: nome do banco | número do banco | (linha digitável, variável)
+        c.setLineWidth(1f);
+        linhaHorizontal(c, 0, LARGURA, CABECALHO);
+        float fimNome = LARGURA * 0.20f;
+        float fimNumero = LARGURA * 0.35f;
+        linhaVertical(c, fimNumero, 0, CABECALHO);
+        c.stroke();
+
+        // Bordas das células
+        c.setLineWidth(0.5f);
+        for (float topoLinha : new float[]{R1, R2, R3, R4}) {
+            retangulo(c, 0, LARGURA, topoLinha, topoLinha + ALTURA_LINHA);
+        }
+        for (int i = 1; i < 5; i++) { // Linhas 3 e 4: cinco colunas
+            linhaVertical(c, COL[i], R3, R5);
+        }
+        linhaVertical(c, COL[4], R1, R3); // Linhas 1 e 2: colunas 1-4 juntas + coluna 5
+        retangulo(c, 0, LARGURA, R5, R6);
+        linhaVertical(c, COL[4], R5, R6);
+        linhaHorizontal(c, COL[4], COL[5], R5 + ALTURA_LINHA);
+        linhaHorizontal(c, COL[4], COL[5], R5 + 2 * ALTURA_LINHA);
+        retangulo(c, 0, LARGURA, R6, R7);
+        retangulo(c, 0, LARGURA, R7, FIM_TABELA);
+        linhaVertical(c, COL[3], R7, FIM_TABELA);
+        c.stroke();
+
+        c.beginText();
+        c.setFontAndSize(negrito, 10);
+        c.setTextMatrix(0, ALTURA - 20).showText(ajustar(negrito, 10, banco.getNomeBanco(), fimNome - PAD));
+        c.setFontAndSize(negrito, 14);
+        String numero = banco.getNumeroFormatado();
+        c.setTextMatrix(fimNome + (fimNumero - fimNome - negrito.getWidth(numero, 14)) / 2, ALTURA - 21).showText(numero);
+
+        // Rótulos
+        c.setFontAndSize(normal, TAM_ROTULO);
+        rotulo(c, "Local de Pagamento", 0, R1);
+        rotulo(c, "Vencimento", 4, R1);
+        rotulo(c, "Beneficiário (Cedente)", 0, R2);
+        rotulo(c, "Agência / Código Beneficiário", 4, R2);
+        String[] r3 = {"Data Documento", "Nº Documento", "Espécie Doc.", "Aceite", "Nosso Número"};
+        String[] r4 = {"Uso do Banco", "Carteira", "Espécie Moeda", "Quantidade Moeda", "(=) Valor Documento"};
+        for (int i = 0; i < 5; i++) {
+            rotulo(c, r3[i], i, R3);
+            rotulo(c, r4[i], i, R4);
+        }
+        rotulo(c, "Instruções (Texto de Responsabilidade do Beneficiário)", 0, R5);
+        rotulo(c, "(-) Desconto / Abatimento", 4, R5);
+        rotulo(c, "(+) Mora / Multa", 4, R5 + ALTURA_LINHA);
+        rotulo(c, "(=) Valor Cobrado", 4, R5 + 2 * ALTURA_LINHA);
+        rotulo(c, "Sacado", 0, R6);
+        rotulo(c, "Sacador / Avalista", 0, R7);
+        String autenticacao = "Autenticação Mecânica / FICHA DE COMPENSAÇÃO";
+        c.setTextMatrix(LARGURA - PAD - normal.getWidth(autenticacao, TAM_ROTULO), ALTURA - R7 - BASE_ROTULO).showText(autenticacao);
+
+        // Valores fixos
+        c.setFontAndSize(normal, TAM_VALOR);
+        c.setTextMatrix(PAD, ALTURA - R1 - BASE_VALOR).showText("Pagável Preferencialmente na Rede Bancária");
+        c.setTextMatrix(COL[2] + PAD, ALTURA - R3 - BASE_VALOR).showText("DM");
+        c.setTextMatrix(COL[3] + PAD, ALTURA - R3 - BASE_VALOR).showText("N");
+        c.setTextMatrix(COL[2] + PAD, ALTURA - R4 - BASE_VALOR).showText("R$");
+        c.endText();
+
+        c.release();
+        return xobj;
+    }
+
+    // --- Auxiliares de desenho ---
+
+    static void validar(Boleto boleto) {
+        Objects.requireNonNull(boleto, "O objeto Boleto não pode ser nulo para exportação.");
+        Objects.requireNonNull(boleto.getBanco(), "Dados bancários não podem ser nulos no boleto.");
+        Objects.requireNonNull(boleto.getBeneficiario(), "Beneficiário não pode ser nulo no boleto.");
+        Objects.requireNonNull(boleto.getSacado(), "Sacado não pode ser nulo no boleto.");
+        Objects.requireNonNull(boleto.getDataVencimento(), "Data de vencimento não pode ser nula no boleto.");
+        Objects.requireNonNull(boleto.getValor(), "Valor não pode ser nulo no boleto.");
+    }
+
+    // Posição x do início de cada coluna (e o fim da última) a partir das larguras relativas
+    private static float[] colunas(float[] pesos) {
+        float soma = 0;
+        for (float p : pesos) soma += p;
+        float[] x = new float[pesos.length + 1];
+        for (int i = 0; i < pesos.length; i++) {
+            x[i + 1] = x[i] + LARGURA * pesos[i] / soma;
+        }
+        return x;
+    }
+
+    // Rótulo no canto superior esquerdo da célula (coluna, topo da linha) - coordenadas do XObject
+    private static void rotulo(PdfCanvas c, String texto, int coluna, float topoLinha) {
+        c.setTextMatrix(COL[coluna] + PAD, ALTURA - topoLinha - BASE_ROTULO).showText(texto);
+    }
+
+    private static void retangulo(PdfCanvas c, float x0, float x1, float topo, float base) {
+        c.rectangle(x0, ALTURA - base, x1 - x0, base - topo);
+    }
+
+    private static void linhaHorizontal(PdfCanvas c, float x0, float x1, float topo) {
+        c.moveTo(x0, ALTURA - topo).lineTo(x1, ALTURA - topo);
+    }
+
+    private static void linhaVertical(PdfCanvas c, float x, float topo, float base) {
+        c.moveTo(x, ALTURA - topo).lineTo(x, ALTURA - base);
+    }
+
+    private static void texto(PdfCanvas c, String texto, float x, float y) {
+        if (texto == null || texto.isEmpty()) return;
+        c.setTextMatrix(x, y).showText(texto);
+    }
+
+    private static void textoDireita(PdfCanvas c, PdfFont fonte, float tamanho, String texto, float xDireita, float y) {
+        if (texto == null || texto.isEmpty()) return;
+        c.setTextMatrix(xDireita - fonte.getWidth(texto, tamanho), y).showText(texto);
+    }
+
+    // Corta o texto (fonte normal, tamanho dos valores) para caber na largura
+    private String ajustar(String texto, float largura) {
+        return ajustar(normal, TAM_VALOR, texto, largura);
+    }
+
+    private static String ajustar(PdfFont fonte, float tamanho, String texto, float largura) {
+        if (texto == null || fonte.getWidth(texto, tamanho) <= largura) return texto;
+        int fim = texto.length();
+        while (fim > 0 && fonte.getWidth(texto.substring(0, fim), tamanho) > largura) {
+            fim--;
+        }
+        return texto.substring(0, fim);
+    }
+}
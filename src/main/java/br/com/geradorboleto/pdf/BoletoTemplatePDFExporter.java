@@ -0,0 +1,70 @@
+package br.com.geradorboleto.pdf;
+
+// Imports da biblioteca iText 7
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+
+// Imports do modelo
+import br.com.geradorboleto.model.Boleto;
+
+// Imports Java padrão
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+// Modo template do exportador: mesma ficha do BoletoPDFExporter, desenhada pelo BoletoTemplatePDF
+// (moldura em Form XObject + campos variáveis via PdfCanvas), sem passar pelo layout engine.
+// Cada arquivo é um PdfDocument novo, mas a moldura do banco não é redesenhada: o BoletoTemplatePDF
+// reaproveita o content stream gravado no primeiro boleto daquele banco.
+public class BoletoTemplatePDFExporter {
+
+    /**
+     * Exporta os dados de um Boleto para um arquivo PDF usando o template.
+     * @param boleto O objeto Boleto preenchido.
+     * @param caminhoArquivo O caminho completo onde o PDF será salvo.
+     * @throws IOException Se ocorrer um erro durante a escrita do arquivo.
+     */
+    public static void exportar(Boleto boleto, String caminhoArquivo) throws IOException {
+        BoletoTemplatePDF.validar(boleto);
+        Objects.requireNonNull(caminhoArquivo, "O caminho do arquivo PDF não pode ser nulo.");
+
+        try (PdfWriter writer = new PdfWriter(caminhoArquivo);
+             PdfDocument pdf = new PdfDocument(writer)) {
+
+            new BoletoTemplatePDF(pdf).desenharEmNovaPagina(boleto);
+
+        } catch (FileNotFoundException e) {
+            System.err.println("ERRO: Arquivo não encontrado ou sem permissão de escrita - " + caminhoArquivo);
+            throw e;
+        } catch (IOException e) {
+            System.err.println("ERRO: Falha de I/O ao gerar PDF: " + e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IOException("Erro inesperado na geração do PDF.", e);
+        }
+    }
+
+    /**
+     * Exporta o Boleto (template) para um OutputStream, sem fechá-lo.
+     * @param boleto O objeto Boleto preenchido.
+     * @param destino Stream de saída (continua aberto ao final).
+     * @throws IOException Se ocorrer um erro durante a escrita no stream.
+     */
+    public static void exportar(Boleto boleto, OutputStream destino) throws IOException {
+        BoletoTemplatePDF.validar(boleto);
+        Objects.requireNonNull(destino, "O OutputStream de destino não pode ser nulo.");
+
+        try (PdfWriter writer = new PdfWriter(destino)) {
+            writer.setCloseStream(false);
+            try (PdfDocument pdf = new PdfDocument(writer)) {
+                new BoletoTemplatePDF(pdf).desenharEmNovaPagina(boleto);
+            }
+        } catch (IOException e) {
+            System.err.println("ERRO: Falha de I/O ao gerar PDF: " + e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IOException("Erro inesperado na geração do PDF.", e);
+        }
+    }
+}
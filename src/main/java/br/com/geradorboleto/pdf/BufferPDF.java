@@ -0,0 +1,109 @@
+package br.com.geradorboleto.pdf;
+
+// Imports Java padrão
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Buffer em memória para PDFs gerados (equivalente a um ByteArrayOutputStream sem sincronização),
+// reaproveitável via PoolBufferPDF: reset() mantém o array interno já alocado.
+// close() não faz nada (o buffer continua válido); para devolver ao pool use liberar(), uma única vez por empréstimo.
+public class BufferPDF extends OutputStream {
+
+    private final PoolBufferPDF pool; // null se o buffer não veio de um pool
+    private final AtomicBoolean emprestado = new AtomicBoolean(); // Entre PoolBufferPDF.emprestar e liberar
+    private byte[] dados;
+    private int tamanho;
+
+    public BufferPDF(int capacidadeInicial) {
+        this(capacidadeInicial, null);
+    }
+
+    BufferPDF(int capacidadeInicial, PoolBufferPDF pool) {
+        if (capacidadeInicial <= 0) {
+            throw new IllegalArgumentException("A capacidade inicial do buffer deve ser positiva: " + capacidadeInicial);
+        }
+        this.dados = new byte[capacidadeInicial];
+        this.pool = pool;
+    }
+
+    @Override
+    public void write(int b) {
+        garantirCapacidade(tamanho + 1);
+        dados[tamanho++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        garantirCapacidade(tamanho + len);
+        System.arraycopy(b, off, dados, tamanho, len);
+        tamanho += len;
+    }
+
+    // Descarta o conteúdo, mantendo o array alocado
+    public void reset() {
+        tamanho = 0;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    // Capacidade atual do array interno
+    public int capacidade() {
+        return dados.length;
+    }
+
+    // Cópia exata do conteúdo
+    public byte[] toByteArray() {
+        return Arrays.copyOf(dados, tamanho);
+    }
+
+    // Escreve o conteúdo em outro stream sem cópia intermediária
+    public void writeTo(OutputStream destino) throws IOException {
+        destino.write(dados, 0, tamanho);
+    }
+
+    /**
+     * Visão somente-leitura do conteúdo, sem cópia (ex: para gravar em um FileChannel/SocketChannel).
+     * A visão só é válida até o próximo reset/escrita ou até o buffer ser liberado.
+     */
+    public ByteBuffer comoByteBuffer() {
+        return ByteBuffer.wrap(dados, 0, tamanho).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Devolve o buffer ao pool de origem (se houver). Depois disso o buffer não deve mais ser usado.
+     * @throws IllegalStateException Se o buffer já tiver sido devolvido: entraria duas vezes no pool e seria
+     *                               emprestado a dois usuários ao mesmo tempo.
+     */
+    public void liberar() {
+        if (pool == null) {
+            return;
+        }
+        if (!emprestado.compareAndSet(true, false)) {
+            throw new IllegalStateException("BufferPDF liberado duas vezes (ou sem ter sido emprestado pelo pool).");
+        }
+        pool.devolver(this);
+    }
+
+    // Chamado pelo pool ao entregar o buffer
+    void marcarEmprestado() {
+        emprestado.set(true);
+    }
+
+    private void garantirCapacidade(int minimo) {
+        if (minimo < 0) {
+            throw new IllegalStateException("PDF excede o tamanho máximo de um buffer em memória.");
+        }
+        if (minimo > dados.length) {
+            int nova = Math.max(dados.length << 1, minimo);
+            if (nova < 0) nova = Integer.MAX_VALUE - 8;
+            dados = Arrays.copyOf(dados, nova);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package br.com.geradorboleto.pdf;
+
+// Imports do seu modelo
+import br.com.geradorboleto.model.Banco;
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+
+// Imports Java padrão
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Cache de PDFs já gerados pelo BoletoPDFExporter, endereçado pelo conteúdo: a chave é o SHA-256 de tudo o que
+// aparece no PDF (banco, código de barras, nosso número, valor, datas, sacado, beneficiário, instruções) mais a
+// VERSAO_LAYOUT do exportador. O mesmo boleto baixado várias vezes custa uma consulta, não um PDF novo; qualquer
+// mudança no boleto ou no layout gera outra chave, então nunca é preciso invalidar entradas.
+//
+// Duas camadas, cada uma com seu limite em bytes e descarte do menos usado recentemente (LRU):
+//  - memória: byte[] num LinkedHashMap em ordem de acesso;
+//  - disco (opcional): um arquivo por chave em <diretório>/<2 primeiros hex>/<chave>.pdf, gravado em arquivo
+//    temporário + move atômico. Na abertura, os arquivos existentes entram em ordem de última modificação.
+// Requisições simultâneas do mesmo boleto ainda fora do cache geram o PDF uma única vez.
+public class CachePDF {
+
+    public static final long MAXIMO_BYTES_MEMORIA_PADRAO = 64L * 1024 * 1024;
+
+    private static final String EXTENSAO = ".pdf";
+
+    private final long maximoBytesMemoria;
+    private final Path diretorio; // null = sem camada em disco
+    private final long maximoBytesDisco;
+
+    private final LinkedHashMap<String, byte[]> memoria = new LinkedHashMap<>(256, 0.75f, true); // Protegido por 'memoria'
+    private long bytesMemoria;
+    private final LinkedHashMap<String, Long> disco = new LinkedHashMap<>(256, 0.75f, true); // Tamanhos; protegido por 'disco'
+    private long bytesDisco;
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> emGeracao = new ConcurrentHashMap<>();
+
+    private final LongAdder acertosMemoria = new LongAdder();
+    private final LongAdder acertosDisco = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder removidasMemoria = new LongAdder();
+    private final LongAdder removidasDisco = new LongAdder();
+
+    // Só em memória, com o limite padrão
+    public CachePDF() {
+        this(MAXIMO_BYTES_MEMORIA_PADRAO);
+    }
+
+    // Só em memória
+    public CachePDF(long maximoBytesMemoria) {
+        if (maximoBytesMemoria < 0) {
+            throw new IllegalArgumentException("Limite de memória do cache deve ser >= 0: " + maximoBytesMemoria);
+        }
+        this.maximoBytesMemoria = maximoBytesMemoria;
+        this.diretorio = null;
+        this.maximoBytesDisco = 0;
+    }
+
+    /**
+     * Cache em memória e em disco.
+     * @param maximoBytesMemoria Limite da camada em memória (0 = só disco).
+     * @param diretorio Diretório da camada em disco (criado se não existir); PDFs de execuções anteriores são reaproveitados.
+     * @param maximoBytesDisco Limite da camada em disco.
+     * @throws IOException Se o diretório não puder ser criado ou lido.
+     */
+    public CachePDF(long maximoBytesMemoria, Path diretorio, long maximoBytesDisco) throws IOException {
+        Objects.requireNonNull(diretorio, "O diretório do cache não pode ser nulo.");
+        if (maximoBytesMemoria < 0 || maximoBytesDisco < 1) {
+            throw new IllegalArgumentException("Limites do cache inválidos: memória=" + maximoBytesMemoria + ", disco=" + maximoBytesDisco);
+        }
+        this.maximoBytesMemoria = maximoBytesMemoria;
+        this.diretorio = diretorio;
+        this.maximoBytesDisco = maximoBytesDisco;
+        Files.createDirectories(diretorio);
+        carregarDisco();
+    }
+
+    /**
+     * Chave do boleto no cache: SHA-256 (64 caracteres hex) do conteúdo impresso no PDF e da versão do layout.
+     */
+    public static String chave(Boleto boleto) {
+        Objects.requireNonNull(boleto, "Boleto não pode ser nulo.");
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e); // Obrigatório em toda JVM
+        }
+        campo(sha, String.valueOf(BoletoPDFExporter.VERSAO_LAYOUT));
+        Banco banco = boleto.getBanco();
+        if (banco != null) {
+            campo(sha, banco.getCodigoBanco());
+            campo(sha, banco.getNomeBanco());
+            campo(sha, banco.getAgencia());
+            campo(sha, banco.getContaCorrente());
+            campo(sha, banco.getCarteira());
+        } else {
+            campo(sha, null);
+        }
+        campo(sha, boleto.getCodigoBarras());
+        campo(sha, boleto.getNossoNumero());
+        campo(sha, boleto.getNumeroDocumento());
+        campo(sha, String.valueOf(boleto.getValorCentavos()));
+        campo(sha, boleto.getDataVencimento() != null ? boleto.getDataVencimento().toString() : null);
+        campo(sha, boleto.getDataDocumento() != null ? boleto.getDataDocumento().toString() : null);
+        pessoa(sha, boleto.getSacado());
+        pessoa(sha, boleto.getBeneficiario());
+        campo(sha, boleto.getInstrucoes());
+        return HexFormat.of().formatHex(sha.digest());
+    }
+
+    /**
+     * PDF do boleto: da memória, do disco ou gerado agora (e guardado nas duas camadas).
+     * O array devolvido é compartilhado com o cache e com outras chamadas: não o altere.
+     * @throws IOException Se a geração do PDF falhar.
+     */
+    public byte[] obter(Boleto boleto) throws IOException {
+        String chave = chave(boleto);
+        byte[] pdf = daMemoria(chave);
+        if (pdf != null) {
+            acertosMemoria.increment();
+            return pdf;
+        }
+        CompletableFuture<byte[]> minha = new CompletableFuture<>();
+        CompletableFuture<byte[]> outra = emGeracao.putIfAbsent(chave, minha);
+        if (outra != null) {
+            pdf = aguardar(outra); // Outra thread já está buscando ou gerando o mesmo PDF
+            acertosMemoria.increment();
+            return pdf;
+        }
+        try {
+            pdf = daMemoria(chave); // Pode ter ficado pronto entre a primeira consulta e o putIfAbsent
+            if (pdf != null) {
+                acertosMemoria.increment();
+            } else if ((pdf = doDisco(chave)) != null) {
+                acertosDisco.increment();
+                guardarNaMemoria(chave, pdf);
+            } else {
+                pdf = BoletoPDFExporter.exportarParaBytes(boleto);
+                faltas.increment();
+                guardarNaMemoria(chave, pdf);
+                guardarNoDisco(chave, pdf);
+            }
+            minha.complete(pdf);
+            return pdf;
+        } catch (IOException | RuntimeException e) {
+            minha.completeExceptionally(e);
+            throw e;
+        } finally {
+            emGeracao.remove(chave, minha);
+        }
+    }
+
+    /**
+     * PDF do boleto se já estiver no cache (memória ou disco), sem gerar. Útil para responder sem esperar vaga de geração.
+     * @return PDF (não altere o array), ou null se não estiver no cache.
+     */
+    public byte[] procurar(Boleto boleto) {
+        String chave = chave(boleto);
+        byte[] pdf = daMemoria(chave);
+        if (pdf != null) {
+            acertosMemoria.increment();
+            return pdf;
+        }
+        pdf = doDisco(chave);
+        if (pdf != null) {
+            acertosDisco.increment();
+            guardarNaMemoria(chave, pdf);
+        }
+        return pdf;
+    }
+
+    // Mesmo que obter(...), escrevendo o PDF no stream (que não é fechado)
+    public void escrever(Boleto boleto, OutputStream destino) throws IOException {
+        Objects.requireNonNull(destino, "O OutputStream de destino não pode ser nulo.");
+        destino.write(obter(boleto));
+        destino.flush();
+    }
+
+    public EstatisticasCachePDF getEstatisticas() {
+        long entradasMemoria, bytesMem, entradasDisco, bytesDsc;
+        synchronized (memoria) {
+            entradasMemoria = memoria.size();
+            bytesMem = bytesMemoria;
+        }
+        synchronized (disco) {
+            entradasDisco = disco.size();
+            bytesDsc = bytesDisco;
+        }
+        return new EstatisticasCachePDF(acertosMemoria.sum(), acertosDisco.sum(), faltas.sum(), entradasMemoria, bytesMem,
+                entradasDisco, bytesDsc, removidasMemoria.sum(), removidasDisco.sum());
+    }
+
+    private byte[] daMemoria(String chave) {
+        synchronized (memoria) {
+            return memoria.get(chave);
+        }
+    }
+
+    private void guardarNaMemoria(String chave, byte[] pdf) {
+        if (pdf.length > maximoBytesMemoria) {
+            return; // Não cabe: ficaria sozinho e expulsaria todos os outros
+        }
+        synchronized (memoria) {
+            byte[] anterior = memoria.put(chave, pdf);
+            bytesMemoria += pdf.length - (anterior != null ? anterior.length : 0);
+            Iterator<byte[]> it = memoria.values().iterator(); // Do menos para o mais usado recentemente
+            while (bytesMemoria > maximoBytesMemoria && it.hasNext()) {
+                bytesMemoria -= it.next().length;
+                it.remove();
+                removidasMemoria.increment();
+            }
+        }
+    }
+
+    private byte[] doDisco(String chave) {
+        if (diretorio == null) {
+            return null;
+        }
+        synchronized (disco) {
+            if (disco.get(chave) == null) { // get() também marca como usado recentemente
+                return null;
+            }
+        }
+        Path arquivo = arquivo(chave);
+        try {
+            byte[] pdf = Files.readAllBytes(arquivo);
+            Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis())); // Ordem LRU para a próxima abertura
+            return pdf;
+        } catch (NoSuchFileException e) {
+            esquecerDoDisco(chave); // Descartado por outra thread (ou apagado por fora) entre a consulta e a leitura
+            return null;
+        } catch (IOException e) {
+            System.err.println("AVISO: Falha ao ler PDF do cache em disco (" + arquivo + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Falha ao gravar no disco não impede a entrega do PDF: só deixa de ficar em cache
+    private void guardarNoDisco(String chave, byte[] pdf) {
+        if (diretorio == null || pdf.length > maximoBytesDisco) {
+            return;
+        }
+        Path arquivo = arquivo(chave);
+        Path temporario = arquivo.resolveSibling(chave + ".tmp-" + Thread.currentThread().threadId());
+        try {
+            Files.createDirectories(arquivo.getParent());
+            Files.write(temporario, pdf);
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("AVISO: Falha ao gravar PDF no cache em disco (" + arquivo + "): " + e.getMessage());
+            try {
+                Files.deleteIfExists(temporario);
+            } catch (IOException ignorada) {
+                // Sobra um .tmp, apagado na próxima abertura
+            }
+            return;
+        }
+        List<String> descartadas = new ArrayList<>();
+        synchronized (disco) {
+            Long anterior = disco.put(chave, (long) pdf.length);
+            bytesDisco += pdf.length - (anterior != null ? anterior : 0);
+            descartarExcedenteDisco(descartadas);
+        }
+        apagar(descartadas);
+    }
+
+    // Chamado com 'disco' travado: retira as menos usadas até caber no limite
+    private void descartarExcedenteDisco(List<String> descartadas) {
+        Iterator<Map.Entry<String, Long>> it = disco.entrySet().iterator();
+        while (bytesDisco > maximoBytesDisco && it.hasNext()) {
+            Map.Entry<String, Long> e = it.next();
+            bytesDisco -= e.getValue();
+            descartadas.add(e.getKey());
+            it.remove();
+            removidasDisco.increment();
+        }
+    }
+
+    private void esquecerDoDisco(String chave) {
+        synchronized (disco) {
+            Long tamanho = disco.remove(chave);
+            if (tamanho != null) bytesDisco -= tamanho;
+        }
+    }
+
+    private void apagar(List<String> chaves) {
+        for (String chave : chaves) {
+            try {
+                Files.deleteIfExists(arquivo(chave));
+            } catch (IOException e) {
+                System.err.println("AVISO: Falha ao apagar PDF do cache em disco: " + e.getMessage());
+            }
+        }
+    }
+
+    // Índice da camada em disco a partir dos arquivos existentes, do menos para o mais recentemente usado
+    private void carregarDisco() throws IOException {
+        List<Path> arquivos;
+        try (Stream<Path> s = Files.walk(diretorio, 2)) {
+            arquivos = s.filter(Files::isRegularFile).toList();
+        }
+        List<Object[]> validos = new ArrayList<>(); // {chave, tamanho, modificação}
+        for (Path a : arquivos) {
+            String nome = a.getFileName().toString();
+            if (nome.contains(".tmp-")) {
+                Files.deleteIfExists(a); // Gravação interrompida
+            } else if (nome.length() == 64 + EXTENSAO.length() && nome.endsWith(EXTENSAO)) {
+                validos.add(new Object[]{nome.substring(0, 64), Files.size(a), Files.getLastModifiedTime(a)});
+            }
+        }
+        validos.sort(Comparator.comparing(v -> (FileTime) v[2]));
+        List<String> descartadas = new ArrayList<>();
+        synchronized (disco) {
+            for (Object[] v : validos) {
+                disco.put((String) v[0], (Long) v[1]);
+                bytesDisco += (Long) v[1];
+            }
+            descartarExcedenteDisco(descartadas);
+        }
+        apagar(descartadas);
+    }
+
+    private Path arquivo(String chave) {
+        return diretorio.resolve(chave.substring(0, 2)).resolve(chave + EXTENSAO);
+    }
+
+    private static byte[] aguardar(CompletableFuture<byte[]> futuro) throws IOException {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException re) throw re;
+            throw new IOException("Falha na geração do PDF (em outra requisição do mesmo boleto).", causa);
+        }
+    }
+
+    private static void pessoa(MessageDigest sha, Pessoa p) {
+        if (p == null) {
+            campo(sha, null);
+            return;
+        }
+        campo(sha, p.getNome());
+        campo(sha, p.getDocumento());
+        Endereco e = p.getEndereco();
+        if (e == null) {
+            campo(sha, null);
+            return;
+        }
+        campo(sha, e.getLogradouro());
+        campo(sha, e.getBairro());
+        campo(sha, e.getCep());
+        campo(sha, e.getCidade());
+        campo(sha, e.getUf());
+    }
+
+    // Campo + separador (0x1F); null vira um byte 0x00, diferente de texto vazio
+    private static void campo(MessageDigest sha, String valor) {
+        if (valor == null) {
+            sha.update((byte) 0);
+        } else {
+            sha.update(valor.getBytes(StandardCharsets.UTF_8));
+        }
+        sha.update((byte) 0x1F);
+    }
+}
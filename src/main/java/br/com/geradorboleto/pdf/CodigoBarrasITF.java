@@ -0,0 +1,139 @@
+package br.com.geradorboleto.pdf;
+
+// Imports da biblioteca iText 7 (kernel)
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+
+import java.util.Objects;
+
+// Código de barras Interleaved 2 of 5 (ITF), padrão FEBRABAN para boletos, desenhado como retângulos
+// vetoriais no PdfCanvas (sem imagem e sem biblioteca de código de barras).
+// Cada par de dígitos vira 5 barras (1º dígito) intercaladas com 5 espaços (2º dígito); as larguras de
+// todos os 100 pares ficam numa tabela pré-calculada.
+public class CodigoBarrasITF {
+
+    // Dimensões FEBRABAN: 44 dígitos em ~103 mm de largura e 13 mm de altura
+    public static final float LARGURA_FINA_PADRAO = 0.72f; // pt (~0,254 mm)
+    public static final float ALTURA_PADRAO = 36.85f; // pt (13 mm)
+    public static final int RAZAO_LARGA = 3; // Barra larga = 3x a fina
+
+    // Padrões dos dígitos 0-9: true = elemento largo (5 elementos por dígito, 2 largos)
+    private static final boolean[][] PADROES_DIGITOS = {
+            {false, false, true, true, false},  // 0: NNWWN
+            {true, false, false, false, true},  // 1: WNNNW
+            {false, true, false, false, true},  // 2: NWNNW
+            {true, true, false, false, false},  // 3: WWNNN
+            {false, false, true, false, true},  // 4: NNWNW
+            {true, false, true, false, false},  // 5: WNWNN
+            {false, true, true, false, false},  // 6: NWWNN
+            {false, false, false, true, true},  // 7: NNNWW
+            {true, false, false, true, false},  // 8: WNNWN
+            {false, true, false, true, false}   // 9: NWNWN
+    };
+
+    // PARES[10 * a + b] = larguras (em unidades finas) de barra/espaço/barra/espaço... do par "ab"
+    private static final byte[][] PARES = new byte[100][10];
+    // Soma das larguras de cada par (sempre 2 * (2*3 + 3*1) = 18 com razão 3)
+    private static final int UNIDADES_POR_PAR;
+
+    // Guarda inicial: barra fina, espaço fino, barra fina, espaço fino. Guarda final: barra larga, espaço fino, barra fina.
+    private static final byte[] INICIO = {1, 1, 1, 1};
+    private static final byte[] FIM = {RAZAO_LARGA, 1, 1};
+
+    static {
+        for (int a = 0; a < 10; a++) {
+            for (int b = 0; b < 10; b++) {
+                byte[] par = PARES[10 * a + b];
+                for (int i = 0; i < 5; i++) {
+                    par[2 * i] = (byte) (PADROES_DIGITOS[a][i] ? RAZAO_LARGA : 1); // Barra
+                    par[2 * i + 1] = (byte) (PADROES_DIGITOS[b][i] ? RAZAO_LARGA : 1); // Espaço
+                }
+            }
+        }
+        int soma = 0;
+        for (byte w : PARES[0]) soma += w;
+        UNIDADES_POR_PAR = soma;
+    }
+
+    private CodigoBarrasITF() {}
+
+    /**
+     * Largura total do código de barras (guardas incluídas).
+     * @param quantidadeDigitos Quantidade de dígitos (par).
+     * @param larguraFina Largura da barra fina, em pt.
+     */
+    public static float largura(int quantidadeDigitos, float larguraFina) {
+        return (INICIO.length + (quantidadeDigitos / 2) * UNIDADES_POR_PAR + RAZAO_LARGA + 2) * larguraFina;
+    }
+
+    /**
+     * Desenha o código de barras com o canto inferior esquerdo em (x, y).
+     * As barras são acumuladas em um único caminho e preenchidas com uma só operação de fill.
+     * @param canvas Canvas de destino (a cor de preenchimento atual é usada para as barras).
+     * @param codigo Dígitos a codificar (quantidade par, ex: os 44 do código de barras do boleto).
+     * @param larguraFina Largura da barra fina, em pt.
+     * @param altura Altura das barras, em pt.
+     */
+    public static void desenhar(PdfCanvas canvas, CharSequence codigo, float x, float y, float larguraFina, float altura) {
+        Objects.requireNonNull(canvas, "O canvas não pode ser nulo.");
+        validar(codigo);
+
+        float pos = desenharElementos(canvas, INICIO, x, y, larguraFina, altura);
+        for (int i = 0; i < codigo.length(); i += 2) {
+            int par = 10 * (codigo.charAt(i) - '0') + (codigo.charAt(i + 1) - '0');
+            pos = desenharElementos(canvas, PARES[par], pos, y, larguraFina, altura);
+        }
+        desenharElementos(canvas, FIM, pos, y, larguraFina, altura);
+        canvas.fill();
+    }
+
+    // Desenha com as dimensões FEBRABAN
+    public static void desenhar(PdfCanvas canvas, CharSequence codigo, float x, float y) {
+        desenhar(canvas, codigo, x, y, LARGURA_FINA_PADRAO, ALTURA_PADRAO);
+    }
+
+    /**
+     * Cria um Form XObject com o código de barras, para uso em layouts (ex: new Image(xobject)).
+     * @param pdf Documento ao qual o XObject pertence.
+     * @param codigo Dígitos a codificar (quantidade par).
+     */
+    public static PdfFormXObject criarXObject(PdfDocument pdf, CharSequence codigo, float larguraFina, float altura) {
+        validar(codigo);
+        PdfFormXObject xobj = new PdfFormXObject(new Rectangle(largura(codigo.length(), larguraFina), altura));
+        PdfCanvas canvas = new PdfCanvas(xobj, pdf);
+        desenhar(canvas, codigo, 0, 0, larguraFina, altura);
+        canvas.release();
+        return xobj;
+    }
+
+    public static PdfFormXObject criarXObject(PdfDocument pdf, CharSequence codigo) {
+        return criarXObject(pdf, codigo, LARGURA_FINA_PADRAO, ALTURA_PADRAO);
+    }
+
+    // Elementos alternados começando por barra; retorna a posição x após o último elemento
+    private static float desenharElementos(PdfCanvas canvas, byte[] larguras, float x, float y, float larguraFina, float altura) {
+        for (int i = 0; i < larguras.length; i++) {
+            float w = larguras[i] * larguraFina;
+            if ((i & 1) == 0) {
+                canvas.rectangle(x, y, w, altura);
+            }
+            x += w;
+        }
+        return x;
+    }
+
+    private static void validar(CharSequence codigo) {
+        Objects.requireNonNull(codigo, "O código para o código de barras não pode ser nulo.");
+        if (codigo.length() == 0 || codigo.length() % 2 != 0) {
+            throw new IllegalArgumentException("Interleaved 2 of 5 exige quantidade par de dígitos: " + codigo.length());
+        }
+        for (int i = 0; i < codigo.length(); i++) {
+            char c = codigo.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Código de barras contém caractere não numérico: " + codigo);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.geradorboleto.pdf;
+
+// Imports da biblioteca iText 7 (apenas kernel: sem o layout engine)
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+
+// Imports do modelo
+import br.com.geradorboleto.lote.DestinoBoleto;
+import br.com.geradorboleto.model.Boleto;
+
+// Imports Java padrão
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+
+// Um único PDF com muitos boletos (ex: 100 mil para uma gráfica), em memória constante: cada boleto é desenhado
+// pelo BoletoTemplatePDF (moldura do banco em Form XObject + campos via PdfCanvas, sem layout engine) e cada página
+// é gravada no arquivo (flush) assim que fica completa, então o heap não cresce com a quantidade de páginas.
+// As fontes e as molduras são objetos únicos do documento, referenciados por todas as páginas.
+// Os boletos entram em ordem; adicionar(...) é sincronizado para uso como destino de um lote paralelo.
+public class DocumentoLotePDF implements Closeable {
+
+    public static final int MAXIMO_FICHAS_POR_PAGINA = 2; // 2 x 312pt + espaço de corte cabem no A4
+    private static final float ESPACO_ENTRE_FICHAS = 40f;
+    private static final int TAMANHO_BUFFER = 256 * 1024;
+
+    private final PdfWriter writer;
+    private final PdfDocument pdf;
+    private final BoletoTemplatePDF template;
+    private final int fichasPorPagina;
+    private final long inicio = System.nanoTime();
+
+    private PdfPage pagina; // Página em preenchimento (ainda não gravada)
+    private PdfCanvas canvas;
+    private long boletos;
+    private long paginas;
+    private boolean fechado;
+    private ResumoDocumentoPDF resumo;
+
+    /**
+     * Cria o documento gravando no arquivo informado (sobrescreve se existir).
+     * @param fichasPorPagina 1 ou 2 boletos por página A4.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public static DocumentoLotePDF criar(Path arquivo, int fichasPorPagina) throws IOException {
+        Objects.requireNonNull(arquivo, "O arquivo do documento não pode ser nulo.");
+        OutputStream saida = new BufferedOutputStream(Files.newOutputStream(arquivo), TAMANHO_BUFFER);
+        try {
+            return new DocumentoLotePDF(saida, fichasPorPagina, true);
+        } catch (IOException | RuntimeException e) {
+            saida.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Cria o documento gravando no stream informado, que NÃO é fechado no close().
+     * @param fichasPorPagina 1 ou 2 boletos por página A4.
+     */
+    public DocumentoLotePDF(OutputStream destino, int fichasPorPagina) throws IOException {
+        this(destino, fichasPorPagina, false);
+    }
+
+    private DocumentoLotePDF(OutputStream destino, int fichasPorPagina, boolean fecharDestino) throws IOException {
+        Objects.requireNonNull(destino, "O OutputStream de destino não pode ser nulo.");
+        if (fichasPorPagina < 1 || fichasPorPagina > MAXIMO_FICHAS_POR_PAGINA) {
+            throw new IllegalArgumentException("Fichas por página deve estar entre 1 e " + MAXIMO_FICHAS_POR_PAGINA + ": " + fichasPorPagina);
+        }
+        this.fichasPorPagina = fichasPorPagina;
+        this.writer = new PdfWriter(destino);
+        writer.setCloseStream(fecharDestino);
+        this.pdf = new PdfDocument(writer);
+        this.template = new BoletoTemplatePDF(pdf);
+    }
+
+    /**
+     * Exporta todos os boletos para um único arquivo PDF, consumindo o Iterable aos poucos (pode ser gerado sob demanda).
+     * @return Totais e páginas por segundo.
+     * @throws IOException Se ocorrer um erro na escrita do arquivo.
+     */
+    public static ResumoDocumentoPDF exportar(Iterable<Boleto> boletos, Path arquivo, int fichasPorPagina) throws IOException {
+        Objects.requireNonNull(boletos, "Os boletos do documento não podem ser nulos.");
+        DocumentoLotePDF documento = criar(arquivo, fichasPorPagina);
+        try (documento) {
+            Iterator<Boleto> it = boletos.iterator();
+            while (it.hasNext()) {
+                documento.adicionar(it.next());
+            }
+        }
+        System.out.println("INFO: " + documento.getResumo() + " -> " + arquivo);
+        return documento.getResumo();
+    }
+
+    /**
+     * Acrescenta o boleto ao documento (na próxima posição livre da página atual ou numa página nova).
+     * @throws IOException Se a gravação da página anterior falhar.
+     * @throws IllegalArgumentException Se o boleto estiver incompleto (ver BoletoTemplatePDF).
+     */
+    public synchronized void adicionar(Boleto boleto) throws IOException {
+        if (fechado) {
+            throw new IllegalStateException("Documento PDF já foi fechado.");
+        }
+        BoletoTemplatePDF.validar(boleto);
+        int posicao = (int) (boletos % fichasPorPagina);
+        try {
+            if (posicao == 0) {
+                gravarPagina();
+                pagina = pdf.addNewPage(PageSize.A4);
+                canvas = new PdfCanvas(pagina);
+                paginas++;
+            }
+            float y = pagina.getPageSize().getHeight() - BoletoTemplatePDF.MARGEM - BoletoTemplatePDF.ALTURA
+                    - posicao * (BoletoTemplatePDF.ALTURA + ESPACO_ENTRE_FICHAS);
+            template.desenhar(canvas, boleto, BoletoTemplatePDF.MARGEM, y);
+            boletos++;
+        } catch (RuntimeException e) {
+            throw new IOException("Erro inesperado ao adicionar o boleto " + (boletos + 1) + " ao documento PDF.", e);
+        }
+    }
+
+    /**
+     * Etapa de lote que acrescenta cada boleto ao documento depois do destino informado. Com um lote paralelo,
+     * os boletos entram na ordem em que ficam prontos, não na ordem da entrada.
+     * @param proximo Destino executado antes do documento; pode ser null.
+     */
+    public DestinoBoleto destino(DestinoBoleto proximo) {
+        return (indice, entrada, boleto) -> {
+            if (proximo != null) {
+                proximo.gravar(indice, entrada, boleto);
+            }
+            adicionar(boleto);
+        };
+    }
+
+    public synchronized long getBoletos() { return boletos; }
+    public synchronized long getPaginas() { return paginas; }
+
+    // Bytes já gravados no destino (as páginas completas; o restante vai no close())
+    public synchronized long getBytesGravados() { return writer.getCurrentPos(); }
+
+    // Totais após o close(); null enquanto o documento estiver aberto
+    public synchronized ResumoDocumentoPDF getResumo() { return resumo; }
+
+    // Grava a última página, as fontes, molduras e a tabela de referências, e fecha o documento
+    @Override
+    public synchronized void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        try {
+            gravarPagina();
+            pdf.close();
+        } catch (RuntimeException e) {
+            throw new IOException("Erro inesperado ao finalizar o documento PDF.", e);
+        }
+        resumo = new ResumoDocumentoPDF(boletos, paginas, writer.getCurrentPos(), Duration.ofNanos(System.nanoTime() - inicio));
+    }
+
+    // Grava a página atual e libera seu conteúdo da memória; as fontes e molduras (recursos) ficam para o close()
+    private void gravarPagina() {
+        if (pagina != null) {
+            canvas.release();
+            pagina.flush();
+            pagina = null;
+            canvas = null;
+        }
+    }
+}
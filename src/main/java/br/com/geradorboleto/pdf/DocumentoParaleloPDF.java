@@ -0,0 +1,185 @@
+package br.com.geradorboleto.pdf;
+
+// Imports da biblioteca iText 7
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+
+// Imports do modelo
+import br.com.geradorboleto.model.Boleto;
+
+// Imports Java padrão
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Um único PDF com muitos boletos usando vários núcleos: um PdfDocument só pode ser escrito por uma thread, então os
+// boletos são divididos em fatias consecutivas, cada fatia vira um fragmento PDF em memória numa thread de trabalho
+// (com o DocumentoLotePDF) e a thread chamadora junta os fragmentos NA ORDEM no arquivo final (PdfMerger), gravando
+// as páginas copiadas logo em seguida. No máximo 2x o paralelismo de fragmentos fica em memória ao mesmo tempo.
+// Cada fragmento traz a sua cópia das fontes e molduras, então o arquivo final é um pouco maior que o do
+// DocumentoLotePDF; fragmentos maiores diluem essa diferença (e usam mais memória).
+public class DocumentoParaleloPDF {
+
+    public static final int PAGINAS_POR_FRAGMENTO_PADRAO = 250;
+    private static final int BYTES_POR_FICHA_ESTIMADO = 1024; // Tamanho inicial do buffer de cada fragmento
+    private static final int TAMANHO_BUFFER = 256 * 1024;
+
+    private final int paralelismo;
+    private final int paginasPorFragmento;
+    private final int fichasPorPagina;
+
+    // Uma thread por núcleo disponível, 2 boletos por página
+    public DocumentoParaleloPDF() {
+        this(Runtime.getRuntime().availableProcessors(), PAGINAS_POR_FRAGMENTO_PADRAO, DocumentoLotePDF.MAXIMO_FICHAS_POR_PAGINA);
+    }
+
+    /**
+     * @param paralelismo Número de threads que desenham fragmentos. Deve ser >= 1.
+     * @param paginasPorFragmento Páginas de cada fragmento (todas cheias, exceto no último). Deve ser >= 1.
+     * @param fichasPorPagina 1 ou 2 boletos por página A4.
+     */
+    public DocumentoParaleloPDF(int paralelismo, int paginasPorFragmento, int fichasPorPagina) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("Paralelismo deve ser maior ou igual a 1: " + paralelismo);
+        }
+        if (paginasPorFragmento < 1) {
+            throw new IllegalArgumentException("Páginas por fragmento deve ser maior ou igual a 1: " + paginasPorFragmento);
+        }
+        if (fichasPorPagina < 1 || fichasPorPagina > DocumentoLotePDF.MAXIMO_FICHAS_POR_PAGINA) {
+            throw new IllegalArgumentException("Fichas por página deve estar entre 1 e " + DocumentoLotePDF.MAXIMO_FICHAS_POR_PAGINA + ": " + fichasPorPagina);
+        }
+        this.paralelismo = paralelismo;
+        this.paginasPorFragmento = paginasPorFragmento;
+        this.fichasPorPagina = fichasPorPagina;
+    }
+
+    public int getParalelismo() { return paralelismo; }
+    public int getPaginasPorFragmento() { return paginasPorFragmento; }
+    public int getFichasPorPagina() { return fichasPorPagina; }
+
+    /**
+     * Exporta todos os boletos, na ordem do Iterable, para um único arquivo PDF (sobrescreve se existir).
+     * @return Totais e páginas por segundo.
+     * @throws IOException Se ocorrer um erro ao desenhar um fragmento ou ao gravar o arquivo.
+     */
+    public ResumoDocumentoPDF exportar(Iterable<Boleto> boletos, Path arquivo) throws IOException {
+        Objects.requireNonNull(arquivo, "O arquivo do documento não pode ser nulo.");
+        ResumoDocumentoPDF resumo;
+        try (OutputStream saida = new BufferedOutputStream(Files.newOutputStream(arquivo), TAMANHO_BUFFER)) {
+            resumo = exportar(boletos, saida);
+        }
+        System.out.println("INFO: " + resumo + " com " + paralelismo + " threads -> " + arquivo);
+        return resumo;
+    }
+
+    /**
+     * Exporta todos os boletos, na ordem do Iterable, para o stream informado (que NÃO é fechado).
+     * O Iterable é consumido aos poucos: só as fatias dos fragmentos em andamento ficam em memória.
+     * @return Totais e páginas por segundo.
+     * @throws IOException Se ocorrer um erro ao desenhar um fragmento ou ao gravar no stream.
+     */
+    public ResumoDocumentoPDF exportar(Iterable<Boleto> boletos, OutputStream destino) throws IOException {
+        Objects.requireNonNull(boletos, "Os boletos do documento não podem ser nulos.");
+        Objects.requireNonNull(destino, "O OutputStream de destino não pode ser nulo.");
+        long inicio = System.nanoTime();
+        int boletosPorFragmento = paginasPorFragmento * fichasPorPagina;
+        int maxEmAndamento = paralelismo * 2;
+
+        PdfWriter writer = new PdfWriter(destino);
+        writer.setCloseStream(false);
+        PdfDocument pdf = new PdfDocument(writer);
+        PdfMerger merger = new PdfMerger(pdf, false, false); // Boletos não têm estrutura (tags) nem marcadores
+        ArrayDeque<Future<byte[]>> emAndamento = new ArrayDeque<>(maxEmAndamento);
+        long total = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(paralelismo,
+                Thread.ofPlatform().name("documento-pdf-", 1).daemon().factory());
+        try {
+            Iterator<Boleto> it = boletos.iterator();
+            while (it.hasNext()) {
+                List<Boleto> fatia = new ArrayList<>(boletosPorFragmento);
+                while (fatia.size() < boletosPorFragmento && it.hasNext()) {
+                    fatia.add(it.next());
+                }
+                long primeiro = total + 1;
+                total += fatia.size();
+                emAndamento.addLast(executor.submit(() -> desenharFragmento(fatia, primeiro)));
+                if (emAndamento.size() >= maxEmAndamento) {
+                    juntar(pdf, merger, aguardar(emAndamento.removeFirst()));
+                }
+            }
+            while (!emAndamento.isEmpty()) {
+                juntar(pdf, merger, aguardar(emAndamento.removeFirst()));
+            }
+            int paginas = pdf.getNumberOfPages();
+            pdf.close();
+            return new ResumoDocumentoPDF(total, paginas, writer.getCurrentPos(), Duration.ofNanos(System.nanoTime() - inicio));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IOException("Erro inesperado ao juntar os fragmentos do documento PDF.", e);
+        } finally {
+            for (Future<byte[]> f : emAndamento) {
+                f.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    // Executado nas threads de trabalho: a fatia inteira num PDF em memória
+    private byte[] desenharFragmento(List<Boleto> fatia, long primeiro) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(fatia.size() * BYTES_POR_FICHA_ESTIMADO);
+        try (DocumentoLotePDF documento = new DocumentoLotePDF(saida, fichasPorPagina)) {
+            for (Boleto boleto : fatia) {
+                documento.adicionar(boleto);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Boleto inválido no fragmento iniciado no boleto " + primeiro + ": " + e.getMessage(), e);
+        }
+        return saida.toByteArray();
+    }
+
+    // Copia as páginas do fragmento para o fim do documento e as grava (com as fontes e molduras da cópia)
+    private static void juntar(PdfDocument pdf, PdfMerger merger, byte[] fragmento) throws IOException {
+        int antes = pdf.getNumberOfPages();
+        try (PdfDocument origem = new PdfDocument(new PdfReader(new ByteArrayInputStream(fragmento)))) {
+            merger.merge(origem, 1, origem.getNumberOfPages());
+            // flush(true): os recursos copiados são exclusivos deste fragmento, então podem sair da memória junto
+            for (int i = antes + 1; i <= pdf.getNumberOfPages(); i++) {
+                pdf.getPage(i).flush(true);
+            }
+            // O PdfWriter guarda o mapa origem -> cópia de cada objeto copiado (que prende os objetos do fragmento)
+            pdf.flushCopiedObjects(origem);
+        }
+    }
+
+    private static byte[] aguardar(Future<byte[]> fragmento) throws IOException {
+        try {
+            return fragmento.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Geração do documento PDF interrompida.", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) throw io;
+            if (causa instanceof RuntimeException re) throw re;
+            throw new IOException("Erro ao desenhar fragmento do documento PDF.", causa);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.geradorboleto.pdf;
+
+// Fotografia dos contadores de um CachePDF (ver CachePDF.getEstatisticas())
+public class EstatisticasCachePDF {
+    private final long acertosMemoria;
+    private final long acertosDisco;
+    private final long faltas; // PDFs gerados por não estarem em nenhuma camada
+    private final long entradasMemoria;
+    private final long bytesMemoria;
+    private final long entradasDisco;
+    private final long bytesDisco;
+    private final long removidasMemoria; // Expulsas da memória por falta de espaço (continuam no disco, se houver)
+    private final long removidasDisco;
+
+    public EstatisticasCachePDF(long acertosMemoria, long acertosDisco, long faltas, long entradasMemoria, long bytesMemoria,
+                                long entradasDisco, long bytesDisco, long removidasMemoria, long removidasDisco) {
+        this.acertosMemoria = acertosMemoria;
+        this.acertosDisco = acertosDisco;
+        this.faltas = faltas;
+        this.entradasMemoria = entradasMemoria;
+        this.bytesMemoria = bytesMemoria;
+        this.entradasDisco = entradasDisco;
+        this.bytesDisco = bytesDisco;
+        this.removidasMemoria = removidasMemoria;
+        this.removidasDisco = removidasDisco;
+    }
+
+    public long getAcertosMemoria() { return acertosMemoria; }
+    public long getAcertosDisco() { return acertosDisco; }
+    public long getFaltas() { return faltas; }
+    public long getEntradasMemoria() { return entradasMemoria; }
+    public long getBytesMemoria() { return bytesMemoria; }
+    public long getEntradasDisco() { return entradasDisco; }
+    public long getBytesDisco() { return bytesDisco; }
+    public long getRemovidasMemoria() { return removidasMemoria; }
+    public long getRemovidasDisco() { return removidasDisco; }
+
+    public long getConsultas() {
+        return acertosMemoria + acertosDisco + faltas;
+    }
+
+    // Fração das consultas atendidas sem gerar o PDF (0 a 1)
+    public double getTaxaAcerto() {
+        long consultas = getConsultas();
+        return consultas > 0 ? (acertosMemoria + acertosDisco) / (double) consultas : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache de PDF: %d consultas, %.1f%% de acerto (%d memória, %d disco, %d gerados); "
+                        + "memória %d PDFs / %d bytes, disco %d PDFs / %d bytes; removidos %d da memória e %d do disco",
+                getConsultas(), getTaxaAcerto() * 100, acertosMemoria, acertosDisco, faltas,
+                entradasMemoria, bytesMemoria, entradasDisco, bytesDisco, removidasMemoria, removidasDisco);
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.geradorboleto.pdf;
+
+// Imports Java padrão
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Pool limitado de BufferPDF, seguro para uso concorrente (inclusive por threads virtuais, por isso
+// não usa ThreadLocal). Buffers que cresceram além da capacidade máxima retida são descartados na
+// devolução, para um PDF muito grande não prender memória no pool para sempre.
+public class PoolBufferPDF {
+
+    // Um boleto de uma página (fontes padrão, sem imagens) fica abaixo de 10 KB
+    public static final int CAPACIDADE_INICIAL_PADRAO = 16 * 1024;
+    public static final int CAPACIDADE_MAXIMA_RETIDA_PADRAO = 1024 * 1024;
+
+    private final ArrayBlockingQueue<BufferPDF> livres;
+    private final int capacidadeInicial;
+    private final int capacidadeMaximaRetida;
+
+    public PoolBufferPDF() {
+        this(Runtime.getRuntime().availableProcessors() * 2, CAPACIDADE_INICIAL_PADRAO, CAPACIDADE_MAXIMA_RETIDA_PADRAO);
+    }
+
+    /**
+     * @param maximoBuffers Quantidade máxima de buffers livres guardados no pool.
+     * @param capacidadeInicial Capacidade dos buffers novos, em bytes.
+     * @param capacidadeMaximaRetida Buffers maiores que isso não voltam para o pool.
+     */
+    public PoolBufferPDF(int maximoBuffers, int capacidadeInicial, int capacidadeMaximaRetida) {
+        if (maximoBuffers <= 0 || capacidadeInicial <= 0 || capacidadeMaximaRetida < capacidadeInicial) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o pool de buffers: maximo=" + maximoBuffers
+                    + ", inicial=" + capacidadeInicial + ", retida=" + capacidadeMaximaRetida);
+        }
+        this.livres = new ArrayBlockingQueue<>(maximoBuffers);
+        this.capacidadeInicial = capacidadeInicial;
+        this.capacidadeMaximaRetida = capacidadeMaximaRetida;
+    }
+
+    /**
+     * Retorna um buffer vazio (reaproveitado ou novo). Devolva com {@link BufferPDF#liberar()}.
+     */
+    public BufferPDF emprestar() {
+        BufferPDF buffer = livres.poll();
+        if (buffer == null) {
+            buffer = new BufferPDF(capacidadeInicial, this);
+        } else {
+            buffer.reset();
+        }
+        buffer.marcarEmprestado();
+        return buffer;
+    }
+
+    // Chamado por BufferPDF.liberar(); se o pool estiver cheio o buffer é simplesmente descartado
+    void devolver(BufferPDF buffer) {
+        if (buffer.capacidade() <= capacidadeMaximaRetida) {
+            buffer.reset();
+            livres.offer(buffer);
+        }
+    }
+
+    // Quantidade de buffers livres no momento
+    public int disponiveis() {
+        return livres.size();
+    }
+}
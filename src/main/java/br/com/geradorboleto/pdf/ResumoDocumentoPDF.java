@@ -0,0 +1,34 @@
+package br.com.geradorboleto.pdf;
+
+import java.time.Duration;
+
+// Resultado da geração de um documento com muitos boletos pelo DocumentoLotePDF
+public class ResumoDocumentoPDF {
+    private final long boletos;
+    private final long paginas;
+    private final long bytes;
+    private final Duration duracao;
+
+    public ResumoDocumentoPDF(long boletos, long paginas, long bytes, Duration duracao) {
+        this.boletos = boletos;
+        this.paginas = paginas;
+        this.bytes = bytes;
+        this.duracao = duracao;
+    }
+
+    public long getBoletos() { return boletos; }
+    public long getPaginas() { return paginas; }
+    public long getBytes() { return bytes; }
+    public Duration getDuracao() { return duracao; }
+
+    public double getPaginasPorSegundo() {
+        long nanos = duracao.toNanos();
+        return nanos > 0 ? paginas * 1_000_000_000.0 / nanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Documento PDF: %d boletos em %d páginas (%d bytes) em %.3f s -> %.0f páginas/s",
+                boletos, paginas, bytes, duracao.toNanos() / 1_000_000_000.0, getPaginasPorSegundo());
+    }
+}
@@ -0,0 +1,341 @@
+package br.com.geradorboleto.servidor;
+
+import br.com.geradorboleto.lote.EntradaBoleto;
+import br.com.geradorboleto.lote.EntradaJson;
+import br.com.geradorboleto.lote.Json;
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.pdf.BoletoPDFExporter;
+import br.com.geradorboleto.pdf.BufferPDF;
+import br.com.geradorboleto.pdf.CachePDF;
+import br.com.geradorboleto.pdf.EstatisticasCachePDF;
+import br.com.geradorboleto.pdf.PoolBufferPDF;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Serviço HTTP embutido (com.sun.net.httpserver, sem container) para gerar boletos sob demanda.
+//
+//   POST /boletos                  corpo: JSON da entrada (ver EntradaJson) -> application/pdf
+//   POST /boletos?formato=json     (ou "Accept: application/json") -> {"codigoBarras": ..., "linhaDigitavel": ...}
+//   GET  /saude                    -> contadores do serviço em JSON
+//
+// Cada requisição roda numa thread virtual, então milhares de conexões lentas não prendem threads de plataforma.
+// Conexões HTTP/1.1 são mantidas abertas e requisições enviadas em sequência sem esperar a resposta (pipelining)
+// são atendidas em ordem. Só a geração do PDF (uso intenso de CPU e memória) tem concorrência limitada, por um
+// Semaphore: o build() e a resposta JSON não esperam vaga, e o PDF é gerado num buffer do pool e a vaga é liberada
+// antes de enviar os bytes, para um cliente lento não segurar a vaga. Sem vaga dentro da espera máxima, a resposta
+// é 503 com Retry-After. Com um CachePDF, PDFs já gerados são servidos do cache sem ocupar vaga.
+public final class ServidorBoletos implements Closeable {
+
+    public static final int TAMANHO_MAXIMO_CORPO = 64 * 1024;
+    public static final Duration ESPERA_PDF_PADRAO = Duration.ofSeconds(5);
+
+    private static final String TIPO_JSON = "application/json; charset=utf-8";
+
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final Semaphore vagasPdf;
+    private final int maximoPdfs;
+    private final long esperaPdfNanos;
+    private final PoolBufferPDF poolBuffers;
+    private final CachePDF cache; // null = sem cache
+
+    private final AtomicLong requisicoes = new AtomicLong();
+    private final AtomicLong pdfsGerados = new AtomicLong();
+    private final AtomicLong jsonsGerados = new AtomicLong();
+    private final AtomicLong recusadas = new AtomicLong(); // 503 por falta de vaga para PDF
+    private final AtomicLong invalidas = new AtomicLong(); // 4xx
+    private final AtomicLong erros = new AtomicLong(); // 5xx
+
+    // Uma vaga de PDF por núcleo, escutando em todas as interfaces
+    public ServidorBoletos(int porta) throws IOException {
+        this(new InetSocketAddress(porta), Runtime.getRuntime().availableProcessors(), ESPERA_PDF_PADRAO);
+    }
+
+    /**
+     * Cria o servidor (ainda parado; ver iniciar()).
+     * @param endereco Endereço e porta (porta 0 = qualquer porta livre, ver getPorta()).
+     * @param maximoPdfs Quantidade máxima de PDFs gerados ao mesmo tempo.
+     * @param esperaPdf Tempo máximo de espera por uma vaga de PDF antes de responder 503.
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public ServidorBoletos(InetSocketAddress endereco, int maximoPdfs, Duration esperaPdf) throws IOException {
+        this(endereco, maximoPdfs, esperaPdf, null);
+    }
+
+    /**
+     * Cria o servidor com cache de PDFs: downloads repetidos do mesmo boleto são servidos do cache, sem esperar vaga.
+     * @param cache Cache de PDFs; pode ser null (sem cache).
+     */
+    public ServidorBoletos(InetSocketAddress endereco, int maximoPdfs, Duration esperaPdf, CachePDF cache) throws IOException {
+        Objects.requireNonNull(endereco, "O endereço do servidor não pode ser nulo.");
+        Objects.requireNonNull(esperaPdf, "A espera máxima por PDF não pode ser nula.");
+        if (maximoPdfs < 1) {
+            throw new IllegalArgumentException("Máximo de PDFs simultâneos deve ser maior ou igual a 1: " + maximoPdfs);
+        }
+        this.maximoPdfs = maximoPdfs;
+        this.vagasPdf = new Semaphore(maximoPdfs);
+        this.esperaPdfNanos = esperaPdf.toNanos();
+        this.cache = cache;
+        this.poolBuffers = new PoolBufferPDF(maximoPdfs * 2, PoolBufferPDF.CAPACIDADE_INICIAL_PADRAO, PoolBufferPDF.CAPACIDADE_MAXIMA_RETIDA_PADRAO);
+        this.servidor = HttpServer.create(endereco, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(executor);
+        servidor.createContext("/boletos", this::gerarBoleto);
+        servidor.createContext("/saude", this::saude);
+    }
+
+    /**
+     * Sobe o serviço pela linha de comando: ServidorBoletos [porta] [máximo de PDFs simultâneos] [diretório do cache].
+     * Roda até o processo ser encerrado. Sempre há cache de PDFs em memória; com o diretório, também em disco (1 GB).
+     */
+    public static void main(String[] args) throws IOException {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int maximoPdfs = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        CachePDF cache = args.length > 2
+                ? new CachePDF(CachePDF.MAXIMO_BYTES_MEMORIA_PADRAO, Path.of(args[2]), 1024L * 1024 * 1024)
+                : new CachePDF();
+        ServidorBoletos s = new ServidorBoletos(new InetSocketAddress(porta), maximoPdfs, ESPERA_PDF_PADRAO, cache);
+        s.iniciar();
+        Runtime.getRuntime().addShutdownHook(new Thread(s::close, "servidor-boletos-parada"));
+        System.out.println("Servidor de boletos em http://localhost:" + s.getPorta() + "/boletos (" + maximoPdfs + " PDFs simultâneos)");
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    public int getPorta() { return servidor.getAddress().getPort(); }
+    public int getMaximoPdfs() { return maximoPdfs; }
+    public long getRequisicoes() { return requisicoes.get(); }
+    public long getPdfsGerados() { return pdfsGerados.get(); }
+    public long getJsonsGerados() { return jsonsGerados.get(); }
+    public long getRecusadas() { return recusadas.get(); }
+
+    // Para de aceitar conexões, espera até 1 s pelas requisições em andamento e encerra as threads
+    @Override
+    public void close() {
+        servidor.stop(1);
+        executor.close();
+    }
+
+    private void gerarBoleto(HttpExchange troca) {
+        requisicoes.incrementAndGet();
+        try {
+            if (!"POST".equals(troca.getRequestMethod())) {
+                troca.getResponseHeaders().set("Allow", "POST");
+                responderErro(troca, 405, "Use POST com o JSON do boleto.");
+                return;
+            }
+            byte[] corpo = lerCorpo(troca.getRequestBody());
+            if (corpo == null) {
+                // O resto do corpo não é lido: o HttpServer descarta no máximo sun.net.httpserver.drainAmount bytes
+                // ao fechar a troca e encerra a conexão, então um corpo sem fim não prende a thread
+                troca.getResponseHeaders().set("Connection", "close");
+                responderErro(troca, 413, "Corpo maior que " + TAMANHO_MAXIMO_CORPO + " bytes.");
+                return;
+            }
+
+            EntradaBoleto entrada;
+            Boleto boleto;
+            try {
+                entrada = EntradaJson.ler(new String(corpo, StandardCharsets.UTF_8));
+                boleto = entrada.construir();
+            } catch (IllegalArgumentException | NullPointerException e) {
+                responderErro(troca, 400, e.getMessage());
+                return;
+            }
+
+            if (querJson(troca)) {
+                responderJson(troca, 200, json(entrada, boleto));
+                jsonsGerados.incrementAndGet();
+            } else {
+                responderPdf(troca, entrada, boleto);
+            }
+        } catch (IOException e) {
+            // Cliente desconectou ou falha de rede: não há a quem responder
+        } catch (Exception e) {
+            System.err.println("ERRO ao gerar boleto pela requisição HTTP: " + e.getMessage());
+            responderErroInterno(troca, e);
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void responderPdf(HttpExchange troca, EntradaBoleto entrada, Boleto boleto) throws IOException, InterruptedException {
+        String nome = entrada.getIdentificador() != null ? entrada.getIdentificador().replaceAll("[^A-Za-z0-9._-]", "_") : "boleto";
+        if (cache != null) {
+            byte[] pdf = cache.procurar(boleto); // Acerto no cache não ocupa vaga de geração
+            if (pdf == null) {
+                if (!reservarVagaPdf(troca)) {
+                    return;
+                }
+                try {
+                    pdf = cache.obter(boleto);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Falha na geração do PDF.", e); // Não é erro de rede: responde 500
+                } finally {
+                    vagasPdf.release();
+                }
+            }
+            enviarCabecalhosPdf(troca, nome, pdf.length);
+            troca.getResponseBody().write(pdf);
+            pdfsGerados.incrementAndGet();
+            return;
+        }
+
+        if (!reservarVagaPdf(troca)) {
+            return;
+        }
+        BufferPDF buffer = poolBuffers.emprestar();
+        try {
+            try {
+                BoletoPDFExporter.exportar(boleto, buffer);
+            } catch (IOException e) {
+                throw new IllegalStateException("Falha na geração do PDF.", e);
+            } finally {
+                vagasPdf.release();
+            }
+            enviarCabecalhosPdf(troca, nome, buffer.size());
+            buffer.writeTo(troca.getResponseBody());
+            pdfsGerados.incrementAndGet();
+        } finally {
+            buffer.liberar();
+        }
+    }
+
+    // Espera uma vaga de geração de PDF; sem vaga dentro do prazo, responde 503 e retorna false
+    private boolean reservarVagaPdf(HttpExchange troca) throws IOException, InterruptedException {
+        if (vagasPdf.tryAcquire(esperaPdfNanos, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        recusadas.incrementAndGet();
+        troca.getResponseHeaders().set("Retry-After", "1");
+        responderErro(troca, 503, "Limite de " + maximoPdfs + " PDFs simultâneos atingido; tente novamente.");
+        return false;
+    }
+
+    private static void enviarCabecalhosPdf(HttpExchange troca, String nome, long tamanho) throws IOException {
+        troca.getResponseHeaders().set("Content-Type", "application/pdf");
+        troca.getResponseHeaders().set("Content-Disposition", "inline; filename=\"" + nome + ".pdf\"");
+        troca.sendResponseHeaders(200, tamanho);
+    }
+
+    private void saude(HttpExchange troca) throws IOException {
+        try (troca) {
+            StringBuilder sb = new StringBuilder("{");
+            sb.append("\"requisicoes\":").append(requisicoes.get())
+                    .append(",\"pdfs\":").append(pdfsGerados.get())
+                    .append(",\"jsons\":").append(jsonsGerados.get())
+                    .append(",\"recusadas\":").append(recusadas.get())
+                    .append(",\"invalidas\":").append(invalidas.get())
+                    .append(",\"erros\":").append(erros.get())
+                    .append(",\"pdfsEmAndamento\":").append(maximoPdfs - vagasPdf.availablePermits())
+                    .append(",\"maximoPdfs\":").append(maximoPdfs);
+            if (cache != null) {
+                EstatisticasCachePDF e = cache.getEstatisticas();
+                sb.append(",\"cache\":{\"acertosMemoria\":").append(e.getAcertosMemoria())
+                        .append(",\"acertosDisco\":").append(e.getAcertosDisco())
+                        .append(",\"faltas\":").append(e.getFaltas())
+                        .append(",\"bytesMemoria\":").append(e.getBytesMemoria())
+                        .append(",\"bytesDisco\":").append(e.getBytesDisco())
+                        .append('}');
+            }
+            sb.append('}');
+            responderJson(troca, 200, sb.toString());
+        }
+    }
+
+    // Resposta JSON com os dados calculados do boleto (sem o PDF)
+    private static String json(EntradaBoleto entrada, Boleto boleto) {
+        StringBuilder sb = new StringBuilder(384).append('{');
+        if (entrada.getIdentificador() != null) {
+            sb.append("\"identificador\":");
+            Json.escreverTexto(sb, entrada.getIdentificador());
+            sb.append(',');
+        }
+        sb.append("\"codigoBanco\":");
+        Json.escreverTexto(sb, boleto.getBanco().getCodigoBanco());
+        sb.append(",\"nossoNumero\":");
+        Json.escreverTexto(sb, boleto.getNossoNumero());
+        sb.append(",\"codigoBarras\":");
+        Json.escreverTexto(sb, boleto.getCodigoBarras());
+        sb.append(",\"linhaDigitavel\":");
+        Json.escreverTexto(sb, boleto.getLinhaDigitavel());
+        sb.append(",\"linhaDigitavelFormatada\":");
+        Json.escreverTexto(sb, boleto.formatarLinhaDigitavel(boleto.getLinhaDigitavel()));
+        sb.append(",\"valor\":").append(boleto.getValor().toPlainString());
+        sb.append(",\"dataVencimento\":");
+        Json.escreverTexto(sb, boleto.getDataVencimento().toString());
+        return sb.append('}').toString();
+    }
+
+    private static boolean querJson(HttpExchange troca) {
+        String consulta = troca.getRequestURI().getRawQuery();
+        if (consulta != null) {
+            for (String parametro : consulta.split("&")) {
+                if (parametro.equals("formato=json")) return true;
+                if (parametro.equals("formato=pdf")) return false;
+            }
+        }
+        String aceita = troca.getRequestHeaders().getFirst("Accept");
+        return aceita != null && aceita.contains("application/json") && !aceita.contains("application/pdf");
+    }
+
+    // Corpo inteiro (precisa ser lido até o fim para a conexão ser reaproveitada); null assim que passar do limite,
+    // sem ler o restante (a conexão é fechada com o 413)
+    private static byte[] lerCorpo(InputStream corpo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(1024);
+        byte[] b = new byte[8192];
+        int lidos;
+        while ((lidos = corpo.read(b)) > 0) {
+            if (saida.size() + lidos > TAMANHO_MAXIMO_CORPO) {
+                return null;
+            }
+            saida.write(b, 0, lidos);
+        }
+        return saida.toByteArray();
+    }
+
+    private void responderErro(HttpExchange troca, int status, String mensagem) throws IOException {
+        // 503 é recusa por carga, já contada em 'recusadas' por reservarVagaPdf (não é erro do servidor)
+        if (status < 500) invalidas.incrementAndGet();
+        else if (status != 503) erros.incrementAndGet();
+        StringBuilder sb = new StringBuilder("{\"erro\":");
+        Json.escreverTexto(sb, mensagem != null ? mensagem : "Erro sem mensagem");
+        responderJson(troca, status, sb.append('}').toString());
+    }
+
+    private void responderErroInterno(HttpExchange troca, Exception e) {
+        try {
+            if (troca.getResponseCode() == -1) { // Cabeçalhos ainda não enviados
+                responderErro(troca, 500, "Erro interno: " + e.getMessage());
+            } else {
+                erros.incrementAndGet();
+            }
+        } catch (IOException ignorada) {
+            // Cliente já desconectou
+        }
+    }
+
+    private static void responderJson(HttpExchange troca, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", TIPO_JSON);
+        troca.sendResponseHeaders(status, bytes.length);
+        troca.getResponseBody().write(bytes);
+    }
+}
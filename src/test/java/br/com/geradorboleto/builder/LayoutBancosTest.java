@@ -0,0 +1,84 @@
+package br.com.geradorboleto.builder;
+
+import br.com.geradorboleto.model.Boleto;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Código de barras, linha digitável e nosso número de referência de cada banco do catálogo (layout/bancos.properties).
+// Os valores esperados foram calculados fora do projeto, a partir das regras de cada banco (campo livre, DVs Módulo 10/11,
+// fator de vencimento e DV geral), para R$ 1.234,56 com vencimento em 15/01/2026 (fator 1327, na regra nova).
+class LayoutBancosTest {
+
+    @ParameterizedTest(name = "banco {0}")
+    @CsvSource(delimiter = '|', value = {
+            // banco | agência | conta | carteira | convênio | nosso número | código de barras | linha digitável | nosso número exibido
+            "001|1234|12345678|17|1234567|12345|00199132700001234560000001234567000001234517|00190000090123456700400012345179913270000123456|12345670000012345",
+            "341|0057|12345|109||12345678|34194132700001234561091234567810057123457000|34191091233456781005571234570001413270000123456|109/12345678-1",
+            "237|1234|0012345|09||12345|23791132700001234561234090000001234500123450|23791234059000000123145001234504113270000123456|09/00000012345-8",
+            "104|1234||14|123456|12345|10497132700001234561234560000100040000123450|10491234566000010004400001234509713270000123456|14000000000012345-0",
+            "033|1234||101|1234567|12345|03397132700001234569123456700000001234550101|03399123475670000000512345501014713270000123456|000000012345-5",
+            "756|4321||1|7654321|12345|75692132700001234561432101765432100123452001|75691432120176543210701234520011213270000123456|0012345-2",
+            "748|123456||1|12345|26212345|74891132700001234561126212345512345612345105|74891126281234551234256123451058113270000123456|26/212345-5",
+    })
+    void geraCodigoBarrasDeReferencia(String banco, String agencia, String conta, String carteira, String convenio,
+                                      String nossoNumero, String codigoBarras, String linhaDigitavel, String nossoNumeroExibido) {
+        Boleto boleto = BoletoBuilderFactory.criar(banco)
+                .comBeneficiario("Empresa Exemplo Ltda", "12.345.678/0001-95", "Rua A, 1", "Centro", "01001-000", "São Paulo", "SP")
+                .comSacado("Fulano de Tal", "123.456.789-09", "Rua B, 2", "Centro", "20000-000", "Rio de Janeiro", "RJ")
+                .comBanco(agencia, conta, carteira)
+                .comConvenio(convenio)
+                .comDatas(LocalDate.of(2026, 1, 15), LocalDate.of(2026, 1, 2))
+                .comValores(new BigDecimal("1234.56"), "DOC-1", nossoNumero)
+                .build();
+
+        assertEquals(codigoBarras, boleto.getCodigoBarras());
+        assertEquals(linhaDigitavel, boleto.getLinhaDigitavel().replaceAll("[^0-9]", ""));
+        assertEquals(nossoNumeroExibido, boleto.getNossoNumero());
+    }
+
+    // Nosso número maior que o layout ou com caracteres não numéricos: recusado, nunca cortado
+    @ParameterizedTest(name = "banco {0}, nosso número {5}")
+    @CsvSource(delimiter = '|', value = {
+            // banco | agência | conta | carteira | convênio | nosso número
+            "341|0057|12345|109||123456789",
+            "341|0057|12345|109||223456789",
+            "341|0057|12345|109||ab12345678",
+            "341|0057|12345|109||1234567x",
+            "237|1234|0012345|09||123456789012",
+            "001|1234|12345678|17|1234567|12345678901",
+    })
+    void recusaNossoNumeroInvalido(String banco, String agencia, String conta, String carteira, String convenio, String nossoNumero) {
+        assertThrows(IllegalArgumentException.class, construtor(banco, agencia, conta, carteira, convenio, nossoNumero)::build);
+    }
+
+    // Campos fixos maiores que a largura do layout (nunca truncados) e convênio BB fora dos 7 dígitos (nunca completado)
+    @ParameterizedTest(name = "banco {0}: agência {1}, conta {2}, carteira {3}, convênio {4}")
+    @CsvSource(delimiter = '|', value = {
+            "237|1234|12345678|09||12345",
+            "237|12345|0012345|09||12345",
+            "237|1234|0012345|109||12345",
+            "001|1234|12345678|17|123456|12345",
+            "001|1234|12345678|17|12345678|12345",
+            "001|1234|12345678|17||12345",
+            "104|1234||14|1234567|12345",
+    })
+    void recusaCampoForaDaLargura(String banco, String agencia, String conta, String carteira, String convenio, String nossoNumero) {
+        assertThrows(IllegalArgumentException.class, construtor(banco, agencia, conta, carteira, convenio, nossoNumero)::build);
+    }
+
+    private static BoletoBuilder construtor(String banco, String agencia, String conta, String carteira, String convenio, String nossoNumero) {
+        return BoletoBuilderFactory.criar(banco)
+                .comBeneficiario("Empresa Exemplo Ltda", "12.345.678/0001-95", "Rua A, 1", "Centro", "01001-000", "São Paulo", "SP")
+                .comSacado("Fulano de Tal", "123.456.789-09", "Rua B, 2", "Centro", "20000-000", "Rio de Janeiro", "RJ")
+                .comBanco(agencia, conta, carteira)
+                .comConvenio(convenio)
+                .comDatas(LocalDate.of(2026, 1, 15), LocalDate.of(2026, 1, 2))
+                .comValores(new BigDecimal("1234.56"), "DOC-1", nossoNumero);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.geradorboleto.builder;
+
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// O modelo é compartilhado entre threads: alterar o Banco/Pessoa de um boleto emitido (ou devolvido pelos getters)
+// não pode mudar o modelo nem os outros boletos.
+class ModeloEmissaoTest {
+
+    private static final Pessoa SACADO = new Pessoa("Fulano de Tal", "123.456.789-09",
+            new Endereco("Rua B, 2", "Centro", "20000-000", "Rio de Janeiro", "RJ"));
+
+    @Test
+    void alteracoesFeitasForaNaoAfetamOModelo() {
+        Pessoa beneficiario = new Pessoa("Empresa Exemplo Ltda", "12.345.678/0001-95",
+                new Endereco("Rua A, 1", "Centro", "01001-000", "São Paulo", "SP"));
+        ModeloEmissao modelo = ModeloEmissao.itau(beneficiario, "0057", "12345", "109");
+        beneficiario.setNome("Alterado depois");
+
+        Boleto primeiro = emitir(modelo);
+        primeiro.getBanco().setCarteira("999");
+        primeiro.getBeneficiario().getEndereco().setCidade("Outra");
+        modelo.getBanco().setAgencia("9999");
+        modelo.getBeneficiario().setDocumento("00.000.000/0000-00");
+
+        Boleto segundo = emitir(modelo);
+        assertEquals("109", segundo.getBanco().getCarteira());
+        assertEquals("0057", segundo.getBanco().getAgencia());
+        assertEquals("Empresa Exemplo Ltda", segundo.getBeneficiario().getNome());
+        assertEquals("12.345.678/0001-95", segundo.getBeneficiario().getDocumento());
+        assertEquals("São Paulo", segundo.getBeneficiario().getEndereco().getCidade());
+        assertEquals("109", modelo.getBanco().getCarteira());
+    }
+
+    private static Boleto emitir(ModeloEmissao modelo) {
+        return modelo.emitir(SACADO, new BigDecimal("1234.56"), LocalDate.of(2026, 1, 15), LocalDate.of(2026, 1, 2),
+                "DOC-1", "12345678", null);
+    }
+}
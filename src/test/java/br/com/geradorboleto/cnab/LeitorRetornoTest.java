@@ -0,0 +1,90 @@
+package br.com.geradorboleto.cnab;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Retorno CNAB 240 montado campo a campo pelas posições do layout FEBRABAN (1-based, como no manual)
+class LeitorRetornoTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void leCamposDosSegmentosTeU() throws IOException {
+        List<String> linhas = new ArrayList<>();
+        linhas.add(registro().campo(1, "341").campo(4, "0000").campo(8, "0").campo(143, "2").texto());
+        linhas.add(registro().campo(1, "341").campo(4, "0001").campo(8, "1").texto());
+        linhas.add(segmentoT(1, "109123456781", "06", 123456));
+        linhas.add(segmentoU(2, 123000, "20012026", "21012026"));
+        linhas.add(segmentoT(3, "109876543210", "02", 5000));
+        linhas.add(segmentoU(4, 0, "22012026", "00000000"));
+        linhas.add(registro().campo(1, "341").campo(4, "0001").campo(8, "5").texto());
+        linhas.add(registro().campo(1, "341").campo(4, "9999").campo(8, "9").texto());
+        Path arquivo = diretorio.resolve("retorno.ret");
+        Files.writeString(arquivo, String.join("\r\n", linhas) + "\r\n", StandardCharsets.US_ASCII);
+
+        List<String> lidos = new ArrayList<>();
+        ResumoRetorno resumo;
+        try (LeitorRetorno leitor = LeitorRetorno.abrir(arquivo)) {
+            assertEquals("341", leitor.getCodigoBanco());
+            assertEquals(240, leitor.getTamanhoRegistro());
+            assertEquals(8, leitor.getQuantidadeRegistros());
+            resumo = leitor.processar(r -> lidos.add(r.getNossoNumero() + "|" + r.getCodigoOcorrencia() + "|"
+                    + r.getValorTituloCentavos() + "|" + r.getValorPagoCentavos() + "|" + r.getDataOcorrencia() + "|" + r.getDataCredito()));
+        }
+        assertEquals(List.of(
+                "109123456781|6|123456|123000|" + LocalDate.of(2026, 1, 20) + "|" + LocalDate.of(2026, 1, 21),
+                "109876543210|2|5000|0|" + LocalDate.of(2026, 1, 22) + "|null"), lidos);
+        assertEquals(2, resumo.getTitulos());
+        assertEquals(123000, resumo.getValorPagoCentavos());
+    }
+
+    // Nosso número 38-57, código de movimento 16-17, valor do título 82-96
+    private static String segmentoT(int sequencial, String nossoNumero, String ocorrencia, long valorTitulo) {
+        return detalhe(sequencial, "T").campo(16, ocorrencia).campo(38, nossoNumero)
+                .campo(82, String.format("%015d", valorTitulo)).texto();
+    }
+
+    // Valor pago 78-92, data da ocorrência 138-145, data do crédito 146-153 (DDMMAAAA)
+    private static String segmentoU(int sequencial, long valorPago, String dataOcorrencia, String dataCredito) {
+        return detalhe(sequencial, "U").campo(78, String.format("%015d", valorPago))
+                .campo(138, dataOcorrencia).campo(146, dataCredito).texto();
+    }
+
+    private static Registro detalhe(int sequencial, String segmento) {
+        return registro().campo(1, "341").campo(4, "0001").campo(8, "3")
+                .campo(9, String.format("%05d", sequencial)).campo(14, segmento);
+    }
+
+    private static Registro registro() {
+        return new Registro();
+    }
+
+    private static final class Registro {
+        private final char[] posicoes = new char[240];
+
+        Registro() {
+            Arrays.fill(posicoes, ' ');
+        }
+
+        Registro campo(int posicao, String valor) {
+            valor.getChars(0, valor.length(), posicoes, posicao - 1);
+            return this;
+        }
+
+        String texto() {
+            return new String(posicoes);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.geradorboleto.cnab;
+
+import br.com.geradorboleto.builder.ModeloEmissao;
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Posições (1-based, como no manual FEBRABAN) dos registros da remessa CNAB 240
+class RemessaCnab240Test {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void gravaSegmentosPeQNasPosicoesDoLayout() throws IOException {
+        Pessoa beneficiario = new Pessoa("Empresa Exemplo Ltda", "12.345.678/0001-95",
+                new Endereco("Rua A, 1", "Centro", "01001-000", "São Paulo", "SP"));
+        Pessoa sacado = new Pessoa("José da Silva", "123.456.789-09",
+                new Endereco("Rua B, 2", "Centro", "20000-000", "Rio de Janeiro", "RJ"));
+        ModeloEmissao modelo = ModeloEmissao.itau(beneficiario, "0057", "12345", "109");
+        Boleto boleto = modelo.emitir(sacado, new BigDecimal("1234.56"), LocalDate.of(2026, 1, 15),
+                LocalDate.of(2026, 1, 2), "DOC-1", "12345678", null);
+
+        Path arquivo = diretorio.resolve("remessa.rem");
+        DadosRemessa dados = new DadosRemessa(modelo.getBanco(), beneficiario, "", 7, LocalDateTime.of(2026, 1, 2, 10, 30, 15));
+        try (EscritorRemessa remessa = EscritorRemessa.cnab240(arquivo, dados)) {
+            remessa.escrever(boleto);
+        }
+
+        List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.US_ASCII);
+        assertEquals(6, linhas.size()); // Header de arquivo e de lote, P, Q, trailer de lote e de arquivo
+        for (String linha : linhas) {
+            assertEquals(240, linha.length());
+        }
+
+        String header = linhas.get(0);
+        assertEquals("34100000", campo(header, 1, 8));
+        assertEquals("212345678000195", campo(header, 18, 32));
+        assertEquals("1", campo(header, 143, 143));
+        assertEquals("02012026103015000007", campo(header, 144, 163));
+
+        String p = linhas.get(2);
+        assertEquals("3410001300001P 01", campo(p, 1, 17));
+        assertEquals("109123456781        ", campo(p, 38, 57));
+        assertEquals("DOC-1          ", campo(p, 63, 77));
+        assertEquals("15012026", campo(p, 78, 85));
+        assertEquals("000000000123456", campo(p, 86, 100));
+        assertEquals("02012026", campo(p, 110, 117));
+
+        String q = linhas.get(3);
+        assertEquals("3410001300002Q 01", campo(q, 1, 17));
+        assertEquals("1000012345678909", campo(q, 18, 33));
+        assertEquals("JOSE DA SILVA", campo(q, 34, 73).trim());
+        assertEquals("20000000", campo(q, 129, 136));
+        assertEquals("RJ", campo(q, 152, 153));
+
+        String trailerLote = linhas.get(4);
+        assertEquals("34100015", campo(trailerLote, 1, 8));
+        assertEquals("000004000001", campo(trailerLote, 18, 29));
+        assertEquals("00000000000123456", campo(trailerLote, 30, 46));
+
+        String trailerArquivo = linhas.get(5);
+        assertEquals("34199999", campo(trailerArquivo, 1, 8));
+        assertEquals("000001000006", campo(trailerArquivo, 18, 29));
+    }
+
+    private static String campo(String linha, int de, int ate) {
+        return linha.substring(de - 1, ate);
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.geradorboleto.diario;
+
+import br.com.geradorboleto.builder.ModeloEmissao;
+import br.com.geradorboleto.model.Boleto;
+import br.com.geradorboleto.model.Endereco;
+import br.com.geradorboleto.model.Pessoa;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Recuperação do diário depois de quedas simuladas: cauda rasgada, segmento novo sem cabeçalho e sobra de rolagem
+class DiarioBoletosTest {
+
+    private static final int TAMANHO_SEGMENTO = 4096; // ~50 boletos por segmento
+
+    private static final ModeloEmissao MODELO = ModeloEmissao.itau(
+            new Pessoa("Empresa Exemplo Ltda", "12.345.678/0001-95", new Endereco("Rua A, 1", "Centro", "01001-000", "São Paulo", "SP")),
+            "0057", "12345", "109");
+    private static final Pessoa SACADO = new Pessoa("Fulano de Tal", "123.456.789-09",
+            new Endereco("Rua B, 2", "Centro", "20000-000", "Rio de Janeiro", "RJ"));
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void descartaRegistroIncompletoNoFim() throws IOException {
+        registrar(1, 10);
+        Path segmento = SegmentoDiario.arquivo(diretorio, 1);
+        rasgarCauda(segmento, 12); // O último registro perde os 12 bytes finais
+
+        try (DiarioBoletos diario = new DiarioBoletos(diretorio, TAMANHO_SEGMENTO)) {
+            assertEquals(9, diario.getQuantidadeBoletos());
+            assertEquals(10, diario.registrar(boleto(10)));
+        }
+        assertEquals(sequenciaDeNossosNumeros(1, 10), lerNossosNumeros());
+    }
+
+    @Test
+    void recriaUltimoSegmentoSemCabecalho() throws IOException {
+        registrar(1, 120); // Três segmentos
+        Path ultimo = SegmentoDiario.arquivo(diretorio, 3);
+        long primeiraDoUltimo;
+        try (FileChannel c = FileChannel.open(ultimo, StandardOpenOption.READ)) {
+            primeiraDoUltimo = c.map(FileChannel.MapMode.READ_ONLY, 0, SegmentoDiario.TAMANHO_CABECALHO).getLong(16);
+        }
+        // Rolagem interrompida: o arquivo do segmento 3 existe, do tamanho certo, mas todo zerado
+        Files.write(ultimo, new byte[TAMANHO_SEGMENTO]);
+
+        try (DiarioBoletos diario = new DiarioBoletos(diretorio, TAMANHO_SEGMENTO)) {
+            assertEquals(primeiraDoUltimo - 1, diario.getQuantidadeBoletos());
+            assertEquals(3, diario.getNumeroSegmento());
+            for (int i = (int) primeiraDoUltimo; i <= 120; i++) {
+                diario.registrar(boleto(i));
+            }
+        }
+        assertEquals(sequenciaDeNossosNumeros(1, 120), lerNossosNumeros());
+    }
+
+    @Test
+    void recriaSegmentoTruncadoParaZeroBytes() throws IOException {
+        registrar(1, 5);
+        Files.write(SegmentoDiario.arquivo(diretorio, 2), new byte[0]); // Criado e nunca crescido
+
+        try (DiarioBoletos diario = new DiarioBoletos(diretorio, TAMANHO_SEGMENTO)) {
+            assertEquals(5, diario.getQuantidadeBoletos());
+            assertEquals(6, diario.registrar(boleto(6)));
+        }
+        assertEquals(TAMANHO_SEGMENTO, Files.size(SegmentoDiario.arquivo(diretorio, 2)));
+        assertEquals(sequenciaDeNossosNumeros(1, 6), lerNossosNumeros());
+    }
+
+    @Test
+    void rolagemIgnoraTemporarioDeTentativaAnterior() throws IOException {
+        Path sobra = diretorio.resolve(SegmentoDiario.arquivo(diretorio, 2).getFileName() + ".tmp");
+        Files.createDirectories(diretorio);
+        Files.write(sobra, new byte[]{1, 2, 3});
+
+        registrar(1, 80); // Passa do primeiro segmento
+        assertTrue(Files.notExists(sobra));
+        assertEquals(sequenciaDeNossosNumeros(1, 80), lerNossosNumeros());
+    }
+
+    private void registrar(int de, int ate) throws IOException {
+        try (DiarioBoletos diario = new DiarioBoletos(diretorio, TAMANHO_SEGMENTO)) {
+            for (int i = de; i <= ate; i++) {
+                diario.acrescentar(boleto(i));
+            }
+            diario.sincronizar();
+        }
+    }
+
+    private List<String> lerNossosNumeros() throws IOException {
+        List<String> nossosNumeros = new ArrayList<>();
+        DiarioBoletos.ler(diretorio, r -> nossosNumeros.add(r.getNossoNumero()));
+        return nossosNumeros;
+    }
+
+    private static List<String> sequenciaDeNossosNumeros(int de, int ate) {
+        List<String> esperados = new ArrayList<>();
+        for (int i = de; i <= ate; i++) {
+            esperados.add(boleto(i).getNossoNumero());
+        }
+        return esperados;
+    }
+
+    private static Boleto boleto(int i) {
+        return MODELO.emitir(SACADO, new BigDecimal("10.00").add(BigDecimal.valueOf(i)), LocalDate.of(2026, 1, 15),
+                LocalDate.of(2026, 1, 2), "DOC-" + i, String.valueOf(i), null);
+    }
+
+    // Zera os 'bytes' últimos bytes gravados do segmento, como uma gravação que não chegou inteira ao disco
+    private static void rasgarCauda(Path segmento, int bytes) throws IOException {
+        try (FileChannel c = FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer dados = c.map(FileChannel.MapMode.READ_WRITE, 0, c.size());
+            int fim = SegmentoDiario.fimDosDados(dados, SegmentoDiario.TAMANHO_CABECALHO);
+            for (int i = fim - bytes; i < fim; i++) {
+                dados.put(i, (byte) 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.geradorboleto.leitura;
+
+import br.com.geradorboleto.calculos.MontadorCodigoBarras;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LeitorLinhaDigitavelTest {
+
+    // Itaú de referência (ver LayoutBancosTest)
+    private static final String LINHA = "34191091233456781005571234570001413270000123456";
+    private static final String CODIGO_BARRAS = "34194132700001234561091234567810057123457000";
+
+    @Test
+    void leLinhaDeReferencia() {
+        LinhaDigitavelDecodificada d = LeitorLinhaDigitavel.ler(LINHA);
+        assertEquals(CODIGO_BARRAS, d.getCodigoBarras());
+        assertEquals("341", d.getCodigoBanco());
+        assertEquals(1327, d.getFatorVencimento());
+        assertEquals(123456, d.getValorCentavos());
+        assertEquals("1091234567810057123457000", d.getCampoLivre());
+        assertEquals(LocalDate.of(2026, 1, 15), d.getDataVencimento(LocalDate.of(2026, 1, 1)));
+    }
+
+    @Test
+    void aceitaPontuacao() {
+        String formatada = LINHA.substring(0, 5) + "." + LINHA.substring(5, 10) + " " + LINHA.substring(10, 15) + "."
+                + LINHA.substring(15, 21) + " " + LINHA.substring(21, 26) + "." + LINHA.substring(26, 32) + " "
+                + LINHA.charAt(32) + " " + LINHA.substring(33);
+        assertEquals(CODIGO_BARRAS, LeitorLinhaDigitavel.ler(formatada).getCodigoBarras());
+    }
+
+    // Ida e volta com o MontadorCodigoBarras: linha -> código de barras e código de barras -> linha
+    @Test
+    void idaEVoltaComMontador() {
+        Random aleatorio = new Random(42);
+        MontadorCodigoBarras montador = new MontadorCodigoBarras();
+        char[] campoLivre = new char[25];
+        for (int n = 0; n < 10_000; n++) {
+            for (int i = 0; i < campoLivre.length; i++) campoLivre[i] = (char) ('0' + aleatorio.nextInt(10));
+            String banco = String.format("%03d", aleatorio.nextInt(1000));
+            String fator = String.format("%04d", 1000 + aleatorio.nextInt(9000));
+            long centavos = (long) (aleatorio.nextDouble() * 9_999_999_999L);
+            montador.montar(banco, fator, centavos, new String(campoLivre));
+
+            LinhaDigitavelDecodificada d = LeitorLinhaDigitavel.ler(montador.getLinhaDigitavel());
+            assertEquals(montador.getCodigoBarras(), d.getCodigoBarras());
+            assertEquals(Integer.parseInt(fator), d.getFatorVencimento());
+            assertEquals(centavos, d.getValorCentavos());
+            assertEquals(montador.getLinhaDigitavel(), LeitorLinhaDigitavel.lerCodigoBarras(montador.getCodigoBarras()).getLinhaDigitavel());
+        }
+    }
+
+    @Test
+    void apontaOCampoComDvErrado() {
+        assertEquals(ResultadoValidacao.VALIDA, LeitorLinhaDigitavel.validar(LINHA));
+        assertEquals(ResultadoValidacao.DV_CAMPO1, LeitorLinhaDigitavel.validar(trocar(LINHA, 9)));
+        assertEquals(ResultadoValidacao.DV_CAMPO2, LeitorLinhaDigitavel.validar(trocar(LINHA, 20)));
+        assertEquals(ResultadoValidacao.DV_CAMPO3, LeitorLinhaDigitavel.validar(trocar(LINHA, 31)));
+        assertEquals(ResultadoValidacao.DV_GERAL, LeitorLinhaDigitavel.validar(trocar(LINHA, 40)));
+        assertEquals(ResultadoValidacao.TAMANHO_INVALIDO, LeitorLinhaDigitavel.validar(LINHA.substring(1)));
+        assertThrows(IllegalArgumentException.class, () -> LeitorLinhaDigitavel.ler(trocar(LINHA, 40)));
+        assertThrows(IllegalArgumentException.class, () -> LeitorLinhaDigitavel.lerCodigoBarras(trocar(CODIGO_BARRAS, 4)));
+    }
+
+    @Test
+    void validaEmLote() {
+        byte[] dados = (LINHA + trocar(LINHA, 20) + LINHA).getBytes(StandardCharsets.US_ASCII);
+        byte[] resultados = new byte[3];
+        assertEquals(2, LeitorLinhaDigitavel.validarEmLote(dados, 0, 3, resultados));
+        assertEquals(ResultadoValidacao.VALIDA, ResultadoValidacao.deCodigo(resultados[0]));
+        assertEquals(ResultadoValidacao.DV_CAMPO2, ResultadoValidacao.deCodigo(resultados[1]));
+    }
+
+    // Troca um dígito por outro (o DV do trecho deixa de conferir)
+    private static String trocar(String s, int posicao) {
+        char c = s.charAt(posicao);
+        return s.substring(0, posicao) + (char) (c == '9' ? '0' : c + 1) + s.substring(posicao + 1);
+    }
+}
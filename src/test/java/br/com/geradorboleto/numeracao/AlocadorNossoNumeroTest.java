@@ -0,0 +1,43 @@
+package br.com.geradorboleto.numeracao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AlocadorNossoNumeroTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void continuaDepoisDoUltimoBlocoReservado() throws IOException {
+        Path arquivo = diretorio.resolve("seq.seq");
+        try (AlocadorNossoNumero a = new AlocadorNossoNumero(arquivo, 8, 1, 10)) {
+            assertEquals(1, a.proximo());
+            assertEquals(2, a.proximo());
+        }
+        try (AlocadorNossoNumero a = new AlocadorNossoNumero(arquivo, 8, 1, 10)) {
+            assertEquals(11, a.proximo()); // 3..10 reservados e descartados, nunca reemitidos
+            assertEquals("00000012", a.proximoFormatado());
+        }
+    }
+
+    @Test
+    void recusaSegundaAberturaDaMesmaSequencia() throws IOException {
+        Path arquivo = diretorio.resolve("seq.seq");
+        try (AlocadorNossoNumero a = new AlocadorNossoNumero(arquivo, 8, 1, 10)) {
+            a.proximo();
+            assertThrows(IllegalStateException.class, () -> new AlocadorNossoNumero(arquivo, 8, 1, 10));
+            assertThrows(IllegalStateException.class, () -> new AlocadorNossoNumero(diretorio.resolve("x/../seq.seq"), 8, 1, 10));
+            assertEquals(2, a.proximo()); // A tentativa recusada não liberou o lock nem o arquivo
+        }
+        try (AlocadorNossoNumero a = new AlocadorNossoNumero(arquivo, 8, 1, 10)) {
+            assertEquals(11, a.proximo());
+        }
+    }
+}